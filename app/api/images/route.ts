@@ -4,12 +4,14 @@ export const dynamic = 'force-dynamic'
 
 const BACKEND_BASE_URL = process.env.NEXT_PUBLIC_BACKEND_URL || 'http://localhost:8080/api'
 
-// GET /api/images?transformer_id=... -> list images (optionally by transformer)
+// GET /api/images?transformer_id=...&page=...&limit=... -> one page of images (optionally by transformer)
 export async function GET(req: NextRequest) {
   const { searchParams } = new URL(req.url)
   const transformerId = searchParams.get('transformer_id')
   const inspectionId = searchParams.get('inspection_id')
   const imageType = searchParams.get('image_type')
+  const page = searchParams.get('page')
+  const limit = searchParams.get('limit')
 
   try {
     // Try to fetch from Spring Boot backend first
@@ -19,6 +21,8 @@ export async function GET(req: NextRequest) {
     if (transformerId) params.append('transformerId', transformerId)
     if (inspectionId) params.append('inspectionId', inspectionId)
     if (imageType) params.append('imageType', imageType)
+    if (page) params.append('page', page)
+    if (limit) params.append('limit', limit)
     
     if (params.toString()) {
       backendUrl += '?' + params.toString()
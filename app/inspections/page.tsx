@@ -8,7 +8,7 @@ import { Input } from '@/components/ui/input'
 import { Select, SelectContent, SelectItem, SelectTrigger, SelectValue } from '@/components/ui/select'
 import { Badge } from '@/components/ui/badge'
 import { DataTable } from '@/components/ui/data-table'
-import backendApi, { type BackendInspection, type BackendTransformer } from '@/lib/backend-api'
+import backendApi, { type BackendInspection, type BackendInspectionSummary, type BackendTransformer } from '@/lib/backend-api'
 
 // Type aliases for compatibility
 type DbInspection = BackendInspection
@@ -80,11 +80,55 @@ const DEMO_INSPECTIONS: Row[] = [
   }
 ]
 
+// Inspection list rows fetched per page from /inspections/summary
+const PAGE_SIZE = 50
+
+// Helper to format dates safely
+const formatDate = (dateValue: any): string => {
+  if (!dateValue) return '—'
+  try {
+    // Handle truncated ISO format (e.g., "2025-10-03T19:13" -> "2025-10-03T19:13:00")
+    let dateStr = String(dateValue)
+    // If it's a truncated ISO format (ends with T + time without seconds), add :00
+    if (/^\d{4}-\d{2}-\d{2}T\d{2}:\d{2}$/.test(dateStr)) {
+      dateStr += ':00'
+    }
+
+    const date = new Date(dateStr)
+    if (isNaN(date.getTime())) {
+      console.warn('Invalid date value:', dateValue)
+      return '—'
+    }
+    return date.toLocaleString('en-US', { 
+      month: 'short', 
+      day: 'numeric', 
+      year: 'numeric',
+      hour: '2-digit',
+      minute: '2-digit'
+    })
+  } catch (e) {
+    console.error('Date parsing error:', e, 'for value:', dateValue)
+    return '—'
+  }
+}
+
+// Summary rows already carry the transformer code, so no per-row lookups are needed
+const toRow = (s: BackendInspectionSummary): Row => ({
+  id: s.id,
+  transformerId: s.transformerCode || s.transformerId,
+  inspectionNo: s.inspectionNo || '—',
+  inspectedDate: formatDate(s.inspectedAt),
+  maintenanceDate: formatDate(s.maintenanceDate),
+  status: s.status,
+})
+
 export default function InspectionsPage() {
   const router = useRouter()
   const searchParams = useSearchParams()
   const [rows, setRows] = useState<Row[]>([])
-  const [transformerMap, setTransformerMap] = useState<Map<string, DbTransformer>>(new Map())
+  const [nextPage, setNextPage] = useState(0)
+  const [hasMore, setHasMore] = useState(false)
+  const [loadingMore, setLoadingMore] = useState(false)
   const [transformers, setTransformers] = useState<DbTransformer[]>([])
   const [loading, setLoading] = useState(true)
   const [search, setSearch] = useState('')
@@ -101,6 +145,34 @@ export default function InspectionsPage() {
   const [deleteDialogOpen, setDeleteDialogOpen] = useState(false)
   const [deleteTargetId, setDeleteTargetId] = useState<string | null>(null)
 
+  // Load the first page of inspections from the backend, followed by the demo rows
+  const reloadRows = async (demoRows: Row[] = DEMO_INSPECTIONS) => {
+    const summaries = await backendApi.inspections.getSummaries(0, PAGE_SIZE)
+    console.log('📊 Loaded inspection summaries:', summaries.length)
+    setRows([...summaries.map(toRow), ...demoRows])
+    setNextPage(1)
+    setHasMore(summaries.length === PAGE_SIZE)
+  }
+
+  // Append the next page of inspections before the demo rows
+  const loadMore = async () => {
+    setLoadingMore(true)
+    try {
+      const summaries = await backendApi.inspections.getSummaries(nextPage, PAGE_SIZE)
+      setRows((current) => [
+        ...current.filter((r) => !r.id.startsWith('demo-')),
+        ...summaries.map(toRow),
+        ...current.filter((r) => r.id.startsWith('demo-')),
+      ])
+      setNextPage(nextPage + 1)
+      setHasMore(summaries.length === PAGE_SIZE)
+    } catch (e) {
+      console.error('❌ Failed to load more inspections:', e)
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   useEffect(() => {
     const load = async () => {
       try {
@@ -117,70 +189,12 @@ export default function InspectionsPage() {
           return
         }
         
-        const [ins, transformers] = await Promise.all([
-          backendApi.inspections.getAll(),
+        const [transformers] = await Promise.all([
           backendApi.transformers.getAll(),
+          reloadRows(),
         ])
-        console.log('Backend returned:', { inspections: ins.length, transformers: transformers.length })
-        
-        const tMap = new Map<string, DbTransformer>()
-        transformers.forEach((t) => tMap.set(t.id, t))
-        setTransformerMap(tMap)
+        console.log('Backend returned:', { transformers: transformers.length })
         setTransformers(transformers)
-        
-        // Sort by inspectedAt descending (most recent first) - backend should already sort, but ensure consistency
-        const sortedIns = [...ins].sort((a, b) => {
-          const dateA = new Date(a.inspectedAt).getTime()
-          const dateB = new Date(b.inspectedAt).getTime()
-          return dateB - dateA // Descending order
-        })
-        
-        const mapped: Row[] = sortedIns.map((i) => {
-          // Helper to format dates safely
-          const formatDate = (dateValue: any): string => {
-            if (!dateValue) return '—'
-            try {
-              // Handle truncated ISO format (e.g., "2025-10-03T19:13" -> "2025-10-03T19:13:00")
-              let dateStr = String(dateValue)
-              // If it's a truncated ISO format (ends with T + time without seconds), add :00
-              if (/^\d{4}-\d{2}-\d{2}T\d{2}:\d{2}$/.test(dateStr)) {
-                dateStr += ':00'
-              }
-              
-              const date = new Date(dateStr)
-              if (isNaN(date.getTime())) {
-                console.warn('Invalid date value:', dateValue)
-                return '—'
-              }
-              return date.toLocaleString('en-US', { 
-                month: 'short', 
-                day: 'numeric', 
-                year: 'numeric',
-                hour: '2-digit',
-                minute: '2-digit'
-              })
-            } catch (e) {
-              console.error('Date parsing error:', e, 'for value:', dateValue)
-              return '—'
-            }
-          }
-
-          return {
-            id: i.id,
-            transformerId: i.transformer?.id ? (tMap.get(i.transformer.id)?.code || i.transformer.id) : 'Unknown',
-            inspectionNo: i.inspectionNo || '—',
-            inspectedDate: formatDate(i.inspectedAt),
-            maintenanceDate: formatDate(i.maintenanceDate),
-            status: i.status,
-          }
-        })
-
-        console.log('📊 Mapped inspections from backend:', mapped)
-
-        // Add some demo data to show maintenance dates functionality
-        const allRows = [...mapped, ...DEMO_INSPECTIONS]
-        console.log('📊 Total rows (backend + demo):', allRows.length)
-        setRows(allRows)
 
         // If a transformer is passed via query, preselect it and open the Add dialog
         const qpId = searchParams.get('transformer_id') || ''
@@ -318,39 +332,8 @@ export default function InspectionsPage() {
         await backendApi.inspections.create(payload as any)
       }
       
-      // refresh list
-      const latest = await backendApi.inspections.getAll()
-      
-      // Sort by inspectedAt descending (most recent first)
-      const sortedLatest = [...latest].sort((a, b) => {
-        const dateA = new Date(a.inspectedAt).getTime()
-        const dateB = new Date(b.inspectedAt).getTime()
-        return dateB - dateA
-      })
-      
-      const mapped: Row[] = sortedLatest.map((i) => ({
-        id: i.id,
-        transformerId: i.transformer?.id ? (transformerMap.get(i.transformer.id)?.code || i.transformer.id) : 'Unknown',
-        inspectionNo: i.inspectionNo || '—',
-        inspectedDate: new Date(i.inspectedAt).toLocaleString('en-US', { 
-          month: 'short', 
-          day: 'numeric', 
-          year: 'numeric',
-          hour: '2-digit',
-          minute: '2-digit'
-        }),
-        maintenanceDate: i.maintenanceDate ? new Date(i.maintenanceDate).toLocaleString('en-US', { 
-          month: 'short', 
-          day: 'numeric', 
-          year: 'numeric',
-          hour: '2-digit',
-          minute: '2-digit'
-        }) : '—',
-        status: i.status,
-      }))
-
-      // Add demo data to show maintenance dates functionality (keep consistent with initial load)
-      setRows([...mapped, ...DEMO_INSPECTIONS])
+      // refresh list (demo data kept consistent with initial load)
+      await reloadRows()
       setAddOpen(false)
       setEditingId(null)
       resetForm()
@@ -387,8 +370,7 @@ export default function InspectionsPage() {
       }
 
       // Fetch fresh inspection data from backend for real inspections
-      const inspections = await backendApi.inspections.getAll()
-      const inspection = inspections.find((i) => i.id === id)
+      const inspection = await backendApi.inspections.getById(id)
       
       if (!inspection) {
         alert('Inspection not found')
@@ -434,31 +416,13 @@ export default function InspectionsPage() {
         await backendApi.inspections.delete(deleteTargetId)
       }
       
-      const latest = await backendApi.inspections.getAll()
-      
-      // Sort by inspectedAt descending (most recent first)
-      const sortedLatest = [...latest].sort((a, b) => {
-        const dateA = new Date(a.inspectedAt).getTime()
-        const dateB = new Date(b.inspectedAt).getTime()
-        return dateB - dateA
-      })
-      
-      const mapped: Row[] = sortedLatest.map((i) => ({
-        id: i.id,
-        transformerId: i.transformer?.id ? (transformerMap.get(i.transformer.id)?.code || i.transformer.id) : 'Unknown',
-        inspectionNo: i.inspectionNo || '—',
-        inspectedDate: new Date(i.inspectedAt).toLocaleString(),
-        maintenanceDate: i.maintenanceDate ? new Date(i.maintenanceDate).toLocaleString() : '—',
-        status: i.status,
-      }))
-
       // Add demo data (keep consistent with initial load)
       // Filter out the deleted demo data item if it was a demo item
       const filteredDemoData = deleteTargetId.startsWith('demo-') 
         ? DEMO_INSPECTIONS.filter(d => d.id !== deleteTargetId)
         : DEMO_INSPECTIONS
       
-      setRows([...mapped, ...filteredDemoData])
+      await reloadRows(filteredDemoData)
     } catch (e: any) {
       alert(e.message || 'Delete failed')
     } finally {
@@ -531,6 +495,14 @@ export default function InspectionsPage() {
             emptyMessage={loading ? 'Loading…' : 'No inspections found.'}
           />
 
+          {hasMore && (
+            <div className="flex justify-center">
+              <Button variant="outline" className="font-serif cursor-pointer hover:bg-accent transition-colors" onClick={loadMore} disabled={loadingMore}>
+                {loadingMore ? 'Loading...' : 'Load more inspections'}
+              </Button>
+            </div>
+          )}
+
           <Dialog open={addOpen} onOpenChange={(o) => { setAddOpen(o); if (!o) { resetForm(); setEditingId(null); } }}>
             <DialogContent className="max-w-xl">
               <DialogHeader>
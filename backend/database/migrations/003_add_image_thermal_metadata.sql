@@ -0,0 +1,13 @@
+-- Migration: Add radiometric metadata columns to images
+-- Date: 2026-10-18
+-- Description: Values are read from the EXIF/FLIR header segments of uploaded thermal JPEGs
+
+ALTER TABLE images ADD COLUMN IF NOT EXISTS camera_model VARCHAR(255);
+ALTER TABLE images ADD COLUMN IF NOT EXISTS emissivity DOUBLE PRECISION;
+ALTER TABLE images ADD COLUMN IF NOT EXISTS temperature_min DOUBLE PRECISION;
+ALTER TABLE images ADD COLUMN IF NOT EXISTS temperature_max DOUBLE PRECISION;
+
+COMMENT ON COLUMN images.camera_model IS 'Camera model from the FLIR CameraInfo record or EXIF IFD0';
+COMMENT ON COLUMN images.emissivity IS 'Emissivity setting recorded by the camera';
+COMMENT ON COLUMN images.temperature_min IS 'Lower bound of the camera temperature range in degrees Celsius';
+COMMENT ON COLUMN images.temperature_max IS 'Upper bound of the camera temperature range in degrees Celsius';
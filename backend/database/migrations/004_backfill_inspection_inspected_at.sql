@@ -0,0 +1,11 @@
+-- Migration: Backfill missing inspection dates
+-- Date: 2026-10-18
+-- Description: One-time repair previously done on every GET /inspections; inspected_at falls back to created_at
+
+UPDATE inspections
+SET inspected_at = COALESCE(created_at, NOW())
+WHERE inspected_at IS NULL;
+
+-- Supports the ordered inspection list and the latest-detection lookup per inspection
+CREATE INDEX IF NOT EXISTS idx_inspections_inspected_at ON inspections (inspected_at DESC);
+CREATE INDEX IF NOT EXISTS idx_anomaly_detections_inspection_detected_at ON anomaly_detections (inspection_id, detected_at DESC);
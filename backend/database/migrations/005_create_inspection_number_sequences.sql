@@ -0,0 +1,16 @@
+-- Migration: Create per-date inspection number counters
+-- Date: 2026-10-18
+-- Description: Replaces the scan of existing inspection numbers on every create; seeded from existing INSP-YYYYMMDD-NNNN numbers
+
+CREATE TABLE IF NOT EXISTS inspection_number_sequences (
+    seq_date DATE PRIMARY KEY,
+    last_value INTEGER NOT NULL
+);
+
+INSERT INTO inspection_number_sequences (seq_date, last_value)
+SELECT TO_DATE(SUBSTRING(inspection_no FROM 6 FOR 8), 'YYYYMMDD'),
+       MAX(CAST(SUBSTRING(inspection_no FROM 15) AS INTEGER))
+FROM inspections
+WHERE inspection_no ~ '^INSP-[0-9]{8}-[0-9]+$'
+GROUP BY 1
+ON CONFLICT (seq_date) DO UPDATE SET last_value = GREATEST(inspection_number_sequences.last_value, EXCLUDED.last_value);
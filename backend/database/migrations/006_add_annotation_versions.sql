@@ -0,0 +1,6 @@
+-- Migration: Add optimistic locking versions to annotations
+-- Date: 2026-10-18
+-- Description: Every annotation update is conditional on the row version; stale edits are merged or returned as 409
+
+ALTER TABLE inspection_annotations ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE annotations ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,28 @@
+-- Migration: Create annotation event log and snapshots
+-- Date: 2026-10-19
+-- Description: Append-only history of image annotations; reads use the latest snapshot plus the events after it
+
+CREATE TABLE IF NOT EXISTS annotation_events (
+    id BIGSERIAL PRIMARY KEY,
+    image_id_ref VARCHAR(255) NOT NULL,
+    annotation_id UUID NOT NULL,
+    event_type VARCHAR(20) NOT NULL,
+    user_id VARCHAR(255),
+    payload TEXT NOT NULL,
+    occurred_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_annotation_events_stream ON annotation_events (image_id_ref, id);
+CREATE INDEX IF NOT EXISTS idx_annotation_events_annotation ON annotation_events (annotation_id, id);
+
+CREATE TABLE IF NOT EXISTS annotation_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    image_id_ref VARCHAR(255) NOT NULL,
+    last_event_id BIGINT NOT NULL,
+    last_event_at TIMESTAMP NOT NULL,
+    annotation_count INTEGER NOT NULL,
+    state TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_annotation_snapshots_stream ON annotation_snapshots (image_id_ref, last_event_id);
@@ -0,0 +1,28 @@
+-- Migration: Create incremental engine agreement metrics
+-- Date: 2026-10-19
+-- Description: Per-image match counts of AI detections against final annotations and running totals per engine version
+
+CREATE TABLE IF NOT EXISTS engine_metrics (
+    engine_key VARCHAR(255) PRIMARY KEY,
+    engine_name VARCHAR(255) NOT NULL,
+    engine_version VARCHAR(255),
+    images BIGINT NOT NULL DEFAULT 0,
+    true_positives BIGINT NOT NULL DEFAULT 0,
+    false_positives BIGINT NOT NULL DEFAULT 0,
+    false_negatives BIGINT NOT NULL DEFAULT 0,
+    iou_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    center_error_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS engine_image_metrics (
+    image_id_ref VARCHAR(255) PRIMARY KEY,
+    detection_id UUID,
+    engine_key VARCHAR(255),
+    true_positives INTEGER NOT NULL DEFAULT 0,
+    false_positives INTEGER NOT NULL DEFAULT 0,
+    false_negatives INTEGER NOT NULL DEFAULT 0,
+    iou_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    center_error_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP
+);
@@ -0,0 +1,12 @@
+-- Migration: Create training export watermarks
+-- Date: 2026-10-19
+-- Description: Last successful export time per dataset format, used by incremental training-data exports
+
+CREATE TABLE IF NOT EXISTS export_watermarks (
+    export_format VARCHAR(20) PRIMARY KEY,
+    exported_up_to TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP
+);
+
+-- Incremental exports scan annotations changed after the watermark
+CREATE INDEX IF NOT EXISTS idx_annotations_updated_at ON annotations(updated_at);
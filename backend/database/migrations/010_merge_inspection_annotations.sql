@@ -0,0 +1,65 @@
+-- Migration: Merge inspection_annotations into annotations
+-- Date: 2026-10-19
+-- Description: One annotation store for /annotations and /inspection-annotations, keyed by a typed inspection foreign key
+
+ALTER TABLE annotations ADD COLUMN IF NOT EXISTS inspection_id UUID;
+ALTER TABLE annotations ADD COLUMN IF NOT EXISTS color VARCHAR(20);
+ALTER TABLE annotations ADD COLUMN IF NOT EXISTS original_ai_data TEXT;
+
+-- Backfill the inspection of existing rows from their image or their inspection reference
+UPDATE annotations a SET inspection_id = im.inspection_id
+FROM images im
+WHERE a.inspection_id IS NULL AND a.image_id = im.id;
+
+UPDATE annotations a SET inspection_id = i.id
+FROM inspections i
+WHERE a.inspection_id IS NULL AND a.image_id_ref = i.id::text;
+
+UPDATE annotations a SET inspection_id = im.inspection_id
+FROM images im
+WHERE a.inspection_id IS NULL AND a.image_id_ref = im.id::text;
+
+-- Copy inspection annotations; boxes already written through /annotations (same id, or same box
+-- and label on the same inspection) are not copied twice. Rows of unknown inspections are left behind.
+-- Foreign keys are listed explicitly; schemas generated by Hibernate may default them to gen_random_uuid()
+INSERT INTO annotations (
+    id, inspection_id, image_id, anomaly_detection_id, image_id_ref, transformer_id, user_id,
+    bbox_x, bbox_y, bbox_width, bbox_height, label, confidence, severity, color,
+    action, annotation_type, is_ai, notes, last_modified, modification_types, modification_details,
+    created_at, updated_at, is_deleted, deleted_at, original_ai_data, version
+)
+SELECT
+    ia.id, i.id, NULL, NULL, ia.inspection_id, ia.transformer_id, ia.user_id,
+    ia.bbox_x, ia.bbox_y, ia.bbox_width, ia.bbox_height, ia.label, ia.confidence, ia.severity, ia.color,
+    ia.action, CASE WHEN ia.is_ai THEN 'AI_GENERATED' ELSE 'USER_CREATED' END, ia.is_ai, ia.notes,
+    ia.last_modified, ia.modification_types, ia.modification_details,
+    ia.created_at, ia.updated_at, ia.is_deleted, ia.deleted_at, ia.original_ai_data, ia.version
+FROM inspection_annotations ia
+JOIN inspections i ON i.id::text = ia.inspection_id
+WHERE NOT EXISTS (SELECT 1 FROM annotations a WHERE a.id = ia.id)
+  AND NOT EXISTS (
+      SELECT 1 FROM annotations a
+      WHERE a.inspection_id = i.id
+        AND a.bbox_x = ia.bbox_x AND a.bbox_y = ia.bbox_y
+        AND a.bbox_width = ia.bbox_width AND a.bbox_height = ia.bbox_height
+        AND a.label IS NOT DISTINCT FROM ia.label
+        AND COALESCE(a.is_deleted, FALSE) = ia.is_deleted
+  );
+
+-- Snapshots of images that gained rows no longer match; they are re-seeded from the rows on the next change
+DELETE FROM annotation_snapshots s
+WHERE EXISTS (
+    SELECT 1 FROM inspection_annotations ia
+    JOIN annotations a ON a.id = ia.id
+    WHERE a.image_id_ref = s.image_id_ref
+);
+
+ALTER TABLE annotations DROP CONSTRAINT IF EXISTS fk_annotations_inspection;
+ALTER TABLE annotations ADD CONSTRAINT fk_annotations_inspection
+    FOREIGN KEY (inspection_id) REFERENCES inspections(id);
+
+CREATE INDEX IF NOT EXISTS idx_annotations_inspection_active ON annotations(inspection_id, is_deleted, created_at);
+CREATE INDEX IF NOT EXISTS idx_annotations_image_id_ref ON annotations(image_id_ref, created_at);
+
+-- Kept for rollback; no longer read or written by the application
+ALTER TABLE inspection_annotations RENAME TO inspection_annotations_merged;
@@ -0,0 +1,34 @@
+-- Migration: Numeric maintenance readings
+-- Date: 2026-10-19
+-- Description: Store voltage, current, power factor and temperature as numbers in base units so they can be indexed,
+-- range-queried and aggregated in SQL. Free-text values such as '11kV', '85°C' or '95%' are converted; values
+-- without a number become NULL
+
+ALTER TABLE maintenance_records RENAME COLUMN voltage_reading TO voltage_reading_text;
+ALTER TABLE maintenance_records RENAME COLUMN current_reading TO current_reading_text;
+ALTER TABLE maintenance_records RENAME COLUMN power_factor TO power_factor_text;
+ALTER TABLE maintenance_records RENAME COLUMN temperature TO temperature_text;
+
+ALTER TABLE maintenance_records ADD COLUMN voltage_reading DOUBLE PRECISION;     -- Volts
+ALTER TABLE maintenance_records ADD COLUMN current_reading DOUBLE PRECISION;     -- Amperes
+ALTER TABLE maintenance_records ADD COLUMN power_factor DOUBLE PRECISION;        -- 0 to 1
+ALTER TABLE maintenance_records ADD COLUMN temperature DOUBLE PRECISION;         -- Degrees Celsius
+
+-- First number in the text (thousands separators dropped), scaled by a kilo prefix or a percent sign
+UPDATE maintenance_records SET
+    voltage_reading = substring(replace(voltage_reading_text, ',', '') FROM '[-+]?[0-9]*\.?[0-9]+')::DOUBLE PRECISION
+        * CASE WHEN voltage_reading_text ~* '[0-9.]\s*kv' THEN 1000 ELSE 1 END,
+    current_reading = substring(replace(current_reading_text, ',', '') FROM '[-+]?[0-9]*\.?[0-9]+')::DOUBLE PRECISION
+        * CASE WHEN current_reading_text ~* '[0-9.]\s*ka' THEN 1000 ELSE 1 END,
+    power_factor = substring(power_factor_text FROM '[-+]?[0-9]*\.?[0-9]+')::DOUBLE PRECISION
+        / CASE WHEN power_factor_text LIKE '%\%%' THEN 100 ELSE 1 END,
+    temperature = substring(temperature_text FROM '[-+]?[0-9]*\.?[0-9]+')::DOUBLE PRECISION
+WHERE voltage_reading_text ~ '[0-9]' OR current_reading_text ~ '[0-9]'
+   OR power_factor_text ~ '[0-9]' OR temperature_text ~ '[0-9]';
+
+-- Readings of a transformer over time, and range scans on temperature
+CREATE INDEX IF NOT EXISTS idx_maintenance_records_transformer_created ON maintenance_records(transformer_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_maintenance_records_temperature ON maintenance_records(temperature) WHERE temperature IS NOT NULL;
+
+-- Kept for rollback; no longer read or written by the application
+-- voltage_reading_text, current_reading_text, power_factor_text, temperature_text
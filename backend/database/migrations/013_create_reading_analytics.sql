@@ -0,0 +1,35 @@
+-- Migration: Create reading analytics
+-- Date: 2026-10-19
+-- Description: Rolling EWMA statistics per transformer and reading, and drift alerts raised from them.
+-- Rows are filled on the next maintenance record save, or all at once via POST /analytics/readings/rebuild
+
+CREATE TABLE IF NOT EXISTS reading_stats (
+    stats_key VARCHAR(80) PRIMARY KEY,
+    transformer_id UUID NOT NULL,
+    reading VARCHAR(32) NOT NULL,
+    samples BIGINT NOT NULL DEFAULT 0,
+    ewma DOUBLE PRECISION NOT NULL DEFAULT 0,
+    ewm_variance DOUBLE PRECISION NOT NULL DEFAULT 0,
+    min_value DOUBLE PRECISION,
+    max_value DOUBLE PRECISION,
+    last_value DOUBLE PRECISION,
+    last_z_score DOUBLE PRECISION,
+    last_record_id UUID,
+    updated_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_reading_stats_transformer ON reading_stats(transformer_id);
+
+CREATE TABLE IF NOT EXISTS reading_alerts (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    transformer_id UUID NOT NULL,
+    maintenance_record_id UUID,
+    reading VARCHAR(32) NOT NULL,
+    reading_value DOUBLE PRECISION NOT NULL,
+    expected DOUBLE PRECISION NOT NULL,
+    z_score DOUBLE PRECISION NOT NULL,
+    direction VARCHAR(8) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_reading_alerts_transformer ON reading_alerts(transformer_id, created_at);
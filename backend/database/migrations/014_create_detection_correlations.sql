@@ -0,0 +1,34 @@
+-- Migration: Create detection correlations
+-- Date: 2026-10-19
+-- Description: Per-inspection pairs of hotspot severity (latest detection run) with temperature and current (latest
+-- maintenance record), and per-transformer running sums for Pearson coefficients. Filled by POST /analytics/correlations/rebuild
+
+CREATE TABLE IF NOT EXISTS inspection_correlations (
+    inspection_id UUID PRIMARY KEY,
+    transformer_id UUID,
+    observed_at TIMESTAMP,
+    detection_id UUID,
+    severity DOUBLE PRECISION,
+    maintenance_record_id UUID,
+    temperature DOUBLE PRECISION,
+    current_reading DOUBLE PRECISION,
+    updated_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_inspection_correlations_transformer ON inspection_correlations(transformer_id, observed_at);
+
+CREATE TABLE IF NOT EXISTS correlation_sums (
+    sums_key VARCHAR(80) PRIMARY KEY,
+    transformer_id UUID NOT NULL,
+    reading VARCHAR(32) NOT NULL,
+    pairs BIGINT NOT NULL DEFAULT 0,
+    sum_x DOUBLE PRECISION NOT NULL DEFAULT 0,
+    sum_y DOUBLE PRECISION NOT NULL DEFAULT 0,
+    sum_xx DOUBLE PRECISION NOT NULL DEFAULT 0,
+    sum_yy DOUBLE PRECISION NOT NULL DEFAULT 0,
+    sum_xy DOUBLE PRECISION NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP
+);
+
+-- Latest maintenance record per inspection; the latest detection run uses idx_anomaly_detections_inspection_detected_at (004)
+CREATE INDEX IF NOT EXISTS idx_maintenance_records_inspection_created ON maintenance_records(inspection_id, created_at DESC);
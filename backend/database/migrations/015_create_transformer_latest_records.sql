@@ -0,0 +1,19 @@
+-- Migration: Create transformer latest-record pointers
+-- Date: 2026-10-19
+-- Description: Pointer from each transformer to its latest maintenance record for one-query dashboard status,
+-- backfilled with DISTINCT ON, and the index behind the newest-first record list
+
+CREATE TABLE IF NOT EXISTS transformer_latest_records (
+    transformer_id UUID PRIMARY KEY,
+    maintenance_record_id UUID NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO transformer_latest_records (transformer_id, maintenance_record_id, created_at)
+SELECT DISTINCT ON (mr.transformer_id) mr.transformer_id, mr.id, mr.created_at
+FROM maintenance_records mr
+ORDER BY mr.transformer_id, mr.created_at DESC, mr.id DESC
+ON CONFLICT (transformer_id) DO UPDATE SET maintenance_record_id = EXCLUDED.maintenance_record_id,
+    created_at = EXCLUDED.created_at;
+
+CREATE INDEX IF NOT EXISTS idx_maintenance_records_created ON maintenance_records(created_at DESC, id DESC);
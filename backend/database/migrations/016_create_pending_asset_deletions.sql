@@ -0,0 +1,14 @@
+-- Migration: Create pending asset deletions
+-- Date: 2026-10-19
+-- Description: Cloudinary assets of deleted rows, recorded in the deleting transaction and drained by
+-- StorageCleanupService, so queued deletions survive restarts and failed attempts are retried with backoff
+
+CREATE TABLE IF NOT EXISTS pending_asset_deletions (
+    public_id VARCHAR(255) PRIMARY KEY,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_pending_asset_deletions_due ON pending_asset_deletions(next_attempt_at);
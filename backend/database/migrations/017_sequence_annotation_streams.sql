@@ -0,0 +1,55 @@
+-- Migration: Sequence annotation events per image
+-- Date: 2026-10-19
+-- Description: Events are numbered per image under a lock on the image's stream row, and snapshots and folds use
+-- that sequence instead of the global event id, which is not in commit order across concurrent transactions
+
+CREATE TABLE IF NOT EXISTS annotation_streams (
+    image_id_ref VARCHAR(255) PRIMARY KEY,
+    last_sequence BIGINT NOT NULL
+);
+
+ALTER TABLE annotation_events ADD COLUMN IF NOT EXISTS sequence BIGINT;
+
+UPDATE annotation_events e
+SET sequence = numbered.sequence
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY image_id_ref ORDER BY id) AS sequence
+    FROM annotation_events
+) numbered
+WHERE e.id = numbered.id AND e.sequence IS NULL;
+
+ALTER TABLE annotation_events ALTER COLUMN sequence SET NOT NULL;
+
+DROP INDEX IF EXISTS idx_annotation_events_stream;
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uq_annotation_events_stream') THEN
+        ALTER TABLE annotation_events ADD CONSTRAINT uq_annotation_events_stream UNIQUE (image_id_ref, sequence);
+    END IF;
+END $$;
+
+INSERT INTO annotation_streams (image_id_ref, last_sequence)
+SELECT image_id_ref, MAX(sequence)
+FROM annotation_events
+GROUP BY image_id_ref
+ON CONFLICT (image_id_ref) DO UPDATE SET last_sequence = GREATEST(annotation_streams.last_sequence, EXCLUDED.last_sequence);
+
+-- A snapshot covers every event of its image up to its last event id
+ALTER TABLE annotation_snapshots ADD COLUMN IF NOT EXISTS last_sequence BIGINT;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'annotation_snapshots' AND column_name = 'last_event_id') THEN
+        UPDATE annotation_snapshots s
+        SET last_sequence = (
+            SELECT COUNT(*) FROM annotation_events e
+            WHERE e.image_id_ref = s.image_id_ref AND e.id <= s.last_event_id
+        );
+        DROP INDEX IF EXISTS idx_annotation_snapshots_stream;
+        ALTER TABLE annotation_snapshots DROP COLUMN last_event_id;
+    END IF;
+END $$;
+
+ALTER TABLE annotation_snapshots ALTER COLUMN last_sequence SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_annotation_snapshots_stream ON annotation_snapshots (image_id_ref, last_sequence);
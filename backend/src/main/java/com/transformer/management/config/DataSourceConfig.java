@@ -0,0 +1,108 @@
+package com.transformer.management.config;
+
+import com.transformer.management.service.DataAccessMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data sources for a single small connection budget
+ * The primary pool is configured by spring.datasource.*; when spring.datasource.replica.url is set, read-only
+ * transactions go to a second pool on the replica. Connections are fetched lazily, on the first statement, and
+ * the time spent waiting for them, and the statements sent on them, are recorded per endpoint
+ */
+@Configuration
+public class DataSourceConfig {
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    @Value("${spring.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${spring.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${spring.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${spring.datasource.replica.maximum-pool-size:2}")
+    private int replicaPoolSize;
+
+    @Value("${datasource.transaction-guard.threshold-ms:2000}")
+    private long transactionThresholdMillis;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryPool(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryPool, DataAccessMetrics metrics) {
+        DataSource target = new PoolWaitTimingDataSource(primaryPool, metrics);
+
+        if (!replicaUrl.isBlank()) {
+            HikariDataSource replicaPool = new HikariDataSource();
+            replicaPool.setPoolName("replica");
+            replicaPool.setJdbcUrl(replicaUrl);
+            replicaPool.setUsername(replicaUsername);
+            replicaPool.setPassword(replicaPassword);
+            replicaPool.setMaximumPoolSize(replicaPoolSize);
+            replicaPool.setMinimumIdle(0);
+            replicaPool.setReadOnly(true);
+            replicaPool.setDataSourceProperties(primaryPool.getDataSourceProperties()); // Same driver settings, e.g. prepareThreshold
+
+            Map<Object, Object> targets = new HashMap<>();
+            targets.put(ReadWriteRoutingDataSource.PRIMARY, target);
+            targets.put(ReadWriteRoutingDataSource.REPLICA, new PoolWaitTimingDataSource(replicaPool, metrics));
+            ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+            routing.setTargetDataSources(targets);
+            routing.setDefaultTargetDataSource(target);
+            routing.afterPropertiesSet();
+            target = routing;
+            logger.info("Read-only transactions are routed to the replica pool");
+        }
+
+        // Defaults given up front, so the proxy does not borrow a connection to find them out
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(target);
+        lazy.setDefaultAutoCommit(true);
+        lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return lazy;
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory, DataAccessMetrics metrics) {
+        return new GuardedJpaTransactionManager(entityManagerFactory, transactionThresholdMillis, metrics);
+    }
+
+    /**
+     * Counts the SQL statements each request sends, so second-level cache hits show up as fewer round-trips
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementCounter(DataAccessMetrics metrics) {
+        StatementInspector inspector = sql -> {
+            metrics.recordStatement();
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+}
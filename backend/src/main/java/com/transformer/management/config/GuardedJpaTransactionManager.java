@@ -0,0 +1,102 @@
+package com.transformer.management.config;
+
+import com.transformer.management.service.DataAccessMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JPA transaction manager that flags transactions held longer than a threshold
+ * With a one-connection pool every open transaction blocks all other database work, so long ones are logged
+ * while still open (with the holding thread's stack) and again with their total duration when they end
+ */
+public class GuardedJpaTransactionManager extends JpaTransactionManager implements DisposableBean {
+    private static final long serialVersionUID = 1L;
+    private static final Logger log = LoggerFactory.getLogger(GuardedJpaTransactionManager.class);
+
+    private final long thresholdNanos;
+    private final transient DataAccessMetrics metrics;
+    private final transient Map<Object, OpenTransaction> open = new ConcurrentHashMap<>(); // Transaction object -> start
+    private final transient ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "transaction-guard");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GuardedJpaTransactionManager(EntityManagerFactory entityManagerFactory, long thresholdMillis,
+                                        DataAccessMetrics metrics) {
+        super(entityManagerFactory);
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.metrics = metrics;
+        long period = Math.max(thresholdMillis / 2, 100);
+        watchdog.scheduleAtFixedRate(this::flagOpenTransactions, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        String name = definition.getName() != null ? definition.getName() : "(unnamed)";
+        open.put(transaction, new OpenTransaction(name, Thread.currentThread()));
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            OpenTransaction ended = open.remove(transaction);
+            if (ended != null) {
+                long heldNanos = System.nanoTime() - ended.startNanos;
+                if (heldNanos > thresholdNanos) {
+                    if (!ended.flagged) {
+                        metrics.recordLongTransaction();
+                    }
+                    log.warn("Transaction {} held its connection for {} ms", ended.name, heldNanos / 1_000_000);
+                }
+            }
+        }
+    }
+
+    // Stops the watchdog thread when the context closes
+    @Override
+    public void destroy() {
+        watchdog.shutdownNow();
+    }
+
+    private void flagOpenTransactions() {
+        long now = System.nanoTime();
+        for (OpenTransaction transaction : open.values()) {
+            if (!transaction.flagged && now - transaction.startNanos > thresholdNanos) {
+                transaction.flagged = true;
+                metrics.recordLongTransaction();
+                StringBuilder stack = new StringBuilder();
+                for (StackTraceElement frame : transaction.thread.getStackTrace()) {
+                    stack.append("\n\tat ").append(frame);
+                }
+                log.warn("Transaction {} still open after {} ms on thread {}{}", transaction.name,
+                    (now - transaction.startNanos) / 1_000_000, transaction.thread.getName(), stack);
+            }
+        }
+    }
+
+    private static class OpenTransaction {
+        private final String name;
+        private final Thread thread;
+        private final long startNanos = System.nanoTime();
+        private volatile boolean flagged;
+
+        private OpenTransaction(String name, Thread thread) {
+            this.name = name;
+            this.thread = thread;
+        }
+    }
+}
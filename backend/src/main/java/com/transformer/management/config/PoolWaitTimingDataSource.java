@@ -0,0 +1,40 @@
+package com.transformer.management.config;
+
+import com.transformer.management.service.DataAccessMetrics;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Times how long each connection takes to come out of the pool
+ */
+public class PoolWaitTimingDataSource extends DelegatingDataSource {
+    private final DataAccessMetrics metrics;
+
+    public PoolWaitTimingDataSource(DataSource pool, DataAccessMetrics metrics) {
+        super(pool);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return super.getConnection();
+        } finally {
+            metrics.recordPoolWait(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return super.getConnection(username, password);
+        } finally {
+            metrics.recordPoolWait(System.nanoTime() - start);
+        }
+    }
+}
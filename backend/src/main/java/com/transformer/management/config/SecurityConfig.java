@@ -1,5 +1,6 @@
 package com.transformer.management.config;
 
+import com.transformer.management.filter.AdmissionControlFilter;
 import com.transformer.management.filter.JwtAuthenticationFilter;
 import com.transformer.management.service.CustomUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -55,14 +59,18 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 // Public endpoints - no authentication required
-                .requestMatchers("/auth/login", "/auth/signup", "/auth/test").permitAll()
+                .requestMatchers("/auth/login", "/auth/signup", "/auth/refresh", "/auth/logout", "/auth/test").permitAll()
                 .requestMatchers("/health/**").permitAll()
                 .requestMatchers("/anomalies/**").permitAll()
+                // WebSocket handshake; STOMP CONNECT is authenticated in WebSocketConfig
+                .requestMatchers("/ws/**").permitAll()
                 // All other endpoints require authentication
                 .anyRequest().authenticated()
             )
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // After authentication, so limits apply per principal where there is one
+            .addFilterAfter(admissionControlFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
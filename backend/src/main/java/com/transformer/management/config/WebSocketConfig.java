@@ -0,0 +1,79 @@
+package com.transformer.management.config;
+
+import com.transformer.management.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+import java.util.Collections;
+
+/**
+ * STOMP over WebSocket for the collaborative annotation channel
+ * Clients connect to /api/ws with "Authorization: Bearer <jwt>" in the CONNECT frame,
+ * send deltas to /app/inspections/{id}/annotations and subscribe to /topic/inspections/{id}/annotations;
+ * replies meant for one session only go to /user/queue/...
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws")
+            .setAllowedOrigins("http://localhost:3000", "http://localhost:3001",
+                               "http://127.0.0.1:3000", "http://127.0.0.1:3001");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic", "/queue");
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Browsers cannot set headers on the WebSocket handshake, so the JWT is checked on CONNECT
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+                    return message;
+                }
+
+                String authorizationHeader = accessor.getFirstNativeHeader("Authorization");
+                if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+                    throw new MessagingException("Missing bearer token");
+                }
+
+                JwtUtil.TokenClaims claims = jwtUtil.verify(authorizationHeader.substring(7));
+                if (claims == null || claims.getUsername() == null || claims.getRole() == null) {
+                    throw new MessagingException("Invalid token");
+                }
+
+                accessor.setUser(new UsernamePasswordAuthenticationToken(claims.getUsername(), null,
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + claims.getRole().toUpperCase()))));
+                if (accessor.getSessionAttributes() != null) {
+                    accessor.getSessionAttributes().put("userId", claims.getUserId());
+                }
+                return message;
+            }
+        });
+    }
+}
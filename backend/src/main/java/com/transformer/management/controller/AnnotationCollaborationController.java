@@ -0,0 +1,50 @@
+package com.transformer.management.controller;
+
+import com.transformer.management.dto.AnnotationDelta;
+import com.transformer.management.dto.AnnotationDeltaBatch;
+import com.transformer.management.service.AnnotationCollaborationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * STOMP controller for live annotation editing
+ * Clients send box deltas to /app/inspections/{inspectionId}/annotations and receive the
+ * merged per-frame batches on /topic/inspections/{inspectionId}/annotations; deltas rejected
+ * as invalid come back to the sending session only, on /user/queue/annotations/rejected
+ */
+@Controller
+public class AnnotationCollaborationController {
+
+    @Autowired
+    private AnnotationCollaborationService collaborationService;
+
+    @MessageMapping("/inspections/{inspectionId}/annotations")
+    @SendToUser(destinations = "/queue/annotations/rejected", broadcast = false)
+    public List<Map<String, Object>> receiveDeltas(@DestinationVariable String inspectionId,
+                              @Payload AnnotationDeltaBatch batch,
+                              SimpMessageHeaderAccessor headers) {
+        if (batch.getDeltas().isEmpty()) {
+            return null;
+        }
+
+        // The editing user comes from the authenticated session, never from the payload
+        Map<String, Object> session = headers.getSessionAttributes();
+        String userId = session != null ? (String) session.get("userId") : null;
+        String origin = batch.getClientId() != null ? batch.getClientId() : headers.getSessionId();
+        for (AnnotationDelta delta : batch.getDeltas()) {
+            delta.setUserId(userId);
+            delta.setOrigin(origin);
+        }
+
+        List<Map<String, Object>> rejected = collaborationService.submit(inspectionId, batch.getDeltas());
+        return rejected.isEmpty() ? null : rejected; // Nothing is sent back for a fully accepted batch
+    }
+}
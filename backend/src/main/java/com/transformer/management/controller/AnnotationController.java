@@ -4,18 +4,22 @@ import com.transformer.management.dto.AnnotationDTO;
 import com.transformer.management.dto.SaveAnnotationsRequest;
 import com.transformer.management.entity.Annotation;
 import com.transformer.management.entity.AnomalyDetection;
-import com.transformer.management.entity.Image;
 import com.transformer.management.repository.AnnotationRepository;
 import com.transformer.management.repository.AnomalyDetectionRepository;
-import com.transformer.management.repository.ImageRepository;
+import com.transformer.management.service.AnnotationHistoryService;
+import com.transformer.management.service.AnnotationDiagnostics;
+import com.transformer.management.service.InspectionAnnotationService;
+import com.transformer.management.service.SpatialIndexService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -31,14 +35,25 @@ import java.util.stream.Collectors;
 public class AnnotationController {
     private static final Logger logger = LoggerFactory.getLogger(AnnotationController.class);
 
+    private static final int MAX_NEAREST = 100;
+
     @Autowired
     private AnnotationRepository annotationRepository;
 
     @Autowired
-    private ImageRepository imageRepository;
+    private AnomalyDetectionRepository anomalyDetectionRepository;
 
     @Autowired
-    private AnomalyDetectionRepository anomalyDetectionRepository;
+    private AnnotationHistoryService historyService;
+
+    @Autowired
+    private SpatialIndexService spatialIndexService;
+
+    @Autowired
+    private InspectionAnnotationService inspectionAnnotationService;
+
+    @Autowired
+    private AnnotationDiagnostics diagnostics;
 
     /**
      * Save annotation updates from the frontend
@@ -49,146 +64,130 @@ public class AnnotationController {
      */
     @PostMapping("/save")
     public ResponseEntity<?> saveAnnotations(@RequestBody SaveAnnotationsRequest request) {
-        logger.info("Received save annotations request for image: {}", request.getImageId());
-        
         if (request.getImageId() == null || request.getAnnotations() == null) {
             return ResponseEntity.badRequest()
                 .body(Map.of("error", "Image ID and annotations are required"));
         }
 
+        AnnotationDiagnostics.Trace trace = diagnostics.start("save", request.getImageId());
+        trace.field("boxes", request.getAnnotations().size());
         try {
-            String imageIdRef = request.getImageId(); // Store as inspection ID string
-            
-            // Optional: Try to find Image entity if imageId is a valid UUID
-            Image image = null;
-            try {
-                UUID imageUuid = UUID.fromString(imageIdRef);
-                image = imageRepository.findById(imageUuid).orElse(null);
-            } catch (IllegalArgumentException e) {
-                // Not a UUID, that's fine - we'll store the inspection ID directly
-                logger.info("Image ID is not a UUID, storing as inspection ID reference: {}", imageIdRef);
-            }
-
-            List<Annotation> savedAnnotations = new ArrayList<>();
-
-            for (AnnotationDTO dto : request.getAnnotations()) {
-                Annotation annotation;
-
-                if (dto.getId() != null) {
-                    // Update existing annotation
-                    annotation = annotationRepository.findById(dto.getId())
-                        .orElse(new Annotation());
-                    
-                    if ("deleted".equalsIgnoreCase(dto.getAction())) {
-                        // Mark as deleted instead of actually deleting
-                        annotation.setIsDeleted(true);
-                        annotation.setDeletedAt(LocalDateTime.now());
-                        annotation.setImageIdRef(imageIdRef); // Always set imageIdRef
-                        logger.info("Marking annotation {} as deleted", dto.getId());
-                    } else {
-                        // Update coordinates and metadata
-                        annotation.setBboxX(dto.getX());
-                        annotation.setBboxY(dto.getY());
-                        annotation.setBboxWidth(dto.getWidth());
-                        annotation.setBboxHeight(dto.getHeight());
-                        annotation.setLabel(dto.getLabel());
-                        annotation.setConfidence(dto.getConfidence());
-                        annotation.setAction(dto.getAction());
-                        annotation.setNotes(dto.getNotes());
-                        annotation.setAnnotationType("USER_EDITED");
-                        
-                        // Update new metadata fields
-                        annotation.setSeverity(dto.getSeverity());
-                        annotation.setLastModified(dto.getLastModified() != null ? LocalDateTime.parse(dto.getLastModified()) : LocalDateTime.now());
-                        annotation.setModificationTypes(dto.getModificationTypes() != null ? String.join(",", dto.getModificationTypes()) : null);
-                        annotation.setModificationDetails(dto.getModificationDetails());
-                        annotation.setIsAI(dto.getIsAI() != null ? dto.getIsAI() : annotation.getIsAI());
-                        annotation.setImageIdRef(dto.getImageId());
-                        annotation.setTransformerId(dto.getTransformerId());
-                        annotation.setTimestampIso(dto.getLastModified());
-                        
-                        logger.info("Updating annotation {} with action: {}", dto.getId(), dto.getAction());
-                    }
-                } else {
-                    // Create new annotation
-                    annotation = new Annotation();
-                    if (image != null) {
-                        annotation.setImage(image); // Set if we found the Image entity
-                    }
-                    annotation.setImageIdRef(imageIdRef); // Always set the inspection ID reference
-                    annotation.setUserId(request.getUserId() != null ? request.getUserId() : "unknown");
-                    annotation.setBboxX(dto.getX());
-                    annotation.setBboxY(dto.getY());
-                    annotation.setBboxWidth(dto.getWidth());
-                    annotation.setBboxHeight(dto.getHeight());
-                    annotation.setLabel(dto.getLabel() != null ? dto.getLabel() : "Unknown");
-                    annotation.setConfidence(dto.getConfidence());
-                    annotation.setAction(dto.getAction() != null ? dto.getAction() : "added");
-                    annotation.setNotes(dto.getNotes());
-                    annotation.setAnnotationType("USER_CREATED");
-                    
-                    // Set new metadata fields
-                    annotation.setSeverity(dto.getSeverity());
-                    annotation.setLastModified(dto.getLastModified() != null ? LocalDateTime.parse(dto.getLastModified()) : LocalDateTime.now());
-                    annotation.setModificationTypes(dto.getModificationTypes() != null ? String.join(",", dto.getModificationTypes()) : "created");
-                    annotation.setModificationDetails(dto.getModificationDetails());
-                    annotation.setIsAI(dto.getIsAI() != null ? dto.getIsAI() : false);
-                    annotation.setTransformerId(dto.getTransformerId());
-                    annotation.setTimestampIso(dto.getLastModified());
-                    
-                    logger.info("Creating new annotation with action: {}", annotation.getAction());
-                }
-
-                savedAnnotations.add(annotationRepository.save(annotation));
+            // Rows, version checks and events are written in one transaction; the index follows on commit
+            InspectionAnnotationService.SaveResult result = inspectionAnnotationService.saveImageAnnotations(
+                request.getImageId(), request.getUserId(), request.getAnnotations());
+            List<Annotation> savedAnnotations = result.getAnnotations();
+            List<InspectionAnnotationService.Conflict> conflicts = result.getConflicts();
+
+            if (trace.isDetailed()) {
+                savedAnnotations.forEach(saved -> trace.detail("id={} saved action={}", saved.getId(), saved.getAction()));
+                conflicts.forEach(conflict -> trace.detail("id={} conflict", conflict.getId()));
             }
-
-            logger.info("Successfully saved {} annotations for inspection/image {}", savedAnnotations.size(), imageIdRef);
+            trace.field("saved", savedAnnotations.size()).field("conflicts", conflicts.size())
+                .field("missing", result.getMissing().size());
 
             // Convert to DTOs for response
             List<AnnotationDTO> responseDTOs = savedAnnotations.stream()
-                .map(this::convertToDTO)
+                .map(historyService::toDTO)
                 .collect(Collectors.toList());
 
+            // Non-conflicting edits are saved either way; clashing edits come back with both versions
+            if (!conflicts.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "error", "conflict",
+                    "message", "Some annotations were changed by another user",
+                    "count", savedAnnotations.size(),
+                    "annotations", responseDTOs,
+                    "missing", result.getMissing(),
+                    "conflicts", conflicts
+                ));
+            }
+
+            // Ids that are unknown or belong to another image are not saved
             return ResponseEntity.ok(Map.of(
                 "message", "Annotations saved successfully",
                 "count", savedAnnotations.size(),
-                "annotations", responseDTOs
+                "annotations", responseDTOs,
+                "missing", result.getMissing()
             ));
 
+        } catch (ObjectOptimisticLockingFailureException e) {
+            trace.field("error", "concurrent_update");
+            logger.info("Concurrent annotation update detected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "conflict", "message", "Annotations were modified concurrently, reload and retry"));
         } catch (Exception e) {
+            trace.field("error", e.getClass().getSimpleName());
             logger.error("Error saving annotations: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
                 .body(Map.of("error", "Failed to save annotations", "message", e.getMessage()));
+        } finally {
+            trace.finish();
         }
     }
 
     /**
      * Get annotations for a specific image
-     * GET /api/annotations/image/{imageId}
+     * GET /api/annotations/image/{imageId}?at=2026-10-01T12:00:00
      * 
      * @param imageId The image ID (inspection ID)
+     * @param at Optional ISO date-time; returns the annotations as they were at that time
      * @return List of annotations for the image (including deleted ones)
      */
     @GetMapping("/image/{imageId}")
-    public ResponseEntity<?> getAnnotationsByImage(@PathVariable String imageId) {
-        logger.info("Fetching annotations for image: {}", imageId);
-
+    public ResponseEntity<?> getAnnotationsByImage(@PathVariable String imageId,
+                                                   @RequestParam(required = false) String at) {
+        AnnotationDiagnostics.Trace trace = diagnostics.start("get", imageId);
         try {
-            // Use imageIdRef instead of UUID lookup for inspection-based queries
-            List<Annotation> annotations = annotationRepository.findAllAnnotationsByImageIdRef(imageId);
-            
-            logger.info("Found {} annotations for image {}", annotations.size(), imageId);
+            LocalDateTime pointInTime = at != null ? LocalDateTime.parse(at) : null;
 
-            List<AnnotationDTO> dtos = annotations.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+            // Latest snapshot plus the events recorded after it
+            List<AnnotationDTO> dtos = pointInTime != null
+                ? historyService.stateAt(imageId, pointInTime)
+                : historyService.currentState(imageId);
+            
+            trace.field("count", dtos.size());
+            if (at != null) {
+                trace.field("at", at);
+            }
+            if (trace.isDetailed()) {
+                dtos.forEach(dto -> trace.detail("id={} label={} x={} y={} action={}",
+                    dto.getId(), dto.getLabel(), dto.getX(), dto.getY(), dto.getAction()));
+            }
 
             return ResponseEntity.ok(dtos);
 
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Invalid 'at' format, expected ISO date-time"));
         } catch (Exception e) {
+            trace.field("error", e.getClass().getSimpleName());
             logger.error("Error fetching annotations: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
                 .body(Map.of("error", "Failed to fetch annotations"));
+        } finally {
+            trace.finish();
+        }
+    }
+
+    /**
+     * Get the change history of an annotation
+     * GET /api/annotations/{annotationId}/history
+     * 
+     * @param annotationId The annotation ID
+     * @return Every recorded change, oldest first, with the full box state after each change
+     */
+    @GetMapping("/{annotationId}/history")
+    public ResponseEntity<?> getAnnotationHistory(@PathVariable String annotationId) {
+        try {
+            return ResponseEntity.ok(historyService.history(UUID.fromString(annotationId)));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Invalid annotation ID format"));
+        } catch (Exception e) {
+            logger.error("Error fetching annotation history: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to fetch annotation history"));
         }
     }
 
@@ -208,7 +207,7 @@ public class AnnotationController {
             List<Annotation> annotations = annotationRepository.findByAnomalyDetectionId(id);
 
             List<AnnotationDTO> dtos = annotations.stream()
-                .map(this::convertToDTO)
+                .map(historyService::toDTO)
                 .collect(Collectors.toList());
 
             return ResponseEntity.ok(dtos);
@@ -223,6 +222,112 @@ public class AnnotationController {
         }
     }
 
+    /**
+     * Find boxes overlapping a region of an image
+     * GET /api/annotations/spatial/{imageId}/overlaps?x=0&y=0&width=100&height=100&source=detection
+     * 
+     * @param imageId The image ID (inspection ID)
+     * @param source Optional filter: "annotation" or "detection"
+     * @return Annotation and detection boxes intersecting the region
+     */
+    @GetMapping("/spatial/{imageId}/overlaps")
+    public ResponseEntity<?> getOverlappingBoxes(@PathVariable String imageId,
+                                                 @RequestParam int x, @RequestParam int y,
+                                                 @RequestParam int width, @RequestParam int height,
+                                                 @RequestParam(required = false) String source) {
+        if (width <= 0 || height <= 0) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Width and height must be positive"));
+        }
+
+        try {
+            return ResponseEntity.ok(spatialIndexService.overlapping(imageId, x, y, width, height, source));
+        } catch (Exception e) {
+            logger.error("Error querying overlapping boxes: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to query boxes"));
+        }
+    }
+
+    /**
+     * Find the boxes closest to a point on an image
+     * GET /api/annotations/spatial/{imageId}/nearest?x=120&y=80&k=5
+     * 
+     * @param imageId The image ID (inspection ID)
+     * @param k Number of boxes to return
+     * @return Closest boxes first; distance is measured to the box edge
+     */
+    @GetMapping("/spatial/{imageId}/nearest")
+    public ResponseEntity<?> getNearestBoxes(@PathVariable String imageId,
+                                             @RequestParam int x, @RequestParam int y,
+                                             @RequestParam(defaultValue = "5") int k) {
+        if (k <= 0 || k > MAX_NEAREST) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "k must be between 1 and " + MAX_NEAREST));
+        }
+
+        try {
+            return ResponseEntity.ok(spatialIndexService.nearest(imageId, x, y, k));
+        } catch (Exception e) {
+            logger.error("Error querying nearest boxes: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to query boxes"));
+        }
+    }
+
+    /**
+     * Match AI boxes against human boxes on an image by IoU
+     * GET /api/annotations/spatial/{imageId}/matches?minIou=0.5
+     * 
+     * @param imageId The image ID (inspection ID)
+     * @param minIou Minimum IoU for a pair to count as a match
+     * @return Matched pairs, AI boxes without a human match, and human boxes without an AI match
+     */
+    @GetMapping("/spatial/{imageId}/matches")
+    public ResponseEntity<?> getBoxMatches(@PathVariable String imageId,
+                                           @RequestParam(defaultValue = "0.5") double minIou) {
+        if (minIou <= 0 || minIou > 1) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "minIou must be in (0, 1]"));
+        }
+
+        try {
+            return ResponseEntity.ok(spatialIndexService.match(imageId, minIou));
+        } catch (Exception e) {
+            logger.error("Error matching boxes: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to match boxes"));
+        }
+    }
+
+    /**
+     * Find hotspots that recur at the same location across inspections of a transformer
+     * GET /api/annotations/spatial/transformer/{transformerId}/recurring?minIou=0.3
+     * 
+     * @param transformerId The transformer ID
+     * @param minIou Minimum IoU for boxes on different inspections to count as the same location
+     * @return Groups of boxes spanning two or more inspections, most recurring first
+     */
+    @GetMapping("/spatial/transformer/{transformerId}/recurring")
+    public ResponseEntity<?> getRecurringHotspots(@PathVariable String transformerId,
+                                                  @RequestParam(defaultValue = "0.3") double minIou) {
+        if (minIou <= 0 || minIou > 1) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "minIou must be in (0, 1]"));
+        }
+
+        try {
+            return ResponseEntity.ok(spatialIndexService.recurringHotspots(UUID.fromString(transformerId), minIou));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Invalid transformer ID format"));
+        } catch (Exception e) {
+            logger.error("Error finding recurring hotspots: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to find recurring hotspots"));
+        }
+    }
+
     /**
      * Delete an annotation
      * DELETE /api/annotations/{annotationId}
@@ -236,13 +341,11 @@ public class AnnotationController {
 
         try {
             UUID id = UUID.fromString(annotationId);
-            Annotation annotation = annotationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Annotation not found"));
-
-            // Soft delete
-            annotation.setIsDeleted(true);
-            annotation.setDeletedAt(LocalDateTime.now());
-            annotationRepository.save(annotation);
+            // Soft delete; the event is recorded in the same transaction and the index follows on commit
+            if (inspectionAnnotationService.softDelete(id).isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Annotation not found"));
+            }
 
             return ResponseEntity.ok(Map.of("message", "Annotation deleted successfully"));
 
@@ -255,40 +358,4 @@ public class AnnotationController {
                 .body(Map.of("error", "Failed to delete annotation"));
         }
     }
-
-    /**
-     * Convert Annotation entity to DTO
-     */
-    private AnnotationDTO convertToDTO(Annotation annotation) {
-        AnnotationDTO dto = new AnnotationDTO();
-        dto.setId(annotation.getId());
-        dto.setX(annotation.getBboxX());
-        dto.setY(annotation.getBboxY());
-        dto.setWidth(annotation.getBboxWidth());
-        dto.setHeight(annotation.getBboxHeight());
-        dto.setLabel(annotation.getLabel());
-        dto.setConfidence(annotation.getConfidence());
-        dto.setAction(annotation.getAction());
-        dto.setAnnotationType(annotation.getAnnotationType());
-        dto.setNotes(annotation.getNotes());
-        dto.setUserId(annotation.getUserId());
-        dto.setTimestamp(annotation.getCreatedAt());
-        dto.setOriginalDetectionId(annotation.getOriginalDetectionId());
-        
-        // Add new metadata fields
-        dto.setSeverity(annotation.getSeverity());
-        dto.setLastModified(annotation.getLastModified() != null ? annotation.getLastModified().toString() : null);
-        
-        // Convert comma-separated string to List
-        if (annotation.getModificationTypes() != null && !annotation.getModificationTypes().isEmpty()) {
-            dto.setModificationTypes(java.util.Arrays.asList(annotation.getModificationTypes().split(",")));
-        }
-        
-        dto.setModificationDetails(annotation.getModificationDetails());
-        dto.setIsAI(annotation.getIsAI());
-        dto.setImageId(annotation.getImageIdRef());
-        dto.setTransformerId(annotation.getTransformerId());
-        
-        return dto;
-    }
 }
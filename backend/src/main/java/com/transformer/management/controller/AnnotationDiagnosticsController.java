@@ -0,0 +1,70 @@
+package com.transformer.management.controller;
+
+import com.transformer.management.service.AnnotationCollaborationService;
+import com.transformer.management.service.AnnotationDiagnostics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * REST Controller for runtime annotation diagnostics
+ * Switches per-inspection tracing of the annotation endpoints on and off without a restart
+ */
+@RestController
+@RequestMapping("/annotations/diagnostics")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class AnnotationDiagnosticsController {
+
+    @Autowired
+    private AnnotationDiagnostics diagnostics;
+
+    @Autowired
+    private AnnotationCollaborationService collaborationService;
+
+    /**
+     * Sample rate, currently traced inspections and live-channel deltas that could not be saved
+     * GET /api/annotations/diagnostics
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getDiagnostics() {
+        return ResponseEntity.ok(Map.of(
+            "sampleRate", diagnostics.getSampleRate(),
+            "tracedInspections", diagnostics.tracedInspections(),
+            "collabDeadLetters", collaborationService.deadLetters()
+        ));
+    }
+
+    /**
+     * Trace every annotation request of an inspection for a limited time
+     * POST /api/annotations/diagnostics/trace/{inspectionId}?minutes=15
+     */
+    @PostMapping("/trace/{inspectionId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> enableTrace(@PathVariable String inspectionId,
+                                         @RequestParam(defaultValue = "15") long minutes) {
+        if (minutes <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "minutes must be positive"));
+        }
+        Instant expiry = diagnostics.enableTrace(inspectionId, Duration.ofMinutes(minutes));
+        return ResponseEntity.ok(Map.of("inspectionId", inspectionId, "tracedUntil", expiry));
+    }
+
+    /**
+     * Stop tracing an inspection
+     * DELETE /api/annotations/diagnostics/trace/{inspectionId}
+     */
+    @DeleteMapping("/trace/{inspectionId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> disableTrace(@PathVariable String inspectionId) {
+        if (!diagnostics.disableTrace(inspectionId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("message", "Tracing disabled", "inspectionId", inspectionId));
+    }
+}
@@ -1,5 +1,6 @@
 package com.transformer.management.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.transformer.management.dto.AnomalyDetectionRequest;
 import com.transformer.management.dto.AnomalyDetectionDTO;
 import com.transformer.management.entity.AnomalyDetection;
@@ -31,6 +32,9 @@ public class AnomalyController {
     @Autowired
     private AnomalyDetectionService anomalyDetectionService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Detect anomalies in a thermal image
      * POST /api/anomalies/detect
@@ -184,8 +188,7 @@ public class AnomalyController {
             // Parse detections JSON
             if (detection.getDetectionsJson() != null) {
                 try {
-                    List<?> detections = new com.fasterxml.jackson.databind.ObjectMapper()
-                        .readValue(detection.getDetectionsJson(), List.class);
+                    List<?> detections = objectMapper.readValue(detection.getDetectionsJson(), List.class);
                     response.put("detections", detections);
                 } catch (Exception e) {
                     logger.warn("Failed to parse detections JSON: {}", e.getMessage());
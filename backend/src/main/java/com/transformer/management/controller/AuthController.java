@@ -2,19 +2,18 @@ package com.transformer.management.controller;
 
 import com.transformer.management.entity.User;
 import com.transformer.management.repository.UserRepository;
-import com.transformer.management.util.JwtUtil;
+import com.transformer.management.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/auth")
@@ -24,92 +23,94 @@ public class AuthController {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
-
-    @Autowired
-    private JwtUtil jwtUtil;
-
-    @Autowired
-    private AuthenticationManager authenticationManager;
+    private AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> credentials) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> credentials) {
         String username = credentials.get("username");
         String password = credentials.get("password");
 
         try {
-            // Authenticate user
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(username, password)
-            );
-
-            // Get user details
-            Optional<User> userOptional = userRepository.findByUsername(username);
-            if (userOptional.isEmpty()) {
-                return ResponseEntity.status(401).body(Map.of("error", "Invalid credentials"));
-            }
-
-            User user = userOptional.get();
-
-            // Generate JWT token
-            String token = jwtUtil.generateToken(user.getUsername(), user.getId(), user.getRole());
-
-            return ResponseEntity.ok(Map.of(
-                "message", "Login successful",
-                "token", token,
-                "user", Map.of(
-                    "id", user.getId(),
-                    "username", user.getUsername(),
-                    "role", user.getRole()
-                )
-            ));
-
-        } catch (BadCredentialsException e) {
-            return ResponseEntity.status(401).body(Map.of("error", "Invalid credentials"));
+            // User lookup and session run on the session pool, the password check on the password pool;
+            // the request thread is released meanwhile
+            return authService.authenticate(username, password)
+                .thenApplyAsync(user -> user.isPresent()
+                    ? sessionResponse("Login successful", authService.createSession(user.get()))
+                    : ResponseEntity.status(401).body(Map.of("error", "Invalid credentials")), authService.sessionExecutor())
+                .exceptionally(e -> cause(e) instanceof RejectedExecutionException
+                    ? busyResponse()
+                    : ResponseEntity.status(500).body(Map.of("error", "Authentication failed: " + cause(e).getMessage())));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busyResponse());
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of("error", "Authentication failed: " + e.getMessage()));
+            return CompletableFuture.completedFuture(
+                ResponseEntity.status(500).body(Map.of("error", "Authentication failed: " + e.getMessage())));
         }
     }
 
     @PostMapping("/signup")
-    public ResponseEntity<?> signup(@RequestBody Map<String, String> userData) {
+    public CompletableFuture<ResponseEntity<?>> signup(@RequestBody Map<String, String> userData) {
         String username = userData.get("username");
         String password = userData.get("password");
-        String role = userData.get("role");
 
         if (username == null || username.trim().isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Username is required"));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", "Username is required")));
         }
 
         if (password == null || password.length() < 6) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Password must be at least 6 characters"));
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(Map.of("error", "Password must be at least 6 characters")));
         }
 
-        if (userRepository.existsByUsername(username)) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Username already exists"));
+        try {
+            // Database work runs on the session pool and hashing on the password pool, never on the request thread
+            return CompletableFuture.supplyAsync(() -> userRepository.existsByUsername(username), authService.sessionExecutor())
+                .thenCompose(exists -> exists
+                    ? CompletableFuture.completedFuture(usernameTakenResponse())
+                    : createUser(username, password))
+                .exceptionally(e -> {
+                    Throwable cause = cause(e);
+                    if (cause instanceof DataIntegrityViolationException) {
+                        // Taken by a concurrent signup after the check above
+                        return usernameTakenResponse();
+                    }
+                    if (cause instanceof RejectedExecutionException) {
+                        return busyResponse();
+                    }
+                    return ResponseEntity.status(500).body(Map.of("error", "Signup failed: " + cause.getMessage()));
+                });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busyResponse());
         }
+    }
 
-        User user = new User();
-        user.setUsername(username);
-        user.setPassword(passwordEncoder.encode(password));
-        // Only allow VIEWER role for public signup - security measure
-        // ENGINEER and ADMIN roles must be assigned by existing admins
-        user.setRole(User.ROLE_VIEWER);
-
-        User savedUser = userRepository.save(user);
-
-        // Generate JWT token for the new user
-        String token = jwtUtil.generateToken(savedUser.getUsername(), savedUser.getId(), savedUser.getRole());
+    private CompletableFuture<ResponseEntity<?>> createUser(String username, String password) {
+        return authService.encodePassword(password).<ResponseEntity<?>>thenApplyAsync(encoded -> {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword(encoded);
+            // Only allow VIEWER role for public signup - security measure
+            // ENGINEER and ADMIN roles must be assigned by existing admins
+            user.setRole(User.ROLE_VIEWER);
+
+            User savedUser = userRepository.save(user);
+            authService.evictUser(username);
+
+            // Generate tokens for the new user
+            return sessionResponse("User created successfully", authService.createSession(savedUser));
+        }, authService.sessionExecutor());
+    }
 
-        return ResponseEntity.ok(Map.of(
-            "message", "User created successfully",
-            "token", token,
-            "user", Map.of(
-                "id", savedUser.getId(),
-                "username", savedUser.getUsername(),
-                "role", savedUser.getRole()
-            )
-        ));
+    /**
+     * Exchange a refresh token for a new access token and refresh token
+     * POST /api/auth/refresh
+     * Body: { "refreshToken": "<token>" }
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> body) {
+        return authService.refresh(body.get("refreshToken"))
+            .<ResponseEntity<?>>map(session -> sessionResponse("Token refreshed", session))
+            .orElseGet(() -> ResponseEntity.status(401).body(Map.of("error", "Invalid refresh token")));
     }
 
     @GetMapping("/me")
@@ -120,14 +121,11 @@ public class AuthController {
             return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
         }
 
-        String username = authentication.getName();
-        Optional<User> userOptional = userRepository.findByUsername(username);
-        
-        if (userOptional.isEmpty()) {
+        User user = authService.findUser(authentication.getName());
+        if (user == null) {
             return ResponseEntity.status(401).body(Map.of("error", "User not found"));
         }
 
-        User user = userOptional.get();
         return ResponseEntity.ok(Map.of(
             "id", user.getId(),
             "username", user.getUsername(),
@@ -136,12 +134,42 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
-        // With JWT, logout is handled on the client side by removing the token
+    public ResponseEntity<?> logout(@RequestBody(required = false) Map<String, String> body) {
+        // The access token expires on its own; the client removes it. A refresh token sent along is revoked
+        if (body != null) {
+            authService.revoke(body.get("refreshToken"));
+        }
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok(Map.of("message", "Logout successful"));
     }
 
+    private ResponseEntity<?> sessionResponse(String message, AuthService.Session session) {
+        User user = session.getUser();
+        return ResponseEntity.ok(Map.of(
+            "message", message,
+            "token", session.getAccessToken(),
+            "refreshToken", session.getRefreshToken(),
+            "user", Map.of(
+                "id", user.getId(),
+                "username", user.getUsername(),
+                "role", user.getRole()
+            )
+        ));
+    }
+
+    private ResponseEntity<?> usernameTakenResponse() {
+        return ResponseEntity.badRequest().body(Map.of("error", "Username already exists"));
+    }
+
+    private static Throwable cause(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private ResponseEntity<?> busyResponse() {
+        return ResponseEntity.status(503).header("Retry-After", "1")
+            .body(Map.of("error", "Too many sign-in attempts, please retry shortly"));
+    }
+
     @GetMapping("/test")
     public ResponseEntity<?> test() {
         return ResponseEntity.ok(Map.of("message", "Auth endpoint is working"));
@@ -0,0 +1,65 @@
+package com.transformer.management.controller;
+
+import com.transformer.management.service.DetectionCorrelationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Correlation of detected hotspot severity with the temperature and load current of the same inspections
+ */
+@RestController
+@RequestMapping("/analytics/correlations")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class CorrelationController {
+    private static final int MAX_LAG = 10;
+
+    @Autowired
+    private DetectionCorrelationService detectionCorrelationService;
+
+    /**
+     * Per-transformer and pooled coefficients for the whole fleet
+     * GET /api/analytics/correlations?maxLag=2&minPairs=3
+     */
+    @GetMapping
+    public ResponseEntity<?> getFleet(@RequestParam(defaultValue = "2") int maxLag,
+                                      @RequestParam(defaultValue = "3") int minPairs) {
+        if (maxLag < 0 || maxLag > MAX_LAG) {
+            return ResponseEntity.badRequest().body(Map.of("error", "maxLag must be between 0 and " + MAX_LAG));
+        }
+        return ResponseEntity.ok(detectionCorrelationService.fleet(maxLag, Math.max(0, minPairs)));
+    }
+
+    /**
+     * Coefficients of one transformer; a positive lag pairs severity with the readings of later inspections
+     * GET /api/analytics/correlations/{transformerId}?maxLag=2
+     */
+    @GetMapping("/{transformerId}")
+    public ResponseEntity<?> getTransformer(@PathVariable String transformerId,
+                                            @RequestParam(defaultValue = "2") int maxLag) {
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(transformerId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid transformer ID format"));
+        }
+        if (maxLag < 0 || maxLag > MAX_LAG) {
+            return ResponseEntity.badRequest().body(Map.of("error", "maxLag must be between 0 and " + MAX_LAG));
+        }
+        return ResponseEntity.ok(detectionCorrelationService.transformer(uuid, maxLag));
+    }
+
+    /**
+     * Re-align all inspections and recompute the running sums
+     * POST /api/analytics/correlations/rebuild
+     */
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        return ResponseEntity.ok(detectionCorrelationService.rebuildAll());
+    }
+}
@@ -0,0 +1,75 @@
+package com.transformer.management.controller;
+
+import com.transformer.management.service.TrainingExportService;
+import com.transformer.management.service.export.ExportJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * REST Controller for training-data exports
+ * Exports run in the background; clients poll the job and then download its shards
+ */
+@RestController
+@RequestMapping("/exports")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class ExportController {
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    @Autowired
+    private TrainingExportService exportService;
+
+    /**
+     * Start an export
+     * POST /api/exports?format=coco|yolo&incremental=true
+     */
+    @PostMapping
+    public ResponseEntity<?> startExport(@RequestParam(defaultValue = TrainingExportService.FORMAT_COCO) String format,
+                                         @RequestParam(defaultValue = "true") boolean incremental) {
+        String normalized = format.trim().toLowerCase();
+        if (!TrainingExportService.FORMAT_COCO.equals(normalized) && !TrainingExportService.FORMAT_YOLO.equals(normalized)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "format must be coco or yolo"));
+        }
+
+        ExportJob job = exportService.startExport(normalized, incremental);
+        logger.info("Queued {} training export {} (incremental: {})", normalized, job.getId(), incremental);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    /**
+     * Progress of an export and the file names of its shards
+     * GET /api/exports/{jobId}
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getExport(@PathVariable UUID jobId) {
+        return exportService.getJob(jobId)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Download one shard of a completed export
+     * GET /api/exports/{jobId}/shards/{fileName}
+     */
+    @GetMapping("/{jobId}/shards/{fileName}")
+    public ResponseEntity<?> downloadShard(@PathVariable UUID jobId, @PathVariable String fileName) {
+        Optional<Path> shard = exportService.getShard(jobId, fileName);
+        if (shard.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/zip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+            .body(new FileSystemResource(shard.get()));
+    }
+}
@@ -1,16 +1,35 @@
 package com.transformer.management.controller;
 
+import com.transformer.management.service.DataAccessMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("")
 public class HealthController {
 
+    @Autowired
+    private HikariDataSource primaryPool;
+
+    @Autowired
+    private DataAccessMetrics dataAccessMetrics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         return ResponseEntity.ok(Map.of(
@@ -19,4 +38,63 @@ public class HealthController {
             "timestamp", java.time.LocalDateTime.now().toString()
         ));
     }
-}
\ No newline at end of file
+
+    /**
+     * Connection pool state, pool wait time per endpoint and long transaction count
+     * GET /api/health/db
+     */
+    @GetMapping("/health/db")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> databaseHealth() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("maximumPoolSize", primaryPool.getMaximumPoolSize());
+        HikariPoolMXBean mxBean = primaryPool.getHikariPoolMXBean();
+        if (mxBean != null) {
+            pool.put("active", mxBean.getActiveConnections());
+            pool.put("idle", mxBean.getIdleConnections());
+            pool.put("threadsAwaitingConnection", mxBean.getThreadsAwaitingConnection());
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("primaryPool", pool);
+        response.put("longTransactions", dataAccessMetrics.getLongTransactions());
+        response.put("poolWaitByEndpoint", dataAccessMetrics.poolWaitByEndpoint());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Second-level and query cache hit ratios per region, with the SQL statements sent since startup
+     * Counts stay at zero unless Hibernate statistics are enabled (HIBERNATE_STATISTICS=true)
+     * GET /api/health/cache
+     */
+    @GetMapping("/health/cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> cacheHealth() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            regions.put(regionName, regionStats(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("regions", regions);
+        response.put("queryCache", regionStats(statistics.getQueryCacheHitCount(),
+            statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        response.put("entityLoadsFromDatabase", statistics.getEntityLoadCount());
+        response.put("sqlStatements", statistics.getPrepareStatementCount());
+        response.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        response.put("since", statistics.getStart() != null ? statistics.getStart().toString() : null);
+        return ResponseEntity.ok(response);
+    }
+
+    private Map<String, Object> regionStats(long hits, long misses, long puts) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("puts", puts);
+        stats.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        return stats;
+    }
+}
@@ -3,13 +3,18 @@ package com.transformer.management.controller;
 import com.transformer.management.entity.Image;
 import com.transformer.management.entity.Transformer;
 import com.transformer.management.entity.Inspection;
+import com.transformer.management.dto.CreateImageRequest;
 import com.transformer.management.dto.ImageDTO;
 import com.transformer.management.repository.ImageRepository;
 import com.transformer.management.repository.TransformerRepository;
 import com.transformer.management.repository.InspectionRepository;
 import com.transformer.management.service.CloudinaryService;
+import com.transformer.management.service.ImageMetadataExtractor;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -17,7 +22,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/images")
@@ -36,51 +40,46 @@ public class ImageController {
     @Autowired
     private CloudinaryService cloudinaryService;
 
+    @Autowired
+    private ImageMetadataExtractor imageMetadataExtractor;
+
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @GetMapping
-    public List<ImageDTO> getAllImages(@RequestParam(required = false) String transformerId,
-                                      @RequestParam(required = false) String imageType,
-                                      @RequestParam(required = false) String inspectionId) {
+    public ResponseEntity<?> getAllImages(@RequestParam(required = false) String transformerId,
+                                          @RequestParam(required = false) String imageType,
+                                          @RequestParam(required = false) String inspectionId,
+                                          @RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
         System.out.println("🔍 ImageController.getAllImages() called with transformerId: " + transformerId + 
-                          ", imageType: " + imageType + ", inspectionId: " + inspectionId);
-        
-        List<Image> images = List.of();
+                          ", imageType: " + imageType + ", inspectionId: " + inspectionId +
+                          ", page: " + page + ", limit: " + limit);
         
-        if (transformerId != null && imageType != null) {
-            try {
-                UUID uuid = UUID.fromString(transformerId);
-                images = imageRepository.findByTransformerIdAndImageType(uuid, imageType);
-                System.out.println("📊 Found " + images.size() + " images for transformer " + transformerId + " with type " + imageType);
-            } catch (IllegalArgumentException e) {
-                System.out.println("❌ Invalid transformer UUID: " + transformerId);
-                return List.of();
-            }
-        } else if (transformerId != null) {
-            try {
-                UUID uuid = UUID.fromString(transformerId);
-                images = imageRepository.findByTransformerId(uuid);
-                System.out.println("📊 Found " + images.size() + " images for transformer " + transformerId);
-            } catch (IllegalArgumentException e) {
-                System.out.println("❌ Invalid transformer UUID: " + transformerId);
-                return List.of();
+        UUID transformerUuid = null;
+        UUID inspectionUuid = null;
+        try {
+            if (transformerId != null) {
+                transformerUuid = UUID.fromString(transformerId);
             }
-        } else if (inspectionId != null) {
-            try {
-                UUID uuid = UUID.fromString(inspectionId);
-                images = imageRepository.findByInspectionId(uuid);
-                System.out.println("📊 Found " + images.size() + " images for inspection " + inspectionId);
-            } catch (IllegalArgumentException e) {
-                System.out.println("❌ Invalid inspection UUID: " + inspectionId);
-                return List.of();
+            if (inspectionId != null) {
+                inspectionUuid = UUID.fromString(inspectionId);
             }
-        } else if (imageType != null) {
-            images = imageRepository.findByImageType(imageType);
-            System.out.println("📊 Found " + images.size() + " images with type " + imageType);
-        } else {
-            images = imageRepository.findAll();
-            System.out.println("📊 Found " + images.size() + " total images");
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ Invalid UUID filter: transformerId=" + transformerId + ", inspectionId=" + inspectionId);
+            return ResponseEntity.ok(List.of());
         }
         
-        return images.stream().map(this::convertToDTO).collect(Collectors.toList());
+        // All filters are combined in a single projection query, so no per-row lookups are needed
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        try {
+            List<ImageDTO> images = imageRepository.findImageDTOs(
+                transformerUuid, imageType, inspectionUuid, Math.max(page, 0), pageSize);
+            System.out.println("📊 Found " + images.size() + " images");
+            return ResponseEntity.ok(images);
+        } catch (ArithmeticException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Page out of range: " + page));
+        }
     }
 
     private ImageDTO convertToDTO(Image image) {
@@ -94,6 +93,10 @@ public class ImageController {
         dto.setComments(image.getComments());
         dto.setCapturedAt(image.getCapturedAt());
         dto.setCreatedAt(image.getCreatedAt());
+        dto.setCameraModel(image.getCameraModel());
+        dto.setEmissivity(image.getEmissivity());
+        dto.setTemperatureMin(image.getTemperatureMin());
+        dto.setTemperatureMax(image.getTemperatureMax());
         
         if (image.getTransformer() != null) {
             dto.setTransformerId(image.getTransformer().getId());
@@ -110,8 +113,8 @@ public class ImageController {
 
     @GetMapping("/{id}")
     public ResponseEntity<ImageDTO> getImageById(@PathVariable UUID id) {
-        Optional<Image> image = imageRepository.findById(id);
-        return image.map(img -> ResponseEntity.ok(convertToDTO(img)))
+        return imageRepository.findImageDTOById(id)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -121,12 +124,12 @@ public class ImageController {
         
         try {
             UUID uuid = UUID.fromString(transformerId);
-            // Use the new sorted method to get the most recent baseline image
-            List<Image> baselineImages = imageRepository.findByTransformerIdAndImageTypeOrderByCapturedAtDesc(uuid, "baseline");
+            // Projection query is ordered by capturedAt descending, so the first row is the most recent
+            List<ImageDTO> baselineImages = imageRepository.findImageDTOs(uuid, "baseline", null, 0, 1);
             
             if (!baselineImages.isEmpty()) {
                 System.out.println("✅ Found most recent baseline image: " + baselineImages.get(0).getId() + " captured at: " + baselineImages.get(0).getCapturedAt());
-                return ResponseEntity.ok(convertToDTO(baselineImages.get(0)));
+                return ResponseEntity.ok(baselineImages.get(0));
             } else {
                 System.out.println("📭 No baseline image found for transformer: " + transformerId);
                 return ResponseEntity.notFound().build();
@@ -143,11 +146,11 @@ public class ImageController {
         
         try {
             UUID uuid = UUID.fromString(inspectionId);
-            List<Image> baselineImages = imageRepository.findByInspectionIdAndImageType(uuid, "baseline");
+            List<ImageDTO> baselineImages = imageRepository.findImageDTOs(null, "baseline", uuid, 0, 1);
             
             if (!baselineImages.isEmpty()) {
                 System.out.println("✅ Found baseline image for inspection: " + baselineImages.get(0).getId());
-                return ResponseEntity.ok(convertToDTO(baselineImages.get(0)));
+                return ResponseEntity.ok(baselineImages.get(0));
             } else {
                 System.out.println("📭 No baseline image found for inspection: " + inspectionId);
                 return ResponseEntity.notFound().build();
@@ -159,16 +162,21 @@ public class ImageController {
     }
 
     @PostMapping
-    public ResponseEntity<Image> createImage(@RequestBody Map<String, Object> requestData) {
-        System.out.println("🔄 Creating new image with data: " + requestData);
+    public ResponseEntity<?> createImage(@Valid @RequestBody CreateImageRequest request, BindingResult validation) {
+        System.out.println("🔄 Creating new image with data: " + request);
+        
+        if (validation.hasErrors()) {
+            FieldError error = validation.getFieldError();
+            return ResponseEntity.badRequest().body(Map.of("error",
+                error != null ? error.getField() + " " + error.getDefaultMessage() : "Invalid image"));
+        }
+        
+        String transformerId = request.transformerKey();
+        if (transformerId == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "transformer_id is required"));
+        }
         
         try {
-            // Extract transformer information
-            String transformerId = (String) requestData.get("transformer_id");
-            if (transformerId == null) {
-                return ResponseEntity.badRequest().build();
-            }
-            
             // Find the transformer
             Optional<Transformer> transformer;
             try {
@@ -180,19 +188,16 @@ public class ImageController {
             
             if (transformer.isEmpty()) {
                 System.out.println("❌ Transformer not found: " + transformerId);
-                return ResponseEntity.badRequest().build();
+                return ResponseEntity.badRequest().body(Map.of("error", "Transformer not found"));
             }
             
             // Create image
             Image image = new Image();
             image.setTransformer(transformer.get());
-            image.setUrl((String) requestData.get("url"));
-            image.setLabel((String) requestData.get("label"));
-            
-            // Handle capturedAt
-            String capturedAtStr = (String) requestData.get("captured_at");
-            if (capturedAtStr != null) {
-                image.setCapturedAt(java.time.LocalDateTime.parse(capturedAtStr.replace("Z", "")));
+            image.setUrl(request.url());
+            image.setLabel(request.label());
+            if (request.capturedAt() != null) {
+                image.setCapturedAt(request.capturedAt());
             }
             
             Image savedImage = imageRepository.save(image);
@@ -279,6 +284,14 @@ public class ImageController {
                 }
             }
 
+            // Read EXIF/radiometric header segments (stops before the image data)
+            ImageMetadataExtractor.ImageMetadata metadata;
+            try (java.io.InputStream in = file.getInputStream()) {
+                metadata = imageMetadataExtractor.extract(in);
+            }
+            System.out.println("🌡️ Extracted metadata: capturedAt=" + metadata.getCapturedAt() +
+                              ", camera=" + metadata.getCameraModel() + ", emissivity=" + metadata.getEmissivity());
+
             // Upload to Cloudinary
             System.out.println("☁️ Uploading image to Cloudinary...");
             String folder = "transformer-images/" + imageType.toLowerCase();
@@ -303,6 +316,13 @@ public class ImageController {
             image.setUploaderName(uploaderName);
             image.setEnvironmentalCondition(environmentalCondition);
             image.setComments(comments);
+            if (metadata.getCapturedAt() != null) {
+                image.setCapturedAt(metadata.getCapturedAt());
+            }
+            image.setCameraModel(metadata.getCameraModel());
+            image.setEmissivity(metadata.getEmissivity());
+            image.setTemperatureMin(metadata.getTemperatureMin());
+            image.setTemperatureMax(metadata.getTemperatureMax());
             if (inspection.isPresent()) {
                 image.setInspection(inspection.get());
             }
@@ -330,7 +350,7 @@ public class ImageController {
     public ResponseEntity<ImageDTO> updateImage(@PathVariable UUID id, @RequestBody Map<String, Object> requestData) {
         System.out.println("🔄 Updating image with ID: " + id);
         
-        Optional<Image> image = imageRepository.findById(id);
+        Optional<Image> image = imageRepository.findWithOwnersById(id);
         if (image.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
@@ -353,9 +373,10 @@ public class ImageController {
                 }
             }
 
-            Image updatedImage = imageRepository.save(existingImage);
+            imageRepository.save(existingImage);
             System.out.println("✅ Successfully updated image: " + id);
-            return ResponseEntity.ok(convertToDTO(updatedImage));
+            // The saved copy holds its transformer and inspection as uninitialized proxies
+            return ResponseEntity.ok(convertToDTO(existingImage));
             
         } catch (Exception e) {
             System.out.println("❌ Failed to update image: " + e.getMessage());
@@ -1,15 +1,16 @@
 package com.transformer.management.controller;
 
+import com.transformer.management.dto.InspectionSummaryDTO;
 import com.transformer.management.entity.Inspection;
 import com.transformer.management.entity.Transformer;
 import com.transformer.management.repository.InspectionRepository;
 import com.transformer.management.repository.TransformerRepository;
-import com.transformer.management.repository.ImageRepository;
-import com.transformer.management.repository.AnomalyDetectionRepository;
+import com.transformer.management.service.CascadeDeleteService;
+import com.transformer.management.service.InspectionNumberService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
@@ -17,7 +18,6 @@ import java.util.Optional;
 import java.util.UUID;
 import java.time.LocalDateTime;
 import java.time.Instant;
-import java.time.format.DateTimeFormatter;
 
 @RestController
 @RequestMapping("/inspections")
@@ -31,70 +31,36 @@ public class InspectionController {
     private TransformerRepository transformerRepository;
     
     @Autowired
-    private ImageRepository imageRepository;
-    
+    private InspectionNumberService inspectionNumberService;
+
     @Autowired
-    private AnomalyDetectionRepository anomalyDetectionRepository;
+    private CascadeDeleteService cascadeDeleteService;
 
-    // Auto-generate inspection number with format: INSP-YYYYMMDD-NNNN
-    // YYYYMMDD is based on the inspection date (inspectedAt), not the creation date
-    private String generateInspectionNumber(LocalDateTime inspectedAt) {
-        String inspectionDate = inspectedAt.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String prefix = "INSP-" + inspectionDate + "-";
-        
-        // Find the highest sequence number for inspections on this date
-        List<Inspection> inspectionsOnDate = inspectionRepository.findByInspectionNoStartingWith(prefix);
-        
-        int nextSequence = 1;
-        if (!inspectionsOnDate.isEmpty()) {
-            // Extract sequence numbers and find the maximum
-            int maxSequence = inspectionsOnDate.stream()
-                .mapToInt(inspection -> {
-                    String inspectionNo = inspection.getInspectionNo();
-                    if (inspectionNo != null && inspectionNo.startsWith(prefix)) {
-                        try {
-                            return Integer.parseInt(inspectionNo.substring(prefix.length()));
-                        } catch (NumberFormatException e) {
-                            return 0;
-                        }
-                    }
-                    return 0;
-                })
-                .max()
-                .orElse(0);
-            nextSequence = maxSequence + 1;
-        }
-        
-        System.out.println("✅ Generated inspection number: " + prefix + String.format("%04d", nextSequence) + " (for inspection date: " + inspectionDate + ")");
-        return prefix + String.format("%04d", nextSequence);
-    }
+    private static final int MAX_PAGE_SIZE = 200;
 
     @GetMapping
     public List<Inspection> getAllInspections() {
         System.out.println("🔍 InspectionController.getAllInspections() called");
         List<Inspection> inspections = inspectionRepository.findAllByOrderByInspectedAtDesc();
         System.out.println("📊 Found " + inspections.size() + " inspections (sorted by inspection date descending)");
-        
-        // Ensure all inspections have valid inspectedAt dates and save them
-        boolean needsSave = false;
-        for (Inspection inspection : inspections) {
-            if (inspection.getInspectedAt() == null) {
-                System.out.println("⚠️ Inspection " + inspection.getId() + " has null inspectedAt, fixing it");
-                LocalDateTime fixedDate = inspection.getCreatedAt() != null ? inspection.getCreatedAt() : LocalDateTime.now();
-                inspection.setInspectedAt(fixedDate);
-                inspectionRepository.save(inspection);
-                System.out.println("✅ Fixed and saved inspection " + inspection.getId() + " with date: " + fixedDate);
-                needsSave = true;
-            }
-        }
-        
-        if (needsSave) {
-            System.out.println("📝 Database updated with fixed dates");
-        }
-        
         return inspections;
     }
 
+    // Paginated list rows with transformer code, image counts and latest detection summary
+    @GetMapping("/summary")
+    public ResponseEntity<?> getInspectionSummaries(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (page < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "page must be >= 0 and limit between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        List<InspectionSummaryDTO> summaries = inspectionRepository.findInspectionSummaries(PageRequest.of(page, limit));
+        System.out.println("📊 Returning " + summaries.size() + " inspection summaries (page " + page + ", limit " + limit + ")");
+        return ResponseEntity.ok(summaries);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Inspection> getInspectionById(@PathVariable String id) {
         System.out.println("🔍 Getting inspection with ID: " + id);
@@ -104,7 +70,7 @@ public class InspectionController {
         // Try to parse as UUID first
         try {
             UUID uuid = UUID.fromString(id);
-            inspection = inspectionRepository.findById(uuid);
+            inspection = inspectionRepository.findWithTransformerById(uuid);
             System.out.println("🔍 Found inspection by UUID: " + inspection.isPresent());
         } catch (IllegalArgumentException e) {
             // If not a valid UUID, inspection IDs are typically UUIDs, so return not found
@@ -181,7 +147,7 @@ public class InspectionController {
             // Auto-generate inspection number if not provided (uses inspectedAt for the date)
             String inspectionNo = (String) requestData.get("inspectionNo");
             if (inspectionNo == null || inspectionNo.trim().isEmpty()) {
-                inspectionNo = generateInspectionNumber(inspectedAtDateTime);
+                inspectionNo = inspectionNumberService.nextInspectionNumber(inspectedAtDateTime);
             }
             inspection.setInspectionNo(inspectionNo);
             
@@ -224,7 +190,7 @@ public class InspectionController {
         // Try to parse as UUID first
         try {
             UUID uuid = UUID.fromString(id);
-            inspection = inspectionRepository.findById(uuid);
+            inspection = inspectionRepository.findWithTransformerById(uuid);
             System.out.println("🔍 Found inspection by UUID: " + inspection.isPresent());
         } catch (IllegalArgumentException e) {
             // If not a valid UUID, inspection IDs are typically UUIDs, so return not found
@@ -270,6 +236,8 @@ public class InspectionController {
             }
 
             Inspection updatedInspection = inspectionRepository.save(existingInspection);
+            // The saved copy holds its transformer as an uninitialized proxy; answer with the one loaded above
+            updatedInspection.setTransformer(existingInspection.getTransformer());
             System.out.println("✅ Successfully updated inspection: " + id);
             return ResponseEntity.ok(updatedInspection);
             
@@ -281,39 +249,20 @@ public class InspectionController {
     }
 
     @DeleteMapping("/{id}")
-    @Transactional
     public ResponseEntity<Void> deleteInspection(@PathVariable String id) {
         System.out.println("🗑️ Attempting to delete inspection with ID: " + id);
         
         try {
             UUID uuid = UUID.fromString(id);
             
-            // Check if inspection exists
-            if (!inspectionRepository.existsById(uuid)) {
+            // Removes images, detections, annotations and maintenance records in one transaction;
+            // Cloudinary assets are deleted in the background after commit
+            if (!cascadeDeleteService.deleteInspection(uuid)) {
                 System.out.println("❌ Inspection not found: " + id);
                 return ResponseEntity.notFound().build();
             }
             
-            // Step 1: Delete related anomaly detections first
-            List<com.transformer.management.entity.AnomalyDetection> anomalies = 
-                anomalyDetectionRepository.findByInspectionId(uuid);
-            if (!anomalies.isEmpty()) {
-                System.out.println("🗑️ Deleting " + anomalies.size() + " related anomaly detection(s)");
-                anomalyDetectionRepository.deleteAll(anomalies);
-            }
-            
-            // Step 2: Delete related images
-            List<com.transformer.management.entity.Image> images = 
-                imageRepository.findByInspectionId(uuid);
-            if (!images.isEmpty()) {
-                System.out.println("🗑️ Deleting " + images.size() + " related image(s)");
-                imageRepository.deleteAll(images);
-            }
-            
-            // Step 3: Finally delete the inspection
-            inspectionRepository.deleteById(uuid);
             System.out.println("✅ Successfully deleted inspection and all related records: " + id);
-            
             return ResponseEntity.noContent().build();
             
         } catch (IllegalArgumentException e) {
@@ -1,20 +1,30 @@
 package com.transformer.management.controller;
 
+import com.transformer.management.dto.MaintenanceRecordRequest;
+import com.transformer.management.dto.TransformerStatusDTO;
 import com.transformer.management.entity.MaintenanceRecord;
 import com.transformer.management.entity.Inspection;
 import com.transformer.management.entity.Transformer;
 import com.transformer.management.repository.MaintenanceRecordRepository;
 import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.repository.LatestMaintenanceRecordRepository;
 import com.transformer.management.repository.TransformerRepository;
+import com.transformer.management.service.MaintenanceRecordService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.validation.Valid;
+
 import java.time.LocalDateTime;
-import java.time.Instant;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,12 +44,35 @@ public class MaintenanceRecordController {
     @Autowired
     private TransformerRepository transformerRepository;
 
+    @Autowired
+    private LatestMaintenanceRecordRepository latestRecordRepository;
+
+    @Autowired
+    private MaintenanceRecordService maintenanceRecordService;
+
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @GetMapping
-    public List<MaintenanceRecord> getAllMaintenanceRecords() {
-        System.out.println("🔍 MaintenanceRecordController.getAllMaintenanceRecords() called");
-        List<MaintenanceRecord> records = maintenanceRecordRepository.findAll();
+    public ResponseEntity<?> getAllMaintenanceRecords(@RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        System.out.println("🔍 MaintenanceRecordController.getAllMaintenanceRecords() called, page: " + page + ", limit: " + limit);
+        if (page < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "page must be >= 0 and limit between 1 and " + MAX_PAGE_SIZE));
+        }
+        List<MaintenanceRecord> records = maintenanceRecordRepository.findAllByOrderByCreatedAtDescIdDesc(PageRequest.of(page, limit));
         System.out.println("📊 Found " + records.size() + " maintenance records");
-        return records;
+        return ResponseEntity.ok(records);
+    }
+
+    /**
+     * Every transformer with the status and readings of its latest maintenance record, in one query
+     * GET /api/maintenance-records/latest
+     */
+    @GetMapping("/latest")
+    public List<TransformerStatusDTO> getLatestPerTransformer() {
+        return latestRecordRepository.findTransformerStatuses();
     }
 
     @GetMapping("/{id}")
@@ -64,18 +97,11 @@ public class MaintenanceRecordController {
         
         try {
             UUID uuid = UUID.fromString(inspectionId);
-            List<MaintenanceRecord> records = maintenanceRecordRepository.findByInspectionId(uuid);
-            
-            if (records.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
             
             // Return the most recent record for this inspection
-            MaintenanceRecord latestRecord = records.stream()
-                    .max((r1, r2) -> r1.getCreatedAt().compareTo(r2.getCreatedAt()))
-                    .orElse(null);
-            
-            return ResponseEntity.ok(latestRecord);
+            return maintenanceRecordRepository.findFirstByInspectionIdOrderByCreatedAtDescIdDesc(uuid)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
         } catch (IllegalArgumentException e) {
             System.out.println("❌ Invalid UUID format for inspection ID: " + inspectionId);
             return ResponseEntity.notFound().build();
@@ -83,97 +109,109 @@ public class MaintenanceRecordController {
     }
 
     @GetMapping("/transformer/{transformerId}")
-    public List<MaintenanceRecord> getMaintenanceRecordsByTransformerId(@PathVariable String transformerId) {
+    public List<MaintenanceRecord> getMaintenanceRecordsByTransformerId(@PathVariable String transformerId,
+                                                                        @RequestParam(defaultValue = "0") int page,
+                                                                        @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
         System.out.println("🔍 Getting maintenance records for transformer ID: " + transformerId);
         
         try {
             UUID uuid = UUID.fromString(transformerId);
-            return maintenanceRecordRepository.findByTransformerId(uuid);
+            int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+            return maintenanceRecordRepository.findByTransformerIdOrderByCreatedAtDescIdDesc(uuid, PageRequest.of(Math.max(page, 0), pageSize));
         } catch (IllegalArgumentException e) {
             System.out.println("❌ Invalid UUID format for transformer ID: " + transformerId);
             return List.of();
         }
     }
 
+    /**
+     * Latest maintenance record of a transformer, found through its latest-record pointer
+     * GET /api/maintenance-records/transformer/{transformerId}/latest
+     */
+    @GetMapping("/transformer/{transformerId}/latest")
+    public ResponseEntity<MaintenanceRecord> getLatestByTransformerId(@PathVariable String transformerId) {
+        try {
+            UUID uuid = UUID.fromString(transformerId);
+            return latestRecordRepository.findById(uuid)
+                    .flatMap(latest -> maintenanceRecordRepository.findById(latest.getMaintenanceRecordId()))
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ Invalid UUID format for transformer ID: " + transformerId);
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Count, min, mean and max of each reading over a transformer's maintenance records, computed in SQL
+     * GET /api/maintenance-records/transformer/{transformerId}/readings
+     */
+    @GetMapping("/transformer/{transformerId}/readings")
+    public ResponseEntity<?> getReadingStats(@PathVariable String transformerId) {
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(transformerId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid transformer ID format"));
+        }
+
+        Object[] row = maintenanceRecordRepository.getReadingStatsByTransformer(uuid).get(0);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("transformerId", uuid);
+        response.put("records", row[0]);
+        String[] readings = {"voltageReading", "currentReading", "powerFactor", "temperature"};
+        for (int i = 0; i < readings.length; i++) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", row[1 + i * 4]);
+            stats.put("min", row[2 + i * 4]);
+            stats.put("mean", row[3 + i * 4]);
+            stats.put("max", row[4 + i * 4]);
+            response.put(readings[i], stats);
+        }
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Create a new maintenance record.
      * Only ENGINEER and ADMIN roles can create maintenance records.
      */
     @PostMapping
     @PreAuthorize("hasAnyRole('ENGINEER', 'ADMIN')")
-    public ResponseEntity<MaintenanceRecord> createMaintenanceRecord(@RequestBody Map<String, Object> requestData) {
+    public ResponseEntity<?> createMaintenanceRecord(@Valid @RequestBody MaintenanceRecordRequest request, BindingResult validation) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        System.out.println("🔄 Creating new maintenance record. User: " + auth.getName() + ", Data: " + requestData);
+        System.out.println("🔄 Creating new maintenance record. User: " + auth.getName() + ", Data: " + request);
+        
+        if (validation.hasErrors()) {
+            return ResponseEntity.badRequest().body(Map.of("error", validationError(validation)));
+        }
+        if (request.inspectionId() == null) {
+            System.out.println("❌ Missing inspectionId");
+            return ResponseEntity.badRequest().body(Map.of("error", "inspectionId is required"));
+        }
         
         try {
-            // Extract and validate inspection ID
-            String inspectionIdStr = (String) requestData.get("inspectionId");
-            if (inspectionIdStr == null) {
-                System.out.println("❌ Missing inspectionId");
-                return ResponseEntity.badRequest().build();
-            }
-            
-            UUID inspectionId = UUID.fromString(inspectionIdStr);
-            Optional<Inspection> inspection = inspectionRepository.findById(inspectionId);
+            // With its transformer, which the response includes
+            Optional<Inspection> inspection = inspectionRepository.findWithTransformerById(request.inspectionId());
             
             if (inspection.isEmpty()) {
-                System.out.println("❌ Inspection not found: " + inspectionIdStr);
-                return ResponseEntity.badRequest().build();
+                System.out.println("❌ Inspection not found: " + request.inspectionId());
+                return ResponseEntity.badRequest().body(Map.of("error", "Inspection not found"));
             }
             
-            // Extract transformer ID from inspection
+            // Extract transformer from inspection
             Transformer transformer = inspection.get().getTransformer();
             if (transformer == null) {
-                System.out.println("❌ Transformer not found for inspection: " + inspectionIdStr);
-                return ResponseEntity.badRequest().build();
+                System.out.println("❌ Transformer not found for inspection: " + request.inspectionId());
+                return ResponseEntity.badRequest().body(Map.of("error", "Inspection has no transformer"));
             }
             
             // Create maintenance record
             MaintenanceRecord record = new MaintenanceRecord();
             record.setInspection(inspection.get());
             record.setTransformer(transformer);
+            applyRequest(record, request);
             
-            // Set all fields from request
-            if (requestData.containsKey("inspectorName")) {
-                record.setInspectorName((String) requestData.get("inspectorName"));
-            }
-            if (requestData.containsKey("transformerStatus")) {
-                record.setTransformerStatus((String) requestData.get("transformerStatus"));
-            }
-            if (requestData.containsKey("voltageReading")) {
-                record.setVoltageReading((String) requestData.get("voltageReading"));
-            }
-            if (requestData.containsKey("currentReading")) {
-                record.setCurrentReading((String) requestData.get("currentReading"));
-            }
-            if (requestData.containsKey("powerFactor")) {
-                record.setPowerFactor((String) requestData.get("powerFactor"));
-            }
-            if (requestData.containsKey("temperature")) {
-                record.setTemperature((String) requestData.get("temperature"));
-            }
-            if (requestData.containsKey("recommendedAction")) {
-                record.setRecommendedAction((String) requestData.get("recommendedAction"));
-            }
-            if (requestData.containsKey("additionalRemarks")) {
-                record.setAdditionalRemarks((String) requestData.get("additionalRemarks"));
-            }
-            
-            // Handle completion date
-            if (requestData.containsKey("completionDate")) {
-                String completionDateStr = (String) requestData.get("completionDate");
-                if (completionDateStr != null && !completionDateStr.isEmpty()) {
-                    try {
-                        Instant instant = Instant.parse(completionDateStr);
-                        LocalDateTime localDateTime = LocalDateTime.ofInstant(instant, java.time.ZoneId.systemDefault());
-                        record.setCompletionDate(localDateTime);
-                    } catch (Exception e) {
-                        System.out.println("⚠️ Failed to parse completionDate: " + completionDateStr);
-                    }
-                }
-            }
-            
-            MaintenanceRecord savedRecord = maintenanceRecordRepository.save(record);
+            MaintenanceRecord savedRecord = maintenanceRecordService.create(record);
             System.out.println("✅ Successfully created maintenance record: " + savedRecord.getId());
             return ResponseEntity.ok(savedRecord);
             
@@ -190,64 +228,26 @@ public class MaintenanceRecordController {
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ENGINEER', 'ADMIN')")
-    public ResponseEntity<MaintenanceRecord> updateMaintenanceRecord(@PathVariable String id, @RequestBody Map<String, Object> requestData) {
+    public ResponseEntity<?> updateMaintenanceRecord(@PathVariable String id, @Valid @RequestBody MaintenanceRecordRequest request,
+                                                     BindingResult validation) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         System.out.println("🔄 Updating maintenance record " + id + ". User: " + auth.getName());
         
+        if (validation.hasErrors()) {
+            return ResponseEntity.badRequest().body(Map.of("error", validationError(validation)));
+        }
+        
         try {
             UUID uuid = UUID.fromString(id);
-            Optional<MaintenanceRecord> optionalRecord = maintenanceRecordRepository.findById(uuid);
+            Optional<MaintenanceRecord> updatedRecord = maintenanceRecordService.update(uuid, record -> applyRequest(record, request));
             
-            if (optionalRecord.isEmpty()) {
+            if (updatedRecord.isEmpty()) {
                 System.out.println("❌ Maintenance record not found: " + id);
                 return ResponseEntity.notFound().build();
             }
             
-            MaintenanceRecord record = optionalRecord.get();
-            
-            // Update fields if provided
-            if (requestData.containsKey("inspectorName")) {
-                record.setInspectorName((String) requestData.get("inspectorName"));
-            }
-            if (requestData.containsKey("transformerStatus")) {
-                record.setTransformerStatus((String) requestData.get("transformerStatus"));
-            }
-            if (requestData.containsKey("voltageReading")) {
-                record.setVoltageReading((String) requestData.get("voltageReading"));
-            }
-            if (requestData.containsKey("currentReading")) {
-                record.setCurrentReading((String) requestData.get("currentReading"));
-            }
-            if (requestData.containsKey("powerFactor")) {
-                record.setPowerFactor((String) requestData.get("powerFactor"));
-            }
-            if (requestData.containsKey("temperature")) {
-                record.setTemperature((String) requestData.get("temperature"));
-            }
-            if (requestData.containsKey("recommendedAction")) {
-                record.setRecommendedAction((String) requestData.get("recommendedAction"));
-            }
-            if (requestData.containsKey("additionalRemarks")) {
-                record.setAdditionalRemarks((String) requestData.get("additionalRemarks"));
-            }
-            
-            // Handle completion date
-            if (requestData.containsKey("completionDate")) {
-                String completionDateStr = (String) requestData.get("completionDate");
-                if (completionDateStr != null && !completionDateStr.isEmpty()) {
-                    try {
-                        Instant instant = Instant.parse(completionDateStr);
-                        LocalDateTime localDateTime = LocalDateTime.ofInstant(instant, java.time.ZoneId.systemDefault());
-                        record.setCompletionDate(localDateTime);
-                    } catch (Exception e) {
-                        System.out.println("⚠️ Failed to parse completionDate: " + completionDateStr);
-                    }
-                }
-            }
-            
-            MaintenanceRecord updatedRecord = maintenanceRecordRepository.save(record);
             System.out.println("✅ Successfully updated maintenance record: " + id);
-            return ResponseEntity.ok(updatedRecord);
+            return ResponseEntity.ok(updatedRecord.get());
             
         } catch (IllegalArgumentException e) {
             System.out.println("❌ Invalid UUID format: " + id);
@@ -259,6 +259,42 @@ public class MaintenanceRecordController {
         }
     }
 
+    // Copy the fields present in the request; fields left out keep their current value
+    private void applyRequest(MaintenanceRecord record, MaintenanceRecordRequest request) {
+        if (request.inspectorName() != null) {
+            record.setInspectorName(request.inspectorName());
+        }
+        if (request.transformerStatus() != null) {
+            record.setTransformerStatus(request.transformerStatus());
+        }
+        if (request.voltageReading() != null) {
+            record.setVoltageReading(request.voltageReading());
+        }
+        if (request.currentReading() != null) {
+            record.setCurrentReading(request.currentReading());
+        }
+        if (request.powerFactor() != null) {
+            record.setPowerFactor(request.powerFactor());
+        }
+        if (request.temperature() != null) {
+            record.setTemperature(request.temperature());
+        }
+        if (request.recommendedAction() != null) {
+            record.setRecommendedAction(request.recommendedAction());
+        }
+        if (request.additionalRemarks() != null) {
+            record.setAdditionalRemarks(request.additionalRemarks());
+        }
+        if (request.completionDate() != null) {
+            record.setCompletionDate(LocalDateTime.ofInstant(request.completionDate(), ZoneId.systemDefault()));
+        }
+    }
+
+    private String validationError(BindingResult validation) {
+        FieldError error = validation.getFieldError();
+        return error != null ? error.getField() + " " + error.getDefaultMessage() : "Invalid maintenance record";
+    }
+
     /**
      * Delete a maintenance record.
      * Only ADMIN role can delete maintenance records.
@@ -272,12 +308,13 @@ public class MaintenanceRecordController {
         try {
             UUID uuid = UUID.fromString(id);
             
-            if (!maintenanceRecordRepository.existsById(uuid)) {
+            Optional<MaintenanceRecord> record = maintenanceRecordRepository.findById(uuid);
+            if (record.isEmpty()) {
                 System.out.println("❌ Maintenance record not found: " + id);
                 return ResponseEntity.notFound().build();
             }
             
-            maintenanceRecordRepository.deleteById(uuid);
+            maintenanceRecordService.delete(record.get());
             System.out.println("✅ Successfully deleted maintenance record: " + id);
             return ResponseEntity.noContent().build();
             
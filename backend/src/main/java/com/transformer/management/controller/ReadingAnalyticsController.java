@@ -0,0 +1,99 @@
+package com.transformer.management.controller;
+
+import com.transformer.management.entity.ReadingAlert;
+import com.transformer.management.service.ReadingAnalyticsService;
+import com.transformer.management.service.ReadingAnalyticsService.Reading;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Trend statistics, drift alerts and chart series of the electrical readings in maintenance records
+ */
+@RestController
+@RequestMapping("/analytics/readings")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class ReadingAnalyticsController {
+    private static final int MAX_ALERTS = 500;
+
+    @Autowired
+    private ReadingAnalyticsService readingAnalyticsService;
+
+    /**
+     * Rolling mean, standard deviation, min, max and last z-score of each reading
+     * GET /api/analytics/readings/{transformerId}
+     */
+    @GetMapping("/{transformerId}")
+    public ResponseEntity<?> getStats(@PathVariable String transformerId) {
+        UUID uuid = parseUuid(transformerId);
+        if (uuid == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid transformer ID format"));
+        }
+        return ResponseEntity.ok(readingAnalyticsService.stats(uuid));
+    }
+
+    /**
+     * One reading over time, downsampled to at most the given number of points
+     * GET /api/analytics/readings/{transformerId}/series?reading=temperature&points=300
+     */
+    @GetMapping("/{transformerId}/series")
+    public ResponseEntity<?> getSeries(@PathVariable String transformerId,
+                                       @RequestParam String reading,
+                                       @RequestParam(defaultValue = "300") int points) {
+        UUID uuid = parseUuid(transformerId);
+        if (uuid == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid transformer ID format"));
+        }
+        Reading parsed = Reading.fromKey(reading);
+        if (parsed == null) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                "reading must be one of voltageReading, currentReading, powerFactor, temperature"));
+        }
+        if (points < 2) {
+            return ResponseEntity.badRequest().body(Map.of("error", "points must be at least 2"));
+        }
+        return ResponseEntity.ok(readingAnalyticsService.series(uuid, parsed, points));
+    }
+
+    /**
+     * Most recent drift alerts, optionally of one transformer
+     * GET /api/analytics/readings/alerts?transformerId=...&limit=50
+     */
+    @GetMapping("/alerts")
+    public ResponseEntity<?> getAlerts(@RequestParam(required = false) String transformerId,
+                                       @RequestParam(defaultValue = "50") int limit) {
+        UUID uuid = null;
+        if (transformerId != null) {
+            uuid = parseUuid(transformerId);
+            if (uuid == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid transformer ID format"));
+            }
+        }
+        List<ReadingAlert> alerts = readingAnalyticsService.recentAlerts(uuid, Math.max(1, Math.min(limit, MAX_ALERTS)));
+        return ResponseEntity.ok(alerts);
+    }
+
+    /**
+     * Recompute all statistics from the maintenance record history, e.g. after changing alpha
+     * POST /api/analytics/readings/rebuild
+     */
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        int transformers = readingAnalyticsService.rebuildAll();
+        return ResponseEntity.ok(Map.of("transformers", transformers));
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
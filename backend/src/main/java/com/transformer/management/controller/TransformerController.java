@@ -2,6 +2,7 @@ package com.transformer.management.controller;
 
 import com.transformer.management.entity.Transformer;
 import com.transformer.management.repository.TransformerRepository;
+import com.transformer.management.service.CascadeDeleteService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +19,9 @@ public class TransformerController {
     @Autowired
     private TransformerRepository transformerRepository;
 
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
     @GetMapping
     public List<Transformer> getAllTransformers() {
         System.out.println("🔍 TransformerController.getAllTransformers() called");
@@ -111,8 +115,9 @@ public class TransformerController {
             System.out.println("🔍 Found transformer by code: " + transformer.isPresent());
         }
         
-        if (transformer.isPresent()) {
-            transformerRepository.delete(transformer.get());
+        // Removes all inspections, images, detections, annotations and maintenance records in one
+        // transaction; Cloudinary assets are deleted in the background after commit
+        if (transformer.isPresent() && cascadeDeleteService.deleteTransformer(transformer.get().getId())) {
             System.out.println("✅ Successfully deleted transformer: " + id);
             return ResponseEntity.noContent().build();
         } else {
@@ -0,0 +1,36 @@
+package com.transformer.management.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Request DTO for applying incremental annotation edits to an inspection
+ * Only the boxes that were added, changed (moved, resized, relabelled) or deleted are sent
+ */
+public class AnnotationChangeSetRequest {
+    private String userId;
+    private String transformerId;
+    private List<AnnotationDTO> added = new ArrayList<>();
+    private List<AnnotationDTO> updated = new ArrayList<>(); // Must carry the id of an existing box
+    private List<UUID> deleted = new ArrayList<>();
+
+    // Constructors
+    public AnnotationChangeSetRequest() {}
+
+    // Getters and Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getTransformerId() { return transformerId; }
+    public void setTransformerId(String transformerId) { this.transformerId = transformerId; }
+
+    public List<AnnotationDTO> getAdded() { return added; }
+    public void setAdded(List<AnnotationDTO> added) { this.added = added != null ? added : new ArrayList<>(); }
+
+    public List<AnnotationDTO> getUpdated() { return updated; }
+    public void setUpdated(List<AnnotationDTO> updated) { this.updated = updated != null ? updated : new ArrayList<>(); }
+
+    public List<UUID> getDeleted() { return deleted; }
+    public void setDeleted(List<UUID> deleted) { this.deleted = deleted != null ? deleted : new ArrayList<>(); }
+}
@@ -31,6 +31,10 @@ public class AnnotationDTO {
     private String imageId; // Inspection/image ID reference
     private String transformerId; // Transformer ID reference
 
+    // Optimistic concurrency
+    private Long version; // Row version the client last loaded; null for new boxes
+    private AnnotationDTO base; // Box as the client last loaded it, enables three-way merge on stale edits
+
     // Constructors
     public AnnotationDTO() {}
 
@@ -105,4 +109,10 @@ public class AnnotationDTO {
 
     public String getTransformerId() { return transformerId; }
     public void setTransformerId(String transformerId) { this.transformerId = transformerId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public AnnotationDTO getBase() { return base; }
+    public void setBase(AnnotationDTO base) { this.base = base; }
 }
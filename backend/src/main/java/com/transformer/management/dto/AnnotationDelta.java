@@ -0,0 +1,116 @@
+package com.transformer.management.dto;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Box-level change exchanged over the collaborative annotation channel
+ * Only the fields touched by the change are set; null fields are omitted on the wire
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnnotationDelta {
+    public static final String OP_ADD = "add";
+    public static final String OP_MOVE = "move";
+    public static final String OP_RESIZE = "resize";
+    public static final String OP_UPDATE = "update"; // Label, severity, notes, ...
+    public static final String OP_DELETE = "delete";
+
+    private String op;
+    private UUID id; // Client-generated for "add"
+    private Integer x;
+    private Integer y;
+    private Integer width;
+    private Integer height;
+    private String label;
+    private String severity;
+    private Double confidence;
+    private String notes;
+    private Boolean isAI;
+    private String userId; // Set by the server
+    private String origin; // Client (browser tab) that produced the change, set by the server
+
+    // Constructors
+    public AnnotationDelta() {}
+
+    /**
+     * Fold a later change to the same box into this one
+     * Field values of the later change win; an add stays an add and a delete wins over everything
+     */
+    public void absorb(AnnotationDelta later) {
+        if (OP_DELETE.equals(later.op)) {
+            op = OP_DELETE;
+        } else if (!OP_ADD.equals(op) && !OP_DELETE.equals(op)) {
+            op = later.op;
+        }
+        if (later.x != null) x = later.x;
+        if (later.y != null) y = later.y;
+        if (later.width != null) width = later.width;
+        if (later.height != null) height = later.height;
+        if (later.label != null) label = later.label;
+        if (later.severity != null) severity = later.severity;
+        if (later.confidence != null) confidence = later.confidence;
+        if (later.notes != null) notes = later.notes;
+        if (later.isAI != null) isAI = later.isAI;
+        userId = later.userId;
+        origin = later.origin;
+    }
+
+    public AnnotationDelta copy() {
+        AnnotationDelta copy = new AnnotationDelta();
+        copy.op = op;
+        copy.id = id;
+        copy.x = x;
+        copy.y = y;
+        copy.width = width;
+        copy.height = height;
+        copy.label = label;
+        copy.severity = severity;
+        copy.confidence = confidence;
+        copy.notes = notes;
+        copy.isAI = isAI;
+        copy.userId = userId;
+        copy.origin = origin;
+        return copy;
+    }
+
+    // Getters and Setters
+    public String getOp() { return op; }
+    public void setOp(String op) { this.op = op; }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public Integer getX() { return x; }
+    public void setX(Integer x) { this.x = x; }
+
+    public Integer getY() { return y; }
+    public void setY(Integer y) { this.y = y; }
+
+    public Integer getWidth() { return width; }
+    public void setWidth(Integer width) { this.width = width; }
+
+    public Integer getHeight() { return height; }
+    public void setHeight(Integer height) { this.height = height; }
+
+    public String getLabel() { return label; }
+    public void setLabel(String label) { this.label = label; }
+
+    public String getSeverity() { return severity; }
+    public void setSeverity(String severity) { this.severity = severity; }
+
+    public Double getConfidence() { return confidence; }
+    public void setConfidence(Double confidence) { this.confidence = confidence; }
+
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+
+    public Boolean getIsAI() { return isAI; }
+    public void setIsAI(Boolean isAI) { this.isAI = isAI; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getOrigin() { return origin; }
+    public void setOrigin(String origin) { this.origin = origin; }
+}
@@ -0,0 +1,31 @@
+package com.transformer.management.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deltas for one inspection, sent by clients and broadcast by the server once per frame
+ */
+public class AnnotationDeltaBatch {
+    private String clientId; // Sending browser tab; lets clients skip their own echoes
+    private long seq; // Server frame counter, increases with every broadcast frame
+    private List<AnnotationDelta> deltas = new ArrayList<>();
+
+    // Constructors
+    public AnnotationDeltaBatch() {}
+
+    public AnnotationDeltaBatch(long seq, List<AnnotationDelta> deltas) {
+        this.seq = seq;
+        this.deltas = deltas;
+    }
+
+    // Getters and Setters
+    public String getClientId() { return clientId; }
+    public void setClientId(String clientId) { this.clientId = clientId; }
+
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+
+    public List<AnnotationDelta> getDeltas() { return deltas; }
+    public void setDeltas(List<AnnotationDelta> deltas) { this.deltas = deltas != null ? deltas : new ArrayList<>(); }
+}
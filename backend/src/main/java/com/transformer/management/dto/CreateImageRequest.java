@@ -0,0 +1,39 @@
+package com.transformer.management.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+/**
+ * Body of POST /images: an image already hosted at url
+ * The transformer is given by ID or code, either as transformer_id or as transformer: { id }
+ */
+public record CreateImageRequest(
+    @JsonAlias("transformer_id")
+    String transformerId,
+
+    TransformerRef transformer,
+
+    @NotBlank @Size(max = 255)
+    String url,
+
+    @Size(max = 255)
+    String label,
+
+    @JsonAlias("captured_at")
+    LocalDateTime capturedAt
+) {
+    public record TransformerRef(String id) {}
+
+    /**
+     * Transformer ID or code from whichever of the two forms was sent
+     */
+    public String transformerKey() {
+        if (transformerId != null && !transformerId.isBlank()) {
+            return transformerId;
+        }
+        return transformer != null ? transformer.id() : null;
+    }
+}
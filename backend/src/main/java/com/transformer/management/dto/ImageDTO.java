@@ -13,6 +13,12 @@ public class ImageDTO {
     private String comments;
     private LocalDateTime capturedAt;
     private LocalDateTime createdAt;
+
+    // Radiometric metadata
+    private String cameraModel;
+    private Double emissivity;
+    private Double temperatureMin;
+    private Double temperatureMax;
     
     // Transformer info (avoid circular reference)
     private UUID transformerId;
@@ -25,6 +31,31 @@ public class ImageDTO {
     // Constructors
     public ImageDTO() {}
 
+    // Used by JPQL constructor projections in ImageRepositoryImpl
+    public ImageDTO(UUID id, String url, String label, String imageType, String uploaderName,
+                    String environmentalCondition, String comments, LocalDateTime capturedAt,
+                    LocalDateTime createdAt, String cameraModel, Double emissivity,
+                    Double temperatureMin, Double temperatureMax, UUID transformerId,
+                    String transformerCode, UUID inspectionId, String inspectionNo) {
+        this.id = id;
+        this.url = url;
+        this.label = label;
+        this.imageType = imageType;
+        this.uploaderName = uploaderName;
+        this.environmentalCondition = environmentalCondition;
+        this.comments = comments;
+        this.capturedAt = capturedAt;
+        this.createdAt = createdAt;
+        this.cameraModel = cameraModel;
+        this.emissivity = emissivity;
+        this.temperatureMin = temperatureMin;
+        this.temperatureMax = temperatureMax;
+        this.transformerId = transformerId;
+        this.transformerCode = transformerCode;
+        this.inspectionId = inspectionId;
+        this.inspectionNo = inspectionNo;
+    }
+
     // Getters and Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -53,6 +84,18 @@ public class ImageDTO {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public String getCameraModel() { return cameraModel; }
+    public void setCameraModel(String cameraModel) { this.cameraModel = cameraModel; }
+
+    public Double getEmissivity() { return emissivity; }
+    public void setEmissivity(Double emissivity) { this.emissivity = emissivity; }
+
+    public Double getTemperatureMin() { return temperatureMin; }
+    public void setTemperatureMin(Double temperatureMin) { this.temperatureMin = temperatureMin; }
+
+    public Double getTemperatureMax() { return temperatureMax; }
+    public void setTemperatureMax(Double temperatureMax) { this.temperatureMax = temperatureMax; }
+
     public UUID getTransformerId() { return transformerId; }
     public void setTransformerId(UUID transformerId) { this.transformerId = transformerId; }
 
@@ -0,0 +1,121 @@
+package com.transformer.management.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+/**
+ * Denormalized inspection row for list views
+ * Carries the transformer code, image counts and the latest detection summary
+ * so the frontend does not need extra requests per inspection
+ */
+public class InspectionSummaryDTO {
+    private UUID id;
+    private String inspectionNo;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime inspectedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime maintenanceDate;
+
+    private String status;
+    private String notes;
+
+    // Transformer info
+    private UUID transformerId;
+    private String transformerCode;
+
+    // Image counts
+    private long baselineImageCount;
+    private long maintenanceImageCount;
+
+    // Latest anomaly detection summary (null if the inspection has not been analysed)
+    private UUID latestDetectionId;
+    private String latestDetectionLabel;
+    private Integer latestTotalDetections;
+    private Integer latestCriticalCount;
+    private Integer latestWarningCount;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime latestDetectedAt;
+
+    // Constructors
+    public InspectionSummaryDTO() {}
+
+    // Used by the JPQL constructor projection in InspectionRepository
+    public InspectionSummaryDTO(UUID id, String inspectionNo, LocalDateTime inspectedAt,
+                                LocalDateTime maintenanceDate, String status, String notes,
+                                UUID transformerId, String transformerCode,
+                                Long baselineImageCount, Long maintenanceImageCount,
+                                UUID latestDetectionId, String latestDetectionLabel,
+                                Integer latestTotalDetections, Integer latestCriticalCount,
+                                Integer latestWarningCount, LocalDateTime latestDetectedAt) {
+        this.id = id;
+        this.inspectionNo = inspectionNo;
+        this.inspectedAt = inspectedAt;
+        this.maintenanceDate = maintenanceDate;
+        this.status = status;
+        this.notes = notes;
+        this.transformerId = transformerId;
+        this.transformerCode = transformerCode;
+        this.baselineImageCount = baselineImageCount != null ? baselineImageCount : 0;
+        this.maintenanceImageCount = maintenanceImageCount != null ? maintenanceImageCount : 0;
+        this.latestDetectionId = latestDetectionId;
+        this.latestDetectionLabel = latestDetectionLabel;
+        this.latestTotalDetections = latestTotalDetections;
+        this.latestCriticalCount = latestCriticalCount;
+        this.latestWarningCount = latestWarningCount;
+        this.latestDetectedAt = latestDetectedAt;
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public String getInspectionNo() { return inspectionNo; }
+    public void setInspectionNo(String inspectionNo) { this.inspectionNo = inspectionNo; }
+
+    public LocalDateTime getInspectedAt() { return inspectedAt; }
+    public void setInspectedAt(LocalDateTime inspectedAt) { this.inspectedAt = inspectedAt; }
+
+    public LocalDateTime getMaintenanceDate() { return maintenanceDate; }
+    public void setMaintenanceDate(LocalDateTime maintenanceDate) { this.maintenanceDate = maintenanceDate; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+
+    public UUID getTransformerId() { return transformerId; }
+    public void setTransformerId(UUID transformerId) { this.transformerId = transformerId; }
+
+    public String getTransformerCode() { return transformerCode; }
+    public void setTransformerCode(String transformerCode) { this.transformerCode = transformerCode; }
+
+    public long getBaselineImageCount() { return baselineImageCount; }
+    public void setBaselineImageCount(long baselineImageCount) { this.baselineImageCount = baselineImageCount; }
+
+    public long getMaintenanceImageCount() { return maintenanceImageCount; }
+    public void setMaintenanceImageCount(long maintenanceImageCount) { this.maintenanceImageCount = maintenanceImageCount; }
+
+    public UUID getLatestDetectionId() { return latestDetectionId; }
+    public void setLatestDetectionId(UUID latestDetectionId) { this.latestDetectionId = latestDetectionId; }
+
+    public String getLatestDetectionLabel() { return latestDetectionLabel; }
+    public void setLatestDetectionLabel(String latestDetectionLabel) { this.latestDetectionLabel = latestDetectionLabel; }
+
+    public Integer getLatestTotalDetections() { return latestTotalDetections; }
+    public void setLatestTotalDetections(Integer latestTotalDetections) { this.latestTotalDetections = latestTotalDetections; }
+
+    public Integer getLatestCriticalCount() { return latestCriticalCount; }
+    public void setLatestCriticalCount(Integer latestCriticalCount) { this.latestCriticalCount = latestCriticalCount; }
+
+    public Integer getLatestWarningCount() { return latestWarningCount; }
+    public void setLatestWarningCount(Integer latestWarningCount) { this.latestWarningCount = latestWarningCount; }
+
+    public LocalDateTime getLatestDetectedAt() { return latestDetectedAt; }
+    public void setLatestDetectedAt(LocalDateTime latestDetectedAt) { this.latestDetectedAt = latestDetectedAt; }
+}
@@ -0,0 +1,46 @@
+package com.transformer.management.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Body of POST and PUT /maintenance-records
+ * Readings are numbers in base units (volts, amperes, degrees Celsius; power factor 0 to 1). On update, fields
+ * left out (null) keep their stored value; inspectionId is only read on create
+ */
+public record MaintenanceRecordRequest(
+    UUID inspectionId,
+
+    @Size(max = 255)
+    String inspectorName,
+
+    @Pattern(regexp = "OK|Needs Maintenance|Urgent Attention",
+             message = "must be one of OK, Needs Maintenance, Urgent Attention")
+    String transformerStatus,
+
+    @PositiveOrZero
+    Double voltageReading,
+
+    @PositiveOrZero
+    Double currentReading,
+
+    @DecimalMin("0") @DecimalMax("1")
+    Double powerFactor,
+
+    @DecimalMin("-273.15")
+    Double temperature,
+
+    @Size(max = 1000)
+    String recommendedAction,
+
+    @Size(max = 2000)
+    String additionalRemarks,
+
+    Instant completionDate
+) {}
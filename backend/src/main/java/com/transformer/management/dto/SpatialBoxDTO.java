@@ -0,0 +1,100 @@
+package com.transformer.management.dto;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Annotation or detection box held in the spatial index
+ */
+public class SpatialBoxDTO {
+    public static final String SOURCE_ANNOTATION = "annotation";
+    public static final String SOURCE_DETECTION = "detection";
+
+    private String key; // Unique within the index: "a:<annotationId>" or "d:<detectionId>:<boxIndex>"
+    private String source; // "annotation" or "detection"
+    private UUID sourceId; // Annotation id or AnomalyDetection id
+    private String imageId; // Inspection/image ID reference
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+    private String label;
+    private Double confidence;
+    private boolean isAI;
+
+    // Constructors
+    public SpatialBoxDTO() {}
+
+    public SpatialBoxDTO(String key, String source, UUID sourceId, String imageId,
+                         int x, int y, int width, int height, String label, Double confidence, boolean isAI) {
+        this.key = key;
+        this.source = source;
+        this.sourceId = sourceId;
+        this.imageId = imageId;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.label = label;
+        this.confidence = confidence;
+        this.isAI = isAI;
+    }
+
+    /**
+     * Intersection over union of two boxes, 0 when they do not overlap
+     */
+    public static double iou(SpatialBoxDTO a, SpatialBoxDTO b) {
+        long overlapWidth = Math.min(a.getRight(), b.getRight()) - Math.max(a.x, b.x);
+        long overlapHeight = Math.min(a.getBottom(), b.getBottom()) - Math.max(a.y, b.y);
+        if (overlapWidth <= 0 || overlapHeight <= 0) {
+            return 0.0;
+        }
+        long intersection = overlapWidth * overlapHeight;
+        long union = a.getArea() + b.getArea() - intersection;
+        return union > 0 ? (double) intersection / union : 0.0;
+    }
+
+    @JsonIgnore
+    public int getRight() { return x + width; }
+
+    @JsonIgnore
+    public int getBottom() { return y + height; }
+
+    @JsonIgnore
+    public long getArea() { return (long) width * height; }
+
+    // Getters and Setters
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public UUID getSourceId() { return sourceId; }
+    public void setSourceId(UUID sourceId) { this.sourceId = sourceId; }
+
+    public String getImageId() { return imageId; }
+    public void setImageId(String imageId) { this.imageId = imageId; }
+
+    public int getX() { return x; }
+    public void setX(int x) { this.x = x; }
+
+    public int getY() { return y; }
+    public void setY(int y) { this.y = y; }
+
+    public int getWidth() { return width; }
+    public void setWidth(int width) { this.width = width; }
+
+    public int getHeight() { return height; }
+    public void setHeight(int height) { this.height = height; }
+
+    public String getLabel() { return label; }
+    public void setLabel(String label) { this.label = label; }
+
+    public Double getConfidence() { return confidence; }
+    public void setConfidence(Double confidence) { this.confidence = confidence; }
+
+    public boolean getIsAI() { return isAI; }
+    public void setIsAI(boolean isAI) { this.isAI = isAI; }
+}
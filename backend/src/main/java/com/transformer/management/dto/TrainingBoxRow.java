@@ -0,0 +1,32 @@
+package com.transformer.management.dto;
+
+/**
+ * Annotation box read for the training-data export, built directly by the export query
+ */
+public class TrainingBoxRow {
+    private final String imageIdRef;
+    private final String imageUrl; // Annotated Image row, if the annotation references one
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+    private final String label;
+
+    public TrainingBoxRow(String imageIdRef, String imageUrl, Integer x, Integer y, Integer width, Integer height, String label) {
+        this.imageIdRef = imageIdRef;
+        this.imageUrl = imageUrl;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.label = label;
+    }
+
+    public String getImageIdRef() { return imageIdRef; }
+    public String getImageUrl() { return imageUrl; }
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public String getLabel() { return label; }
+}
@@ -0,0 +1,93 @@
+package com.transformer.management.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+/**
+ * Dashboard row: a transformer with the status and readings of its latest maintenance record
+ * Record fields are null for transformers without maintenance records
+ */
+public class TransformerStatusDTO {
+    private UUID transformerId;
+    private String transformerCode;
+    private String region;
+    private String transformerStatus; // Status on the transformer itself
+
+    // Latest maintenance record
+    private UUID latestRecordId;
+    private UUID inspectionId;
+    private String maintenanceStatus; // OK, Needs Maintenance, Urgent Attention
+    private String inspectorName;
+    private Double voltageReading;
+    private Double currentReading;
+    private Double powerFactor;
+    private Double temperature;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime recordedAt;
+
+    // Constructors
+    public TransformerStatusDTO() {}
+
+    // Used by the JPQL constructor projection in LatestMaintenanceRecordRepository
+    public TransformerStatusDTO(UUID transformerId, String transformerCode, String region, String transformerStatus,
+                                UUID latestRecordId, UUID inspectionId, String maintenanceStatus, String inspectorName,
+                                Double voltageReading, Double currentReading, Double powerFactor, Double temperature,
+                                LocalDateTime recordedAt) {
+        this.transformerId = transformerId;
+        this.transformerCode = transformerCode;
+        this.region = region;
+        this.transformerStatus = transformerStatus;
+        this.latestRecordId = latestRecordId;
+        this.inspectionId = inspectionId;
+        this.maintenanceStatus = maintenanceStatus;
+        this.inspectorName = inspectorName;
+        this.voltageReading = voltageReading;
+        this.currentReading = currentReading;
+        this.powerFactor = powerFactor;
+        this.temperature = temperature;
+        this.recordedAt = recordedAt;
+    }
+
+    // Getters and Setters
+    public UUID getTransformerId() { return transformerId; }
+    public void setTransformerId(UUID transformerId) { this.transformerId = transformerId; }
+
+    public String getTransformerCode() { return transformerCode; }
+    public void setTransformerCode(String transformerCode) { this.transformerCode = transformerCode; }
+
+    public String getRegion() { return region; }
+    public void setRegion(String region) { this.region = region; }
+
+    public String getTransformerStatus() { return transformerStatus; }
+    public void setTransformerStatus(String transformerStatus) { this.transformerStatus = transformerStatus; }
+
+    public UUID getLatestRecordId() { return latestRecordId; }
+    public void setLatestRecordId(UUID latestRecordId) { this.latestRecordId = latestRecordId; }
+
+    public UUID getInspectionId() { return inspectionId; }
+    public void setInspectionId(UUID inspectionId) { this.inspectionId = inspectionId; }
+
+    public String getMaintenanceStatus() { return maintenanceStatus; }
+    public void setMaintenanceStatus(String maintenanceStatus) { this.maintenanceStatus = maintenanceStatus; }
+
+    public String getInspectorName() { return inspectorName; }
+    public void setInspectorName(String inspectorName) { this.inspectorName = inspectorName; }
+
+    public Double getVoltageReading() { return voltageReading; }
+    public void setVoltageReading(Double voltageReading) { this.voltageReading = voltageReading; }
+
+    public Double getCurrentReading() { return currentReading; }
+    public void setCurrentReading(Double currentReading) { this.currentReading = currentReading; }
+
+    public Double getPowerFactor() { return powerFactor; }
+    public void setPowerFactor(Double powerFactor) { this.powerFactor = powerFactor; }
+
+    public Double getTemperature() { return temperature; }
+    public void setTemperature(Double temperature) { this.temperature = temperature; }
+
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+}
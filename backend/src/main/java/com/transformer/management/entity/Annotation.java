@@ -3,26 +3,37 @@ package com.transformer.management.entity;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.springframework.data.domain.Persistable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 /**
  * Entity to store user-created and edited annotations for bounding boxes
  * Supports Phase 3 Interactive Annotation & Feedback
+ * Single store for both the /annotations and /inspection-annotations APIs
  */
 @Entity
 @Table(name = "annotations", indexes = {
     @Index(name = "idx_anomaly_detection_id", columnList = "anomaly_detection_id"),
     @Index(name = "idx_image_id", columnList = "image_id"),
     @Index(name = "idx_user_id", columnList = "user_id"),
-    @Index(name = "idx_created_at", columnList = "created_at")
+    @Index(name = "idx_created_at", columnList = "created_at"),
+    @Index(name = "idx_annotations_inspection_active", columnList = "inspection_id, is_deleted, created_at"),
+    @Index(name = "idx_annotations_image_id_ref", columnList = "image_id_ref, created_at")
 })
-public class Annotation {
+public class Annotation implements Persistable<UUID> {
     
+    // Random unless assigned by the application (deterministic per inspection box), see InspectionAnnotationService
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
     @Column(columnDefinition = "UUID DEFAULT gen_random_uuid()")
     private UUID id;
 
+    // Inspection the annotated image belongs to
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "inspection_id", foreignKey = @ForeignKey(name = "fk_annotations_inspection"))
+    private Inspection inspection;
+
     // Reference to the anomaly detection result (if this is an edit to a detection)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "anomaly_detection_id")
@@ -109,6 +120,22 @@ public class Annotation {
     @Column(name = "timestamp_iso")
     private String timestampIso; // ISO timestamp string for frontend compatibility
 
+    @Column(name = "color", length = 20)
+    private String color; // Hex color code
+
+    // Original AI detection data (stored as JSON string)
+    @Column(name = "original_ai_data", columnDefinition = "TEXT")
+    private String originalAiData;
+
+    // Optimistic locking; every update is conditional on the version the row was read at
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
+    // Lets save() persist new rows directly instead of merging (which would SELECT each id first)
+    @Transient
+    private boolean isNew = true;
+
     // Constructors
     public Annotation() {}
 
@@ -129,6 +156,9 @@ public class Annotation {
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
 
+    public Inspection getInspection() { return inspection; }
+    public void setInspection(Inspection inspection) { this.inspection = inspection; }
+
     public AnomalyDetection getAnomalyDetection() { return anomalyDetection; }
     public void setAnomalyDetection(AnomalyDetection anomalyDetection) { this.anomalyDetection = anomalyDetection; }
 
@@ -204,6 +234,32 @@ public class Annotation {
     public String getTimestampIso() { return timestampIso; }
     public void setTimestampIso(String timestampIso) { this.timestampIso = timestampIso; }
 
+    public String getColor() { return color; }
+    public void setColor(String color) { this.color = color; }
+
+    public String getOriginalAiData() { return originalAiData; }
+    public void setOriginalAiData(String originalAiData) { this.originalAiData = originalAiData; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() { return isNew; }
+
+    @PrePersist
+    protected void assignId() {
+        if (this.id == null) {
+            this.id = UUID.randomUUID();
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -0,0 +1,87 @@
+package com.transformer.management.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+
+/**
+ * Append-only record of one change to an annotation
+ * Events are never updated; the state of an image at any time is the latest snapshot
+ * before that time plus the events after it, in sequence order
+ */
+@Entity
+@Table(name = "annotation_events", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_annotation_events_stream", columnNames = {"image_id_ref", "sequence"})
+}, indexes = {
+    @Index(name = "idx_annotation_events_annotation", columnList = "annotation_id, id")
+})
+public class AnnotationEvent {
+    public static final String TYPE_CREATED = "created";
+    public static final String TYPE_EDITED = "edited";
+    public static final String TYPE_DELETED = "deleted";
+    public static final String TYPE_REMOVED = "removed"; // Row hard-deleted; the box leaves the image state
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // Unique, but not in commit order across transactions
+
+    @Column(name = "image_id_ref", nullable = false, length = 255)
+    private String imageIdRef; // Stream key, same value as Annotation.imageIdRef
+
+    @Column(name = "sequence", nullable = false)
+    private Long sequence; // Position in the image's stream, gap-free and in commit order
+
+    @Column(name = "annotation_id", nullable = false)
+    private UUID annotationId;
+
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String eventType; // "created", "edited", "deleted", "removed"
+
+    @Column(name = "user_id")
+    private String userId;
+
+    // Full box state after the change, as AnnotationDTO JSON
+    @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt = LocalDateTime.now();
+
+    // Constructors
+    public AnnotationEvent() {}
+
+    public AnnotationEvent(String imageIdRef, Long sequence, UUID annotationId, String eventType, String userId, String payload) {
+        this.imageIdRef = imageIdRef;
+        this.sequence = sequence;
+        this.annotationId = annotationId;
+        this.eventType = eventType;
+        this.userId = userId;
+        this.payload = payload;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getImageIdRef() { return imageIdRef; }
+    public void setImageIdRef(String imageIdRef) { this.imageIdRef = imageIdRef; }
+
+    public Long getSequence() { return sequence; }
+    public void setSequence(Long sequence) { this.sequence = sequence; }
+
+    public UUID getAnnotationId() { return annotationId; }
+    public void setAnnotationId(UUID annotationId) { this.annotationId = annotationId; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
@@ -0,0 +1,71 @@
+package com.transformer.management.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+/**
+ * Folded annotation state of one image up to (and including) a given event sequence number
+ */
+@Entity
+@Table(name = "annotation_snapshots", indexes = {
+    @Index(name = "idx_annotation_snapshots_stream", columnList = "image_id_ref, last_sequence")
+})
+public class AnnotationSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "image_id_ref", nullable = false, length = 255)
+    private String imageIdRef;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence; // Stream position the state includes; events before it are reflected in a seeded snapshot
+
+    @Column(name = "last_event_at", nullable = false)
+    private LocalDateTime lastEventAt; // State is valid from this time on
+
+    @Column(name = "annotation_count", nullable = false)
+    private Integer annotationCount;
+
+    // AnnotationDTO JSON array, including deleted boxes
+    @Column(name = "state", columnDefinition = "TEXT", nullable = false)
+    private String state;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Constructors
+    public AnnotationSnapshot() {}
+
+    public AnnotationSnapshot(String imageIdRef, Long lastSequence, LocalDateTime lastEventAt, Integer annotationCount, String state) {
+        this.imageIdRef = imageIdRef;
+        this.lastSequence = lastSequence;
+        this.lastEventAt = lastEventAt;
+        this.annotationCount = annotationCount;
+        this.state = state;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getImageIdRef() { return imageIdRef; }
+    public void setImageIdRef(String imageIdRef) { this.imageIdRef = imageIdRef; }
+
+    public Long getLastSequence() { return lastSequence; }
+    public void setLastSequence(Long lastSequence) { this.lastSequence = lastSequence; }
+
+    public LocalDateTime getLastEventAt() { return lastEventAt; }
+    public void setLastEventAt(LocalDateTime lastEventAt) { this.lastEventAt = lastEventAt; }
+
+    public Integer getAnnotationCount() { return annotationCount; }
+    public void setAnnotationCount(Integer annotationCount) { this.annotationCount = annotationCount; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
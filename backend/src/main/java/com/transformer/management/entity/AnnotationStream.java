@@ -0,0 +1,32 @@
+package com.transformer.management.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Last event sequence number of one image's annotation event log
+ * One row per image; the row is locked while events are appended, so appends of an image
+ * commit in sequence order
+ */
+@Entity
+@Table(name = "annotation_streams")
+public class AnnotationStream {
+    @Id
+    @Column(name = "image_id_ref", length = 255)
+    private String imageIdRef;
+
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    // Constructors
+    public AnnotationStream() {}
+
+    // Getters and Setters
+    public String getImageIdRef() { return imageIdRef; }
+    public void setImageIdRef(String imageIdRef) { this.imageIdRef = imageIdRef; }
+
+    public long getLastSequence() { return lastSequence; }
+    public void setLastSequence(long lastSequence) { this.lastSequence = lastSequence; }
+}
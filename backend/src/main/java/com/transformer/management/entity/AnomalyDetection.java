@@ -16,7 +16,13 @@ import jakarta.persistence.*;
     @Index(name = "idx_detected_at", columnList = "detected_at"),
     @Index(name = "idx_engine_name", columnList = "engine_name")
 })
+@NamedEntityGraph(name = AnomalyDetection.WITH_INSPECTION, attributeNodes = {
+    @NamedAttributeNode(value = "inspection", subgraph = "inspection"),
+    @NamedAttributeNode("transformer")
+}, subgraphs = @NamedSubgraph(name = "inspection", attributeNodes = @NamedAttributeNode("transformer")))
 public class AnomalyDetection {
+    // Fetch plan for history endpoints that return detections with their inspection and transformer
+    public static final String WITH_INSPECTION = "AnomalyDetection.inspection";
     
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -29,7 +35,7 @@ public class AnomalyDetection {
     private Inspection inspection;
 
     // Reference to transformer
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "transformer_id")
     private Transformer transformer;
 
@@ -0,0 +1,102 @@
+package com.transformer.management.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Running sums over a transformer's (hotspot severity, reading) pairs, enough for the Pearson coefficient
+ * Sums of the InspectionCorrelation contributions; adjusted by deltas, never recomputed outside a rebuild
+ */
+@Entity
+@Table(name = "correlation_sums")
+public class CorrelationSums {
+    @Id
+    @Column(name = "sums_key", length = 80)
+    private String sumsKey; // "<transformerId>:<reading>"
+
+    @Column(name = "transformer_id", nullable = false)
+    private UUID transformerId;
+
+    @Column(name = "reading", nullable = false, length = 32)
+    private String reading; // temperature or currentReading
+
+    @Column(name = "pairs", nullable = false)
+    private long pairs;
+
+    @Column(name = "sum_x", nullable = false)
+    private double sumX; // Severity
+
+    @Column(name = "sum_y", nullable = false)
+    private double sumY; // Reading
+
+    @Column(name = "sum_xx", nullable = false)
+    private double sumXX;
+
+    @Column(name = "sum_yy", nullable = false)
+    private double sumYY;
+
+    @Column(name = "sum_xy", nullable = false)
+    private double sumXY;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public CorrelationSums() {}
+
+    public static String key(UUID transformerId, String reading) {
+        return transformerId + ":" + reading;
+    }
+
+    // Getters and Setters
+    public String getSumsKey() { return sumsKey; }
+    public void setSumsKey(String sumsKey) { this.sumsKey = sumsKey; }
+
+    public UUID getTransformerId() { return transformerId; }
+    public void setTransformerId(UUID transformerId) { this.transformerId = transformerId; }
+
+    public String getReading() { return reading; }
+    public void setReading(String reading) { this.reading = reading; }
+
+    public long getPairs() { return pairs; }
+    public void setPairs(long pairs) { this.pairs = pairs; }
+
+    public double getSumX() { return sumX; }
+    public void setSumX(double sumX) { this.sumX = sumX; }
+
+    public double getSumY() { return sumY; }
+    public void setSumY(double sumY) { this.sumY = sumY; }
+
+    public double getSumXX() { return sumXX; }
+    public void setSumXX(double sumXX) { this.sumXX = sumXX; }
+
+    public double getSumYY() { return sumYY; }
+    public void setSumYY(double sumYY) { this.sumYY = sumYY; }
+
+    public double getSumXY() { return sumXY; }
+    public void setSumXY(double sumXY) { this.sumXY = sumXY; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    /**
+     * Pearson correlation of severity and reading; null with fewer than 3 pairs or without variance in either
+     */
+    public Double getPearson() {
+        if (pairs < 3) {
+            return null;
+        }
+        double covariance = pairs * sumXY - sumX * sumY;
+        double varianceX = pairs * sumXX - sumX * sumX;
+        double varianceY = pairs * sumYY - sumY * sumY;
+        if (varianceX <= 0 || varianceY <= 0) {
+            return null;
+        }
+        return Math.max(-1.0, Math.min(1.0, covariance / Math.sqrt(varianceX * varianceY)));
+    }
+}
@@ -0,0 +1,76 @@
+package com.transformer.management.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Contribution of one reviewed image to the EngineMetrics totals
+ * Kept so that a re-review can subtract the old contribution before adding the new one
+ */
+@Entity
+@Table(name = "engine_image_metrics")
+public class EngineImageMetrics {
+    @Id
+    @Column(name = "image_id_ref", length = 255)
+    private String imageIdRef;
+
+    @Column(name = "detection_id")
+    private UUID detectionId; // Detection run the annotations were matched against; null if none
+
+    @Column(name = "engine_key")
+    private String engineKey;
+
+    @Column(name = "true_positives", nullable = false)
+    private int truePositives;
+
+    @Column(name = "false_positives", nullable = false)
+    private int falsePositives;
+
+    @Column(name = "false_negatives", nullable = false)
+    private int falseNegatives;
+
+    @Column(name = "iou_sum", nullable = false)
+    private double iouSum;
+
+    @Column(name = "center_error_sum", nullable = false)
+    private double centerErrorSum;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public EngineImageMetrics() {}
+
+    // Getters and Setters
+    public String getImageIdRef() { return imageIdRef; }
+    public void setImageIdRef(String imageIdRef) { this.imageIdRef = imageIdRef; }
+
+    public UUID getDetectionId() { return detectionId; }
+    public void setDetectionId(UUID detectionId) { this.detectionId = detectionId; }
+
+    public String getEngineKey() { return engineKey; }
+    public void setEngineKey(String engineKey) { this.engineKey = engineKey; }
+
+    public int getTruePositives() { return truePositives; }
+    public void setTruePositives(int truePositives) { this.truePositives = truePositives; }
+
+    public int getFalsePositives() { return falsePositives; }
+    public void setFalsePositives(int falsePositives) { this.falsePositives = falsePositives; }
+
+    public int getFalseNegatives() { return falseNegatives; }
+    public void setFalseNegatives(int falseNegatives) { this.falseNegatives = falseNegatives; }
+
+    public double getIouSum() { return iouSum; }
+    public void setIouSum(double iouSum) { this.iouSum = iouSum; }
+
+    public double getCenterErrorSum() { return centerErrorSum; }
+    public void setCenterErrorSum(double centerErrorSum) { this.centerErrorSum = centerErrorSum; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
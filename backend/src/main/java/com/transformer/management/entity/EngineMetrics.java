@@ -0,0 +1,103 @@
+package com.transformer.management.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Running AI-vs-human agreement totals for one detection engine version
+ * Sums of the per-image contributions in EngineImageMetrics; adjusted by deltas, never recomputed
+ */
+@Entity
+@Table(name = "engine_metrics")
+public class EngineMetrics {
+    @Id
+    @Column(name = "engine_key", length = 255)
+    private String engineKey; // "<engine name>:<engine version>"
+
+    @Column(name = "engine_name", nullable = false)
+    private String engineName;
+
+    @Column(name = "engine_version")
+    private String engineVersion;
+
+    @Column(name = "images", nullable = false)
+    private long images; // Reviewed images with a detection run of this engine
+
+    @Column(name = "true_positives", nullable = false)
+    private long truePositives;
+
+    @Column(name = "false_positives", nullable = false)
+    private long falsePositives;
+
+    @Column(name = "false_negatives", nullable = false)
+    private long falseNegatives;
+
+    @Column(name = "iou_sum", nullable = false)
+    private double iouSum; // Over matched pairs
+
+    @Column(name = "center_error_sum", nullable = false)
+    private double centerErrorSum; // Pixel distance between matched box centers
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public EngineMetrics() {}
+
+    public static String key(String engineName, String engineVersion) {
+        return engineName + ":" + (engineVersion != null ? engineVersion : "");
+    }
+
+    public Double getPrecision() {
+        long predicted = truePositives + falsePositives;
+        return predicted > 0 ? (double) truePositives / predicted : null;
+    }
+
+    public Double getRecall() {
+        long actual = truePositives + falseNegatives;
+        return actual > 0 ? (double) truePositives / actual : null;
+    }
+
+    public Double getMeanIou() {
+        return truePositives > 0 ? iouSum / truePositives : null;
+    }
+
+    public Double getMeanCenterError() {
+        return truePositives > 0 ? centerErrorSum / truePositives : null;
+    }
+
+    // Getters and Setters
+    public String getEngineKey() { return engineKey; }
+    public void setEngineKey(String engineKey) { this.engineKey = engineKey; }
+
+    public String getEngineName() { return engineName; }
+    public void setEngineName(String engineName) { this.engineName = engineName; }
+
+    public String getEngineVersion() { return engineVersion; }
+    public void setEngineVersion(String engineVersion) { this.engineVersion = engineVersion; }
+
+    public long getImages() { return images; }
+    public void setImages(long images) { this.images = images; }
+
+    public long getTruePositives() { return truePositives; }
+    public void setTruePositives(long truePositives) { this.truePositives = truePositives; }
+
+    public long getFalsePositives() { return falsePositives; }
+    public void setFalsePositives(long falsePositives) { this.falsePositives = falsePositives; }
+
+    public long getFalseNegatives() { return falseNegatives; }
+    public void setFalseNegatives(long falseNegatives) { this.falseNegatives = falseNegatives; }
+
+    public double getIouSum() { return iouSum; }
+    public void setIouSum(double iouSum) { this.iouSum = iouSum; }
+
+    public double getCenterErrorSum() { return centerErrorSum; }
+    public void setCenterErrorSum(double centerErrorSum) { this.centerErrorSum = centerErrorSum; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,45 @@
+package com.transformer.management.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Point in time up to which a training-data export format has been written
+ * Incremental exports only include records changed after it
+ */
+@Entity
+@Table(name = "export_watermarks")
+public class ExportWatermark {
+    @Id
+    @Column(name = "export_format", length = 20)
+    private String exportFormat; // "coco" or "yolo"
+
+    @Column(name = "exported_up_to", nullable = false)
+    private LocalDateTime exportedUpTo;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ExportWatermark() {}
+
+    public ExportWatermark(String exportFormat, LocalDateTime exportedUpTo) {
+        this.exportFormat = exportFormat;
+        this.exportedUpTo = exportedUpTo;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getExportFormat() { return exportFormat; }
+    public void setExportFormat(String exportFormat) { this.exportFormat = exportFormat; }
+
+    public LocalDateTime getExportedUpTo() { return exportedUpTo; }
+    public void setExportedUpTo(LocalDateTime exportedUpTo) { this.exportedUpTo = exportedUpTo; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -14,17 +14,26 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "images")
+@NamedEntityGraph(name = Image.WITH_OWNERS, attributeNodes = {
+    @NamedAttributeNode("transformer"),
+    @NamedAttributeNode("inspection")
+})
 public class Image {
+    // Fetch plan for endpoints that answer with the transformer code and inspection number
+    public static final String WITH_OWNERS = "Image.owners";
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     @Column(columnDefinition = "UUID DEFAULT gen_random_uuid()")
     private UUID id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "transformer_id", nullable = false)
     @JsonBackReference("transformer-images")
     private Transformer transformer;
@@ -55,6 +64,19 @@ public class Image {
     @Column(name = "captured_at")
     private LocalDateTime capturedAt = LocalDateTime.now();
 
+    // Radiometric metadata read from the image header at upload time
+    @Column(name = "camera_model")
+    private String cameraModel;
+
+    @Column(name = "emissivity")
+    private Double emissivity;
+
+    @Column(name = "temperature_min")
+    private Double temperatureMin; // Degrees Celsius
+
+    @Column(name = "temperature_max")
+    private Double temperatureMax; // Degrees Celsius
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -110,6 +132,18 @@ public class Image {
     public LocalDateTime getCapturedAt() { return capturedAt; }
     public void setCapturedAt(LocalDateTime capturedAt) { this.capturedAt = capturedAt; }
 
+    public String getCameraModel() { return cameraModel; }
+    public void setCameraModel(String cameraModel) { this.cameraModel = cameraModel; }
+
+    public Double getEmissivity() { return emissivity; }
+    public void setEmissivity(Double emissivity) { this.emissivity = emissivity; }
+
+    public Double getTemperatureMin() { return temperatureMin; }
+    public void setTemperatureMin(Double temperatureMin) { this.temperatureMin = temperatureMin; }
+
+    public Double getTemperatureMax() { return temperatureMax; }
+    public void setTemperatureMax(Double temperatureMax) { this.temperatureMax = temperatureMax; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
@@ -0,0 +1,80 @@
+package com.transformer.management.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * One inspection's latest detection run aligned with its latest maintenance record
+ * Its pairs are the contribution of the inspection to the CorrelationSums of its transformer, kept so that a new
+ * run or an edited record can subtract the old pairs before adding the new ones
+ */
+@Entity
+@Table(name = "inspection_correlations", indexes = {
+    @Index(name = "idx_inspection_correlations_transformer", columnList = "transformer_id, observed_at")
+})
+public class InspectionCorrelation {
+    @Id
+    @Column(name = "inspection_id")
+    private UUID inspectionId;
+
+    @Column(name = "transformer_id")
+    private UUID transformerId;
+
+    @Column(name = "observed_at")
+    private LocalDateTime observedAt; // Inspection time; orders the inspections of a transformer for lags
+
+    @Column(name = "detection_id")
+    private UUID detectionId;
+
+    @Column(name = "severity")
+    private Double severity; // 2 x critical + warning hotspots of the detection run; null without a run
+
+    @Column(name = "maintenance_record_id")
+    private UUID maintenanceRecordId;
+
+    @Column(name = "temperature")
+    private Double temperature;
+
+    @Column(name = "current_reading")
+    private Double currentReading;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public InspectionCorrelation() {}
+
+    // Getters and Setters
+    public UUID getInspectionId() { return inspectionId; }
+    public void setInspectionId(UUID inspectionId) { this.inspectionId = inspectionId; }
+
+    public UUID getTransformerId() { return transformerId; }
+    public void setTransformerId(UUID transformerId) { this.transformerId = transformerId; }
+
+    public LocalDateTime getObservedAt() { return observedAt; }
+    public void setObservedAt(LocalDateTime observedAt) { this.observedAt = observedAt; }
+
+    public UUID getDetectionId() { return detectionId; }
+    public void setDetectionId(UUID detectionId) { this.detectionId = detectionId; }
+
+    public Double getSeverity() { return severity; }
+    public void setSeverity(Double severity) { this.severity = severity; }
+
+    public UUID getMaintenanceRecordId() { return maintenanceRecordId; }
+    public void setMaintenanceRecordId(UUID maintenanceRecordId) { this.maintenanceRecordId = maintenanceRecordId; }
+
+    public Double getTemperature() { return temperature; }
+    public void setTemperature(Double temperature) { this.temperature = temperature; }
+
+    public Double getCurrentReading() { return currentReading; }
+    public void setCurrentReading(Double currentReading) { this.currentReading = currentReading; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
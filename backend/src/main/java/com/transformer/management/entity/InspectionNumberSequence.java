@@ -0,0 +1,33 @@
+package com.transformer.management.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Last issued inspection number suffix for one inspection date
+ * One row per date; the row is locked while the next number is taken
+ */
+@Entity
+@Table(name = "inspection_number_sequences")
+public class InspectionNumberSequence {
+    @Id
+    @Column(name = "seq_date")
+    private LocalDate seqDate;
+
+    @Column(name = "last_value", nullable = false)
+    private int lastValue;
+
+    // Constructors
+    public InspectionNumberSequence() {}
+
+    // Getters and Setters
+    public LocalDate getSeqDate() { return seqDate; }
+    public void setSeqDate(LocalDate seqDate) { this.seqDate = seqDate; }
+
+    public int getLastValue() { return lastValue; }
+    public void setLastValue(int lastValue) { this.lastValue = lastValue; }
+}
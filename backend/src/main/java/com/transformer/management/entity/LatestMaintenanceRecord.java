@@ -0,0 +1,41 @@
+package com.transformer.management.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Pointer from a transformer to its most recent maintenance record
+ * Moved forward when a newer record is created and re-pointed when the record it points to is deleted, so
+ * current status never needs a scan of the record history
+ */
+@Entity
+@Table(name = "transformer_latest_records")
+public class LatestMaintenanceRecord {
+    @Id
+    @Column(name = "transformer_id")
+    private UUID transformerId;
+
+    @Column(name = "maintenance_record_id", nullable = false)
+    private UUID maintenanceRecordId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt; // Of the record; records are ordered by it, then by ID
+
+    // Constructors
+    public LatestMaintenanceRecord() {}
+
+    // Getters and Setters
+    public UUID getTransformerId() { return transformerId; }
+    public void setTransformerId(UUID transformerId) { this.transformerId = transformerId; }
+
+    public UUID getMaintenanceRecordId() { return maintenanceRecordId; }
+    public void setMaintenanceRecordId(UUID maintenanceRecordId) { this.maintenanceRecordId = maintenanceRecordId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
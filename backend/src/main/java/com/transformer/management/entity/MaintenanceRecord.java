@@ -10,24 +10,39 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "maintenance_records")
+@Table(name = "maintenance_records", indexes = {
+    @Index(name = "idx_maintenance_records_inspection_created", columnList = "inspection_id, created_at DESC"),
+    @Index(name = "idx_maintenance_records_transformer_created", columnList = "transformer_id, created_at"),
+    @Index(name = "idx_maintenance_records_created", columnList = "created_at DESC, id DESC")
+})
+@NamedEntityGraph(name = MaintenanceRecord.WITH_INSPECTION, attributeNodes = {
+    @NamedAttributeNode(value = "inspection", subgraph = "inspection"),
+    @NamedAttributeNode("transformer")
+}, subgraphs = @NamedSubgraph(name = "inspection", attributeNodes = @NamedAttributeNode("transformer")))
 public class MaintenanceRecord {
+    // Fetch plan for endpoints that return the record with its inspection and transformer
+    public static final String WITH_INSPECTION = "MaintenanceRecord.inspection";
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     @Column(columnDefinition = "UUID DEFAULT gen_random_uuid()")
     private UUID id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "inspection_id", nullable = false)
     private Inspection inspection;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "transformer_id", nullable = false)
     private Transformer transformer;
 
@@ -38,16 +53,16 @@ public class MaintenanceRecord {
     private String transformerStatus; // OK, Needs Maintenance, Urgent Attention
 
     @Column(name = "voltage_reading")
-    private String voltageReading;
+    private Double voltageReading; // Volts
 
     @Column(name = "current_reading")
-    private String currentReading;
+    private Double currentReading; // Amperes
 
     @Column(name = "power_factor")
-    private String powerFactor;
+    private Double powerFactor; // 0 to 1
 
     @Column(name = "temperature")
-    private String temperature;
+    private Double temperature; // Degrees Celsius
 
     @Column(name = "recommended_action", length = 1000)
     private String recommendedAction;
@@ -93,17 +108,17 @@ public class MaintenanceRecord {
     public String getTransformerStatus() { return transformerStatus; }
     public void setTransformerStatus(String transformerStatus) { this.transformerStatus = transformerStatus; }
 
-    public String getVoltageReading() { return voltageReading; }
-    public void setVoltageReading(String voltageReading) { this.voltageReading = voltageReading; }
+    public Double getVoltageReading() { return voltageReading; }
+    public void setVoltageReading(Double voltageReading) { this.voltageReading = voltageReading; }
 
-    public String getCurrentReading() { return currentReading; }
-    public void setCurrentReading(String currentReading) { this.currentReading = currentReading; }
+    public Double getCurrentReading() { return currentReading; }
+    public void setCurrentReading(Double currentReading) { this.currentReading = currentReading; }
 
-    public String getPowerFactor() { return powerFactor; }
-    public void setPowerFactor(String powerFactor) { this.powerFactor = powerFactor; }
+    public Double getPowerFactor() { return powerFactor; }
+    public void setPowerFactor(Double powerFactor) { this.powerFactor = powerFactor; }
 
-    public String getTemperature() { return temperature; }
-    public void setTemperature(String temperature) { this.temperature = temperature; }
+    public Double getTemperature() { return temperature; }
+    public void setTemperature(Double temperature) { this.temperature = temperature; }
 
     public String getRecommendedAction() { return recommendedAction; }
     public void setRecommendedAction(String recommendedAction) { this.recommendedAction = recommendedAction; }
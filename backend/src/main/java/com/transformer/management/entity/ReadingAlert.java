@@ -0,0 +1,98 @@
+package com.transformer.management.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A reading that drifted more than the configured number of standard deviations from its transformer's rolling mean
+ */
+@Entity
+@Table(name = "reading_alerts", indexes = {
+    @Index(name = "idx_reading_alerts_transformer", columnList = "transformer_id, created_at")
+})
+public class ReadingAlert {
+    public static final String DIRECTION_HIGH = "HIGH";
+    public static final String DIRECTION_LOW = "LOW";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "transformer_id", nullable = false)
+    private UUID transformerId;
+
+    @Column(name = "maintenance_record_id")
+    private UUID maintenanceRecordId;
+
+    @Column(name = "reading", nullable = false, length = 32)
+    private String reading;
+
+    @Column(name = "reading_value", nullable = false)
+    private double value;
+
+    @Column(name = "expected", nullable = false)
+    private double expected; // Rolling mean before the reading
+
+    @Column(name = "z_score", nullable = false)
+    private double zScore;
+
+    @Column(name = "direction", nullable = false, length = 8)
+    private String direction; // HIGH or LOW
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Constructors
+    public ReadingAlert() {}
+
+    public ReadingAlert(UUID transformerId, UUID maintenanceRecordId, String reading, double value, double expected, double zScore) {
+        this.transformerId = transformerId;
+        this.maintenanceRecordId = maintenanceRecordId;
+        this.reading = reading;
+        this.value = value;
+        this.expected = expected;
+        this.zScore = zScore;
+        this.direction = zScore >= 0 ? DIRECTION_HIGH : DIRECTION_LOW;
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getTransformerId() { return transformerId; }
+    public void setTransformerId(UUID transformerId) { this.transformerId = transformerId; }
+
+    public UUID getMaintenanceRecordId() { return maintenanceRecordId; }
+    public void setMaintenanceRecordId(UUID maintenanceRecordId) { this.maintenanceRecordId = maintenanceRecordId; }
+
+    public String getReading() { return reading; }
+    public void setReading(String reading) { this.reading = reading; }
+
+    public double getValue() { return value; }
+    public void setValue(double value) { this.value = value; }
+
+    public double getExpected() { return expected; }
+    public void setExpected(double expected) { this.expected = expected; }
+
+    @JsonProperty("zScore")
+    public double getZScore() { return zScore; }
+    public void setZScore(double zScore) { this.zScore = zScore; }
+
+    public String getDirection() { return direction; }
+    public void setDirection(String direction) { this.direction = direction; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
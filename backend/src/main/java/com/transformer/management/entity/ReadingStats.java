@@ -0,0 +1,100 @@
+package com.transformer.management.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Rolling statistics of one electrical reading of one transformer, updated as maintenance records are saved
+ * The mean and variance are exponentially weighted, so recent readings count most
+ */
+@Entity
+@Table(name = "reading_stats")
+public class ReadingStats {
+    @Id
+    @Column(name = "stats_key", length = 80)
+    private String statsKey; // "<transformerId>:<reading>"
+
+    @Column(name = "transformer_id", nullable = false)
+    private UUID transformerId;
+
+    @Column(name = "reading", nullable = false, length = 32)
+    private String reading; // voltageReading, currentReading, powerFactor or temperature
+
+    @Column(name = "samples", nullable = false)
+    private long samples;
+
+    @Column(name = "ewma", nullable = false)
+    private double ewma;
+
+    @Column(name = "ewm_variance", nullable = false)
+    private double ewmVariance;
+
+    @Column(name = "min_value")
+    private Double minValue;
+
+    @Column(name = "max_value")
+    private Double maxValue;
+
+    @Column(name = "last_value")
+    private Double lastValue;
+
+    @Column(name = "last_z_score")
+    private Double lastZScore; // Of the last value against the statistics before it; null while warming up
+
+    @Column(name = "last_record_id")
+    private UUID lastRecordId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ReadingStats() {}
+
+    public static String key(UUID transformerId, String reading) {
+        return transformerId + ":" + reading;
+    }
+
+    // Getters and Setters
+    public String getStatsKey() { return statsKey; }
+    public void setStatsKey(String statsKey) { this.statsKey = statsKey; }
+
+    public UUID getTransformerId() { return transformerId; }
+    public void setTransformerId(UUID transformerId) { this.transformerId = transformerId; }
+
+    public String getReading() { return reading; }
+    public void setReading(String reading) { this.reading = reading; }
+
+    public long getSamples() { return samples; }
+    public void setSamples(long samples) { this.samples = samples; }
+
+    public double getEwma() { return ewma; }
+    public void setEwma(double ewma) { this.ewma = ewma; }
+
+    public double getEwmVariance() { return ewmVariance; }
+    public void setEwmVariance(double ewmVariance) { this.ewmVariance = ewmVariance; }
+
+    public Double getMinValue() { return minValue; }
+    public void setMinValue(Double minValue) { this.minValue = minValue; }
+
+    public Double getMaxValue() { return maxValue; }
+    public void setMaxValue(Double maxValue) { this.maxValue = maxValue; }
+
+    public Double getLastValue() { return lastValue; }
+    public void setLastValue(Double lastValue) { this.lastValue = lastValue; }
+
+    public Double getLastZScore() { return lastZScore; }
+    public void setLastZScore(Double lastZScore) { this.lastZScore = lastZScore; }
+
+    public UUID getLastRecordId() { return lastRecordId; }
+    public void setLastRecordId(UUID lastRecordId) { this.lastRecordId = lastRecordId; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public double getEwmStdDev() { return Math.sqrt(ewmVariance); }
+}
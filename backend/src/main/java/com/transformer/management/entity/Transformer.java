@@ -4,9 +4,15 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.UUID;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "transformers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "transformers")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // Lazy proxies serialize like the entity
 public class Transformer {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
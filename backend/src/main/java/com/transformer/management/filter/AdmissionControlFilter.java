@@ -0,0 +1,125 @@
+package com.transformer.management.filter;
+
+import com.transformer.management.util.ConcurrencyLimiter;
+import com.transformer.management.util.RateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Rate limiting and admission control for expensive endpoints (detection, uploads, batch jobs)
+ * Each principal, or client IP when anonymous, gets a token bucket (429 when empty). All expensive requests
+ * share a concurrency limit; excess requests queue briefly and are shed with 503 once the queue is full
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    // Method and path (below the /api context path) of the limited endpoints
+    private static final List<String[]> LIMITED_ENDPOINTS = List.of(
+        new String[] {"POST", "/anomalies/detect"},
+        new String[] {"POST", "/images/upload"},
+        new String[] {"POST", "/exports"},
+        new String[] {"POST", "/seed"}
+    );
+
+    @Value("${admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${admission.rate.requests-per-minute:30}")
+    private int requestsPerMinute;
+
+    @Value("${admission.rate.burst:10}")
+    private int burst;
+
+    @Value("${admission.rate.max-keys:10000}")
+    private int maxKeys;
+
+    @Value("${admission.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${admission.max-queue:16}")
+    private int maxQueue;
+
+    @Value("${admission.queue-timeout-ms:5000}")
+    private long queueTimeoutMillis;
+
+    private RateLimiter rateLimiter;
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    @PostConstruct
+    void init() {
+        rateLimiter = new RateLimiter(requestsPerMinute, burst, maxKeys);
+        concurrencyLimiter = new ConcurrencyLimiter(maxConcurrent, maxQueue, queueTimeoutMillis);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String[] endpoint : LIMITED_ENDPOINTS) {
+            if (endpoint[0].equals(request.getMethod()) && endpoint[1].equals(path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long waitNanos = rateLimiter.tryAcquire(clientKey(request));
+        if (waitNanos > 0) {
+            reject(response, 429, waitNanos, "Rate limit exceeded, please retry later");
+            return;
+        }
+
+        boolean admitted;
+        try {
+            admitted = concurrencyLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            logger.warn("Shedding " + request.getMethod() + " " + request.getRequestURI() + ": "
+                + concurrencyLimiter.getInFlight() + " in flight, " + concurrencyLimiter.getWaiting() + " waiting");
+            reject(response, 503, 1_000_000_000L, "Server busy, please retry shortly");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release();
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, int status, long retryAfterNanos, String message) throws IOException {
+        long retryAfterSeconds = Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(status);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\":\"" + message + "\",\"retryAfterSeconds\":" + retryAfterSeconds + "}");
+    }
+}
@@ -28,36 +28,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-
-        // Extract JWT from Authorization header
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.error("Error extracting username from JWT: " + e.getMessage());
-            }
-        }
-
-        // Validate token and set authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt, username)) {
-                String userId = jwtUtil.extractUserId(jwt);
-                String role = jwtUtil.extractRole(jwt);
-
+        // Validate token once and set authentication from its claims
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtUtil.TokenClaims claims = jwtUtil.verify(authorizationHeader.substring(7));
+            if (claims != null && claims.getUsername() != null && claims.getRole() != null) {
                 // Create authentication token with authorities
-                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role.toUpperCase());
+                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + claims.getRole().toUpperCase());
                 UsernamePasswordAuthenticationToken authenticationToken =
-                        new UsernamePasswordAuthenticationToken(username, null, Collections.singletonList(authority));
+                        new UsernamePasswordAuthenticationToken(claims.getUsername(), null, Collections.singletonList(authority));
 
                 // Set additional details
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 // Store user ID in request attribute for easy access
-                request.setAttribute("userId", userId);
-                request.setAttribute("userRole", role);
+                request.setAttribute("userId", claims.getUserId());
+                request.setAttribute("userRole", claims.getRole());
 
                 // Set authentication in security context
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -0,0 +1,38 @@
+package com.transformer.management.filter;
+
+import com.transformer.management.service.DataAccessMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Attributes connection-pool wait time to the endpoint (method and mapped path pattern) that caused it
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PoolWaitMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private DataAccessMetrics metrics;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        metrics.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metrics.endRequest(request.getMethod() + " " + (pattern != null ? pattern : "(unmapped)"));
+        }
+    }
+}
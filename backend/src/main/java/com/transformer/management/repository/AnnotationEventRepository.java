@@ -0,0 +1,50 @@
+package com.transformer.management.repository;
+
+import com.transformer.management.entity.AnnotationEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the append-only annotation event log
+ */
+@Repository
+public interface AnnotationEventRepository extends JpaRepository<AnnotationEvent, Long> {
+
+    /**
+     * Events of an image after the given sequence number, oldest first
+     */
+    List<AnnotationEvent> findByImageIdRefAndSequenceGreaterThanOrderBySequenceAsc(String imageIdRef, Long afterSequence);
+
+    /**
+     * Events of an image after the given sequence number and no later than the given time, oldest first
+     */
+    List<AnnotationEvent> findByImageIdRefAndSequenceGreaterThanAndOccurredAtLessThanEqualOrderBySequenceAsc(
+        String imageIdRef, Long afterSequence, LocalDateTime until);
+
+    /**
+     * Full change history of one annotation, oldest first
+     */
+    List<AnnotationEvent> findByAnnotationIdOrderByIdAsc(UUID annotationId);
+
+    /**
+     * Bulk delete the event log of an inspection
+     */
+    @Modifying
+    @Query("DELETE FROM AnnotationEvent e WHERE e.imageIdRef = :imageIdRef")
+    int deleteAllByImageIdRef(@Param("imageIdRef") String imageIdRef);
+
+    /**
+     * Bulk delete the event logs of all inspections of a transformer
+     */
+    @Modifying
+    @Query("DELETE FROM AnnotationEvent e WHERE e.imageIdRef IN " +
+           "(SELECT CAST(i.id AS String) FROM Inspection i WHERE i.transformer.id = :transformerId)")
+    int deleteAllByTransformerId(@Param("transformerId") UUID transformerId);
+}
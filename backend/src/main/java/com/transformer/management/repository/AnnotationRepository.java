@@ -1,10 +1,16 @@
 package com.transformer.management.repository;
 
+import com.transformer.management.dto.TrainingBoxRow;
 import com.transformer.management.entity.Annotation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -42,9 +48,60 @@ public interface AnnotationRepository extends JpaRepository<Annotation, UUID> {
     @Query("SELECT a FROM Annotation a WHERE a.imageIdRef = :imageId ORDER BY a.createdAt DESC")
     List<Annotation> findAllAnnotationsByImageIdRef(String imageId);
     
+    /**
+     * Find all annotations of an inspection (including deleted), newest first
+     */
+    List<Annotation> findByInspectionIdOrderByCreatedAtDesc(UUID inspectionId);
+    
+    /**
+     * Count annotations of an inspection
+     */
+    long countByInspectionId(UUID inspectionId);
+    
+    /**
+     * Check if annotations exist for an inspection
+     */
+    boolean existsByInspectionId(UUID inspectionId);
+    
     /**
      * Find all annotations for a specific anomaly detection (including deleted)
      */
     @Query("SELECT a FROM Annotation a WHERE a.anomalyDetection.id = :detectionId ORDER BY a.createdAt DESC")
     List<Annotation> findByAnomalyDetectionIdOrderByCreatedAtDesc(UUID detectionId);
+    
+    /**
+     * Next page of image references with annotations changed after the given time, in key order
+     * Used as a keyset cursor by the training-data export
+     */
+    @Query("SELECT DISTINCT a.imageIdRef FROM Annotation a WHERE a.imageIdRef > :after AND a.updatedAt > :since ORDER BY a.imageIdRef")
+    List<String> findChangedImageRefs(@Param("after") String after, @Param("since") LocalDateTime since, Pageable pageable);
+    
+    /**
+     * Active boxes of the given images for export, grouped by image
+     */
+    @Query("SELECT new com.transformer.management.dto.TrainingBoxRow(a.imageIdRef, im.url, a.bboxX, a.bboxY, a.bboxWidth, a.bboxHeight, a.label) " +
+           "FROM Annotation a LEFT JOIN a.image im " +
+           "WHERE a.imageIdRef IN :imageIdRefs AND (a.isDeleted = false OR a.isDeleted IS NULL) " +
+           "ORDER BY a.imageIdRef, a.createdAt")
+    List<TrainingBoxRow> findTrainingBoxes(@Param("imageIdRefs") Collection<String> imageIdRefs);
+    
+    /**
+     * Bulk delete annotations of an inspection, its images or its detections
+     */
+    @Modifying
+    @Query("DELETE FROM Annotation a WHERE a.inspection.id = :inspectionId " +
+           "OR a.image.id IN (SELECT im.id FROM Image im WHERE im.inspection.id = :inspectionId) " +
+           "OR a.anomalyDetection.id IN (SELECT ad.id FROM AnomalyDetection ad WHERE ad.inspection.id = :inspectionId)")
+    int deleteAllByInspectionId(@Param("inspectionId") UUID inspectionId);
+    
+    /**
+     * Bulk delete annotations of a transformer's inspections, images or detections
+     */
+    @Modifying
+    @Query("DELETE FROM Annotation a WHERE a.inspection.id IN (SELECT i.id FROM Inspection i WHERE i.transformer.id = :transformerId) " +
+           "OR a.image.id IN (SELECT im.id FROM Image im WHERE im.transformer.id = :transformerId " +
+           "OR im.inspection.id IN (SELECT i.id FROM Inspection i WHERE i.transformer.id = :transformerId)) " +
+           "OR a.anomalyDetection.id IN (SELECT ad.id FROM AnomalyDetection ad WHERE ad.transformer.id = :transformerId " +
+           "OR ad.inspection.id IN (SELECT i.id FROM Inspection i WHERE i.transformer.id = :transformerId))")
+    int deleteAllByTransformerId(@Param("transformerId") UUID transformerId);
 }
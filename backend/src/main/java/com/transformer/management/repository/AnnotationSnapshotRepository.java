@@ -0,0 +1,45 @@
+package com.transformer.management.repository;
+
+import com.transformer.management.entity.AnnotationSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for periodic snapshots of the annotation event log
+ */
+@Repository
+public interface AnnotationSnapshotRepository extends JpaRepository<AnnotationSnapshot, Long> {
+
+    /**
+     * Most recent snapshot of an image
+     */
+    Optional<AnnotationSnapshot> findFirstByImageIdRefOrderByLastSequenceDesc(String imageIdRef);
+
+    /**
+     * Most recent snapshot of an image that does not include events after the given time
+     */
+    Optional<AnnotationSnapshot> findFirstByImageIdRefAndLastEventAtLessThanEqualOrderByLastSequenceDesc(
+        String imageIdRef, LocalDateTime at);
+
+    /**
+     * Bulk delete the snapshots of an inspection
+     */
+    @Modifying
+    @Query("DELETE FROM AnnotationSnapshot s WHERE s.imageIdRef = :imageIdRef")
+    int deleteAllByImageIdRef(@Param("imageIdRef") String imageIdRef);
+
+    /**
+     * Bulk delete the snapshots of all inspections of a transformer
+     */
+    @Modifying
+    @Query("DELETE FROM AnnotationSnapshot s WHERE s.imageIdRef IN " +
+           "(SELECT CAST(i.id AS String) FROM Inspection i WHERE i.transformer.id = :transformerId)")
+    int deleteAllByTransformerId(@Param("transformerId") UUID transformerId);
+}
@@ -0,0 +1,38 @@
+package com.transformer.management.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transformer.management.entity.AnnotationStream;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface AnnotationStreamRepository extends JpaRepository<AnnotationStream, String> {
+    // Lock the stream row of an image (SELECT ... FOR UPDATE) so concurrent appends queue on it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AnnotationStream s WHERE s.imageIdRef = :imageIdRef")
+    Optional<AnnotationStream> findForUpdate(@Param("imageIdRef") String imageIdRef);
+
+    // Create the stream row of an image; a concurrent insert of the same image waits for it and is a no-op
+    @Modifying
+    @Query(value = "INSERT INTO annotation_streams (image_id_ref, last_sequence) VALUES (:imageIdRef, 0) " +
+                   "ON CONFLICT (image_id_ref) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("imageIdRef") String imageIdRef);
+
+    @Modifying
+    @Query("DELETE FROM AnnotationStream s WHERE s.imageIdRef = :imageIdRef")
+    int deleteAllByImageIdRef(@Param("imageIdRef") String imageIdRef);
+
+    @Modifying
+    @Query("DELETE FROM AnnotationStream s WHERE s.imageIdRef IN " +
+           "(SELECT CAST(i.id AS String) FROM Inspection i WHERE i.transformer.id = :transformerId)")
+    int deleteAllByTransformerId(@Param("transformerId") UUID transformerId);
+}
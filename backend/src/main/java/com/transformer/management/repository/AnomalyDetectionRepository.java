@@ -1,13 +1,16 @@
 package com.transformer.management.repository;
 
 import com.transformer.management.entity.AnomalyDetection;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -20,10 +23,22 @@ public interface AnomalyDetectionRepository extends JpaRepository<AnomalyDetecti
     // Find all detections for a specific inspection
     List<AnomalyDetection> findByInspectionId(UUID inspectionId);
     
+    // Detection history of an inspection, with inspection and transformer
+    @EntityGraph(AnomalyDetection.WITH_INSPECTION)
+    List<AnomalyDetection> findWithInspectionByInspectionId(UUID inspectionId);
+    
+    // Find a detection with its inspection and transformer, for endpoints that return it
+    @EntityGraph(AnomalyDetection.WITH_INSPECTION)
+    Optional<AnomalyDetection> findWithInspectionById(UUID id);
+    
+    // Find the most recent detection run of an inspection
+    Optional<AnomalyDetection> findFirstByInspectionIdOrderByDetectedAtDesc(UUID inspectionId);
+    
     // Find all detections for a specific transformer
     List<AnomalyDetection> findByTransformerId(UUID transformerId);
     
-    // Find all detections for a specific transformer, ordered by date (most recent first)
+    // Find all detections for a specific transformer, ordered by date (most recent first), with inspection and transformer
+    @EntityGraph(AnomalyDetection.WITH_INSPECTION)
     List<AnomalyDetection> findByTransformerIdOrderByDetectedAtDesc(UUID transformerId);
     
     // Find detections by engine name (for comparing different detection engines)
@@ -32,7 +47,8 @@ public interface AnomalyDetectionRepository extends JpaRepository<AnomalyDetecti
     // Find detections by engine name and version
     List<AnomalyDetection> findByEngineNameAndEngineVersion(String engineName, String engineVersion);
     
-    // Find detections within a date range
+    // Find detections within a date range, with inspection and transformer
+    @EntityGraph(AnomalyDetection.WITH_INSPECTION)
     @Query("SELECT ad FROM AnomalyDetection ad WHERE ad.detectedAt BETWEEN :startDate AND :endDate ORDER BY ad.detectedAt DESC")
     List<AnomalyDetection> findByDetectedAtBetween(
         @Param("startDate") LocalDateTime startDate, 
@@ -95,4 +111,25 @@ public interface AnomalyDetectionRepository extends JpaRepository<AnomalyDetecti
     // Count critical detections for a transformer
     @Query("SELECT COUNT(ad) FROM AnomalyDetection ad WHERE ad.transformer.id = :transformerId AND ad.criticalCount > 0")
     Long countCriticalByTransformer(@Param("transformerId") UUID transformerId);
+    
+    // Generated overlay/heatmap/mask URLs for an inspection, used for storage cleanup on delete
+    @Query("SELECT ad.overlayImageUrl, ad.heatmapImageUrl, ad.maskImageUrl FROM AnomalyDetection ad WHERE ad.inspection.id = :inspectionId")
+    List<Object[]> findGeneratedImageUrlsByInspection(@Param("inspectionId") UUID inspectionId);
+    
+    // Generated overlay/heatmap/mask URLs for a transformer, used for storage cleanup on delete
+    @Query("SELECT ad.overlayImageUrl, ad.heatmapImageUrl, ad.maskImageUrl FROM AnomalyDetection ad " +
+           "WHERE ad.transformer.id = :transformerId " +
+           "OR ad.inspection.id IN (SELECT i.id FROM Inspection i WHERE i.transformer.id = :transformerId)")
+    List<Object[]> findGeneratedImageUrlsByTransformer(@Param("transformerId") UUID transformerId);
+    
+    // Bulk delete all detections for an inspection
+    @Modifying
+    @Query("DELETE FROM AnomalyDetection ad WHERE ad.inspection.id = :inspectionId")
+    int deleteAllByInspectionId(@Param("inspectionId") UUID inspectionId);
+    
+    // Bulk delete all detections for a transformer or any of its inspections
+    @Modifying
+    @Query("DELETE FROM AnomalyDetection ad WHERE ad.transformer.id = :transformerId " +
+           "OR ad.inspection.id IN (SELECT i.id FROM Inspection i WHERE i.transformer.id = :transformerId)")
+    int deleteAllByTransformerId(@Param("transformerId") UUID transformerId);
 }
@@ -0,0 +1,55 @@
+package com.transformer.management.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transformer.management.entity.CorrelationSums;
+
+@Repository
+public interface CorrelationSumsRepository extends JpaRepository<CorrelationSums, String> {
+    List<CorrelationSums> findByTransformerIdOrderByReading(UUID transformerId);
+
+    // Create an empty sums row for a transformer and reading; a concurrent insert is a no-op
+    @Modifying
+    @Query(value = "INSERT INTO correlation_sums (sums_key, transformer_id, reading, pairs, sum_x, sum_y, sum_xx, sum_yy, sum_xy) " +
+                   "VALUES (:sumsKey, :transformerId, :reading, 0, 0, 0, 0, 0, 0) " +
+                   "ON CONFLICT (sums_key) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("sumsKey") String sumsKey, @Param("transformerId") UUID transformerId,
+                       @Param("reading") String reading);
+
+    // Apply a pair delta in place, so concurrent changes to different inspections never lose updates
+    @Modifying
+    @Query("UPDATE CorrelationSums s SET s.pairs = s.pairs + :pairs, s.sumX = s.sumX + :sumX, s.sumY = s.sumY + :sumY, " +
+           "s.sumXX = s.sumXX + :sumXX, s.sumYY = s.sumYY + :sumYY, s.sumXY = s.sumXY + :sumXY, " +
+           "s.updatedAt = :updatedAt WHERE s.sumsKey = :sumsKey")
+    int addDelta(@Param("sumsKey") String sumsKey, @Param("pairs") long pairs, @Param("sumX") double sumX,
+                 @Param("sumY") double sumY, @Param("sumXX") double sumXX, @Param("sumYY") double sumYY,
+                 @Param("sumXY") double sumXY, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Recompute all sums from the inspection contributions
+    @Modifying
+    @Query(value = "INSERT INTO correlation_sums (sums_key, transformer_id, reading, pairs, sum_x, sum_y, sum_xx, sum_yy, sum_xy, updated_at) " +
+                   "SELECT p.transformer_id || ':' || p.reading, p.transformer_id, p.reading, COUNT(*), " +
+                   "SUM(p.x), SUM(p.y), SUM(p.x * p.x), SUM(p.y * p.y), SUM(p.x * p.y), NOW() " +
+                   "FROM (SELECT transformer_id, 'temperature' AS reading, severity AS x, temperature AS y FROM inspection_correlations " +
+                   "      UNION ALL " +
+                   "      SELECT transformer_id, 'currentReading', severity, current_reading FROM inspection_correlations) p " +
+                   "WHERE p.transformer_id IS NOT NULL AND p.x IS NOT NULL AND p.y IS NOT NULL " +
+                   "GROUP BY p.transformer_id, p.reading", nativeQuery = true)
+    int insertFromContributions();
+
+    @Modifying
+    @Query("DELETE FROM CorrelationSums s WHERE s.transformerId = :transformerId")
+    int deleteAllByTransformerId(@Param("transformerId") UUID transformerId);
+
+    @Modifying
+    @Query("DELETE FROM CorrelationSums s")
+    int deleteAllRows();
+}
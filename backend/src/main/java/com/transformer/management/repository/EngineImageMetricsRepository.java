@@ -0,0 +1,29 @@
+package com.transformer.management.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transformer.management.entity.EngineImageMetrics;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface EngineImageMetricsRepository extends JpaRepository<EngineImageMetrics, String> {
+    // Lock the contribution row of an image so concurrent saves of the same image apply one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM EngineImageMetrics m WHERE m.imageIdRef = :imageIdRef")
+    Optional<EngineImageMetrics> findForUpdate(@Param("imageIdRef") String imageIdRef);
+
+    // Create an empty contribution row for an image; a concurrent insert is a no-op
+    @Modifying
+    @Query(value = "INSERT INTO engine_image_metrics (image_id_ref, true_positives, false_positives, false_negatives, " +
+                   "iou_sum, center_error_sum) VALUES (:imageIdRef, 0, 0, 0, 0, 0) " +
+                   "ON CONFLICT (image_id_ref) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("imageIdRef") String imageIdRef);
+}
@@ -0,0 +1,36 @@
+package com.transformer.management.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transformer.management.entity.EngineMetrics;
+
+@Repository
+public interface EngineMetricsRepository extends JpaRepository<EngineMetrics, String> {
+    // Create the totals row for an engine version; a concurrent insert is a no-op
+    @Modifying
+    @Query(value = "INSERT INTO engine_metrics (engine_key, engine_name, engine_version, images, true_positives, " +
+                   "false_positives, false_negatives, iou_sum, center_error_sum) " +
+                   "VALUES (:engineKey, :engineName, :engineVersion, 0, 0, 0, 0, 0, 0) " +
+                   "ON CONFLICT (engine_key) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("engineKey") String engineKey, @Param("engineName") String engineName,
+                       @Param("engineVersion") String engineVersion);
+
+    // Apply a contribution delta in place, so concurrent reviews of different images never lose updates
+    @Modifying
+    @Query("UPDATE EngineMetrics m SET m.images = m.images + :images, " +
+           "m.truePositives = m.truePositives + :truePositives, " +
+           "m.falsePositives = m.falsePositives + :falsePositives, " +
+           "m.falseNegatives = m.falseNegatives + :falseNegatives, " +
+           "m.iouSum = m.iouSum + :iouSum, m.centerErrorSum = m.centerErrorSum + :centerErrorSum, " +
+           "m.updatedAt = :updatedAt WHERE m.engineKey = :engineKey")
+    int addDelta(@Param("engineKey") String engineKey, @Param("images") long images,
+                 @Param("truePositives") long truePositives, @Param("falsePositives") long falsePositives,
+                 @Param("falseNegatives") long falseNegatives, @Param("iouSum") double iouSum,
+                 @Param("centerErrorSum") double centerErrorSum, @Param("updatedAt") LocalDateTime updatedAt);
+}
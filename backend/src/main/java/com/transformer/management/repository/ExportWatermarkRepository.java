@@ -0,0 +1,10 @@
+package com.transformer.management.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.transformer.management.entity.ExportWatermark;
+
+@Repository
+public interface ExportWatermarkRepository extends JpaRepository<ExportWatermark, String> {
+}
@@ -0,0 +1,30 @@
+package com.transformer.management.repository;
+
+import com.transformer.management.entity.FeedbackLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for reading feedback logs written by the frontend
+ */
+@Repository
+public interface FeedbackLogRepository extends JpaRepository<FeedbackLog, UUID> {
+
+    /**
+     * Next page of feedback logs created or updated after the given time, in id order
+     * Only the latest log of each image is returned, and none for images that have annotation rows
+     * Used as a keyset cursor by the training-data export
+     */
+    @Query("SELECT f FROM FeedbackLog f WHERE f.id > :after AND (f.createdAt > :since OR f.updatedAt > :since) " +
+           "AND NOT EXISTS (SELECT g FROM FeedbackLog g WHERE g.imageId = f.imageId AND g.createdAt > f.createdAt) " +
+           "AND NOT EXISTS (SELECT a FROM Annotation a WHERE a.imageIdRef = f.imageId) " +
+           "ORDER BY f.id")
+    List<FeedbackLog> findChangedAfter(@Param("after") UUID after, @Param("since") LocalDateTime since, Pageable pageable);
+}
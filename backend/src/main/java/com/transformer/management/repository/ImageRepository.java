@@ -2,14 +2,23 @@ package com.transformer.management.repository;
 
 import java.util.UUID;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.transformer.management.entity.Image;
 
 @Repository
-public interface ImageRepository extends JpaRepository<Image, UUID> {
+public interface ImageRepository extends JpaRepository<Image, UUID>, ImageRepositoryCustom {
+    // Find an image with its transformer and inspection, for endpoints that return it
+    @EntityGraph(Image.WITH_OWNERS)
+    Optional<Image> findWithOwnersById(UUID id);
+
     // Find images by transformer ID
     List<Image> findByTransformerId(UUID transformerId);
     
@@ -30,4 +39,23 @@ public interface ImageRepository extends JpaRepository<Image, UUID> {
     
     // Find images by transformer and inspection
     List<Image> findByTransformerIdAndInspectionId(UUID transformerId, UUID inspectionId);
+    
+    // Image URLs for an inspection, used for storage cleanup on delete
+    @Query("SELECT i.url FROM Image i WHERE i.inspection.id = :inspectionId")
+    List<String> findUrlsByInspectionId(@Param("inspectionId") UUID inspectionId);
+    
+    // Image URLs for a transformer, used for storage cleanup on delete
+    @Query("SELECT i.url FROM Image i WHERE i.transformer.id = :transformerId")
+    List<String> findUrlsByTransformerId(@Param("transformerId") UUID transformerId);
+    
+    // Bulk delete all images for an inspection
+    @Modifying
+    @Query("DELETE FROM Image i WHERE i.inspection.id = :inspectionId")
+    int deleteAllByInspectionId(@Param("inspectionId") UUID inspectionId);
+    
+    // Bulk delete all images for a transformer (including those attached to its inspections)
+    @Modifying
+    @Query("DELETE FROM Image i WHERE i.transformer.id = :transformerId " +
+           "OR i.inspection.id IN (SELECT insp.id FROM Inspection insp WHERE insp.transformer.id = :transformerId)")
+    int deleteAllByTransformerId(@Param("transformerId") UUID transformerId);
 }
@@ -0,0 +1,32 @@
+package com.transformer.management.repository;
+
+import com.transformer.management.dto.ImageDTO;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Projection queries for image listings
+ * Results are built directly as ImageDTOs in a single select, so listing images
+ * never touches the lazy inspection association
+ */
+public interface ImageRepositoryCustom {
+
+    /**
+     * Find image DTOs matching every non-null filter, most recently captured first
+     *
+     * @param transformerId Optional transformer filter
+     * @param imageType Optional image type filter ("baseline" or "maintenance")
+     * @param inspectionId Optional inspection filter
+     * @param page Zero-based page index
+     * @param limit Maximum number of rows to return
+     * @throws ArithmeticException if page * limit does not fit in an int
+     */
+    List<ImageDTO> findImageDTOs(UUID transformerId, String imageType, UUID inspectionId, int page, int limit);
+
+    /**
+     * Find a single image DTO by ID
+     */
+    Optional<ImageDTO> findImageDTOById(UUID id);
+}
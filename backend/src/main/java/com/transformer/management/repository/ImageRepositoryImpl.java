@@ -0,0 +1,67 @@
+package com.transformer.management.repository;
+
+import com.transformer.management.dto.ImageDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Dynamic JPQL implementation of {@link ImageRepositoryCustom}
+ */
+public class ImageRepositoryImpl implements ImageRepositoryCustom {
+
+    private static final String SELECT_DTO =
+        "SELECT new com.transformer.management.dto.ImageDTO(" +
+        "i.id, i.url, i.label, i.imageType, i.uploaderName, i.environmentalCondition, i.comments, " +
+        "i.capturedAt, i.createdAt, i.cameraModel, i.emissivity, i.temperatureMin, i.temperatureMax, " +
+        "t.id, t.code, insp.id, insp.inspectionNo) " +
+        "FROM Image i JOIN i.transformer t LEFT JOIN i.inspection insp";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ImageDTO> findImageDTOs(UUID transformerId, String imageType, UUID inspectionId, int page, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT_DTO);
+        Map<String, Object> params = new HashMap<>();
+
+        // Only append the predicates that are actually requested
+        String joiner = " WHERE ";
+        if (transformerId != null) {
+            jpql.append(joiner).append("t.id = :transformerId");
+            params.put("transformerId", transformerId);
+            joiner = " AND ";
+        }
+        if (imageType != null) {
+            jpql.append(joiner).append("i.imageType = :imageType");
+            params.put("imageType", imageType);
+            joiner = " AND ";
+        }
+        if (inspectionId != null) {
+            jpql.append(joiner).append("insp.id = :inspectionId");
+            params.put("inspectionId", inspectionId);
+        }
+        jpql.append(" ORDER BY i.capturedAt DESC, i.id");
+
+        TypedQuery<ImageDTO> query = entityManager.createQuery(jpql.toString(), ImageDTO.class);
+        params.forEach(query::setParameter);
+        query.setFirstResult(Math.multiplyExact(page, limit));
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public Optional<ImageDTO> findImageDTOById(UUID id) {
+        return entityManager.createQuery(SELECT_DTO + " WHERE i.id = :id", ImageDTO.class)
+            .setParameter("id", id)
+            .getResultList()
+            .stream()
+            .findFirst();
+    }
+}
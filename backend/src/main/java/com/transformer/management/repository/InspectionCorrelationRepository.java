@@ -0,0 +1,77 @@
+package com.transformer.management.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transformer.management.entity.InspectionCorrelation;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface InspectionCorrelationRepository extends JpaRepository<InspectionCorrelation, UUID> {
+    // Lock the contribution row of an inspection so concurrent detection runs and record saves apply one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM InspectionCorrelation c WHERE c.inspectionId = :inspectionId")
+    Optional<InspectionCorrelation> findForUpdate(@Param("inspectionId") UUID inspectionId);
+
+    // Create an empty contribution row for an inspection; a concurrent insert is a no-op
+    @Modifying
+    @Query(value = "INSERT INTO inspection_correlations (inspection_id) VALUES (:inspectionId) " +
+                   "ON CONFLICT (inspection_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("inspectionId") UUID inspectionId);
+
+    /**
+     * Transformer, time, latest detection run (id, critical and warning counts) and latest maintenance record
+     * (id, temperature, current) of an inspection; empty if the inspection does not exist
+     */
+    @Query(value = "SELECT i.transformer_id, i.inspected_at, d.id, d.critical_count, d.warning_count, " +
+                   "m.id, m.temperature, m.current_reading " +
+                   "FROM inspections i " +
+                   "LEFT JOIN LATERAL (SELECT ad.id, ad.critical_count, ad.warning_count FROM anomaly_detections ad " +
+                   "    WHERE ad.inspection_id = i.id ORDER BY ad.detected_at DESC LIMIT 1) d ON TRUE " +
+                   "LEFT JOIN LATERAL (SELECT mr.id, mr.temperature, mr.current_reading FROM maintenance_records mr " +
+                   "    WHERE mr.inspection_id = i.id ORDER BY mr.created_at DESC LIMIT 1) m ON TRUE " +
+                   "WHERE i.id = :inspectionId", nativeQuery = true)
+    List<Object[]> alignInspection(@Param("inspectionId") UUID inspectionId);
+
+    // Recompute the contributions of every inspection with a detection run or maintenance record, in one statement
+    @Modifying
+    @Query(value = "INSERT INTO inspection_correlations (inspection_id, transformer_id, observed_at, detection_id, severity, " +
+                   "maintenance_record_id, temperature, current_reading, updated_at) " +
+                   "SELECT i.id, i.transformer_id, i.inspected_at, d.id, " +
+                   "CASE WHEN d.id IS NULL THEN NULL ELSE 2 * COALESCE(d.critical_count, 0) + COALESCE(d.warning_count, 0) END, " +
+                   "m.id, m.temperature, m.current_reading, NOW() " +
+                   "FROM inspections i " +
+                   "LEFT JOIN (SELECT DISTINCT ON (inspection_id) inspection_id, id, critical_count, warning_count " +
+                   "    FROM anomaly_detections WHERE inspection_id IS NOT NULL " +
+                   "    ORDER BY inspection_id, detected_at DESC) d ON d.inspection_id = i.id " +
+                   "LEFT JOIN (SELECT DISTINCT ON (inspection_id) inspection_id, id, temperature, current_reading " +
+                   "    FROM maintenance_records ORDER BY inspection_id, created_at DESC) m ON m.inspection_id = i.id " +
+                   "WHERE d.id IS NOT NULL OR m.id IS NOT NULL", nativeQuery = true)
+    int insertAligned();
+
+    // Severity, temperature and current of all contributions, grouped by transformer in inspection order
+    @Query("SELECT c.transformerId, c.severity, c.temperature, c.currentReading FROM InspectionCorrelation c " +
+           "WHERE c.transformerId IS NOT NULL ORDER BY c.transformerId, c.observedAt, c.inspectionId")
+    List<Object[]> findAllSeries();
+
+    @Query("SELECT c.transformerId, c.severity, c.temperature, c.currentReading FROM InspectionCorrelation c " +
+           "WHERE c.transformerId = :transformerId ORDER BY c.observedAt, c.inspectionId")
+    List<Object[]> findSeriesByTransformerId(@Param("transformerId") UUID transformerId);
+
+    @Modifying
+    @Query("DELETE FROM InspectionCorrelation c WHERE c.transformerId = :transformerId")
+    int deleteAllByTransformerId(@Param("transformerId") UUID transformerId);
+
+    @Modifying
+    @Query("DELETE FROM InspectionCorrelation c")
+    int deleteAllRows();
+}
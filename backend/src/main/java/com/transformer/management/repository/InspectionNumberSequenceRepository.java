@@ -0,0 +1,29 @@
+package com.transformer.management.repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transformer.management.entity.InspectionNumberSequence;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface InspectionNumberSequenceRepository extends JpaRepository<InspectionNumberSequence, LocalDate> {
+    // Lock the counter row for a date (SELECT ... FOR UPDATE) so concurrent creates queue on it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InspectionNumberSequence s WHERE s.seqDate = :seqDate")
+    Optional<InspectionNumberSequence> findForUpdate(@Param("seqDate") LocalDate seqDate);
+
+    // Create the counter row for a date; a concurrent insert of the same date is a no-op
+    @Modifying
+    @Query(value = "INSERT INTO inspection_number_sequences (seq_date, last_value) VALUES (:seqDate, :lastValue) " +
+                   "ON CONFLICT (seq_date) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("seqDate") LocalDate seqDate, @Param("lastValue") int lastValue);
+}
@@ -2,10 +2,17 @@ package com.transformer.management.repository;
 
 import java.util.UUID;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.transformer.management.dto.InspectionSummaryDTO;
 import com.transformer.management.entity.Inspection;
 
 @Repository
@@ -13,6 +20,34 @@ public interface InspectionRepository extends JpaRepository<Inspection, UUID> {
     // Find inspections by inspection number starting with prefix (for auto-generation)
     List<Inspection> findByInspectionNoStartingWith(String prefix);
     
-    // Find all inspections ordered by inspected date descending (most recent first)
+    // Find all inspections ordered by inspected date descending (most recent first), with their transformers
+    @EntityGraph(Inspection.WITH_TRANSFORMER)
     List<Inspection> findAllByOrderByInspectedAtDesc();
+
+    // Find an inspection with its transformer, for endpoints that return it
+    @EntityGraph(Inspection.WITH_TRANSFORMER)
+    Optional<Inspection> findWithTransformerById(UUID id);
+
+    // Inspection list rows with transformer code, image counts and latest detection, in one query
+    // The latest detection is picked by (detectedAt, id) so detections sharing a timestamp yield one row
+    @Query("SELECT new com.transformer.management.dto.InspectionSummaryDTO(" +
+           "i.id, i.inspectionNo, i.inspectedAt, i.maintenanceDate, i.status, i.notes, t.id, t.code, " +
+           "(SELECT COUNT(im) FROM Image im WHERE im.inspection = i AND im.imageType = 'baseline'), " +
+           "(SELECT COUNT(im) FROM Image im WHERE im.inspection = i AND im.imageType = 'maintenance'), " +
+           "ad.id, ad.overallLabel, ad.totalDetections, ad.criticalCount, ad.warningCount, ad.detectedAt) " +
+           "FROM Inspection i JOIN i.transformer t " +
+           "LEFT JOIN AnomalyDetection ad ON ad.id = " +
+           "(SELECT ad2.id FROM AnomalyDetection ad2 WHERE ad2.inspection = i " +
+           "ORDER BY ad2.detectedAt DESC, ad2.id DESC LIMIT 1) " +
+           "ORDER BY i.inspectedAt DESC, i.id")
+    List<InspectionSummaryDTO> findInspectionSummaries(Pageable pageable);
+
+    // Ids of all inspections of a transformer
+    @Query("SELECT i.id FROM Inspection i WHERE i.transformer.id = :transformerId")
+    List<UUID> findIdsByTransformerId(@Param("transformerId") UUID transformerId);
+
+    // Bulk delete all inspections for a transformer
+    @Modifying
+    @Query("DELETE FROM Inspection i WHERE i.transformer.id = :transformerId")
+    int deleteAllByTransformerId(@Param("transformerId") UUID transformerId);
 }
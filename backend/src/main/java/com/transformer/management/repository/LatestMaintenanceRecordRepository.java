@@ -0,0 +1,68 @@
+package com.transformer.management.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transformer.management.dto.TransformerStatusDTO;
+import com.transformer.management.entity.LatestMaintenanceRecord;
+
+@Repository
+public interface LatestMaintenanceRecordRepository extends JpaRepository<LatestMaintenanceRecord, UUID> {
+    // Point a transformer at a new record unless it already points at a later one; safe under concurrent saves
+    @Modifying
+    @Query(value = "INSERT INTO transformer_latest_records (transformer_id, maintenance_record_id, created_at) " +
+                   "VALUES (:transformerId, :recordId, :createdAt) " +
+                   "ON CONFLICT (transformer_id) DO UPDATE SET maintenance_record_id = EXCLUDED.maintenance_record_id, " +
+                   "created_at = EXCLUDED.created_at " +
+                   "WHERE (EXCLUDED.created_at, EXCLUDED.maintenance_record_id) > " +
+                   "(transformer_latest_records.created_at, transformer_latest_records.maintenance_record_id)",
+           nativeQuery = true)
+    int advance(@Param("transformerId") UUID transformerId, @Param("recordId") UUID recordId,
+                @Param("createdAt") LocalDateTime createdAt);
+
+    // Re-point a transformer at its latest remaining record (one index probe), e.g. after a delete
+    @Modifying
+    @Query(value = "INSERT INTO transformer_latest_records (transformer_id, maintenance_record_id, created_at) " +
+                   "SELECT mr.transformer_id, mr.id, mr.created_at FROM maintenance_records mr " +
+                   "WHERE mr.transformer_id = :transformerId ORDER BY mr.created_at DESC, mr.id DESC LIMIT 1 " +
+                   "ON CONFLICT (transformer_id) DO UPDATE SET maintenance_record_id = EXCLUDED.maintenance_record_id, " +
+                   "created_at = EXCLUDED.created_at", nativeQuery = true)
+    int repoint(@Param("transformerId") UUID transformerId);
+
+    // Drop a pointer whose record is gone and that repoint could not replace
+    @Modifying
+    @Query(value = "DELETE FROM transformer_latest_records l WHERE l.transformer_id = :transformerId " +
+                   "AND NOT EXISTS (SELECT 1 FROM maintenance_records mr WHERE mr.id = l.maintenance_record_id)",
+           nativeQuery = true)
+    int deleteIfDangling(@Param("transformerId") UUID transformerId);
+
+    // Rebuild every pointer from the latest record per transformer (DISTINCT ON)
+    @Modifying
+    @Query(value = "INSERT INTO transformer_latest_records (transformer_id, maintenance_record_id, created_at) " +
+                   "SELECT DISTINCT ON (mr.transformer_id) mr.transformer_id, mr.id, mr.created_at " +
+                   "FROM maintenance_records mr ORDER BY mr.transformer_id, mr.created_at DESC, mr.id DESC " +
+                   "ON CONFLICT (transformer_id) DO UPDATE SET maintenance_record_id = EXCLUDED.maintenance_record_id, " +
+                   "created_at = EXCLUDED.created_at", nativeQuery = true)
+    int rebuildAll();
+
+    @Modifying
+    @Query("DELETE FROM LatestMaintenanceRecord l WHERE l.transformerId = :transformerId")
+    int deleteByTransformer(@Param("transformerId") UUID transformerId);
+
+    // Every transformer with its latest maintenance record, if any, in one query
+    @Query("SELECT new com.transformer.management.dto.TransformerStatusDTO(" +
+           "t.id, t.code, t.region, t.status, mr.id, mr.inspection.id, mr.transformerStatus, mr.inspectorName, " +
+           "mr.voltageReading, mr.currentReading, mr.powerFactor, mr.temperature, mr.createdAt) " +
+           "FROM Transformer t " +
+           "LEFT JOIN LatestMaintenanceRecord l ON l.transformerId = t.id " +
+           "LEFT JOIN MaintenanceRecord mr ON mr.id = l.maintenanceRecordId " +
+           "ORDER BY t.code")
+    List<TransformerStatusDTO> findTransformerStatuses();
+}
@@ -1,14 +1,68 @@
 package com.transformer.management.repository;
 
 import com.transformer.management.entity.MaintenanceRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface MaintenanceRecordRepository extends JpaRepository<MaintenanceRecord, UUID> {
-    List<MaintenanceRecord> findByInspectionId(UUID inspectionId);
-    List<MaintenanceRecord> findByTransformerId(UUID transformerId);
+    // Every read returns the record with its inspection and transformer in one query
+    @Override
+    @EntityGraph(MaintenanceRecord.WITH_INSPECTION)
+    List<MaintenanceRecord> findAll();
+
+    @Override
+    @EntityGraph(MaintenanceRecord.WITH_INSPECTION)
+    Optional<MaintenanceRecord> findById(UUID id);
+
+    // Pages of records, newest first, served from the created_at indexes
+    @EntityGraph(MaintenanceRecord.WITH_INSPECTION)
+    List<MaintenanceRecord> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    @EntityGraph(MaintenanceRecord.WITH_INSPECTION)
+    List<MaintenanceRecord> findByTransformerIdOrderByCreatedAtDescIdDesc(UUID transformerId, Pageable pageable);
+
+    // Latest record of an inspection: one probe of the (inspection_id, created_at) index
+    @EntityGraph(MaintenanceRecord.WITH_INSPECTION)
+    Optional<MaintenanceRecord> findFirstByInspectionIdOrderByCreatedAtDescIdDesc(UUID inspectionId);
+
+    // Record count, then count/min/avg/max of voltage, current, power factor and temperature for a transformer
+    @Query("SELECT COUNT(mr), " +
+           "COUNT(mr.voltageReading), MIN(mr.voltageReading), AVG(mr.voltageReading), MAX(mr.voltageReading), " +
+           "COUNT(mr.currentReading), MIN(mr.currentReading), AVG(mr.currentReading), MAX(mr.currentReading), " +
+           "COUNT(mr.powerFactor), MIN(mr.powerFactor), AVG(mr.powerFactor), MAX(mr.powerFactor), " +
+           "COUNT(mr.temperature), MIN(mr.temperature), AVG(mr.temperature), MAX(mr.temperature) " +
+           "FROM MaintenanceRecord mr WHERE mr.transformer.id = :transformerId")
+    List<Object[]> getReadingStatsByTransformer(@Param("transformerId") UUID transformerId);
+
+    // Timestamp and readings of a transformer's records, oldest first, for trend statistics and charts
+    @Query("SELECT mr.id, mr.createdAt, mr.voltageReading, mr.currentReading, mr.powerFactor, mr.temperature " +
+           "FROM MaintenanceRecord mr WHERE mr.transformer.id = :transformerId ORDER BY mr.createdAt, mr.id")
+    List<Object[]> findReadingsByTransformer(@Param("transformerId") UUID transformerId);
+
+    @Query("SELECT DISTINCT mr.transformer.id FROM MaintenanceRecord mr WHERE mr.inspection.id = :inspectionId")
+    List<UUID> findTransformerIdsByInspectionId(@Param("inspectionId") UUID inspectionId);
+
+    @Query("SELECT DISTINCT mr.transformer.id FROM MaintenanceRecord mr")
+    List<UUID> findDistinctTransformerIds();
+
+    // Bulk delete maintenance records for an inspection
+    @Modifying
+    @Query("DELETE FROM MaintenanceRecord mr WHERE mr.inspection.id = :inspectionId")
+    int deleteAllByInspectionId(@Param("inspectionId") UUID inspectionId);
+
+    // Bulk delete maintenance records for a transformer or any of its inspections
+    @Modifying
+    @Query("DELETE FROM MaintenanceRecord mr WHERE mr.transformer.id = :transformerId " +
+           "OR mr.inspection.id IN (SELECT i.id FROM Inspection i WHERE i.transformer.id = :transformerId)")
+    int deleteAllByTransformerId(@Param("transformerId") UUID transformerId);
 }
@@ -0,0 +1,51 @@
+package com.transformer.management.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transformer.management.entity.PendingAssetDeletion;
+
+@Repository
+public interface PendingAssetDeletionRepository extends JpaRepository<PendingAssetDeletion, String> {
+    // Record an asset for deletion; an asset that is already pending keeps its schedule
+    @Modifying
+    @Query(value = "INSERT INTO pending_asset_deletions (public_id, attempts, next_attempt_at, created_at) " +
+                   "VALUES (:publicId, 0, :now, :now) ON CONFLICT (public_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("publicId") String publicId, @Param("now") LocalDateTime now);
+
+    /**
+     * Claim up to limit due assets by pushing their next attempt out to the lease
+     * Rows claimed by another instance are skipped; a claim left by a crashed worker expires with its lease
+     * Like the other drain queries it commits on its own, so no connection is held during the storage call
+     *
+     * @return Public IDs of the claimed assets
+     */
+    @Transactional
+    @Query(value = "UPDATE pending_asset_deletions SET next_attempt_at = :lease WHERE public_id IN (" +
+                   "SELECT public_id FROM pending_asset_deletions WHERE next_attempt_at <= :now " +
+                   "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED) RETURNING public_id", nativeQuery = true)
+    List<String> claimDue(@Param("now") LocalDateTime now, @Param("lease") LocalDateTime lease, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PendingAssetDeletion d WHERE d.publicId IN :publicIds")
+    int deleteAllByPublicIdIn(@Param("publicIds") Collection<String> publicIds);
+
+    // Schedule the next attempt of each asset, doubling its delay per failed attempt up to the cap
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE pending_asset_deletions SET attempts = attempts + 1, last_error = :error, " +
+                   "next_attempt_at = CAST(:now AS TIMESTAMP) + LEAST(:maxBackoffSeconds, :initialBackoffSeconds * POWER(2, attempts)) " +
+                   "* INTERVAL '1 second' WHERE public_id IN (:publicIds)", nativeQuery = true)
+    int recordFailure(@Param("publicIds") Collection<String> publicIds, @Param("error") String error,
+                      @Param("now") LocalDateTime now, @Param("initialBackoffSeconds") long initialBackoffSeconds,
+                      @Param("maxBackoffSeconds") long maxBackoffSeconds);
+}
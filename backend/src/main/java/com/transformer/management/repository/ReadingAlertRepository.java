@@ -0,0 +1,35 @@
+package com.transformer.management.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transformer.management.entity.ReadingAlert;
+
+@Repository
+public interface ReadingAlertRepository extends JpaRepository<ReadingAlert, UUID> {
+    // Most recent alerts first
+    List<ReadingAlert> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    List<ReadingAlert> findByTransformerIdOrderByCreatedAtDesc(UUID transformerId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ReadingAlert a WHERE a.transformerId = :transformerId")
+    int deleteAllByTransformerId(@Param("transformerId") UUID transformerId);
+
+    @Modifying
+    @Query("DELETE FROM ReadingAlert a WHERE a.maintenanceRecordId = :maintenanceRecordId")
+    int deleteAllByMaintenanceRecordId(@Param("maintenanceRecordId") UUID maintenanceRecordId);
+
+    // Alerts raised by the records of an inspection, removed with its records
+    @Modifying
+    @Query("DELETE FROM ReadingAlert a WHERE a.maintenanceRecordId IN " +
+           "(SELECT mr.id FROM MaintenanceRecord mr WHERE mr.inspection.id = :inspectionId)")
+    int deleteAllByInspectionId(@Param("inspectionId") UUID inspectionId);
+}
@@ -0,0 +1,37 @@
+package com.transformer.management.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transformer.management.entity.ReadingStats;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface ReadingStatsRepository extends JpaRepository<ReadingStats, String> {
+    List<ReadingStats> findByTransformerIdOrderByReading(UUID transformerId);
+
+    // Lock all reading rows of a transformer, always in the same order, so concurrent saves apply one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ReadingStats s WHERE s.transformerId = :transformerId ORDER BY s.statsKey")
+    List<ReadingStats> findForUpdate(@Param("transformerId") UUID transformerId);
+
+    // Create an empty statistics row for a reading; a concurrent insert is a no-op
+    @Modifying
+    @Query(value = "INSERT INTO reading_stats (stats_key, transformer_id, reading, samples, ewma, ewm_variance) " +
+                   "VALUES (:statsKey, :transformerId, :reading, 0, 0, 0) " +
+                   "ON CONFLICT (stats_key) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("statsKey") String statsKey, @Param("transformerId") UUID transformerId,
+                       @Param("reading") String reading);
+
+    @Modifying
+    @Query("DELETE FROM ReadingStats s WHERE s.transformerId = :transformerId")
+    int deleteAllByTransformerId(@Param("transformerId") UUID transformerId);
+}
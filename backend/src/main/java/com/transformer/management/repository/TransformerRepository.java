@@ -3,13 +3,18 @@ package com.transformer.management.repository;
 import java.util.Optional;
 import java.util.UUID;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.transformer.management.entity.Transformer;
 
 @Repository
 public interface TransformerRepository extends JpaRepository<Transformer, UUID> {
-    // Find transformer by code field
+    // Find transformer by code field; results are kept in the query cache
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Transformer> findByCode(String code);
 }
@@ -0,0 +1,64 @@
+package com.transformer.management.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Updates of derived data (engine metrics, reading statistics, correlations) run once the triggering
+ * transaction has committed
+ * They run one at a time, in commit order, on a worker thread in transactions of their own: the committing
+ * thread keeps its connection until its outermost transaction completes, so with a
+ * one-connection pool a new transaction on that thread could never get a connection. A failed update is
+ * logged and does not affect the committed change
+ */
+@Service
+public class AfterCommitExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(AfterCommitExecutor.class);
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "after-commit");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Run a task after the current transaction commits; dropped if it rolls back
+     * Without an active transaction the task is queued right away
+     *
+     * @param description What the task does, for the log if it fails
+     */
+    public void execute(String description, Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(description, task);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(description, task);
+            }
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        worker.shutdownNow();
+    }
+
+    private void submit(String description, Runnable task) {
+        worker.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.warn("Failed to {}: {}", description, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,378 @@
+package com.transformer.management.service;
+
+import com.transformer.management.dto.AnnotationChangeSetRequest;
+import com.transformer.management.dto.AnnotationDTO;
+import com.transformer.management.dto.AnnotationDelta;
+import com.transformer.management.dto.AnnotationDeltaBatch;
+import com.transformer.management.entity.Annotation;
+import com.transformer.management.repository.AnnotationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fan-out and write-behind persistence for the collaborative annotation channel
+ * Incoming deltas are coalesced per box; once per display frame each inspection with pending
+ * changes gets a single broadcast to /topic/inspections/{id}/annotations, and every few seconds
+ * the accumulated changes are written as one change-set instead of one write per drag event.
+ * Changes that were broadcast but could not be saved (conflicts, unknown boxes, deltas that kept
+ * failing) are announced on /topic/inspections/{id}/annotations/unsaved
+ */
+@Service
+public class AnnotationCollaborationService {
+    private static final Logger logger = LoggerFactory.getLogger(AnnotationCollaborationService.class);
+
+    private static final String TOPIC_PREFIX = "/topic/inspections/";
+    private static final int DEAD_LETTER_CAPACITY = 100;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private InspectionAnnotationService annotationService;
+
+    @Autowired
+    private AnnotationRepository repository;
+
+    @Value("${annotations.collab.frame-interval-ms:33}")
+    private long frameIntervalMs;
+
+    @Value("${annotations.collab.flush-interval-ms:2000}")
+    private long flushIntervalMs;
+
+    @Value("${annotations.collab.max-attempts:10}")
+    private int maxAttempts;
+
+    // Per inspection: changes not yet broadcast, and changes not yet persisted (keyed by box id)
+    // Buffers are created on the first delta and removed again once drained
+    private final Map<String, Map<UUID, AnnotationDelta>> outgoing = new ConcurrentHashMap<>();
+    private final Map<String, Map<UUID, AnnotationDelta>> unsaved = new ConcurrentHashMap<>();
+    private final AtomicLong frameCounter = new AtomicLong();
+
+    // Failed writes per box, and the most recent deltas given up on
+    private final Map<UUID, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final Deque<Map<String, Object>> deadLetters = new ArrayDeque<>();
+
+    private final ScheduledExecutorService worker = Executors.newScheduledThreadPool(2, r -> {
+        Thread thread = new Thread(r, "annotation-collab");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        worker.scheduleAtFixedRate(this::broadcastFrame, frameIntervalMs, frameIntervalMs, TimeUnit.MILLISECONDS);
+        worker.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
+    }
+
+    /**
+     * Accept deltas from a client for broadcast and deferred persistence
+     * Deltas that could never be saved (no box id, unknown op, missing or invalid geometry) are rejected
+     *
+     * @param inspectionId Inspection the boxes belong to
+     * @param deltas Changes in the order the client made them
+     * @return Rejected deltas with the reason, for the sender only; empty if all were accepted
+     */
+    public List<Map<String, Object>> submit(String inspectionId, List<AnnotationDelta> deltas) {
+        List<Map<String, Object>> rejected = new ArrayList<>();
+        List<AnnotationDelta> accepted = new ArrayList<>();
+        for (AnnotationDelta delta : deltas) {
+            String reason = validate(delta);
+            if (reason != null) {
+                Map<String, Object> rejection = new LinkedHashMap<>();
+                rejection.put("id", delta.getId());
+                rejection.put("op", delta.getOp());
+                rejection.put("reason", reason);
+                rejected.add(rejection);
+            } else {
+                accepted.add(delta);
+            }
+        }
+        if (!rejected.isEmpty()) {
+            logger.debug("Rejected {} annotation delta(s) for inspection {}", rejected.size(), inspectionId);
+        }
+        if (!accepted.isEmpty()) {
+            enqueue(outgoing, inspectionId, accepted);
+            enqueue(unsaved, inspectionId, accepted);
+        }
+        return rejected;
+    }
+
+    /**
+     * Deltas given up on after repeated write failures, most recent first
+     */
+    public List<Map<String, Object>> deadLetters() {
+        synchronized (deadLetters) {
+            return new ArrayList<>(deadLetters);
+        }
+    }
+
+    // Inspections that currently hold a broadcast or persistence buffer
+    Set<String> bufferedInspections() {
+        Set<String> inspections = new HashSet<>(outgoing.keySet());
+        inspections.addAll(unsaved.keySet());
+        return inspections;
+    }
+
+    // Adds must carry a full box; other ops only the fields they change. Null if the delta is valid
+    private static String validate(AnnotationDelta delta) {
+        if (delta.getId() == null) {
+            return "id is required";
+        }
+        String op = delta.getOp();
+        if (!AnnotationDelta.OP_ADD.equals(op) && !AnnotationDelta.OP_MOVE.equals(op) && !AnnotationDelta.OP_RESIZE.equals(op)
+                && !AnnotationDelta.OP_UPDATE.equals(op) && !AnnotationDelta.OP_DELETE.equals(op)) {
+            return "unknown op: " + op;
+        }
+        if (AnnotationDelta.OP_ADD.equals(op) && (delta.getX() == null || delta.getY() == null
+                || delta.getWidth() == null || delta.getHeight() == null)) {
+            return "add requires x, y, width and height";
+        }
+        if (AnnotationDelta.OP_MOVE.equals(op) && delta.getX() == null && delta.getY() == null) {
+            return "move requires x or y";
+        }
+        if (AnnotationDelta.OP_RESIZE.equals(op) && delta.getWidth() == null && delta.getHeight() == null) {
+            return "resize requires width or height";
+        }
+        if ((delta.getX() != null && delta.getX() < 0) || (delta.getY() != null && delta.getY() < 0)) {
+            return "x and y must not be negative";
+        }
+        if ((delta.getWidth() != null && delta.getWidth() <= 0) || (delta.getHeight() != null && delta.getHeight() <= 0)) {
+            return "width and height must be positive";
+        }
+        return null;
+    }
+
+    // Coalesce into the inspection's buffer; compute() keeps this atomic with the removal of drained buffers
+    private static void enqueue(Map<String, Map<UUID, AnnotationDelta>> buffers, String inspectionId, List<AnnotationDelta> deltas) {
+        buffers.compute(inspectionId, (id, buffer) -> {
+            Map<UUID, AnnotationDelta> target = buffer != null ? buffer : new LinkedHashMap<>();
+            synchronized (target) {
+                deltas.forEach(delta -> coalesce(target, delta));
+            }
+            return target;
+        });
+    }
+
+    // Drop a buffer that is still empty; a delta arriving meanwhile lands in a new one
+    private static void removeIfEmpty(Map<String, Map<UUID, AnnotationDelta>> buffers, String inspectionId) {
+        buffers.computeIfPresent(inspectionId, (id, buffer) -> {
+            synchronized (buffer) {
+                return buffer.isEmpty() ? null : buffer;
+            }
+        });
+    }
+
+    private static void coalesce(Map<UUID, AnnotationDelta> buffer, AnnotationDelta delta) {
+        AnnotationDelta current = buffer.get(delta.getId());
+        if (current == null) {
+            buffer.put(delta.getId(), delta.copy());
+        } else {
+            current.absorb(delta);
+        }
+    }
+
+    // One message per inspection and frame, however many drag events arrived in between
+    private void broadcastFrame() {
+        for (Map.Entry<String, Map<UUID, AnnotationDelta>> entry : outgoing.entrySet()) {
+            List<AnnotationDelta> deltas = drain(entry.getValue());
+            if (deltas.isEmpty()) {
+                removeIfEmpty(outgoing, entry.getKey());
+                continue;
+            }
+            try {
+                messagingTemplate.convertAndSend(TOPIC_PREFIX + entry.getKey() + "/annotations",
+                    new AnnotationDeltaBatch(frameCounter.incrementAndGet(), deltas));
+            } catch (Exception e) {
+                logger.warn("Failed to broadcast annotation deltas for inspection {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    void flushAll() {
+        for (Map.Entry<String, Map<UUID, AnnotationDelta>> entry : unsaved.entrySet()) {
+            List<AnnotationDelta> deltas = drain(entry.getValue());
+            if (!deltas.isEmpty()) {
+                flush(entry.getKey(), deltas);
+            }
+            removeIfEmpty(unsaved, entry.getKey());
+        }
+    }
+
+    /**
+     * Write deltas as one change-set
+     * If the change-set fails, each delta is written on its own so one bad delta cannot hold back
+     * the others; a delta that keeps failing is requeued up to maxAttempts times, then dead-lettered
+     */
+    private void flush(String inspectionId, List<AnnotationDelta> deltas) {
+        try {
+            InspectionAnnotationService.SaveResult result = annotationService.applyChanges(inspectionId, toChangeSet(inspectionId, deltas));
+            deltas.forEach(delta -> failedAttempts.remove(delta.getId()));
+            if (!result.getConflicts().isEmpty() || !result.getMissing().isEmpty()) {
+                announceUnsaved(inspectionId, result.getConflicts(), result.getMissing(), List.of());
+            }
+        } catch (IllegalArgumentException e) {
+            // Unknown inspection; retrying cannot succeed
+            logger.warn("Dropping {} annotation delta(s): {}", deltas.size(), e.getMessage());
+        } catch (Exception e) {
+            if (deltas.size() > 1) {
+                logger.warn("Failed to persist {} annotation delta(s) for inspection {}, writing them one by one: {}",
+                    deltas.size(), inspectionId, e.getMessage());
+                deltas.forEach(delta -> flush(inspectionId, List.of(delta)));
+                return;
+            }
+
+            AnnotationDelta delta = deltas.get(0);
+            int attempts = failedAttempts.merge(delta.getId(), 1, Integer::sum);
+            if (attempts < maxAttempts) {
+                // Put it back underneath anything that arrived while it was being written
+                logger.warn("Failed to persist annotation delta {} for inspection {} (attempt {}), retrying on next flush: {}",
+                    delta.getId(), inspectionId, attempts, e.getMessage());
+                requeue(inspectionId, deltas);
+            } else {
+                failedAttempts.remove(delta.getId());
+                deadLetter(inspectionId, delta, e);
+            }
+        }
+    }
+
+    private void deadLetter(String inspectionId, AnnotationDelta delta, Exception error) {
+        logger.error("Giving up on annotation delta {} ({}) for inspection {} after {} attempts: {}",
+            delta.getId(), delta.getOp(), inspectionId, maxAttempts, error.getMessage());
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("inspectionId", inspectionId);
+        entry.put("delta", delta);
+        entry.put("error", error.getMessage());
+        entry.put("failedAt", LocalDateTime.now());
+        synchronized (deadLetters) {
+            deadLetters.addFirst(entry);
+            if (deadLetters.size() > DEAD_LETTER_CAPACITY) {
+                deadLetters.removeLast();
+            }
+        }
+        announceUnsaved(inspectionId, List.of(), List.of(), List.of(delta));
+    }
+
+    // Broadcast changes the other editors already applied but the database did not take, so clients can reload those boxes
+    private void announceUnsaved(String inspectionId, List<InspectionAnnotationService.Conflict> conflicts,
+                                 List<UUID> missing, List<AnnotationDelta> failed) {
+        Map<String, Object> notice = new LinkedHashMap<>();
+        notice.put("conflicts", conflicts);
+        notice.put("missing", missing);
+        notice.put("failed", failed);
+        try {
+            messagingTemplate.convertAndSend(TOPIC_PREFIX + inspectionId + "/annotations/unsaved", notice);
+        } catch (Exception e) {
+            logger.warn("Failed to announce unsaved annotation changes for inspection {}: {}", inspectionId, e.getMessage());
+        }
+    }
+
+    private static List<AnnotationDelta> drain(Map<UUID, AnnotationDelta> buffer) {
+        synchronized (buffer) {
+            List<AnnotationDelta> deltas = new ArrayList<>(buffer.values());
+            buffer.clear();
+            return deltas;
+        }
+    }
+
+    // Goes through the map rather than the drained buffer, which another flush may have pruned meanwhile
+    private void requeue(String inspectionId, List<AnnotationDelta> failed) {
+        unsaved.compute(inspectionId, (id, buffer) -> {
+            Map<UUID, AnnotationDelta> merged = new LinkedHashMap<>();
+            failed.forEach(delta -> merged.put(delta.getId(), delta));
+            if (buffer == null) {
+                return merged;
+            }
+            synchronized (buffer) {
+                buffer.values().forEach(newer -> coalesce(merged, newer));
+                buffer.clear();
+                buffer.putAll(merged);
+            }
+            return buffer;
+        });
+    }
+
+    /**
+     * Turn coalesced deltas into a change-set; updates are overlaid on the stored rows so
+     * that fields the delta does not carry are kept (last writer wins on the live channel)
+     */
+    private AnnotationChangeSetRequest toChangeSet(String inspectionId, List<AnnotationDelta> deltas) {
+        AnnotationChangeSetRequest changes = new AnnotationChangeSetRequest();
+
+        List<UUID> updatedIds = deltas.stream()
+            .filter(delta -> !AnnotationDelta.OP_ADD.equals(delta.getOp()) && !AnnotationDelta.OP_DELETE.equals(delta.getOp()))
+            .map(AnnotationDelta::getId)
+            .collect(Collectors.toList());
+        Map<UUID, Annotation> stored = updatedIds.isEmpty() ? Map.of() : repository.findAllById(updatedIds).stream()
+            .collect(Collectors.toMap(Annotation::getId, Function.identity()));
+
+        for (AnnotationDelta delta : deltas) {
+            if (AnnotationDelta.OP_DELETE.equals(delta.getOp())) {
+                changes.getDeleted().add(delta.getId());
+            } else if (AnnotationDelta.OP_ADD.equals(delta.getOp())) {
+                AnnotationDTO dto = new AnnotationDTO();
+                dto.setId(delta.getId());
+                dto.setAction("added");
+                overlay(dto, delta);
+                changes.getAdded().add(dto);
+            } else {
+                Annotation annotation = stored.get(delta.getId());
+                AnnotationDTO dto = annotation != null ? annotationService.toDTO(annotation) : new AnnotationDTO();
+                dto.setId(delta.getId());
+                dto.setVersion(null);
+                dto.setAction("modified");
+                dto.setLastModified(null);
+                overlay(dto, delta);
+                changes.getUpdated().add(dto);
+            }
+        }
+        return changes;
+    }
+
+    private static void overlay(AnnotationDTO dto, AnnotationDelta delta) {
+        if (delta.getX() != null) dto.setX(delta.getX());
+        if (delta.getY() != null) dto.setY(delta.getY());
+        if (delta.getWidth() != null) dto.setWidth(delta.getWidth());
+        if (delta.getHeight() != null) dto.setHeight(delta.getHeight());
+        if (delta.getLabel() != null) dto.setLabel(delta.getLabel());
+        if (delta.getSeverity() != null) dto.setSeverity(delta.getSeverity());
+        if (delta.getConfidence() != null) dto.setConfidence(delta.getConfidence());
+        if (delta.getNotes() != null) dto.setNotes(delta.getNotes());
+        if (delta.getIsAI() != null) dto.setIsAI(delta.getIsAI());
+        if (delta.getUserId() != null) dto.setUserId(delta.getUserId());
+    }
+}
@@ -0,0 +1,145 @@
+package com.transformer.management.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sampled, structured diagnostics for the annotation endpoints
+ * A sampled fraction of requests logs one key=value summary line. Inspections switched to tracing at
+ * runtime additionally log every box; all other requests only pay for a map lookup and a random draw
+ */
+@Service
+public class AnnotationDiagnostics {
+    private static final Logger logger = LoggerFactory.getLogger(AnnotationDiagnostics.class);
+
+    public static final Duration MAX_TRACE_DURATION = Duration.ofHours(4);
+
+    @Value("${annotations.diagnostics.sample-rate:0.01}")
+    private double sampleRate;
+
+    private final Map<String, Instant> traced = new ConcurrentHashMap<>(); // Inspection ID -> trace expiry
+
+    /**
+     * Start diagnostics for one request
+     *
+     * @param operation Short operation name, e.g. "get" or "save"
+     * @param inspectionId Inspection (or image reference) the request is about
+     * @return Active trace for traced or sampled requests, otherwise a no-op
+     */
+    public Trace start(String operation, String inspectionId) {
+        boolean tracing = isTraced(inspectionId);
+        if (!tracing && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return Trace.OFF;
+        }
+        return new Trace(operation, inspectionId, tracing);
+    }
+
+    public boolean isTraced(String inspectionId) {
+        if (inspectionId == null || traced.isEmpty()) {
+            return false;
+        }
+        Instant expiry = traced.get(inspectionId);
+        if (expiry == null) {
+            return false;
+        }
+        if (Instant.now().isAfter(expiry)) {
+            traced.remove(inspectionId, expiry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Trace every request for an inspection, box by box, until the given duration has passed
+     *
+     * @return Expiry of the trace
+     */
+    public Instant enableTrace(String inspectionId, Duration duration) {
+        Duration bounded = duration.compareTo(MAX_TRACE_DURATION) > 0 ? MAX_TRACE_DURATION : duration;
+        Instant expiry = Instant.now().plus(bounded);
+        traced.put(inspectionId, expiry);
+        logger.info("annotation-diag tracing enabled inspection={} until={}", inspectionId, expiry);
+        return expiry;
+    }
+
+    public boolean disableTrace(String inspectionId) {
+        boolean removed = traced.remove(inspectionId) != null;
+        if (removed) {
+            logger.info("annotation-diag tracing disabled inspection={}", inspectionId);
+        }
+        return removed;
+    }
+
+    /**
+     * Inspections currently traced, with the expiry of each trace
+     */
+    public Map<String, Instant> tracedInspections() {
+        Instant now = Instant.now();
+        traced.entrySet().removeIf(entry -> now.isAfter(entry.getValue()));
+        return new LinkedHashMap<>(traced);
+    }
+
+    public double getSampleRate() { return sampleRate; }
+
+    /**
+     * Diagnostics of one request; fields are collected and written as a single line by finish()
+     */
+    public static class Trace {
+        static final Trace OFF = new Trace(null, null, false);
+
+        private final String operation;
+        private final String inspectionId;
+        private final boolean detailed;
+        private final long startNanos;
+        private final Map<String, Object> fields;
+
+        private Trace(String operation, String inspectionId, boolean detailed) {
+            this.operation = operation;
+            this.inspectionId = inspectionId;
+            this.detailed = detailed;
+            this.startNanos = operation != null ? System.nanoTime() : 0L;
+            this.fields = operation != null ? new LinkedHashMap<>() : null;
+        }
+
+        public boolean isActive() { return operation != null; }
+
+        /**
+         * True only for traced inspections; guard per-box detail with it
+         */
+        public boolean isDetailed() { return detailed; }
+
+        public Trace field(String key, Object value) {
+            if (fields != null) {
+                fields.put(key, value);
+            }
+            return this;
+        }
+
+        public void detail(String format, Object... args) {
+            if (detailed) {
+                logger.info("annotation-diag op=" + operation + " inspection=" + inspectionId + " " + format, args);
+            }
+        }
+
+        public void finish() {
+            if (operation == null) {
+                return;
+            }
+            StringBuilder line = new StringBuilder("annotation-diag op=").append(operation)
+                .append(" inspection=").append(inspectionId)
+                .append(" traced=").append(detailed)
+                .append(" durationMs=").append((System.nanoTime() - startNanos) / 1_000_000);
+            fields.forEach((key, value) -> line.append(' ').append(key).append('=').append(value));
+            logger.info(line.toString());
+        }
+    }
+}
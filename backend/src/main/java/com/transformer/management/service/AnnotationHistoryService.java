@@ -0,0 +1,264 @@
+package com.transformer.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transformer.management.dto.AnnotationDTO;
+import com.transformer.management.entity.Annotation;
+import com.transformer.management.entity.AnnotationEvent;
+import com.transformer.management.entity.AnnotationSnapshot;
+import com.transformer.management.entity.AnnotationStream;
+import com.transformer.management.repository.AnnotationEventRepository;
+import com.transformer.management.repository.AnnotationRepository;
+import com.transformer.management.repository.AnnotationSnapshotRepository;
+import com.transformer.management.repository.AnnotationStreamRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Event-sourced history of image annotations
+ * Every save appends the full box state as an event; every SNAPSHOT_INTERVAL events the folded
+ * state of the image is written as a snapshot. Reads load one snapshot and at most a snapshot
+ * interval of events, however long the edit history is.
+ * Appends of an image hold a lock on its stream row and number their events from it, so events of an
+ * image become visible in sequence order and a fold never skips one that commits later
+ */
+@Service
+public class AnnotationHistoryService {
+    private static final Logger logger = LoggerFactory.getLogger(AnnotationHistoryService.class);
+
+    private static final int SNAPSHOT_INTERVAL = 50;
+    private static final TypeReference<List<AnnotationDTO>> STATE_TYPE = new TypeReference<>() {};
+
+    @Autowired
+    private AnnotationEventRepository eventRepository;
+
+    @Autowired
+    private AnnotationSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private AnnotationStreamRepository streamRepository;
+
+    @Autowired
+    private AnnotationRepository annotationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Append changes of several annotations of one image, in iteration order
+     * Joins the transaction that wrote the rows (after a flush), so the log and the table commit together;
+     * the image's stream row stays locked until then
+     * The first event of an image seeds a snapshot from the rows that predate the log
+     *
+     * @param imageIdRef Image the annotations belong to
+     * @param changes Saved rows and their event types
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(String imageIdRef, Map<Annotation, String> changes) {
+        if (imageIdRef == null || changes.isEmpty()) {
+            return;
+        }
+
+        AnnotationStream stream = lockStream(imageIdRef);
+        AnnotationSnapshot snapshot = snapshotRepository.findFirstByImageIdRefOrderByLastSequenceDesc(imageIdRef)
+            .orElseGet(() -> seedSnapshot(imageIdRef, stream.getLastSequence()));
+
+        long sequence = stream.getLastSequence();
+        List<AnnotationEvent> events = new ArrayList<>();
+        for (Map.Entry<Annotation, String> change : changes.entrySet()) {
+            Annotation annotation = change.getKey();
+            events.add(new AnnotationEvent(imageIdRef, ++sequence, annotation.getId(), change.getValue(),
+                annotation.getUserId(), write(toDTO(annotation))));
+        }
+        eventRepository.saveAll(events);
+        stream.setLastSequence(sequence);
+
+        List<AnnotationEvent> tail = eventRepository.findByImageIdRefAndSequenceGreaterThanOrderBySequenceAsc(
+            imageIdRef, snapshot.getLastSequence());
+        if (tail.size() >= SNAPSHOT_INTERVAL) {
+            List<AnnotationDTO> state = fold(snapshot, tail);
+            AnnotationEvent last = tail.get(tail.size() - 1);
+            snapshotRepository.save(new AnnotationSnapshot(imageIdRef, last.getSequence(), last.getOccurredAt(), state.size(), write(state)));
+            logger.debug("Snapshot of {} annotation(s) for image {} at sequence {}", state.size(), imageIdRef, last.getSequence());
+        }
+    }
+
+    /**
+     * Current annotations of an image, including deleted ones, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<AnnotationDTO> currentState(String imageIdRef) {
+        AnnotationSnapshot snapshot = snapshotRepository.findFirstByImageIdRefOrderByLastSequenceDesc(imageIdRef).orElse(null);
+        if (snapshot == null) {
+            // No change recorded since the event log was introduced
+            return annotationRepository.findAllAnnotationsByImageIdRef(imageIdRef).stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+        }
+        return fold(snapshot, eventRepository.findByImageIdRefAndSequenceGreaterThanOrderBySequenceAsc(
+            imageIdRef, snapshot.getLastSequence()));
+    }
+
+    /**
+     * Annotations of an image as they were at the given time, newest first
+     * History starts with the first change recorded in the event log; earlier times return an empty list
+     */
+    @Transactional(readOnly = true)
+    public List<AnnotationDTO> stateAt(String imageIdRef, LocalDateTime at) {
+        AnnotationSnapshot snapshot = snapshotRepository
+            .findFirstByImageIdRefAndLastEventAtLessThanEqualOrderByLastSequenceDesc(imageIdRef, at)
+            .orElse(null);
+        if (snapshot == null) {
+            return new ArrayList<>();
+        }
+        return fold(snapshot, eventRepository.findByImageIdRefAndSequenceGreaterThanAndOccurredAtLessThanEqualOrderBySequenceAsc(
+            imageIdRef, snapshot.getLastSequence(), at));
+    }
+
+    /**
+     * Every recorded change of one annotation, oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<HistoryEntry> history(UUID annotationId) {
+        return eventRepository.findByAnnotationIdOrderByIdAsc(annotationId).stream()
+            .map(event -> new HistoryEntry(event, read(event.getPayload(), AnnotationDTO.class)))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Convert Annotation entity to DTO
+     */
+    public AnnotationDTO toDTO(Annotation annotation) {
+        AnnotationDTO dto = new AnnotationDTO();
+        dto.setId(annotation.getId());
+        dto.setX(annotation.getBboxX());
+        dto.setY(annotation.getBboxY());
+        dto.setWidth(annotation.getBboxWidth());
+        dto.setHeight(annotation.getBboxHeight());
+        dto.setLabel(annotation.getLabel());
+        dto.setConfidence(annotation.getConfidence());
+        dto.setAction(annotation.getAction());
+        dto.setAnnotationType(annotation.getAnnotationType());
+        dto.setNotes(annotation.getNotes());
+        dto.setUserId(annotation.getUserId());
+        dto.setTimestamp(annotation.getCreatedAt());
+        dto.setOriginalDetectionId(annotation.getOriginalDetectionId());
+
+        // Add new metadata fields
+        dto.setSeverity(annotation.getSeverity());
+        dto.setLastModified(annotation.getLastModified() != null ? annotation.getLastModified().toString() : null);
+
+        // Convert comma-separated string to List
+        if (annotation.getModificationTypes() != null && !annotation.getModificationTypes().isEmpty()) {
+            dto.setModificationTypes(java.util.Arrays.asList(annotation.getModificationTypes().split(",")));
+        }
+
+        dto.setModificationDetails(annotation.getModificationDetails());
+        dto.setIsAI(annotation.getIsAI());
+        dto.setImageId(annotation.getImageIdRef());
+        dto.setTransformerId(annotation.getTransformerId());
+        dto.setVersion(annotation.getVersion());
+
+        return dto;
+    }
+
+    // Stream row of an image, locked until the transaction ends; the first append of an image creates it
+    private AnnotationStream lockStream(String imageIdRef) {
+        return streamRepository.findForUpdate(imageIdRef).orElseGet(() -> {
+            streamRepository.insertIfAbsent(imageIdRef);
+            return streamRepository.findForUpdate(imageIdRef)
+                .orElseThrow(() -> new IllegalStateException("Annotation stream missing for " + imageIdRef));
+        });
+    }
+
+    // The log starts from the rows as they are now, so images edited before the log keep their boxes;
+    // earlier events of the image are already reflected in the rows and are not replayed on top.
+    // Runs under the stream lock, so only one writer seeds an image
+    private AnnotationSnapshot seedSnapshot(String imageIdRef, long lastSequence) {
+        List<AnnotationDTO> state = annotationRepository.findAllAnnotationsByImageIdRef(imageIdRef).stream()
+            .map(this::toDTO)
+            .collect(Collectors.toList());
+        return snapshotRepository.save(new AnnotationSnapshot(imageIdRef, lastSequence, LocalDateTime.now(), state.size(), write(state)));
+    }
+
+    // Events carry the full box state, so replaying an event twice is harmless
+    private List<AnnotationDTO> fold(AnnotationSnapshot snapshot, List<AnnotationEvent> events) {
+        Map<UUID, AnnotationDTO> boxes = new LinkedHashMap<>();
+        for (AnnotationDTO dto : read(snapshot.getState(), STATE_TYPE)) {
+            boxes.put(dto.getId(), dto);
+        }
+        for (AnnotationEvent event : events) {
+            if (AnnotationEvent.TYPE_REMOVED.equals(event.getEventType())) {
+                boxes.remove(event.getAnnotationId());
+            } else {
+                boxes.put(event.getAnnotationId(), read(event.getPayload(), AnnotationDTO.class));
+            }
+        }
+        return boxes.values().stream()
+            .sorted(Comparator.comparing(AnnotationDTO::getTimestamp, Comparator.nullsLast(Comparator.reverseOrder())))
+            .collect(Collectors.toList());
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize annotation state", e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read annotation state", e);
+        }
+    }
+
+    private <T> T read(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read annotation state", e);
+        }
+    }
+
+    /**
+     * One recorded change of an annotation
+     */
+    public static class HistoryEntry {
+        private final Long eventId;
+        private final String eventType;
+        private final String userId;
+        private final LocalDateTime occurredAt;
+        private final AnnotationDTO annotation;
+
+        public HistoryEntry(AnnotationEvent event, AnnotationDTO annotation) {
+            this.eventId = event.getId();
+            this.eventType = event.getEventType();
+            this.userId = event.getUserId();
+            this.occurredAt = event.getOccurredAt();
+            this.annotation = annotation;
+        }
+
+        public Long getEventId() { return eventId; }
+        public String getEventType() { return eventType; }
+        public String getUserId() { return userId; }
+        public LocalDateTime getOccurredAt() { return occurredAt; }
+        public AnnotationDTO getAnnotation() { return annotation; }
+    }
+}
@@ -14,6 +14,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -41,6 +43,18 @@ public class AnomalyDetectionService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private SpatialIndexService spatialIndexService;
+
+    @Autowired
+    private EngineMetricsService engineMetricsService;
+
+    @Autowired
+    private AfterCommitExecutor afterCommitExecutor;
+
+    @Autowired
+    private DetectionCorrelationService detectionCorrelationService;
+
     /**
      * Detect anomalies in the given image using the best available engine
      * Persists detection results and metadata for Phase 3 retrieval
@@ -184,9 +198,35 @@ public class AnomalyDetectionService {
         
         // Save to database
         anomalyDetectionRepository.save(record);
+        indexAfterCommit(record, result.getDetections());
+        if (record.getInspection() != null) {
+            rematchAfterCommit(record.getInspection().getId());
+        }
         logger.info("💾 Detection results persisted with ID: {}", record.getId());
     }
 
+    // Only committed boxes enter the spatial index, as with annotations
+    private void indexAfterCommit(AnomalyDetection record, List<AnomalyDetectionDTO.Detection> detections) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    spatialIndexService.onDetectionSaved(record, detections);
+                } catch (Exception e) {
+                    logger.warn("Failed to index detection {}: {}", record.getId(), e.getMessage());
+                }
+            }
+        });
+    }
+
+    // A reviewed image is compared against the new run, and the run paired with the inspection's readings, once committed
+    private void rematchAfterCommit(UUID inspectionId) {
+        afterCommitExecutor.execute("update engine metrics for inspection " + inspectionId,
+            () -> engineMetricsService.onDetectionSaved(inspectionId));
+        afterCommitExecutor.execute("update detection correlations for inspection " + inspectionId,
+            () -> detectionCorrelationService.onInspectionChanged(inspectionId));
+    }
+
     /**
      * Calculate summary statistics from detections
      */
@@ -282,7 +322,7 @@ public class AnomalyDetectionService {
      * Get detection history for a specific inspection
      */
     public List<AnomalyDetection> getDetectionHistoryByInspection(UUID inspectionId) {
-        return anomalyDetectionRepository.findByInspectionId(inspectionId);
+        return anomalyDetectionRepository.findWithInspectionByInspectionId(inspectionId);
     }
 
     /**
@@ -304,7 +344,7 @@ public class AnomalyDetectionService {
      */
     @Transactional
     public AnomalyDetection provideFeedback(UUID detectionId, boolean correct, String notes) {
-        Optional<AnomalyDetection> detectionOpt = anomalyDetectionRepository.findById(detectionId);
+        Optional<AnomalyDetection> detectionOpt = anomalyDetectionRepository.findWithInspectionById(detectionId);
         if (detectionOpt.isEmpty()) {
             throw new RuntimeException("Detection not found: " + detectionId);
         }
@@ -322,7 +362,13 @@ public class AnomalyDetectionService {
      * Get all available engines metadata
      */
     public Map<String, Map<String, Object>> getEnginesMetadata() {
-        return engineFactory.getAllEnginesMetadata();
+        Map<String, Map<String, Object>> engines = new LinkedHashMap<>();
+        engineFactory.getAllEnginesMetadata().forEach((name, metadata) -> engines.put(name, new LinkedHashMap<>(metadata)));
+
+        // Agreement with human review, per engine version (includes engines no longer registered)
+        engineMetricsService.metricsByEngine().forEach((name, byVersion) ->
+            engines.computeIfAbsent(name, n -> new LinkedHashMap<>()).put("metrics", byVersion));
+        return engines;
     }
 
     /**
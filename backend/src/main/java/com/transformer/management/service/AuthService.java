@@ -0,0 +1,262 @@
+package com.transformer.management.service;
+
+import com.transformer.management.entity.RefreshToken;
+import com.transformer.management.entity.User;
+import com.transformer.management.repository.RefreshTokenRepository;
+import com.transformer.management.repository.UserRepository;
+import com.transformer.management.util.JwtUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password login, signup and refresh-token rotation
+ * BCrypt runs on a small bounded pool: a burst of logins queues there (or is rejected when the queue is full)
+ * instead of occupying request threads. Users are looked up once per login and cached briefly.
+ * Database work around a hash (user lookups, saving users, issuing sessions) runs on a separate session pool,
+ * so password threads never wait for a connection and the request thread never takes one
+ */
+@Service
+public class AuthService {
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${auth.user-cache.ttl-seconds:60}")
+    private long userCacheTtlSeconds;
+
+    @Value("${auth.password-hash.threads:2}")
+    private int passwordThreads;
+
+    @Value("${auth.password-hash.queue-capacity:64}")
+    private int passwordQueueCapacity;
+
+    @Value("${auth.session.threads:4}")
+    private int sessionThreads;
+
+    @Value("${auth.session.queue-capacity:128}")
+    private int sessionQueueCapacity;
+
+    @Value("${jwt.refresh-expiration:2592000000}")
+    private long refreshExpiration;
+
+    private final Map<String, CachedUser> users = new ConcurrentHashMap<>(); // Username -> user
+    private ThreadPoolExecutor passwordExecutor;
+    private ThreadPoolExecutor sessionExecutor;
+    private String unknownUserHash; // Compared against for unknown usernames, so they take as long as wrong passwords
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        passwordExecutor = new ThreadPoolExecutor(passwordThreads, passwordThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(passwordQueueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }); // Default AbortPolicy: RejectedExecutionException when the queue is full
+        AtomicInteger sessionThreadCount = new AtomicInteger();
+        sessionExecutor = new ThreadPoolExecutor(sessionThreads, sessionThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(sessionQueueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "auth-session-" + sessionThreadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        unknownUserHash = passwordEncoder.encode(newToken());
+    }
+
+    @PreDestroy
+    void stop() {
+        passwordExecutor.shutdownNow();
+        sessionExecutor.shutdownNow();
+    }
+
+    /**
+     * Pool for the database work of logins and signups
+     */
+    public Executor sessionExecutor() {
+        return sessionExecutor;
+    }
+
+    /**
+     * Check a username and password
+     * The user is looked up on the session pool and the hash compared on the password pool;
+     * the returned future completes there
+     *
+     * @return The user, or empty for an unknown user or a wrong password; completes exceptionally with
+     *         a RejectedExecutionException when too many logins are already waiting
+     * @throws java.util.concurrent.RejectedExecutionException When too many logins are already waiting
+     */
+    public CompletableFuture<Optional<User>> authenticate(String username, String password) {
+        return CompletableFuture.supplyAsync(() -> username != null ? findUser(username) : null, sessionExecutor)
+            .thenApplyAsync(user -> {
+                String hash = user != null && user.getPassword() != null ? user.getPassword() : unknownUserHash;
+                return password != null && passwordEncoder.matches(password, hash) && user != null
+                    ? Optional.of(user) : Optional.<User>empty();
+            }, passwordExecutor);
+    }
+
+    /**
+     * Hash a password on the password pool
+     *
+     * @throws java.util.concurrent.RejectedExecutionException When too many requests are already waiting
+     */
+    public CompletableFuture<String> encodePassword(String password) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), passwordExecutor);
+    }
+
+    /**
+     * User by username, served from a short-lived cache
+     */
+    public User findUser(String username) {
+        CachedUser cached = users.get(username);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            return cached.user;
+        }
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user != null) {
+            users.put(username, new CachedUser(user, System.currentTimeMillis() + userCacheTtlSeconds * 1000));
+        } else {
+            users.remove(username);
+        }
+        return user;
+    }
+
+    public void evictUser(String username) {
+        users.remove(username);
+    }
+
+    /**
+     * Access token and a new refresh token for a user
+     */
+    @Transactional
+    public Session createSession(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.deleteExpiredForUser(user.getId(), now);
+
+        String refreshToken = newToken();
+        refreshTokenRepository.save(new RefreshToken(hash(refreshToken), user.getId(),
+            now.plusNanos(refreshExpiration * 1_000_000)));
+        String accessToken = jwtUtil.generateToken(user.getUsername(), user.getId(), user.getRole());
+        return new Session(user, accessToken, refreshToken);
+    }
+
+    /**
+     * Exchange a refresh token for a new session; the presented token is revoked
+     * Presenting an already revoked token revokes every refresh token of its user, since it may have been stolen
+     *
+     * @return The new session, or empty if the token is unknown, expired or revoked
+     */
+    @Transactional
+    public Optional<Session> refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return Optional.empty();
+        }
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken)).orElse(null);
+        if (stored == null || stored.isExpired()) {
+            return Optional.empty();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (stored.getRevokedAt() != null) {
+            int revoked = refreshTokenRepository.revokeAllForUser(stored.getUserId(), now);
+            logger.warn("Revoked refresh token reused for user {}, revoked {} active tokens", stored.getUserId(), revoked);
+            return Optional.empty();
+        }
+        if (refreshTokenRepository.revoke(stored.getId(), now) == 0) {
+            return Optional.empty(); // Used by a concurrent request
+        }
+
+        return userRepository.findById(stored.getUserId()).map(this::createSession);
+    }
+
+    /**
+     * Revoke a refresh token, e.g. on logout
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+            .ifPresent(stored -> refreshTokenRepository.revoke(stored.getId(), LocalDateTime.now()));
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Tokens issued to a signed-in user
+     */
+    public static class Session {
+        private final User user;
+        private final String accessToken;
+        private final String refreshToken;
+
+        public Session(User user, String accessToken, String refreshToken) {
+            this.user = user;
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+
+        // Getters
+        public User getUser() { return user; }
+        public String getAccessToken() { return accessToken; }
+        public String getRefreshToken() { return refreshToken; }
+    }
+
+    private static class CachedUser {
+        private final User user;
+        private final long expiresAt;
+
+        private CachedUser(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
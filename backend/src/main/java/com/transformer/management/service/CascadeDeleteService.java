@@ -0,0 +1,194 @@
+package com.transformer.management.service;
+
+import com.transformer.management.repository.AnnotationEventRepository;
+import com.transformer.management.repository.AnnotationRepository;
+import com.transformer.management.repository.AnnotationSnapshotRepository;
+import com.transformer.management.repository.AnnotationStreamRepository;
+import com.transformer.management.repository.AnomalyDetectionRepository;
+import com.transformer.management.repository.ImageRepository;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.repository.LatestMaintenanceRecordRepository;
+import com.transformer.management.repository.MaintenanceRecordRepository;
+import com.transformer.management.repository.ReadingAlertRepository;
+import com.transformer.management.repository.TransformerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deletes inspections and transformers together with all dependent rows
+ * Each child table is cleared with one set-based DELETE inside a single transaction;
+ * the related Cloudinary assets are recorded with StorageCleanupService in the same transaction
+ */
+@Service
+public class CascadeDeleteService {
+    private static final Logger logger = LoggerFactory.getLogger(CascadeDeleteService.class);
+
+    @Autowired
+    private TransformerRepository transformerRepository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private AnomalyDetectionRepository anomalyDetectionRepository;
+
+    @Autowired
+    private AnnotationRepository annotationRepository;
+
+    @Autowired
+    private AnnotationEventRepository annotationEventRepository;
+
+    @Autowired
+    private AnnotationSnapshotRepository annotationSnapshotRepository;
+
+    @Autowired
+    private AnnotationStreamRepository annotationStreamRepository;
+
+    @Autowired
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+
+    @Autowired
+    private ReadingAlertRepository readingAlertRepository;
+
+    @Autowired
+    private LatestMaintenanceRecordRepository latestRecordRepository;
+
+    @Autowired
+    private StorageCleanupService storageCleanupService;
+
+    @Autowired
+    private SpatialIndexService spatialIndexService;
+
+    @Autowired
+    private EngineMetricsService engineMetricsService;
+
+    @Autowired
+    private MaintenanceRecordService maintenanceRecordService;
+
+    @Autowired
+    private ReadingAnalyticsService readingAnalyticsService;
+
+    @Autowired
+    private DetectionCorrelationService detectionCorrelationService;
+
+    @Autowired
+    private AfterCommitExecutor afterCommitExecutor;
+
+    /**
+     * Delete an inspection with its images, detections, annotations and maintenance records
+     * Reading statistics of the transformer are rebuilt without the deleted records
+     *
+     * @param inspectionId Inspection to delete
+     * @return false if the inspection does not exist
+     */
+    @Transactional
+    public boolean deleteInspection(UUID inspectionId) {
+        if (!inspectionRepository.existsById(inspectionId)) {
+            return false;
+        }
+
+        List<String> assetUrls = new ArrayList<>(imageRepository.findUrlsByInspectionId(inspectionId));
+        addGeneratedUrls(assetUrls, anomalyDetectionRepository.findGeneratedImageUrlsByInspection(inspectionId));
+
+        int annotations = annotationRepository.deleteAllByInspectionId(inspectionId);
+        annotationEventRepository.deleteAllByImageIdRef(inspectionId.toString());
+        annotationSnapshotRepository.deleteAllByImageIdRef(inspectionId.toString());
+        annotationStreamRepository.deleteAllByImageIdRef(inspectionId.toString());
+        engineMetricsService.onImageDeleted(inspectionId.toString());
+        int detections = anomalyDetectionRepository.deleteAllByInspectionId(inspectionId);
+        List<UUID> recordTransformerIds = maintenanceRecordRepository.findTransformerIdsByInspectionId(inspectionId);
+        readingAlertRepository.deleteAllByInspectionId(inspectionId);
+        int maintenanceRecords = maintenanceRecordRepository.deleteAllByInspectionId(inspectionId);
+        recordTransformerIds.forEach(maintenanceRecordService::refreshLatest);
+        // Rebuilt once the delete has committed, outside its locks
+        recordTransformerIds.forEach(transformerId -> afterCommitExecutor.execute(
+            "rebuild reading statistics of transformer " + transformerId, () -> readingAnalyticsService.rebuild(transformerId)));
+        afterCommitExecutor.execute("update detection correlations for inspection " + inspectionId,
+            () -> detectionCorrelationService.onInspectionChanged(inspectionId));
+        int images = imageRepository.deleteAllByInspectionId(inspectionId);
+        inspectionRepository.deleteById(inspectionId);
+
+        logger.info("Deleted inspection {}: {} image(s), {} detection(s), {} annotation(s), {} maintenance record(s)",
+            inspectionId, images, detections, annotations, maintenanceRecords);
+
+        afterCommit(() -> spatialIndexService.evict(inspectionId.toString()));
+        queueStorageCleanup(assetUrls);
+        return true;
+    }
+
+    /**
+     * Delete a transformer with all of its inspections and their dependent rows
+     *
+     * @param transformerId Transformer to delete
+     * @return false if the transformer does not exist
+     */
+    @Transactional
+    public boolean deleteTransformer(UUID transformerId) {
+        if (!transformerRepository.existsById(transformerId)) {
+            return false;
+        }
+
+        List<String> assetUrls = new ArrayList<>(imageRepository.findUrlsByTransformerId(transformerId));
+        addGeneratedUrls(assetUrls, anomalyDetectionRepository.findGeneratedImageUrlsByTransformer(transformerId));
+
+        int annotations = annotationRepository.deleteAllByTransformerId(transformerId);
+        annotationEventRepository.deleteAllByTransformerId(transformerId);
+        annotationSnapshotRepository.deleteAllByTransformerId(transformerId);
+        annotationStreamRepository.deleteAllByTransformerId(transformerId);
+        inspectionRepository.findIdsByTransformerId(transformerId)
+            .forEach(inspectionId -> engineMetricsService.onImageDeleted(inspectionId.toString()));
+        int detections = anomalyDetectionRepository.deleteAllByTransformerId(transformerId);
+        int maintenanceRecords = maintenanceRecordRepository.deleteAllByTransformerId(transformerId);
+        latestRecordRepository.deleteByTransformer(transformerId);
+        readingAnalyticsService.deleteTransformer(transformerId);
+        detectionCorrelationService.deleteTransformer(transformerId);
+        int images = imageRepository.deleteAllByTransformerId(transformerId);
+        int inspections = inspectionRepository.deleteAllByTransformerId(transformerId);
+        transformerRepository.deleteById(transformerId);
+
+        logger.info("Deleted transformer {}: {} inspection(s), {} image(s), {} detection(s), {} annotation(s), {} maintenance record(s)",
+            transformerId, inspections, images, detections, annotations, maintenanceRecords);
+
+        afterCommit(spatialIndexService::evictAll);
+        queueStorageCleanup(assetUrls);
+        return true;
+    }
+
+    private void addGeneratedUrls(List<String> urls, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            for (Object url : row) {
+                if (url != null) {
+                    urls.add((String) url);
+                }
+            }
+        }
+    }
+
+    // Recorded in this transaction and only deleted from storage after it commits; a rolled-back delete keeps its assets
+    private void queueStorageCleanup(List<String> assetUrls) {
+        if (!assetUrls.isEmpty()) {
+            storageCleanupService.enqueueUrls(assetUrls);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
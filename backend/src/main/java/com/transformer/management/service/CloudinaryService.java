@@ -1,12 +1,15 @@
 package com.transformer.management.service;
 
 import com.cloudinary.Cloudinary;
+import com.cloudinary.api.ApiResponse;
 import com.cloudinary.utils.ObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -65,6 +68,22 @@ public class CloudinaryService {
         }
     }
 
+    /**
+     * Delete several files from Cloudinary in one Admin API call
+     * @param publicIds Public IDs to delete (at most 100 per call)
+     * @return Map containing the per-ID deletion result
+     * @throws Exception if the API call fails
+     */
+    public Map<String, Object> deleteFiles(List<String> publicIds) throws Exception {
+        ApiResponse response = cloudinary.api().deleteResources(publicIds, ObjectUtils.emptyMap());
+        // ApiResponse is a raw Map; copy it key by key instead of an unchecked conversion
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (Object key : response.keySet()) {
+            result.put(String.valueOf(key), response.get(key));
+        }
+        return result;
+    }
+
     /**
      * Extract public ID from Cloudinary URL
      * @param url The Cloudinary URL
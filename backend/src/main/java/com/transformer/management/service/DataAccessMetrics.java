@@ -0,0 +1,98 @@
+package com.transformer.management.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection-pool wait time and SQL statements per endpoint, and transactions held past the guard threshold
+ * Waits and statements are summed per request on the request thread and added to the endpoint's totals when the request ends
+ */
+@Service
+public class DataAccessMetrics {
+
+    private final ThreadLocal<long[]> requestWait = new ThreadLocal<>(); // {wait nanos, acquisitions, SQL statements}
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder longTransactions = new LongAdder();
+
+    public void beginRequest() {
+        requestWait.set(new long[3]);
+    }
+
+    /**
+     * Time a thread spent obtaining a connection from the pool
+     */
+    public void recordPoolWait(long nanos) {
+        long[] wait = requestWait.get();
+        if (wait != null) {
+            wait[0] += nanos;
+            wait[1]++;
+        }
+    }
+
+    /**
+     * One SQL statement prepared for the database; statements answered from the second-level cache never get here
+     */
+    public void recordStatement() {
+        long[] wait = requestWait.get();
+        if (wait != null) {
+            wait[2]++;
+        }
+    }
+
+    public void endRequest(String endpoint) {
+        long[] wait = requestWait.get();
+        requestWait.remove();
+        if (wait != null && (wait[1] > 0 || wait[2] > 0)) {
+            endpoints.computeIfAbsent(endpoint, key -> new EndpointStats()).add(wait[0], wait[1], wait[2]);
+        }
+    }
+
+    public void recordLongTransaction() {
+        longTransactions.increment();
+    }
+
+    public long getLongTransactions() { return longTransactions.sum(); }
+
+    /**
+     * Pool wait and SQL statement totals per endpoint ("METHOD /pattern"), sorted by endpoint
+     */
+    public Map<String, Map<String, Object>> poolWaitByEndpoint() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> result.put(endpoint, stats.toMap()));
+        return result;
+    }
+
+    private static class EndpointStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        void add(long nanos, long count, long statementCount) {
+            requests.increment();
+            acquisitions.add(count);
+            statements.add(statementCount);
+            waitNanos.add(nanos);
+            maxWaitNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Map<String, Object> toMap() {
+            long requestCount = requests.sum();
+            Map<String, Object> map = new TreeMap<>();
+            map.put("requests", requestCount);
+            map.put("connectionAcquisitions", acquisitions.sum());
+            map.put("totalWaitMs", waitNanos.sum() / 1_000_000.0);
+            map.put("meanWaitMs", requestCount > 0 ? waitNanos.sum() / 1_000_000.0 / requestCount : 0.0);
+            map.put("maxWaitMs", maxWaitNanos.get() / 1_000_000.0);
+            map.put("sqlStatements", statements.sum());
+            map.put("meanSqlStatements", requestCount > 0 ? (double) statements.sum() / requestCount : 0.0);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.transformer.management.service;
+
+import com.transformer.management.entity.CorrelationSums;
+import com.transformer.management.entity.InspectionCorrelation;
+import com.transformer.management.repository.CorrelationSumsRepository;
+import com.transformer.management.repository.InspectionCorrelationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Correlation of thermal hotspot severity with the temperature and load current recorded at the same inspection
+ * Each inspection pairs the severity of its latest detection run (2 x critical + warning hotspots) with its latest
+ * maintenance record. A change to either replaces that inspection's contribution in the transformer's running sums,
+ * so the Pearson coefficient is always current. Lagged coefficients, which pair an inspection's severity with the
+ * reading k inspections later, and the fleet view are computed from column arrays loaded in one query
+ */
+@Service
+public class DetectionCorrelationService {
+    private static final Logger logger = LoggerFactory.getLogger(DetectionCorrelationService.class);
+
+    private static final int MIN_PAIRS = 3;
+
+    /**
+     * Readings correlated with severity
+     */
+    private enum Paired {
+        TEMPERATURE("temperature", InspectionCorrelation::getTemperature, 2),
+        CURRENT("currentReading", InspectionCorrelation::getCurrentReading, 3);
+
+        private final String key;
+        private final Function<InspectionCorrelation, Double> accessor;
+        private final int column; // In the series queries of InspectionCorrelationRepository
+
+        Paired(String key, Function<InspectionCorrelation, Double> accessor, int column) {
+            this.key = key;
+            this.accessor = accessor;
+            this.column = column;
+        }
+    }
+
+    @Autowired
+    private InspectionCorrelationRepository contributionRepository;
+
+    @Autowired
+    private CorrelationSumsRepository sumsRepository;
+
+    /**
+     * Re-align an inspection after a detection run or maintenance record of it was saved or deleted
+     * Runs in its own transaction, on the after-commit worker once that change committed
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onInspectionChanged(UUID inspectionId) {
+        contributionRepository.insertIfAbsent(inspectionId);
+        InspectionCorrelation row = contributionRepository.findForUpdate(inspectionId).orElseThrow();
+        addPairs(row, -1);
+
+        List<Object[]> aligned = contributionRepository.alignInspection(inspectionId);
+        Object[] columns = aligned.isEmpty() ? null : aligned.get(0);
+        if (columns == null || (columns[2] == null && columns[5] == null)) {
+            contributionRepository.delete(row); // Inspection gone, or nothing left to pair
+            return;
+        }
+
+        row.setTransformerId((UUID) columns[0]);
+        row.setObservedAt(toLocalDateTime(columns[1]));
+        row.setDetectionId((UUID) columns[2]);
+        row.setSeverity(columns[2] != null ? severity(columns[3], columns[4]) : null);
+        row.setMaintenanceRecordId((UUID) columns[5]);
+        row.setTemperature(columns[6] != null ? ((Number) columns[6]).doubleValue() : null);
+        row.setCurrentReading(columns[7] != null ? ((Number) columns[7]).doubleValue() : null);
+        row.setUpdatedAt(LocalDateTime.now());
+        addPairs(row, 1);
+    }
+
+    /**
+     * Drop the contributions and sums of a deleted transformer
+     */
+    @Transactional
+    public void deleteTransformer(UUID transformerId) {
+        contributionRepository.deleteAllByTransformerId(transformerId);
+        sumsRepository.deleteAllByTransformerId(transformerId);
+    }
+
+    /**
+     * Re-align every inspection and recompute all sums, in two set-based statements
+     */
+    @Transactional
+    public Map<String, Object> rebuildAll() {
+        long start = System.currentTimeMillis();
+        contributionRepository.deleteAllRows();
+        sumsRepository.deleteAllRows();
+        int inspections = contributionRepository.insertAligned();
+        int sums = sumsRepository.insertFromContributions();
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info("Rebuilt detection correlations: {} inspection(s), {} sum row(s) in {} ms", inspections, sums, elapsed);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("inspections", inspections);
+        response.put("sums", sums);
+        response.put("elapsedMs", elapsed);
+        return response;
+    }
+
+    /**
+     * Correlations of one transformer: lag 0 from the running sums, lagged ones from its inspection series
+     *
+     * @param maxLag Largest lag, in inspections, in either direction
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> transformer(UUID transformerId, int maxLag) {
+        Columns series = Columns.of(contributionRepository.findSeriesByTransformerId(transformerId));
+        Map<String, CorrelationSums> sums = new LinkedHashMap<>();
+        sumsRepository.findByTransformerIdOrderByReading(transformerId).forEach(row -> sums.put(row.getReading(), row));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("transformerId", transformerId);
+        response.put("inspections", series.size());
+        for (Paired paired : Paired.values()) {
+            CorrelationSums row = sums.get(paired.key);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("pairs", row != null ? row.getPairs() : 0);
+            result.put("r", row != null ? row.getPearson() : null);
+            result.put("lags", series.size() > 0 ? lags(series, 0, series.size(), paired, maxLag) : List.of());
+            response.put(paired.key, result);
+        }
+        return response;
+    }
+
+    /**
+     * Lag-0 and lagged correlations of every transformer, and the pooled lag-0 coefficient of the fleet
+     * All contributions are read once into column arrays; each transformer is a contiguous slice
+     *
+     * @param minPairs Leave out transformers with fewer lag-0 pairs than this for both readings
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> fleet(int maxLag, int minPairs) {
+        long start = System.nanoTime();
+        Columns series = Columns.of(contributionRepository.findAllSeries());
+
+        List<Map<String, Object>> transformers = new ArrayList<>();
+        for (int group = 0; group < series.groups(); group++) {
+            int from = series.groupStart[group];
+            int to = series.groupStart[group + 1];
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("transformerId", series.groupIds[group]);
+            entry.put("inspections", to - from);
+            int mostPairs = 0;
+            for (Paired paired : Paired.values()) {
+                List<Map<String, Object>> lags = lags(series, from, to, paired, maxLag);
+                Map<String, Object> lagZero = lags.get(maxLag);
+                int pairs = (Integer) lagZero.get("pairs");
+                mostPairs = Math.max(mostPairs, pairs);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("pairs", pairs);
+                result.put("r", lagZero.get("r"));
+                result.put("lags", lags);
+                entry.put(paired.key, result);
+            }
+            if (mostPairs >= minPairs) {
+                transformers.add(entry);
+            }
+        }
+
+        Map<String, Object> pooled = new LinkedHashMap<>();
+        for (Paired paired : Paired.values()) {
+            pooled.put(paired.key, pearson(series, 0, series.size(), paired, 0));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("inspections", series.size());
+        response.put("transformers", series.groups());
+        response.put("fleet", pooled);
+        response.put("byTransformer", transformers);
+        response.put("elapsedMs", (System.nanoTime() - start) / 1_000_000);
+        return response;
+    }
+
+    // Add (sign 1) or subtract (sign -1) the pairs of a contribution to its transformer's sums
+    private void addPairs(InspectionCorrelation row, int sign) {
+        Double x = row.getSeverity();
+        if (row.getTransformerId() == null || x == null) {
+            return;
+        }
+        for (Paired paired : Paired.values()) {
+            Double y = paired.accessor.apply(row);
+            if (y == null) {
+                continue;
+            }
+            String key = CorrelationSums.key(row.getTransformerId(), paired.key);
+            if (sign > 0) {
+                sumsRepository.insertIfAbsent(key, row.getTransformerId(), paired.key);
+            }
+            sumsRepository.addDelta(key, sign, sign * x, sign * y, sign * x * x, sign * y * y, sign * x * y, LocalDateTime.now());
+        }
+    }
+
+    // Coefficients for lags -maxLag..maxLag over one transformer's slice [from, to)
+    private static List<Map<String, Object>> lags(Columns series, int from, int to, Paired paired, int maxLag) {
+        List<Map<String, Object>> lags = new ArrayList<>();
+        for (int lag = -maxLag; lag <= maxLag; lag++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("lag", lag);
+            entry.putAll(pearson(series, from, to, paired, lag));
+            lags.add(entry);
+        }
+        return lags;
+    }
+
+    /**
+     * Pearson coefficient of severity at inspection i with the reading at inspection i + lag, within [from, to)
+     * Two passes over the slice (means, then co-moments), so large readings do not lose precision
+     */
+    private static Map<String, Object> pearson(Columns series, int from, int to, Paired paired, int lag) {
+        double[] x = series.severity;
+        double[] y = paired == Paired.TEMPERATURE ? series.temperature : series.current;
+        int first = Math.max(from, from - lag);
+        int last = Math.min(to, to - lag);
+
+        int n = 0;
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = first; i < last; i++) {
+            if (!Double.isNaN(x[i]) && !Double.isNaN(y[i + lag])) {
+                n++;
+                sumX += x[i];
+                sumY += y[i + lag];
+            }
+        }
+
+        Double r = null;
+        if (n >= MIN_PAIRS) {
+            double meanX = sumX / n;
+            double meanY = sumY / n;
+            double sxy = 0;
+            double sxx = 0;
+            double syy = 0;
+            for (int i = first; i < last; i++) {
+                if (!Double.isNaN(x[i]) && !Double.isNaN(y[i + lag])) {
+                    double dx = x[i] - meanX;
+                    double dy = y[i + lag] - meanY;
+                    sxy += dx * dy;
+                    sxx += dx * dx;
+                    syy += dy * dy;
+                }
+            }
+            if (sxx > 0 && syy > 0) {
+                r = Math.max(-1.0, Math.min(1.0, sxy / Math.sqrt(sxx * syy)));
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pairs", n);
+        result.put("r", r);
+        return result;
+    }
+
+    private static double severity(Object criticalCount, Object warningCount) {
+        int critical = criticalCount != null ? ((Number) criticalCount).intValue() : 0;
+        int warning = warningCount != null ? ((Number) warningCount).intValue() : 0;
+        return 2.0 * critical + warning;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    /**
+     * Contributions as parallel primitive arrays, missing values as NaN, with each transformer a contiguous slice
+     */
+    private static class Columns {
+        private double[] severity;
+        private double[] temperature;
+        private double[] current;
+        private UUID[] groupIds;
+        private int[] groupStart; // groupStart[g]..groupStart[g + 1] is the slice of group g
+
+        // Rows of (transformerId, severity, temperature, current), ordered by transformer
+        static Columns of(List<Object[]> rows) {
+            int n = rows.size();
+            Columns columns = new Columns();
+            columns.severity = new double[n];
+            columns.temperature = new double[n];
+            columns.current = new double[n];
+            List<UUID> ids = new ArrayList<>();
+            int[] starts = new int[n + 1];
+
+            UUID previous = null;
+            for (int i = 0; i < n; i++) {
+                Object[] row = rows.get(i);
+                UUID transformerId = (UUID) row[0];
+                if (!transformerId.equals(previous)) {
+                    starts[ids.size()] = i;
+                    ids.add(transformerId);
+                    previous = transformerId;
+                }
+                columns.severity[i] = row[1] != null ? (Double) row[1] : Double.NaN;
+                columns.temperature[i] = row[Paired.TEMPERATURE.column] != null ? (Double) row[Paired.TEMPERATURE.column] : Double.NaN;
+                columns.current[i] = row[Paired.CURRENT.column] != null ? (Double) row[Paired.CURRENT.column] : Double.NaN;
+            }
+            starts[ids.size()] = n;
+
+            columns.groupIds = ids.toArray(new UUID[0]);
+            columns.groupStart = Arrays.copyOf(starts, ids.size() + 1);
+            return columns;
+        }
+
+        int size() { return severity.length; }
+
+        int groups() { return groupIds.length; }
+    }
+}
@@ -0,0 +1,205 @@
+package com.transformer.management.service;
+
+import com.transformer.management.dto.SpatialBoxDTO;
+import com.transformer.management.entity.AnomalyDetection;
+import com.transformer.management.entity.EngineImageMetrics;
+import com.transformer.management.entity.EngineMetrics;
+import com.transformer.management.repository.AnomalyDetectionRepository;
+import com.transformer.management.repository.EngineImageMetricsRepository;
+import com.transformer.management.repository.EngineMetricsRepository;
+import com.transformer.management.util.HungarianMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Per-engine precision, recall and localisation error of AI detections against the final human annotations
+ * When an image is reviewed, the boxes of its latest detection run are matched one-to-one to its active
+ * annotations (Hungarian assignment on IoU). Only that image's contribution is recomputed; the
+ * engine totals are adjusted by the difference to its previous contribution
+ */
+@Service
+public class EngineMetricsService {
+    private static final Logger logger = LoggerFactory.getLogger(EngineMetricsService.class);
+
+    private static final double MATCH_IOU = 0.5;
+
+    @Autowired
+    private EngineMetricsRepository engineMetricsRepository;
+
+    @Autowired
+    private EngineImageMetricsRepository imageMetricsRepository;
+
+    @Autowired
+    private AnomalyDetectionRepository anomalyDetectionRepository;
+
+    @Autowired
+    private SpatialIndexService spatialIndexService;
+
+    /**
+     * Recompute the contribution of an image after its annotations changed
+     *
+     * Runs in its own transaction, on the after-commit worker once the annotations committed
+     *
+     * @param imageIdRef Image (inspection) ID reference of the saved annotations
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAnnotationsSaved(String imageIdRef) {
+        UUID inspectionId = parseUuid(imageIdRef);
+        if (inspectionId == null) {
+            return; // Not an inspection; there is no detection run to compare against
+        }
+
+        imageMetricsRepository.insertIfAbsent(imageIdRef);
+        EngineImageMetrics row = imageMetricsRepository.findForUpdate(imageIdRef).orElseThrow();
+        refresh(row, inspectionId);
+    }
+
+    /**
+     * Re-match an already reviewed image against a new detection run
+     * Images nobody has reviewed yet are left alone; runs in its own transaction on the after-commit worker
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onDetectionSaved(UUID inspectionId) {
+        if (!imageMetricsRepository.existsById(inspectionId.toString())) {
+            return;
+        }
+        imageMetricsRepository.findForUpdate(inspectionId.toString()).ifPresent(row -> refresh(row, inspectionId));
+    }
+
+    /**
+     * Take a deleted image out of the totals
+     */
+    @Transactional
+    public void onImageDeleted(String imageIdRef) {
+        imageMetricsRepository.findForUpdate(imageIdRef).ifPresent(row -> {
+            if (row.getEngineKey() != null) {
+                engineMetricsRepository.addDelta(row.getEngineKey(), -1, -row.getTruePositives(), -row.getFalsePositives(),
+                    -row.getFalseNegatives(), -row.getIouSum(), -row.getCenterErrorSum(), LocalDateTime.now());
+            }
+            imageMetricsRepository.delete(row);
+        });
+    }
+
+    /**
+     * Totals per engine name and version, with precision, recall and localisation error
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Map<String, Object>> metricsByEngine() {
+        Map<String, Map<String, Object>> byEngine = new LinkedHashMap<>();
+        for (EngineMetrics metrics : engineMetricsRepository.findAll()) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("images", metrics.getImages());
+            summary.put("truePositives", metrics.getTruePositives());
+            summary.put("falsePositives", metrics.getFalsePositives());
+            summary.put("falseNegatives", metrics.getFalseNegatives());
+            summary.put("precision", metrics.getPrecision());
+            summary.put("recall", metrics.getRecall());
+            summary.put("meanIou", metrics.getMeanIou());
+            summary.put("meanCenterErrorPx", metrics.getMeanCenterError());
+            summary.put("updatedAt", metrics.getUpdatedAt());
+            byEngine.computeIfAbsent(metrics.getEngineName(), name -> new LinkedHashMap<>())
+                .put(metrics.getEngineVersion() != null ? metrics.getEngineVersion() : "", summary);
+        }
+        return byEngine;
+    }
+
+    private void refresh(EngineImageMetrics row, UUID inspectionId) {
+        AnomalyDetection detection = anomalyDetectionRepository.findFirstByInspectionIdOrderByDetectedAtDesc(inspectionId).orElse(null);
+        String engineKey = null;
+        Contribution current = new Contribution();
+
+        if (detection != null) {
+            engineKey = EngineMetrics.key(detection.getEngineName(), detection.getEngineVersion());
+            engineMetricsRepository.insertIfAbsent(engineKey, detection.getEngineName(), detection.getEngineVersion());
+
+            List<SpatialBoxDTO> boxes = spatialIndexService.boxes(row.getImageIdRef());
+            List<SpatialBoxDTO> predicted = boxes.stream()
+                .filter(box -> SpatialBoxDTO.SOURCE_DETECTION.equals(box.getSource()) && detection.getId().equals(box.getSourceId()))
+                .collect(Collectors.toList());
+            List<SpatialBoxDTO> accepted = boxes.stream()
+                .filter(box -> SpatialBoxDTO.SOURCE_ANNOTATION.equals(box.getSource()))
+                .collect(Collectors.toList());
+            current = match(predicted, accepted);
+        }
+
+        // Take the image's previous contribution out of its engine's totals and add the new one
+        if (row.getEngineKey() != null) {
+            engineMetricsRepository.addDelta(row.getEngineKey(), -1, -row.getTruePositives(), -row.getFalsePositives(),
+                -row.getFalseNegatives(), -row.getIouSum(), -row.getCenterErrorSum(), LocalDateTime.now());
+        }
+        if (engineKey != null) {
+            engineMetricsRepository.addDelta(engineKey, 1, current.truePositives, current.falsePositives,
+                current.falseNegatives, current.iouSum, current.centerErrorSum, LocalDateTime.now());
+        }
+
+        row.setDetectionId(detection != null ? detection.getId() : null);
+        row.setEngineKey(engineKey);
+        row.setTruePositives(current.truePositives);
+        row.setFalsePositives(current.falsePositives);
+        row.setFalseNegatives(current.falseNegatives);
+        row.setIouSum(current.iouSum);
+        row.setCenterErrorSum(current.centerErrorSum);
+        row.setUpdatedAt(LocalDateTime.now());
+
+        logger.debug("Engine metrics for image {}: {} TP, {} FP, {} FN", row.getImageIdRef(),
+            current.truePositives, current.falsePositives, current.falseNegatives);
+    }
+
+    // Maximum total IoU assignment; pairs below MATCH_IOU count as unmatched
+    private static Contribution match(List<SpatialBoxDTO> predicted, List<SpatialBoxDTO> accepted) {
+        Contribution result = new Contribution();
+        double[][] cost = new double[predicted.size()][accepted.size()];
+        for (int i = 0; i < predicted.size(); i++) {
+            for (int j = 0; j < accepted.size(); j++) {
+                double iou = SpatialBoxDTO.iou(predicted.get(i), accepted.get(j));
+                cost[i][j] = iou >= MATCH_IOU ? -iou : 0.0;
+            }
+        }
+
+        int[] assignment = HungarianMatcher.assign(cost);
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0 && cost[i][assignment[i]] < 0) {
+                SpatialBoxDTO ai = predicted.get(i);
+                SpatialBoxDTO human = accepted.get(assignment[i]);
+                result.truePositives++;
+                result.iouSum += -cost[i][assignment[i]];
+                result.centerErrorSum += Math.hypot(
+                    (ai.getX() + ai.getWidth() / 2.0) - (human.getX() + human.getWidth() / 2.0),
+                    (ai.getY() + ai.getHeight() / 2.0) - (human.getY() + human.getHeight() / 2.0));
+            }
+        }
+        result.falsePositives = predicted.size() - result.truePositives;
+        result.falseNegatives = accepted.size() - result.truePositives;
+        return result;
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Match counts of one image
+     */
+    private static class Contribution {
+        private int truePositives;
+        private int falsePositives;
+        private int falseNegatives;
+        private double iouSum;
+        private double centerErrorSum;
+    }
+}
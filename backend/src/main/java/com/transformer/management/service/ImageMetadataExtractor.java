@@ -0,0 +1,230 @@
+package com.transformer.management.service;
+
+import com.drew.imaging.jpeg.JpegProcessingException;
+import com.drew.imaging.jpeg.JpegSegmentData;
+import com.drew.imaging.jpeg.JpegSegmentReader;
+import com.drew.imaging.jpeg.JpegSegmentType;
+import com.drew.lang.StreamReader;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import com.drew.metadata.exif.ExifReader;
+import com.drew.metadata.exif.ExifSubIFDDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+/**
+ * Extracts EXIF and FLIR radiometric metadata from uploaded thermal JPEGs
+ * Only the APP1 header segments are read; parsing stops at the start-of-scan marker,
+ * so the compressed image data is never loaded or decoded
+ */
+@Service
+public class ImageMetadataExtractor {
+    private static final Logger logger = LoggerFactory.getLogger(ImageMetadataExtractor.class);
+
+    private static final List<JpegSegmentType> HEADER_SEGMENTS = List.of(JpegSegmentType.APP1);
+
+    private static final byte[] FLIR_PREAMBLE = {'F', 'L', 'I', 'R', 0};
+    private static final int FLIR_HEADER_LENGTH = 8;
+    private static final int FFF_RECORD_CAMERA_INFO = 0x20;
+    private static final int FFF_INDEX_ENTRY_LENGTH = 0x20;
+    private static final double KELVIN_OFFSET = 273.15;
+
+    /**
+     * Read capture time, camera model and radiometric values from the image header
+     *
+     * @param inputStream Stream positioned at the start of the image file
+     * @return Extracted metadata; fields are null when the image does not carry them
+     */
+    public ImageMetadata extract(InputStream inputStream) {
+        ImageMetadata result = new ImageMetadata();
+
+        try {
+            JpegSegmentData segments = JpegSegmentReader.readSegments(
+                new StreamReader(new BufferedInputStream(inputStream)), HEADER_SEGMENTS);
+
+            ByteArrayOutputStream flirPayload = readExifAndCollectFlir(segments, result);
+            if (flirPayload.size() > 0) {
+                readFlirCameraInfo(ByteBuffer.wrap(flirPayload.toByteArray()), result);
+            }
+        } catch (JpegProcessingException e) {
+            logger.debug("Skipping metadata extraction, not a JPEG: {}", e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to extract image metadata: {}", e.getMessage());
+        }
+
+        return result;
+    }
+
+    /**
+     * Hand EXIF segments to the EXIF reader and concatenate FLIR segments in index order
+     */
+    private ByteArrayOutputStream readExifAndCollectFlir(JpegSegmentData segments, ImageMetadata result) {
+        List<byte[]> exifSegments = new ArrayList<>();
+        TreeMap<Integer, byte[]> flirSegments = new TreeMap<>();
+
+        for (byte[] segment : segments.getSegments(JpegSegmentType.APP1)) {
+            if (ExifReader.startsWithJpegExifPreamble(segment)) {
+                exifSegments.add(segment);
+            } else if (startsWith(segment, FLIR_PREAMBLE) && segment.length > FLIR_HEADER_LENGTH) {
+                flirSegments.put(segment[6] & 0xff, segment);
+            }
+        }
+
+        if (!exifSegments.isEmpty()) {
+            Metadata metadata = new Metadata();
+            new ExifReader().readJpegSegments(exifSegments, metadata, JpegSegmentType.APP1);
+
+            ExifSubIFDDirectory subIfd = metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class);
+            if (subIfd != null) {
+                Date original = subIfd.getDateOriginal(TimeZone.getDefault());
+                if (original != null) {
+                    result.setCapturedAt(LocalDateTime.ofInstant(original.toInstant(), ZoneId.systemDefault()));
+                }
+            }
+
+            ExifIFD0Directory ifd0 = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+            if (ifd0 != null) {
+                result.setCameraModel(trimToNull(ifd0.getString(ExifIFD0Directory.TAG_MODEL)));
+            }
+        }
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        for (byte[] segment : flirSegments.values()) {
+            payload.write(segment, FLIR_HEADER_LENGTH, segment.length - FLIR_HEADER_LENGTH);
+        }
+        return payload;
+    }
+
+    /**
+     * Walk the FFF record index and read the CameraInfo record
+     * Offsets follow the FLIR FFF layout documented by ExifTool
+     */
+    private void readFlirCameraInfo(ByteBuffer fff, ImageMetadata result) {
+        if (fff.limit() < 0x40 || fff.get(0) != 'F' || fff.get(1) != 'F' || fff.get(2) != 'F') {
+            return;
+        }
+
+        // The format version (100) tells us the byte order of the header
+        fff.order(ByteOrder.BIG_ENDIAN);
+        int version = fff.getInt(0x14);
+        if (version < 100 || version >= 200) {
+            fff.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        int indexOffset = fff.getInt(0x18);
+        int entryCount = fff.getInt(0x1c);
+
+        for (int i = 0; i < entryCount; i++) {
+            int entry = indexOffset + i * FFF_INDEX_ENTRY_LENGTH;
+            if (entry < 0 || entry + FFF_INDEX_ENTRY_LENGTH > fff.limit()) {
+                return;
+            }
+
+            int recordType = fff.getShort(entry) & 0xffff;
+            int recordOffset = fff.getInt(entry + 0x0c);
+            int recordLength = fff.getInt(entry + 0x10);
+
+            if (recordType == FFF_RECORD_CAMERA_INFO && recordOffset > 0 && recordLength > 0
+                    && recordOffset + recordLength <= fff.limit()) {
+                ByteBuffer cameraInfo = fff.duplicate();
+                cameraInfo.position(recordOffset).limit(recordOffset + recordLength);
+                readCameraInfoRecord(cameraInfo.slice(), result);
+                return;
+            }
+        }
+    }
+
+    private void readCameraInfoRecord(ByteBuffer record, ImageMetadata result) {
+        if (record.limit() < 0xf4) {
+            return;
+        }
+
+        // The first word is always 2; use it to detect the record byte order
+        record.order(ByteOrder.BIG_ENDIAN);
+        if (record.getShort(0) != 2) {
+            record.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        result.setEmissivity(finiteOrNull(record.getFloat(0x20)));
+        result.setTemperatureMax(kelvinToCelsius(record.getFloat(0x90)));
+        result.setTemperatureMin(kelvinToCelsius(record.getFloat(0x94)));
+
+        byte[] model = new byte[32];
+        record.get(0xd4, model);
+        String flirModel = trimToNull(new String(model, StandardCharsets.US_ASCII).split("\0", 2)[0]);
+        if (flirModel != null) {
+            result.setCameraModel(flirModel);
+        }
+    }
+
+    private static Double kelvinToCelsius(float kelvin) {
+        Double value = finiteOrNull(kelvin);
+        return value != null && value > 0 ? value - KELVIN_OFFSET : null;
+    }
+
+    private static Double finiteOrNull(float value) {
+        return Float.isFinite(value) ? (double) value : null;
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        if (data.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Metadata read from an image header
+     */
+    public static class ImageMetadata {
+        private LocalDateTime capturedAt;
+        private String cameraModel;
+        private Double emissivity;
+        private Double temperatureMin; // Camera calibrated range, degrees Celsius
+        private Double temperatureMax; // Camera calibrated range, degrees Celsius
+
+        public LocalDateTime getCapturedAt() { return capturedAt; }
+        public void setCapturedAt(LocalDateTime capturedAt) { this.capturedAt = capturedAt; }
+
+        public String getCameraModel() { return cameraModel; }
+        public void setCameraModel(String cameraModel) { this.cameraModel = cameraModel; }
+
+        public Double getEmissivity() { return emissivity; }
+        public void setEmissivity(Double emissivity) { this.emissivity = emissivity; }
+
+        public Double getTemperatureMin() { return temperatureMin; }
+        public void setTemperatureMin(Double temperatureMin) { this.temperatureMin = temperatureMin; }
+
+        public Double getTemperatureMax() { return temperatureMax; }
+        public void setTemperatureMax(Double temperatureMax) { this.temperatureMax = temperatureMax; }
+    }
+}
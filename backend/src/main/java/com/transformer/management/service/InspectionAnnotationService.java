@@ -0,0 +1,694 @@
+package com.transformer.management.service;
+
+import com.transformer.management.dto.AnnotationChangeSetRequest;
+import com.transformer.management.dto.AnnotationDTO;
+import com.transformer.management.entity.Annotation;
+import com.transformer.management.entity.AnnotationEvent;
+import com.transformer.management.entity.Image;
+import com.transformer.management.entity.Inspection;
+import com.transformer.management.repository.AnnotationRepository;
+import com.transformer.management.repository.ImageRepository;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.util.AnnotationMerger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies annotation saves for an inspection as a diff against the stored rows
+ * Rows live in the shared annotations table, keyed by the inspection foreign key, so boxes saved here
+ * are the same rows the /annotations API, the event log and the spatial index see.
+ * Boxes are keyed by deterministic UUIDs (inspectionId + box number), so only rows whose
+ * content actually changed are written; inserts and updates are flushed as JDBC batches.
+ * Updates are conditional on the row version, and edits based on an older version are
+ * three-way merged per attribute group (see AnnotationMerger)
+ */
+@Service
+public class InspectionAnnotationService {
+    private static final Logger logger = LoggerFactory.getLogger(InspectionAnnotationService.class);
+
+    @Autowired
+    private AnnotationRepository repository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private AnnotationHistoryService historyService;
+
+    @Autowired
+    private SpatialIndexService spatialIndexService;
+
+    @Autowired
+    private EngineMetricsService engineMetricsService;
+
+    @Autowired
+    private AfterCommitExecutor afterCommitExecutor;
+
+    /**
+     * Replace the annotation set of an inspection with the given boxes
+     * Known boxes are matched by id, new boxes map to the deterministic UUID of their position.
+     * Boxes carrying a version are merged
+     * with concurrent edits; stored boxes beyond the list are removed only for unversioned saves
+     *
+     * @param inspectionId Inspection the boxes belong to
+     * @param userId Default user for boxes that do not carry one
+     * @param annotations Complete list of boxes, including soft-deleted ones
+     * @return Outcome with the resulting rows in request order
+     * @throws IllegalArgumentException if the inspection does not exist
+     */
+    @Transactional
+    public SaveResult saveAll(String inspectionId, String userId, List<AnnotationDTO> annotations) {
+        Inspection inspection = requireInspection(inspectionId);
+        Map<UUID, Annotation> existing = loadExisting(inspection.getId());
+        SaveResult result = new SaveResult();
+        List<Annotation> toInsert = new ArrayList<>();
+        Map<Annotation, String> events = new LinkedHashMap<>();
+        Set<UUID> kept = new HashSet<>();
+
+        // Clients that send versions may be stale; they never remove rows they did not know about
+        boolean versioned = annotations.stream().anyMatch(dto -> dto.getVersion() != null);
+        int nextFreeBox = Math.max(existing.size(), annotations.size()) + 1;
+
+        // Boxes the client already knows are matched by id, new boxes by their position
+        Set<UUID> claimed = annotations.stream()
+            .map(AnnotationDTO::getId)
+            .filter(existing::containsKey)
+            .collect(Collectors.toSet());
+
+        int boxNumber = 1;
+        for (AnnotationDTO dto : annotations) {
+            UUID positionalId = generateDeterministicUUID(inspectionId, boxNumber++);
+            UUID id = claimed.contains(dto.getId()) ? dto.getId() : positionalId;
+            Annotation annotation = existing.get(id);
+
+            boolean positionTaken = annotation != null && !id.equals(dto.getId())
+                && (versioned || claimed.contains(id));
+            if (positionTaken || kept.contains(id)) {
+                // The position belongs to another box (e.g. one added concurrently); keep both
+                do {
+                    id = generateDeterministicUUID(inspectionId, nextFreeBox++);
+                } while (existing.containsKey(id) || kept.contains(id));
+                annotation = null;
+            }
+            kept.add(id);
+
+            if (annotation == null) {
+                annotation = newAnnotation(id, inspection, inspectionId);
+                applyFields(annotation, dto, userId);
+                toInsert.add(annotation);
+                events.put(annotation, AnnotationEvent.TYPE_CREATED);
+                result.inserted++;
+            } else if (reconcile(annotation, dto, userId, result)) {
+                events.put(annotation, eventType(annotation));
+            }
+            result.annotations.add(annotation);
+        }
+
+        List<Annotation> toDelete = versioned ? List.of() : existing.values().stream()
+            .filter(annotation -> !kept.contains(annotation.getId()))
+            .collect(Collectors.toList());
+        if (!toDelete.isEmpty()) {
+            repository.deleteAllByIdInBatch(toDelete.stream().map(Annotation::getId).collect(Collectors.toList()));
+            toDelete.forEach(annotation -> events.put(annotation, AnnotationEvent.TYPE_REMOVED));
+            result.deleted = toDelete.size();
+        }
+        repository.saveAll(toInsert);
+        publish(inspectionId, events);
+
+        logger.info("Saved annotations for inspection {}: {} inserted, {} updated ({} merged), {} deleted, {} unchanged, {} conflicts",
+            inspectionId, result.inserted, result.updated, result.merged, result.deleted, result.unchanged, result.conflicts.size());
+        return result;
+    }
+
+    /**
+     * Apply an incremental change-set to the annotations of an inspection
+     * Only the named rows are loaded; added boxes keep a client-generated id or get the next
+     * free deterministic UUID, and deletions are soft deletes
+     *
+     * @param inspectionId Inspection the boxes belong to
+     * @param changes Added, updated and deleted boxes
+     * @return Outcome with the added and updated rows; unknown ids are reported as missing
+     * @throws IllegalArgumentException if the inspection does not exist
+     */
+    @Transactional
+    public SaveResult applyChanges(String inspectionId, AnnotationChangeSetRequest changes) {
+        Inspection inspection = requireInspection(inspectionId);
+        SaveResult result = new SaveResult();
+        Map<Annotation, String> events = new LinkedHashMap<>();
+        String userId = changes.getUserId();
+
+        // Only the rows named in the change-set are loaded
+        Set<UUID> touchedIds = new HashSet<>(changes.getDeleted());
+        changes.getUpdated().stream().map(AnnotationDTO::getId).filter(Objects::nonNull).forEach(touchedIds::add);
+        Map<UUID, Annotation> existing = repository.findAllById(touchedIds).stream()
+            .filter(annotation -> annotation.getInspection() != null && inspection.getId().equals(annotation.getInspection().getId()))
+            .collect(Collectors.toMap(Annotation::getId, Function.identity()));
+
+        for (AnnotationDTO dto : changes.getUpdated()) {
+            Annotation annotation = dto.getId() != null ? existing.get(dto.getId()) : null;
+            if (annotation == null) {
+                result.missing.add(dto.getId());
+            } else if (reconcile(annotation, dto, userId, result)) {
+                result.annotations.add(annotation);
+                events.put(annotation, eventType(annotation));
+            }
+        }
+
+        for (UUID id : changes.getDeleted()) {
+            Annotation annotation = existing.get(id);
+            if (annotation == null) {
+                result.missing.add(id);
+            } else if (!Boolean.TRUE.equals(annotation.getIsDeleted())) {
+                annotation.setIsDeleted(true);
+                annotation.setDeletedAt(LocalDateTime.now());
+                annotation.setAction("deleted");
+                annotation.setLastModified(LocalDateTime.now());
+                if (userId != null) {
+                    annotation.setUserId(userId);
+                }
+                events.put(annotation, AnnotationEvent.TYPE_DELETED);
+                result.deleted++;
+            }
+        }
+
+        if (!changes.getAdded().isEmpty()) {
+            // Client-generated ids are kept; an id that is already stored was added by an earlier retry
+            Set<UUID> clientIds = changes.getAdded().stream()
+                .map(AnnotationDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+            Set<UUID> alreadyStored = clientIds.isEmpty() ? Set.of() : repository.findAllById(clientIds).stream()
+                .map(Annotation::getId)
+                .collect(Collectors.toSet());
+            List<AnnotationDTO> added = changes.getAdded().stream()
+                .filter(dto -> dto.getId() == null || !alreadyStored.contains(dto.getId()))
+                .collect(Collectors.toList());
+            result.unchanged += changes.getAdded().size() - added.size();
+
+            Iterator<UUID> newIds = nextFreeIds(inspection.getId(), inspectionId,
+                (int) added.stream().filter(dto -> dto.getId() == null).count()).iterator();
+            List<Annotation> toInsert = new ArrayList<>();
+            for (AnnotationDTO dto : added) {
+                Annotation annotation = newAnnotation(dto.getId() != null ? dto.getId() : newIds.next(), inspection, inspectionId);
+                if (dto.getTransformerId() == null) {
+                    annotation.setTransformerId(changes.getTransformerId());
+                }
+                applyFields(annotation, dto, userId);
+                toInsert.add(annotation);
+                events.put(annotation, AnnotationEvent.TYPE_CREATED);
+                result.annotations.add(annotation);
+                result.inserted++;
+            }
+            repository.saveAll(toInsert);
+        }
+        publish(inspectionId, events);
+
+        logger.info("Applied annotation changes for inspection {}: {} inserted, {} updated ({} merged), {} deleted, {} missing, {} conflicts",
+            inspectionId, result.inserted, result.updated, result.merged, result.deleted, result.missing.size(), result.conflicts.size());
+        return result;
+    }
+
+    /**
+     * Save boxes of an image by id, as sent by the /annotations API
+     * Boxes with an id update that row, boxes without one are created; an id that is unknown or belongs
+     * to another image and inspection is reported as missing and left alone. An edit based on an older
+     * version is merged with the concurrent edit or reported as a conflict.
+     * All rows and their events are written in one transaction, so a failure saves nothing
+     *
+     * @param imageIdRef Image reference: an Image id, an inspection id or a free-form key
+     * @param userId Default user for created boxes
+     * @param annotations Boxes to save
+     * @return Outcome with the saved rows in request order, the missing ids and the conflicting edits
+     */
+    @Transactional
+    public SaveResult saveImageAnnotations(String imageIdRef, String userId, List<AnnotationDTO> annotations) {
+        Image image = null;
+        try {
+            image = imageRepository.findById(UUID.fromString(imageIdRef)).orElse(null);
+        } catch (IllegalArgumentException e) {
+            // Not a UUID, that's fine - the reference is stored as is
+        }
+        Inspection inspection = image != null ? image.getInspection() : resolveInspection(imageIdRef);
+        SaveResult result = new SaveResult();
+        // Edited rows keep their own reference, so their events go to that image's history
+        Map<String, Map<Annotation, String>> eventsByRef = new LinkedHashMap<>();
+
+        for (AnnotationDTO dto : annotations) {
+            Annotation annotation;
+            String eventType;
+
+            if (dto.getId() != null) {
+                annotation = repository.findById(dto.getId())
+                    .filter(found -> belongsTo(found, imageIdRef, inspection))
+                    .orElse(null);
+                if (annotation == null) {
+                    result.missing.add(dto.getId());
+                    continue;
+                }
+
+                // Edit based on an older version: merge with the concurrent edit or report a conflict
+                if (dto.getVersion() != null && annotation.getVersion() != null
+                        && !dto.getVersion().equals(annotation.getVersion())) {
+                    AnnotationDTO theirs = toDTO(annotation);
+                    AnnotationDTO merged = AnnotationMerger.merge(dto.getBase(), dto, theirs);
+                    if (merged == null) {
+                        result.conflicts.add(new Conflict(dto, theirs));
+                        continue;
+                    }
+                    dto = merged;
+                    result.merged++;
+                }
+
+                if ("deleted".equalsIgnoreCase(dto.getAction())) {
+                    // Mark as deleted instead of actually deleting
+                    annotation.setIsDeleted(true);
+                    annotation.setDeletedAt(LocalDateTime.now());
+                    eventType = AnnotationEvent.TYPE_DELETED;
+                    result.deleted++;
+                } else {
+                    annotation.setBboxX(dto.getX());
+                    annotation.setBboxY(dto.getY());
+                    annotation.setBboxWidth(dto.getWidth());
+                    annotation.setBboxHeight(dto.getHeight());
+                    annotation.setLabel(dto.getLabel());
+                    annotation.setConfidence(dto.getConfidence());
+                    annotation.setAction(dto.getAction());
+                    annotation.setNotes(dto.getNotes());
+                    annotation.setAnnotationType("USER_EDITED");
+                    annotation.setSeverity(dto.getSeverity());
+                    annotation.setLastModified(dto.getLastModified() != null ? LocalDateTime.parse(dto.getLastModified()) : LocalDateTime.now());
+                    annotation.setModificationTypes(dto.getModificationTypes() != null ? String.join(",", dto.getModificationTypes()) : null);
+                    annotation.setModificationDetails(dto.getModificationDetails());
+                    annotation.setIsAI(dto.getIsAI() != null ? dto.getIsAI() : annotation.getIsAI());
+                    annotation.setTransformerId(dto.getTransformerId());
+                    annotation.setTimestampIso(dto.getLastModified());
+                    eventType = AnnotationEvent.TYPE_EDITED;
+                    result.updated++;
+                }
+            } else {
+                annotation = new Annotation();
+                if (image != null) {
+                    annotation.setImage(image);
+                }
+                annotation.setImageIdRef(imageIdRef); // Always set the image reference
+                annotation.setUserId(userId != null ? userId : "unknown");
+                annotation.setBboxX(dto.getX());
+                annotation.setBboxY(dto.getY());
+                annotation.setBboxWidth(dto.getWidth());
+                annotation.setBboxHeight(dto.getHeight());
+                annotation.setLabel(dto.getLabel() != null ? dto.getLabel() : "Unknown");
+                annotation.setConfidence(dto.getConfidence());
+                annotation.setAction(dto.getAction() != null ? dto.getAction() : "added");
+                annotation.setNotes(dto.getNotes());
+                annotation.setAnnotationType("USER_CREATED");
+                annotation.setSeverity(dto.getSeverity());
+                annotation.setLastModified(dto.getLastModified() != null ? LocalDateTime.parse(dto.getLastModified()) : LocalDateTime.now());
+                annotation.setModificationTypes(dto.getModificationTypes() != null ? String.join(",", dto.getModificationTypes()) : "created");
+                annotation.setModificationDetails(dto.getModificationDetails());
+                annotation.setIsAI(dto.getIsAI() != null ? dto.getIsAI() : false);
+                annotation.setTransformerId(dto.getTransformerId());
+                annotation.setTimestampIso(dto.getLastModified());
+                eventType = AnnotationEvent.TYPE_CREATED;
+                result.inserted++;
+            }
+
+            if (annotation.getInspection() == null) {
+                annotation.setInspection(inspection); // Shared with /inspection-annotations through the inspection key
+            }
+            Annotation saved = repository.save(annotation);
+            eventsByRef.computeIfAbsent(saved.getImageIdRef(), ref -> new LinkedHashMap<>()).put(saved, eventType);
+            result.annotations.add(saved);
+        }
+        // Streams are locked in a fixed order so two saves spanning the same images cannot deadlock
+        eventsByRef.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey(Comparator.nullsFirst(Comparator.naturalOrder())))
+            .forEach(entry -> publish(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    // A box can be edited through its own image reference or through any reference of its inspection
+    private boolean belongsTo(Annotation annotation, String imageIdRef, Inspection inspection) {
+        if (imageIdRef.equals(annotation.getImageIdRef())) {
+            return true;
+        }
+        return inspection != null && annotation.getInspection() != null
+            && inspection.getId().equals(annotation.getInspection().getId());
+    }
+
+    /**
+     * Soft delete one annotation
+     *
+     * @return The deleted row, or empty if there is no such annotation
+     */
+    @Transactional
+    public Optional<Annotation> softDelete(UUID annotationId) {
+        return repository.findById(annotationId).map(annotation -> {
+            annotation.setIsDeleted(true);
+            annotation.setDeletedAt(LocalDateTime.now());
+            publish(annotation.getImageIdRef(), Map.of(annotation, AnnotationEvent.TYPE_DELETED));
+            return annotation;
+        });
+    }
+
+    /**
+     * Delete every annotation of an inspection
+     * Used when re-running AI detection to start fresh
+     *
+     * @return Number of deleted rows
+     * @throws IllegalArgumentException if the inspection does not exist
+     */
+    @Transactional
+    public int deleteAll(String inspectionId) {
+        Inspection inspection = requireInspection(inspectionId);
+        List<Annotation> annotations = repository.findByInspectionIdOrderByCreatedAtDesc(inspection.getId());
+        if (annotations.isEmpty()) {
+            return 0;
+        }
+
+        repository.deleteAllInBatch(annotations);
+        Map<Annotation, String> events = new LinkedHashMap<>();
+        annotations.forEach(annotation -> events.put(annotation, AnnotationEvent.TYPE_REMOVED));
+        publish(inspectionId, events);
+        return annotations.size();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Annotation> findAll(String inspectionId) {
+        return repository.findByInspectionIdOrderByCreatedAtDesc(parseInspectionId(inspectionId));
+    }
+
+    @Transactional(readOnly = true)
+    public long count(String inspectionId) {
+        return repository.countByInspectionId(parseInspectionId(inspectionId));
+    }
+
+    /**
+     * Inspection an image reference points to: the inspection itself, or the inspection of an Image
+     *
+     * @return Inspection, or null if the reference is neither
+     */
+    public Inspection resolveInspection(String imageIdRef) {
+        UUID id;
+        try {
+            id = UUID.fromString(imageIdRef);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+        if (inspectionRepository.existsById(id)) {
+            return inspectionRepository.getReferenceById(id);
+        }
+        return imageRepository.findById(id).map(Image::getInspection).orElse(null);
+    }
+
+    /**
+     * Convert Annotation entity to DTO
+     */
+    public AnnotationDTO toDTO(Annotation annotation) {
+        return historyService.toDTO(annotation);
+    }
+
+    private Inspection requireInspection(String inspectionId) {
+        UUID id = parseInspectionId(inspectionId);
+        if (!inspectionRepository.existsById(id)) {
+            throw new IllegalArgumentException("Inspection not found: " + inspectionId);
+        }
+        return inspectionRepository.getReferenceById(id);
+    }
+
+    private static UUID parseInspectionId(String inspectionId) {
+        try {
+            return UUID.fromString(inspectionId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid inspection ID format: " + inspectionId);
+        }
+    }
+
+    private Annotation newAnnotation(UUID id, Inspection inspection, String inspectionId) {
+        Annotation annotation = new Annotation();
+        annotation.setId(id);
+        annotation.setInspection(inspection);
+        annotation.setImageIdRef(inspectionId);
+        return annotation;
+    }
+
+    private static String eventType(Annotation annotation) {
+        return Boolean.TRUE.equals(annotation.getIsDeleted()) ? AnnotationEvent.TYPE_DELETED : AnnotationEvent.TYPE_EDITED;
+    }
+
+    /**
+     * Record the changed rows in the event log; the spatial index and engine metrics follow once committed
+     */
+    private void publish(String imageIdRef, Map<Annotation, String> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        repository.flush(); // Events carry the versions the rows were written with
+        historyService.recordAll(imageIdRef, events);
+
+        boolean removed = events.containsValue(AnnotationEvent.TYPE_REMOVED);
+        List<Annotation> changed = new ArrayList<>(events.keySet());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (removed) {
+                    spatialIndexService.evict(imageIdRef);
+                } else {
+                    changed.forEach(spatialIndexService::onAnnotationSaved);
+                }
+            }
+        });
+        if (imageIdRef != null) {
+            afterCommitExecutor.execute("update engine metrics for inspection " + imageIdRef,
+                () -> engineMetricsService.onAnnotationsSaved(imageIdRef));
+        }
+    }
+
+    // Box numbers continue after the stored rows; skip any number whose UUID is already taken
+    private List<UUID> nextFreeIds(UUID inspectionUuid, String inspectionId, int count) {
+        List<UUID> ids = new ArrayList<>();
+        if (count == 0) {
+            return ids;
+        }
+        int boxNumber = (int) repository.countByInspectionId(inspectionUuid) + 1;
+        while (ids.size() < count) {
+            List<UUID> candidates = new ArrayList<>();
+            for (int i = ids.size(); i < count; i++) {
+                candidates.add(generateDeterministicUUID(inspectionId, boxNumber++));
+            }
+            Set<UUID> taken = repository.findAllById(candidates).stream()
+                .map(Annotation::getId)
+                .collect(Collectors.toSet());
+            candidates.stream().filter(id -> !taken.contains(id)).forEach(ids::add);
+        }
+        return ids;
+    }
+
+    /**
+     * Apply a client edit to a stored row, merging when the client edited an older version
+     *
+     * @return true if the row was changed
+     */
+    private boolean reconcile(Annotation annotation, AnnotationDTO dto, String userId, SaveResult result) {
+        AnnotationDTO target = dto;
+        if (dto.getVersion() != null && !dto.getVersion().equals(annotation.getVersion())) {
+            AnnotationDTO theirs = toDTO(annotation);
+            target = AnnotationMerger.merge(dto.getBase(), dto, theirs);
+            if (target == null) {
+                result.conflicts.add(new Conflict(dto, theirs));
+                return false;
+            }
+            if (target != theirs) {
+                result.merged++;
+            }
+        }
+
+        if (!differs(annotation, target)) {
+            result.unchanged++;
+            return false;
+        }
+        applyFields(annotation, target, userId);
+        result.updated++;
+        return true;
+    }
+
+    private Map<UUID, Annotation> loadExisting(UUID inspectionId) {
+        return repository.findByInspectionIdOrderByCreatedAtDesc(inspectionId).stream()
+            .collect(Collectors.toMap(Annotation::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+    }
+
+    // Content comparison; timestamps and the editing user alone do not count as a change
+    private boolean differs(Annotation annotation, AnnotationDTO dto) {
+        return !Objects.equals(annotation.getBboxX(), dto.getX())
+            || !Objects.equals(annotation.getBboxY(), dto.getY())
+            || !Objects.equals(annotation.getBboxWidth(), dto.getWidth())
+            || !Objects.equals(annotation.getBboxHeight(), dto.getHeight())
+            || !Objects.equals(annotation.getLabel(), dto.getLabel())
+            || !Objects.equals(annotation.getConfidence(), dto.getConfidence() != null ? dto.getConfidence() : 1.0)
+            || !Objects.equals(annotation.getSeverity(), dto.getSeverity())
+            || !Objects.equals(annotation.getAction(), dto.getAction() != null ? dto.getAction() : "added")
+            || !Objects.equals(annotation.getIsAI(), dto.getIsAI() != null ? dto.getIsAI() : false)
+            || !Objects.equals(annotation.getNotes(), dto.getNotes())
+            || !Objects.equals(annotation.getModificationTypes(), joinModificationTypes(dto))
+            || !Objects.equals(annotation.getModificationDetails(), dto.getModificationDetails())
+            || (dto.getTransformerId() != null && !Objects.equals(annotation.getTransformerId(), dto.getTransformerId()))
+            || !Objects.equals(annotation.getIsDeleted(), "deleted".equalsIgnoreCase(dto.getAction()));
+    }
+
+    private void applyFields(Annotation annotation, AnnotationDTO dto, String defaultUserId) {
+        if (dto.getTransformerId() != null) {
+            annotation.setTransformerId(dto.getTransformerId());
+        }
+        annotation.setUserId(dto.getUserId() != null ? dto.getUserId() : defaultUserId);
+        annotation.setBboxX(dto.getX());
+        annotation.setBboxY(dto.getY());
+        annotation.setBboxWidth(dto.getWidth());
+        annotation.setBboxHeight(dto.getHeight());
+        annotation.setLabel(dto.getLabel());
+        annotation.setConfidence(dto.getConfidence() != null ? dto.getConfidence() : 1.0);
+        annotation.setSeverity(dto.getSeverity());
+        annotation.setAction(dto.getAction() != null ? dto.getAction() : "added");
+        annotation.setIsAI(dto.getIsAI() != null ? dto.getIsAI() : false);
+        annotation.setNotes(dto.getNotes());
+        if (annotation.isNew()) {
+            annotation.setAnnotationType(Boolean.TRUE.equals(annotation.getIsAI()) ? "AI_GENERATED" : "USER_CREATED");
+        } else {
+            annotation.setAnnotationType("USER_EDITED");
+        }
+
+        // Set modification tracking
+        LocalDateTime lastModified = LocalDateTime.now();
+        if (dto.getLastModified() != null) {
+            try {
+                lastModified = LocalDateTime.parse(dto.getLastModified());
+            } catch (Exception e) {
+                // Keep current time for unparseable client timestamps
+            }
+        }
+        annotation.setLastModified(lastModified);
+        annotation.setModificationTypes(joinModificationTypes(dto));
+        annotation.setModificationDetails(dto.getModificationDetails());
+
+        // Handle deletion
+        if ("deleted".equalsIgnoreCase(dto.getAction())) {
+            if (!Boolean.TRUE.equals(annotation.getIsDeleted())) {
+                annotation.setDeletedAt(LocalDateTime.now());
+            }
+            annotation.setIsDeleted(true);
+        } else {
+            annotation.setIsDeleted(false);
+            annotation.setDeletedAt(null);
+        }
+    }
+
+    private String joinModificationTypes(AnnotationDTO dto) {
+        if (dto.getModificationTypes() == null || dto.getModificationTypes().isEmpty()) {
+            return null;
+        }
+        return String.join(",", dto.getModificationTypes());
+    }
+
+    /**
+     * Generate deterministic UUID based on inspectionId and box number
+     * This ensures the same box always gets the same UUID
+     * Format: UUID v5 (name-based with SHA-1)
+     */
+    private UUID generateDeterministicUUID(String inspectionId, int boxNumber) {
+        try {
+            // Create a unique string combining inspection ID and box number
+            String uniqueString = inspectionId + "-box-" + boxNumber;
+            
+            // Generate SHA-1 hash
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(uniqueString.getBytes(StandardCharsets.UTF_8));
+            
+            // Convert to UUID format (use first 16 bytes)
+            // Set version to 5 (name-based UUID) and variant bits
+            hash[6] &= 0x0f;  // Clear version
+            hash[6] |= 0x50;  // Set version to 5
+            hash[8] &= 0x3f;  // Clear variant
+            hash[8] |= 0x80;  // Set variant to IETF
+            
+            // Create UUID from hash bytes
+            long msb = 0;
+            long lsb = 0;
+            for (int i = 0; i < 8; i++) {
+                msb = (msb << 8) | (hash[i] & 0xff);
+            }
+            for (int i = 8; i < 16; i++) {
+                lsb = (lsb << 8) | (hash[i] & 0xff);
+            }
+            
+            return new UUID(msb, lsb);
+            
+        } catch (NoSuchAlgorithmException e) {
+            logger.error("Failed to generate deterministic UUID, falling back to random: {}", e.getMessage());
+            return UUID.randomUUID();
+        }
+    }
+
+    /**
+     * Outcome of a save: affected rows and per-kind counts
+     */
+    public static class SaveResult {
+        private final List<Annotation> annotations = new ArrayList<>();
+        private final List<UUID> missing = new ArrayList<>();
+        private final List<Conflict> conflicts = new ArrayList<>();
+        private int inserted;
+        private int updated;
+        private int merged; // Stale edits reconciled with a concurrent edit (counted in updated too)
+        private int deleted;
+        private int unchanged;
+
+        public List<Annotation> getAnnotations() { return annotations; }
+        public List<UUID> getMissing() { return missing; }
+        public List<Conflict> getConflicts() { return conflicts; }
+        public int getInserted() { return inserted; }
+        public int getUpdated() { return updated; }
+        public int getMerged() { return merged; }
+        public int getDeleted() { return deleted; }
+        public int getUnchanged() { return unchanged; }
+    }
+
+    /**
+     * Box edit that could not be merged: the client's version and the stored version
+     */
+    public static class Conflict {
+        private final AnnotationDTO yours;
+        private final AnnotationDTO theirs;
+
+        public Conflict(AnnotationDTO yours, AnnotationDTO theirs) {
+            this.yours = yours;
+            this.theirs = theirs;
+        }
+
+        public UUID getId() { return theirs.getId(); }
+        public AnnotationDTO getYours() { return yours; }
+        public AnnotationDTO getTheirs() { return theirs; }
+    }
+}
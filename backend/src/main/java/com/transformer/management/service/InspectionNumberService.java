@@ -0,0 +1,80 @@
+package com.transformer.management.service;
+
+import com.transformer.management.entity.Inspection;
+import com.transformer.management.entity.InspectionNumberSequence;
+import com.transformer.management.repository.InspectionNumberSequenceRepository;
+import com.transformer.management.repository.InspectionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Issues inspection numbers in the format INSP-YYYYMMDD-NNNN
+ * Each inspection date has its own counter row in inspection_number_sequences,
+ * so taking a number is a single locked increment instead of a scan of that day's inspections
+ */
+@Service
+public class InspectionNumberService {
+    private static final Logger logger = LoggerFactory.getLogger(InspectionNumberService.class);
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Autowired
+    private InspectionNumberSequenceRepository sequenceRepository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    /**
+     * Take the next inspection number for the date of the given inspection time
+     * YYYYMMDD is based on the inspection date (inspectedAt), not the creation date
+     *
+     * @param inspectedAt Inspection date and time
+     * @return Unique inspection number
+     */
+    @Transactional
+    public String nextInspectionNumber(LocalDateTime inspectedAt) {
+        LocalDate date = inspectedAt.toLocalDate();
+        String prefix = "INSP-" + date.format(DATE_FORMAT) + "-";
+
+        InspectionNumberSequence sequence = sequenceRepository.findForUpdate(date).orElse(null);
+        if (sequence == null) {
+            // First number for this date: seed the counter once from any existing inspections
+            sequenceRepository.insertIfAbsent(date, findHighestSequence(prefix));
+            sequence = sequenceRepository.findForUpdate(date)
+                .orElseThrow(() -> new IllegalStateException("Inspection number sequence missing for " + date));
+        }
+
+        int next = sequence.getLastValue() + 1;
+        sequence.setLastValue(next);
+
+        String inspectionNo = prefix + String.format("%04d", next);
+        logger.debug("Generated inspection number {}", inspectionNo);
+        return inspectionNo;
+    }
+
+    private int findHighestSequence(String prefix) {
+        List<Inspection> inspectionsOnDate = inspectionRepository.findByInspectionNoStartingWith(prefix);
+        return inspectionsOnDate.stream()
+            .mapToInt(inspection -> {
+                String inspectionNo = inspection.getInspectionNo();
+                if (inspectionNo != null && inspectionNo.startsWith(prefix)) {
+                    try {
+                        return Integer.parseInt(inspectionNo.substring(prefix.length()));
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+                return 0;
+            })
+            .max()
+            .orElse(0);
+    }
+}
@@ -0,0 +1,125 @@
+package com.transformer.management.service;
+
+import com.transformer.management.entity.MaintenanceRecord;
+import com.transformer.management.repository.LatestMaintenanceRecordRepository;
+import com.transformer.management.repository.MaintenanceRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Saves and deletes maintenance records together with their transformer's latest-record pointer
+ * Reading statistics and detection correlations follow once the change has committed; a failure there
+ * is logged and does not undo the record
+ */
+@Service
+public class MaintenanceRecordService {
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceRecordService.class);
+
+    @Autowired
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+
+    @Autowired
+    private LatestMaintenanceRecordRepository latestRecordRepository;
+
+    @Autowired
+    private ReadingAnalyticsService readingAnalyticsService;
+
+    @Autowired
+    private DetectionCorrelationService detectionCorrelationService;
+
+    @Autowired
+    private AfterCommitExecutor afterCommitExecutor;
+
+    /**
+     * Save a new record; its readings are folded into the transformer's statistics after commit
+     */
+    @Transactional
+    public MaintenanceRecord create(MaintenanceRecord record) {
+        MaintenanceRecord saved = save(record);
+        afterCommitExecutor.execute("update reading statistics for maintenance record " + saved.getId(),
+            () -> readingAnalyticsService.onRecordSaved(saved));
+        correlateAfterCommit(saved.getInspection().getId());
+        return saved;
+    }
+
+    /**
+     * Edit a record in place; its transformer's statistics are rebuilt after commit, since it may have been
+     * any record in the history
+     * The record is loaded with its inspection and transformer in this transaction, so what is returned can be
+     * serialized after it ends (a merged copy would carry uninitialized proxies)
+     *
+     * @return The edited record, or empty if there is none with this id
+     */
+    @Transactional
+    public Optional<MaintenanceRecord> update(UUID id, Consumer<MaintenanceRecord> changes) {
+        Optional<MaintenanceRecord> found = maintenanceRecordRepository.findById(id);
+        if (found.isEmpty()) {
+            return found;
+        }
+        MaintenanceRecord record = found.get();
+        changes.accept(record);
+        save(record);
+        UUID transformerId = record.getTransformer().getId();
+        afterCommitExecutor.execute("rebuild reading statistics of transformer " + transformerId,
+            () -> readingAnalyticsService.rebuild(transformerId));
+        correlateAfterCommit(record.getInspection().getId());
+        return found;
+    }
+
+    /**
+     * Save a new or edited record; a new record becomes its transformer's latest unless a later one exists
+     */
+    @Transactional
+    public MaintenanceRecord save(MaintenanceRecord record) {
+        MaintenanceRecord saved = maintenanceRecordRepository.save(record);
+        latestRecordRepository.advance(saved.getTransformer().getId(), saved.getId(), saved.getCreatedAt());
+        return saved;
+    }
+
+    /**
+     * Delete a record and re-point its transformer at the latest remaining one
+     * Its alerts are dropped and its transformer's statistics rebuilt after commit
+     */
+    @Transactional
+    public void delete(MaintenanceRecord record) {
+        maintenanceRecordRepository.deleteById(record.getId());
+        maintenanceRecordRepository.flush();
+        refreshLatest(record.getTransformer().getId());
+        afterCommitExecutor.execute("update reading statistics after deleting maintenance record " + record.getId(),
+            () -> readingAnalyticsService.onRecordDeleted(record));
+        correlateAfterCommit(record.getInspection().getId());
+    }
+
+    /**
+     * Re-point a transformer after its records were deleted in bulk
+     */
+    @Transactional
+    public void refreshLatest(UUID transformerId) {
+        latestRecordRepository.repoint(transformerId);
+        latestRecordRepository.deleteIfDangling(transformerId);
+    }
+
+    private void correlateAfterCommit(UUID inspectionId) {
+        afterCommitExecutor.execute("update detection correlations for inspection " + inspectionId,
+            () -> detectionCorrelationService.onInspectionChanged(inspectionId));
+    }
+
+    // Tables created by ddl-auto start empty; fill the pointers once from the record history
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillLatest() {
+        if (latestRecordRepository.count() == 0 && maintenanceRecordRepository.count() > 0) {
+            int transformers = latestRecordRepository.rebuildAll();
+            logger.info("Pointed {} transformer(s) at their latest maintenance record", transformers);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.transformer.management.service;
+
+import com.transformer.management.entity.MaintenanceRecord;
+import com.transformer.management.entity.ReadingAlert;
+import com.transformer.management.entity.ReadingStats;
+import com.transformer.management.repository.MaintenanceRecordRepository;
+import com.transformer.management.repository.ReadingAlertRepository;
+import com.transformer.management.repository.ReadingStatsRepository;
+import com.transformer.management.util.Lttb;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Rolling statistics of the electrical readings in a transformer's maintenance records
+ * Each reading keeps an exponentially weighted mean and variance, min, max and last value. A new record updates
+ * them in O(1) against the rows locked for its transformer; a reading more than z-threshold standard deviations
+ * from the mean before it raises a ReadingAlert. Edits and deletes of older records rebuild from the history
+ */
+@Service
+public class ReadingAnalyticsService {
+    private static final Logger logger = LoggerFactory.getLogger(ReadingAnalyticsService.class);
+
+    private static final String TOPIC_PREFIX = "/topic/transformers/";
+
+    /**
+     * Readings tracked per transformer, with their column in MaintenanceRecordRepository.findReadingsByTransformer
+     */
+    public enum Reading {
+        VOLTAGE("voltageReading", MaintenanceRecord::getVoltageReading, 2),
+        CURRENT("currentReading", MaintenanceRecord::getCurrentReading, 3),
+        POWER_FACTOR("powerFactor", MaintenanceRecord::getPowerFactor, 4),
+        TEMPERATURE("temperature", MaintenanceRecord::getTemperature, 5);
+
+        private final String key;
+        private final Function<MaintenanceRecord, Double> accessor;
+        private final int column;
+
+        Reading(String key, Function<MaintenanceRecord, Double> accessor, int column) {
+            this.key = key;
+            this.accessor = accessor;
+            this.column = column;
+        }
+
+        public String getKey() { return key; }
+
+        public static Reading fromKey(String key) {
+            for (Reading reading : values()) {
+                if (reading.key.equals(key)) {
+                    return reading;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Autowired
+    private ReadingStatsRepository statsRepository;
+
+    @Autowired
+    private ReadingAlertRepository alertRepository;
+
+    @Autowired
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${analytics.readings.ewma-alpha:0.1}")
+    private double alpha;
+
+    @Value("${analytics.readings.z-threshold:3.0}")
+    private double zThreshold;
+
+    @Value("${analytics.readings.min-samples:10}")
+    private int minSamples;
+
+    @Value("${analytics.readings.max-points:1000}")
+    private int maxPoints;
+
+    /**
+     * Fold a newly created record into its transformer's statistics, raising alerts for drifted readings
+     * A transformer without statistics yet is built from its whole history instead, without alerts
+     */
+    @Transactional
+    public void onRecordSaved(MaintenanceRecord record) {
+        UUID transformerId = record.getTransformer().getId();
+        if (createMissingRows(transformerId)) {
+            rebuild(transformerId);
+            return;
+        }
+
+        List<ReadingAlert> alerts = new ArrayList<>();
+        for (ReadingStats stats : statsRepository.findForUpdate(transformerId)) {
+            Reading reading = Reading.fromKey(stats.getReading());
+            Double value = reading != null ? reading.accessor.apply(record) : null;
+            if (value == null) {
+                continue;
+            }
+            ReadingAlert alert = apply(stats, value, record.getId(), true);
+            if (alert != null) {
+                alerts.add(alert);
+            }
+        }
+
+        if (!alerts.isEmpty()) {
+            List<ReadingAlert> saved = alertRepository.saveAll(alerts);
+            for (ReadingAlert alert : saved) {
+                logger.warn("Reading drift on transformer {}: {} = {} (expected {}, z = {})", transformerId,
+                    alert.getReading(), alert.getValue(), String.format("%.3f", alert.getExpected()),
+                    String.format("%.2f", alert.getZScore()));
+            }
+            afterCommit(() -> messagingTemplate.convertAndSend(TOPIC_PREFIX + transformerId + "/reading-alerts", saved));
+        }
+    }
+
+    /**
+     * Recompute a transformer's statistics from all of its records, oldest first
+     * Used after records are edited or deleted; no alerts are raised for past readings
+     */
+    @Transactional
+    public void rebuild(UUID transformerId) {
+        createMissingRows(transformerId);
+        List<ReadingStats> rows = statsRepository.findForUpdate(transformerId);
+        List<Object[]> history = maintenanceRecordRepository.findReadingsByTransformer(transformerId);
+
+        for (ReadingStats stats : rows) {
+            reset(stats);
+            Reading reading = Reading.fromKey(stats.getReading());
+            if (reading == null) {
+                continue;
+            }
+            for (Object[] row : history) {
+                Double value = (Double) row[reading.column];
+                if (value != null) {
+                    apply(stats, value, (UUID) row[0], false);
+                }
+            }
+        }
+        logger.debug("Rebuilt reading statistics of transformer {} from {} record(s)", transformerId, history.size());
+    }
+
+    /**
+     * Drop the alerts of a deleted record and rebuild its transformer without it
+     */
+    @Transactional
+    public void onRecordDeleted(MaintenanceRecord record) {
+        alertRepository.deleteAllByMaintenanceRecordId(record.getId());
+        rebuild(record.getTransformer().getId());
+    }
+
+    /**
+     * Rebuild every transformer that has maintenance records
+     *
+     * @return Number of transformers rebuilt
+     */
+    @Transactional
+    public int rebuildAll() {
+        List<UUID> transformerIds = maintenanceRecordRepository.findDistinctTransformerIds();
+        transformerIds.forEach(this::rebuild);
+        return transformerIds.size();
+    }
+
+    /**
+     * Drop the statistics and alerts of a deleted transformer
+     */
+    @Transactional
+    public void deleteTransformer(UUID transformerId) {
+        statsRepository.deleteAllByTransformerId(transformerId);
+        alertRepository.deleteAllByTransformerId(transformerId);
+    }
+
+    /**
+     * Current statistics of each reading of a transformer
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> stats(UUID transformerId) {
+        Map<String, Object> readings = new LinkedHashMap<>();
+        for (ReadingStats stats : statsRepository.findByTransformerIdOrderByReading(transformerId)) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("samples", stats.getSamples());
+            summary.put("ewma", stats.getSamples() > 0 ? stats.getEwma() : null);
+            summary.put("ewmStdDev", stats.getSamples() > 0 ? stats.getEwmStdDev() : null);
+            summary.put("min", stats.getMinValue());
+            summary.put("max", stats.getMaxValue());
+            summary.put("last", stats.getLastValue());
+            summary.put("lastZScore", stats.getLastZScore());
+            summary.put("updatedAt", stats.getUpdatedAt());
+            readings.put(stats.getReading(), summary);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("transformerId", transformerId);
+        response.put("alpha", alpha);
+        response.put("zThreshold", zThreshold);
+        response.put("readings", readings);
+        return response;
+    }
+
+    /**
+     * One reading of a transformer over time, downsampled with LTTB for charting
+     *
+     * @param points Points wanted; capped at analytics.readings.max-points
+     * @return Map with the number of records having the reading and the points as {t: epoch millis, v: value}
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> series(UUID transformerId, Reading reading, int points) {
+        List<Object[]> history = maintenanceRecordRepository.findReadingsByTransformer(transformerId);
+        double[] x = new double[history.size()];
+        double[] y = new double[history.size()];
+        int n = 0;
+        for (Object[] row : history) {
+            Double value = (Double) row[reading.column];
+            if (value != null) {
+                x[n] = ((LocalDateTime) row[1]).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                y[n] = value;
+                n++;
+            }
+        }
+        double[] times = Arrays.copyOf(x, n);
+        double[] values = Arrays.copyOf(y, n);
+
+        List<Map<String, Object>> series = new ArrayList<>();
+        for (int i : Lttb.downsample(times, values, Math.min(points, maxPoints))) {
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("t", (long) times[i]);
+            point.put("v", values[i]);
+            series.add(point);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("transformerId", transformerId);
+        response.put("reading", reading.key);
+        response.put("samples", n);
+        response.put("points", series);
+        return response;
+    }
+
+    /**
+     * Most recent alerts, of one transformer or of all
+     */
+    @Transactional(readOnly = true)
+    public List<ReadingAlert> recentAlerts(UUID transformerId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return transformerId != null
+            ? alertRepository.findByTransformerIdOrderByCreatedAtDesc(transformerId, page)
+            : alertRepository.findAllByOrderByCreatedAtDesc(page);
+    }
+
+    // Insert an empty row for each reading missing one; true if any was missing
+    private boolean createMissingRows(UUID transformerId) {
+        int created = 0;
+        for (Reading reading : Reading.values()) {
+            created += statsRepository.insertIfAbsent(ReadingStats.key(transformerId, reading.key), transformerId, reading.key);
+        }
+        return created > 0;
+    }
+
+    /**
+     * Fold one value into the statistics
+     * The z-score is taken against the mean and variance before the value, once minSamples values have been seen;
+     * while the variance is still zero (all values equal) there is no scale to compare against
+     */
+    private ReadingAlert apply(ReadingStats stats, double value, UUID recordId, boolean alert) {
+        Double zScore = null;
+        double expected = stats.getEwma();
+        if (stats.getSamples() >= minSamples && stats.getEwmVariance() > 0) {
+            zScore = (value - expected) / stats.getEwmStdDev();
+        }
+
+        if (stats.getSamples() == 0) {
+            stats.setEwma(value);
+            stats.setEwmVariance(0);
+        } else {
+            // Incremental exponentially weighted mean and variance (Finch, 2009)
+            double diff = value - expected;
+            double increment = alpha * diff;
+            stats.setEwma(expected + increment);
+            stats.setEwmVariance((1 - alpha) * (stats.getEwmVariance() + diff * increment));
+        }
+        stats.setSamples(stats.getSamples() + 1);
+        stats.setMinValue(stats.getMinValue() == null ? value : Math.min(stats.getMinValue(), value));
+        stats.setMaxValue(stats.getMaxValue() == null ? value : Math.max(stats.getMaxValue(), value));
+        stats.setLastValue(value);
+        stats.setLastZScore(zScore);
+        stats.setLastRecordId(recordId);
+        stats.setUpdatedAt(LocalDateTime.now());
+
+        if (alert && zScore != null && Math.abs(zScore) >= zThreshold) {
+            return new ReadingAlert(stats.getTransformerId(), recordId, stats.getReading(), value, expected, zScore);
+        }
+        return null;
+    }
+
+    private void reset(ReadingStats stats) {
+        stats.setSamples(0);
+        stats.setEwma(0);
+        stats.setEwmVariance(0);
+        stats.setMinValue(null);
+        stats.setMaxValue(null);
+        stats.setLastValue(null);
+        stats.setLastZScore(null);
+        stats.setLastRecordId(null);
+        stats.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
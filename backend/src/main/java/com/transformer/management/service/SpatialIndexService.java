@@ -0,0 +1,381 @@
+package com.transformer.management.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transformer.management.dto.AnomalyDetectionDTO;
+import com.transformer.management.dto.SpatialBoxDTO;
+import com.transformer.management.entity.Annotation;
+import com.transformer.management.entity.AnomalyDetection;
+import com.transformer.management.repository.AnnotationRepository;
+import com.transformer.management.repository.AnomalyDetectionRepository;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.util.BoxGrid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory spatial index over annotation boxes and persisted detection boxes
+ * One grid per image (inspection) is built on first use and kept up to date as annotations and
+ * detections are saved; the least recently used grids are dropped beyond MAX_CACHED_IMAGES
+ */
+@Service
+public class SpatialIndexService {
+    private static final Logger logger = LoggerFactory.getLogger(SpatialIndexService.class);
+
+    private static final int MAX_CACHED_IMAGES = 256;
+    private static final TypeReference<List<AnomalyDetectionDTO.Detection>> DETECTIONS_TYPE = new TypeReference<>() {};
+
+    @Autowired
+    private AnnotationRepository annotationRepository;
+
+    @Autowired
+    private AnomalyDetectionRepository anomalyDetectionRepository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Access-ordered, so the eldest entry is the least recently queried image; the lock is only held for map
+    // operations, grids are built by the first caller outside it and completed through the future
+    private final Map<String, CompletableFuture<BoxGrid>> grids = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<BoxGrid>> eldest) {
+            return size() > MAX_CACHED_IMAGES;
+        }
+    });
+
+    /**
+     * Boxes on an image that intersect the given region
+     *
+     * @param source Optional filter, SpatialBoxDTO.SOURCE_ANNOTATION or SOURCE_DETECTION
+     */
+    public List<SpatialBoxDTO> overlapping(String imageId, int x, int y, int width, int height, String source) {
+        return grid(imageId).overlapping(x, y, width, height).stream()
+            .filter(box -> source == null || source.equals(box.getSource()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * All indexed boxes of an image: active annotations and the boxes of every detection run
+     */
+    public List<SpatialBoxDTO> boxes(String imageId) {
+        return grid(imageId).all();
+    }
+
+    /**
+     * The k boxes on an image closest to a point, closest first
+     */
+    public List<SpatialBoxDTO> nearest(String imageId, int x, int y, int k) {
+        return grid(imageId).nearest(x, y, k);
+    }
+
+    /**
+     * One-to-one IoU join of AI boxes (detections and AI annotations) against human annotations
+     * Candidate pairs come from the grid; pairs are taken greedily from the highest IoU down
+     *
+     * @param minIou Pairs below this IoU do not count as a match
+     */
+    public MatchResult match(String imageId, double minIou) {
+        BoxGrid grid = grid(imageId);
+        List<SpatialBoxDTO> aiBoxes = grid.all().stream().filter(SpatialBoxDTO::getIsAI).collect(Collectors.toList());
+
+        List<Match> candidates = new ArrayList<>();
+        for (SpatialBoxDTO ai : aiBoxes) {
+            for (SpatialBoxDTO other : grid.overlapping(ai.getX(), ai.getY(), ai.getWidth(), ai.getHeight())) {
+                if (!other.getIsAI()) {
+                    double iou = SpatialBoxDTO.iou(ai, other);
+                    if (iou >= minIou) {
+                        candidates.add(new Match(ai, other, iou));
+                    }
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(Match::getIou).reversed());
+
+        MatchResult result = new MatchResult();
+        Set<String> used = new HashSet<>();
+        for (Match candidate : candidates) {
+            if (!used.contains(candidate.getAi().getKey()) && !used.contains(candidate.getHuman().getKey())) {
+                used.add(candidate.getAi().getKey());
+                used.add(candidate.getHuman().getKey());
+                result.matches.add(candidate);
+            }
+        }
+        for (SpatialBoxDTO box : grid.all()) {
+            if (!used.contains(box.getKey())) {
+                (box.getIsAI() ? result.unmatchedAi : result.unmatchedHuman).add(box);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Groups of boxes at the same location across different inspections of a transformer
+     * Boxes from different inspections with IoU of at least minIou are linked; linked groups
+     * spanning two or more inspections are returned, most recurring first
+     */
+    public List<RecurringHotspot> recurringHotspots(UUID transformerId, double minIou) {
+        BoxGrid combined = new BoxGrid();
+        for (UUID inspectionId : inspectionRepository.findIdsByTransformerId(transformerId)) {
+            grid(inspectionId.toString()).all().forEach(combined::put);
+        }
+
+        List<SpatialBoxDTO> boxes = combined.all();
+        Map<String, Integer> position = new HashMap<>();
+        for (int i = 0; i < boxes.size(); i++) {
+            position.put(boxes.get(i).getKey(), i);
+        }
+
+        // Union-find over boxes linked across inspections
+        int[] parent = new int[boxes.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (int i = 0; i < boxes.size(); i++) {
+            SpatialBoxDTO box = boxes.get(i);
+            for (SpatialBoxDTO other : combined.overlapping(box.getX(), box.getY(), box.getWidth(), box.getHeight())) {
+                if (!other.getImageId().equals(box.getImageId()) && SpatialBoxDTO.iou(box, other) >= minIou) {
+                    parent[find(parent, i)] = find(parent, position.get(other.getKey()));
+                }
+            }
+        }
+
+        Map<Integer, List<SpatialBoxDTO>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < boxes.size(); i++) {
+            groups.computeIfAbsent(find(parent, i), root -> new ArrayList<>()).add(boxes.get(i));
+        }
+        return groups.values().stream()
+            .map(RecurringHotspot::new)
+            .filter(hotspot -> hotspot.getInspectionCount() > 1)
+            .sorted(Comparator.comparingInt(RecurringHotspot::getInspectionCount).reversed())
+            .collect(Collectors.toList());
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * Keep a loaded grid in step with a saved annotation; deleted annotations leave the index
+     */
+    public void onAnnotationSaved(Annotation annotation) {
+        if (annotation.getImageIdRef() == null) {
+            return;
+        }
+        BoxGrid grid = loadedGrid(annotation.getImageIdRef());
+        if (grid == null) {
+            return; // Built from the database on first use
+        }
+        if (Boolean.TRUE.equals(annotation.getIsDeleted())) {
+            grid.remove(annotationKey(annotation));
+        } else {
+            grid.put(toBox(annotation));
+        }
+    }
+
+    /**
+     * Add the boxes of a newly persisted detection run to its inspection's grid, if loaded
+     */
+    public void onDetectionSaved(AnomalyDetection detection, List<AnomalyDetectionDTO.Detection> boxes) {
+        if (detection.getInspection() == null || boxes == null) {
+            return;
+        }
+        String imageId = detection.getInspection().getId().toString();
+        BoxGrid grid = loadedGrid(imageId);
+        if (grid != null) {
+            addDetectionBoxes(grid, imageId, detection, boxes);
+        }
+    }
+
+    /**
+     * Drop the grid of an image, e.g. after its rows were deleted
+     */
+    public void evict(String imageId) {
+        grids.remove(imageId);
+    }
+
+    public void evictAll() {
+        grids.clear();
+    }
+
+    // Concurrent callers for the same image wait on the first caller's build instead of querying again
+    private BoxGrid grid(String imageId) {
+        CompletableFuture<BoxGrid> created = new CompletableFuture<>();
+        CompletableFuture<BoxGrid> existing = grids.putIfAbsent(imageId, created);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            BoxGrid grid = build(imageId);
+            created.complete(grid);
+            return grid;
+        } catch (RuntimeException e) {
+            grids.remove(imageId, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * The grid of an image if it is fully built, else null
+     * A grid still being built may have read the rows before this change, so it is dropped and rebuilt on next use
+     */
+    private BoxGrid loadedGrid(String imageId) {
+        CompletableFuture<BoxGrid> future = grids.get(imageId);
+        if (future == null) {
+            return null;
+        }
+        if (!future.isDone()) {
+            grids.remove(imageId, future);
+            return null;
+        }
+        return future.isCompletedExceptionally() ? null : future.join();
+    }
+
+    private BoxGrid build(String imageId) {
+        BoxGrid grid = new BoxGrid();
+        annotationRepository.findAllAnnotationsByImageIdRef(imageId).stream()
+            .filter(annotation -> !Boolean.TRUE.equals(annotation.getIsDeleted()))
+            .filter(annotation -> annotation.getBboxX() != null && annotation.getBboxY() != null)
+            .forEach(annotation -> grid.put(toBox(annotation)));
+
+        UUID inspectionId = parseUuid(imageId);
+        if (inspectionId != null) {
+            for (AnomalyDetection detection : anomalyDetectionRepository.findByInspectionId(inspectionId)) {
+                addDetectionBoxes(grid, imageId, detection, readDetections(detection));
+            }
+        }
+
+        logger.debug("Built spatial index for image {} with {} box(es)", imageId, grid.size());
+        return grid;
+    }
+
+    private void addDetectionBoxes(BoxGrid grid, String imageId, AnomalyDetection detection, List<AnomalyDetectionDTO.Detection> boxes) {
+        for (int i = 0; i < boxes.size(); i++) {
+            AnomalyDetectionDTO.Detection box = boxes.get(i);
+            int[] bbox = box.getBbox(); // [x, y, width, height]
+            if (bbox == null || bbox.length < 4) {
+                continue;
+            }
+            grid.put(new SpatialBoxDTO("d:" + detection.getId() + ":" + i, SpatialBoxDTO.SOURCE_DETECTION,
+                detection.getId(), imageId, bbox[0], bbox[1], bbox[2], bbox[3], box.getType(), box.getConfidence(), true));
+        }
+    }
+
+    private List<AnomalyDetectionDTO.Detection> readDetections(AnomalyDetection detection) {
+        if (detection.getDetectionsJson() == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(detection.getDetectionsJson(), DETECTIONS_TYPE);
+        } catch (Exception e) {
+            logger.warn("Skipping unreadable detections of {}: {}", detection.getId(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static SpatialBoxDTO toBox(Annotation annotation) {
+        return new SpatialBoxDTO(annotationKey(annotation), SpatialBoxDTO.SOURCE_ANNOTATION, annotation.getId(),
+            annotation.getImageIdRef(), annotation.getBboxX(), annotation.getBboxY(),
+            annotation.getBboxWidth(), annotation.getBboxHeight(), annotation.getLabel(),
+            annotation.getConfidence(), Boolean.TRUE.equals(annotation.getIsAI()));
+    }
+
+    private static String annotationKey(Annotation annotation) {
+        return "a:" + annotation.getId();
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * AI box paired with the human box it overlaps most
+     */
+    public static class Match {
+        private final SpatialBoxDTO ai;
+        private final SpatialBoxDTO human;
+        private final double iou;
+
+        public Match(SpatialBoxDTO ai, SpatialBoxDTO human, double iou) {
+            this.ai = ai;
+            this.human = human;
+            this.iou = iou;
+        }
+
+        public SpatialBoxDTO getAi() { return ai; }
+        public SpatialBoxDTO getHuman() { return human; }
+        public double getIou() { return iou; }
+    }
+
+    /**
+     * Outcome of an IoU join: matched pairs and the boxes left over on either side
+     */
+    public static class MatchResult {
+        private final List<Match> matches = new ArrayList<>();
+        private final List<SpatialBoxDTO> unmatchedAi = new ArrayList<>();
+        private final List<SpatialBoxDTO> unmatchedHuman = new ArrayList<>();
+
+        public List<Match> getMatches() { return matches; }
+        public List<SpatialBoxDTO> getUnmatchedAi() { return unmatchedAi; }
+        public List<SpatialBoxDTO> getUnmatchedHuman() { return unmatchedHuman; }
+    }
+
+    /**
+     * Boxes at the same location on different inspections, with their combined extent
+     */
+    public static class RecurringHotspot {
+        private final List<SpatialBoxDTO> boxes;
+        private final int inspectionCount;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+
+        public RecurringHotspot(List<SpatialBoxDTO> boxes) {
+            this.boxes = boxes;
+            this.inspectionCount = (int) boxes.stream().map(SpatialBoxDTO::getImageId).distinct().count();
+            this.x = boxes.stream().mapToInt(SpatialBoxDTO::getX).min().orElse(0);
+            this.y = boxes.stream().mapToInt(SpatialBoxDTO::getY).min().orElse(0);
+            this.width = boxes.stream().mapToInt(SpatialBoxDTO::getRight).max().orElse(0) - x;
+            this.height = boxes.stream().mapToInt(SpatialBoxDTO::getBottom).max().orElse(0) - y;
+        }
+
+        public List<SpatialBoxDTO> getBoxes() { return boxes; }
+        public int getInspectionCount() { return inspectionCount; }
+        public int getX() { return x; }
+        public int getY() { return y; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+    }
+}
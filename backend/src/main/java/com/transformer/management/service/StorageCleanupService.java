@@ -0,0 +1,131 @@
+package com.transformer.management.service;
+
+import com.transformer.management.repository.PendingAssetDeletionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background removal of Cloudinary assets whose database rows have been deleted
+ * Assets are recorded in pending_asset_deletions by the deleting transaction, so a queued deletion
+ * survives a restart and is never given up on; a single worker thread drains the table in batches,
+ * with exponential backoff on failure, so delete requests never wait on the storage API
+ */
+@Service
+public class StorageCleanupService {
+    private static final Logger logger = LoggerFactory.getLogger(StorageCleanupService.class);
+
+    private static final int BATCH_SIZE = 100; // Cloudinary Admin API limit per delete call
+    private static final long INITIAL_BACKOFF_SECONDS = 2;
+    private static final long MAX_BACKOFF_SECONDS = 3_600;
+    private static final long LEASE_MINUTES = 10;
+    private static final int MAX_ERROR_LENGTH = 1_000;
+
+    @Autowired
+    private CloudinaryService cloudinaryService;
+
+    @Autowired
+    private PendingAssetDeletionRepository pendingRepository;
+
+    @Value("${storage.cleanup.poll-seconds:60}")
+    private long pollSeconds;
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "storage-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Record the assets behind the given URLs for deletion, in the caller's transaction
+     * The worker is woken once that transaction commits; a rollback keeps the assets
+     * URLs that are not Cloudinary URLs are ignored
+     *
+     * @param urls Image URLs of deleted rows
+     */
+    @Transactional
+    public void enqueueUrls(Collection<String> urls) {
+        Set<String> publicIds = new LinkedHashSet<>();
+        for (String url : urls) {
+            String publicId = cloudinaryService.extractPublicId(url);
+            if (publicId != null) {
+                publicIds.add(publicId);
+            }
+        }
+        if (publicIds.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (String publicId : publicIds) {
+            pendingRepository.insertIfAbsent(publicId, now);
+        }
+        logger.info("Queued {} Cloudinary asset(s) for deletion", publicIds.size());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                worker.execute(StorageCleanupService.this::drain);
+            }
+        });
+    }
+
+    // Pick up deletions left by a previous run, then retry due ones periodically
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker.scheduleWithFixedDelay(this::drain, 0, pollSeconds, TimeUnit.SECONDS);
+    }
+
+    private void drain() {
+        try {
+            List<String> batch;
+            do {
+                LocalDateTime now = LocalDateTime.now();
+                batch = pendingRepository.claimDue(now, now.plusMinutes(LEASE_MINUTES), BATCH_SIZE);
+                if (!batch.isEmpty()) {
+                    deleteBatch(batch);
+                }
+            } while (batch.size() == BATCH_SIZE);
+        } catch (Exception e) {
+            // Keep the periodic drain scheduled; claimed rows are retried when their lease expires
+            logger.warn("Failed to drain pending Cloudinary deletions: {}", e.getMessage());
+        }
+    }
+
+    private void deleteBatch(List<String> publicIds) {
+        try {
+            cloudinaryService.deleteFiles(publicIds);
+        } catch (Exception e) {
+            String error = String.valueOf(e.getMessage());
+            pendingRepository.recordFailure(publicIds, error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH)),
+                LocalDateTime.now(), INITIAL_BACKOFF_SECONDS, MAX_BACKOFF_SECONDS);
+            logger.warn("Cloudinary delete of {} asset(s) failed, will retry with backoff: {}",
+                publicIds.size(), e.getMessage());
+            return;
+        }
+        pendingRepository.deleteAllByPublicIdIn(publicIds);
+        logger.debug("Deleted {} Cloudinary asset(s)", publicIds.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdown();
+    }
+}
@@ -0,0 +1,429 @@
+package com.transformer.management.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transformer.management.dto.TrainingBoxRow;
+import com.transformer.management.entity.ExportWatermark;
+import com.transformer.management.entity.FeedbackLog;
+import com.transformer.management.entity.Image;
+import com.transformer.management.repository.AnnotationRepository;
+import com.transformer.management.repository.ExportWatermarkRepository;
+import com.transformer.management.repository.FeedbackLogRepository;
+import com.transformer.management.repository.ImageRepository;
+import com.transformer.management.service.export.CocoShardWriter;
+import com.transformer.management.service.export.DatasetShardWriter;
+import com.transformer.management.service.export.ExportJob;
+import com.transformer.management.service.export.FetchedImage;
+import com.transformer.management.service.export.TrainingSample;
+import com.transformer.management.service.export.YoloShardWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exports reviewed images and their accepted boxes as COCO or YOLO training datasets
+ * Annotations and feedback logs are read in keyset pages, each page in its own short transaction,
+ * so the single pooled connection is never held for the length of an export. Images are downloaded
+ * in parallel through a bounded window of temporary files and written into zip shards of a fixed
+ * number of images; memory use does not grow with the size of the dataset.
+ * Incremental exports include only images changed since the last successful export of the format
+ */
+@Service
+public class TrainingExportService {
+    private static final Logger logger = LoggerFactory.getLogger(TrainingExportService.class);
+
+    public static final String FORMAT_COCO = "coco";
+    public static final String FORMAT_YOLO = "yolo";
+
+    private static final int PAGE_SIZE = 200;
+    private static final String DEFAULT_LABEL = "anomaly";
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    // Nil UUID, the lowest value in Postgres, which orders uuids as unsigned bytes (unlike UUID.compareTo)
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    @Autowired
+    private AnnotationRepository annotationRepository;
+
+    @Autowired
+    private FeedbackLogRepository feedbackLogRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ExportWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${exports.dir:exports}")
+    private String exportDir;
+
+    @Value("${exports.shard-size:500}")
+    private int shardSize;
+
+    @Value("${exports.fetch-threads:8}")
+    private int fetchThreads;
+
+    private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService exportExecutor;
+    private ExecutorService fetchExecutor;
+
+    @PostConstruct
+    void start() {
+        // One export at a time; each export downloads with fetchThreads in parallel
+        exportExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "training-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fetchExecutor = Executors.newFixedThreadPool(fetchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "training-export-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        exportExecutor.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Queue an export
+     *
+     * @param format FORMAT_COCO or FORMAT_YOLO
+     * @param incremental Only export images changed since the last successful export of this format
+     */
+    public ExportJob startExport(String format, boolean incremental) {
+        ExportJob job = new ExportJob(format, incremental);
+        jobs.put(job.getId(), job);
+        exportExecutor.submit(() -> run(job));
+        return job;
+    }
+
+    public Optional<ExportJob> getJob(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Archive file of a shard of a completed job
+     */
+    public Optional<Path> getShard(UUID jobId, String fileName) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null || !ExportJob.STATUS_COMPLETED.equals(job.getStatus()) || !job.getShards().contains(fileName)) {
+            return Optional.empty();
+        }
+        Path file = jobDir(job).resolve(fileName);
+        return Files.exists(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    private void run(ExportJob job) {
+        job.setStatus(ExportJob.STATUS_RUNNING);
+        // Records changed while the export runs are picked up again by the next incremental export
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = BEGINNING;
+        if (job.isIncremental()) {
+            since = watermarkRepository.findById(job.getFormat()).map(ExportWatermark::getExportedUpTo).orElse(BEGINNING);
+        }
+        job.setSince(since);
+
+        Path dir = jobDir(job);
+        try {
+            Files.createDirectories(dir.resolve("tmp"));
+            try (ShardSet shards = new ShardSet(job, dir)) {
+                Deque<Future<FetchedImage>> window = new ArrayDeque<>();
+                exportAnnotatedImages(since, job, dir, shards, window);
+                exportFeedbackLogs(since, job, dir, shards, window);
+                while (!window.isEmpty()) {
+                    writeNext(window, job, shards);
+                }
+            }
+            watermarkRepository.save(new ExportWatermark(job.getFormat(), startedAt));
+            job.completed();
+            logger.info("Training export {} ({}) finished: {} image(s), {} box(es), {} skipped, {} shard(s)",
+                job.getId(), job.getFormat(), job.getSamples(), job.getBoxes(), job.getSkippedImages(), job.getShards().size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.failed("Export interrupted");
+        } catch (Exception e) {
+            logger.error("Training export {} failed", job.getId(), e);
+            job.failed(e.getMessage());
+        } finally {
+            deleteQuietly(dir.resolve("tmp"));
+        }
+    }
+
+    // Images with annotation rows; every active box of a changed image is exported again
+    private void exportAnnotatedImages(LocalDateTime since, ExportJob job, Path dir, ShardSet shards,
+                                       Deque<Future<FetchedImage>> window) throws Exception {
+        String after = "";
+        while (true) {
+            List<String> imageRefs = annotationRepository.findChangedImageRefs(after, since, PageRequest.of(0, PAGE_SIZE));
+            if (imageRefs.isEmpty()) {
+                return;
+            }
+            after = imageRefs.get(imageRefs.size() - 1);
+
+            Map<String, TrainingSample> samples = new LinkedHashMap<>();
+            for (TrainingBoxRow row : annotationRepository.findTrainingBoxes(imageRefs)) {
+                TrainingSample sample = samples.computeIfAbsent(row.getImageIdRef(),
+                    ref -> new TrainingSample(fileKey(ref), row.getImageUrl() != null ? row.getImageUrl() : resolveImageUrl(ref)));
+                sample.addBox(label(row.getLabel()), row.getX(), row.getY(), row.getWidth(), row.getHeight());
+            }
+            for (TrainingSample sample : samples.values()) {
+                submit(sample, job, dir, shards, window);
+            }
+        }
+    }
+
+    // Images only reviewed through the feedback log (no annotation rows)
+    private void exportFeedbackLogs(LocalDateTime since, ExportJob job, Path dir, ShardSet shards,
+                                    Deque<Future<FetchedImage>> window) throws Exception {
+        UUID after = FIRST_ID;
+        while (true) {
+            List<FeedbackLog> logs = feedbackLogRepository.findChangedAfter(after, since, PageRequest.of(0, PAGE_SIZE));
+            if (logs.isEmpty()) {
+                return;
+            }
+            after = logs.get(logs.size() - 1).getId();
+
+            for (FeedbackLog log : logs) {
+                TrainingSample sample = fromFeedbackLog(log);
+                if (sample != null && !sample.getBoxes().isEmpty()) {
+                    submit(sample, job, dir, shards, window);
+                }
+            }
+        }
+    }
+
+    private void submit(TrainingSample sample, ExportJob job, Path dir, ShardSet shards,
+                        Deque<Future<FetchedImage>> window) throws Exception {
+        if (sample.getImageUrl() == null) {
+            job.imageSkipped();
+            return;
+        }
+        window.add(fetchExecutor.submit(() -> fetch(sample, dir.resolve("tmp"))));
+        // Bounded in-flight downloads keep disk and memory use constant
+        while (window.size() >= fetchThreads * 2) {
+            writeNext(window, job, shards);
+        }
+    }
+
+    // Oldest download first, so shard contents follow the read order
+    private void writeNext(Deque<Future<FetchedImage>> window, ExportJob job, ShardSet shards)
+            throws IOException, InterruptedException, ExecutionException {
+        FetchedImage image = window.poll().get();
+        if (image == null) {
+            job.imageSkipped();
+            return;
+        }
+        try {
+            job.sampleWritten(shards.write(image));
+        } finally {
+            Files.deleteIfExists(image.getFile());
+        }
+    }
+
+    private FetchedImage fetch(TrainingSample sample, Path tmpDir) {
+        Path file = null;
+        try {
+            Path target = Files.createTempFile(tmpDir, "image-", ".part");
+            file = target;
+            restTemplate.execute(URI.create(sample.getImageUrl()), HttpMethod.GET, null, response -> {
+                Files.copy(response.getBody(), target, StandardCopyOption.REPLACE_EXISTING);
+                return null;
+            });
+
+            // Only the header is read to get the size; the image is not decoded
+            try (ImageInputStream in = ImageIO.createImageInputStream(target.toFile())) {
+                Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+                if (readers == null || !readers.hasNext()) {
+                    throw new IOException("Unsupported image format");
+                }
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(in, true, true);
+                    return new FetchedImage(sample, target, extension(reader.getFormatName()),
+                        reader.getWidth(0), reader.getHeight(0));
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Skipping image {} of training export: {}", sample.getImageUrl(), e.getMessage());
+            if (file != null) {
+                deleteQuietly(file);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Accepted boxes of a feedback log
+     * Boxes are either {x, y, width, height} or {bbox: [x, y, width, height]}; deleted boxes are left out
+     */
+    private TrainingSample fromFeedbackLog(FeedbackLog log) {
+        try {
+            JsonNode accepted = objectMapper.readTree(log.getFinalAcceptedAnnotations());
+            JsonNode boxes = accepted != null && accepted.has("detections") ? accepted.get("detections") : accepted;
+            if (boxes == null || !boxes.isArray()) {
+                return null;
+            }
+
+            String imageUrl = null;
+            if (log.getModelPredictedAnomalies() != null) {
+                JsonNode predicted = objectMapper.readTree(log.getModelPredictedAnomalies());
+                imageUrl = predicted != null ? predicted.path("metadata").path("imageUrl").textValue() : null;
+            }
+            if (imageUrl == null) {
+                imageUrl = resolveImageUrl(log.getImageId());
+            }
+
+            TrainingSample sample = new TrainingSample("fb-" + fileKey(log.getImageId()), imageUrl);
+            for (JsonNode box : boxes) {
+                if ("deleted".equals(box.path("action").asText()) || box.path("isDeleted").asBoolean(false)) {
+                    continue;
+                }
+                String label = label(box.hasNonNull("label") ? box.get("label").asText() : box.path("type").asText(null));
+                JsonNode bbox = box.get("bbox");
+                if (bbox != null && bbox.isArray() && bbox.size() == 4) {
+                    sample.addBox(label, bbox.get(0).asDouble(), bbox.get(1).asDouble(), bbox.get(2).asDouble(), bbox.get(3).asDouble());
+                } else if (box.has("x") && box.has("width")) {
+                    sample.addBox(label, box.path("x").asDouble(), box.path("y").asDouble(),
+                        box.path("width").asDouble(), box.path("height").asDouble());
+                }
+            }
+            return sample;
+        } catch (IOException e) {
+            logger.warn("Skipping unreadable feedback log {}: {}", log.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * URL of an image reference: an Image id, or an inspection id resolved to its latest maintenance image
+     */
+    private String resolveImageUrl(String imageRef) {
+        UUID id;
+        try {
+            id = UUID.fromString(imageRef);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+        Optional<Image> image = imageRepository.findById(id);
+        if (image.isPresent()) {
+            return image.get().getUrl();
+        }
+        return imageRepository.findByInspectionIdAndImageType(id, "maintenance").stream()
+            .max(Comparator.comparing(Image::getCapturedAt, Comparator.nullsFirst(Comparator.naturalOrder())))
+            .map(Image::getUrl)
+            .orElse(null);
+    }
+
+    private Path jobDir(ExportJob job) {
+        return Paths.get(exportDir, job.getId().toString());
+    }
+
+    private static String label(String label) {
+        return label != null && !label.isBlank() ? label.trim() : DEFAULT_LABEL;
+    }
+
+    private static String fileKey(String imageRef) {
+        return imageRef.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    private static String extension(String formatName) {
+        String format = formatName.toLowerCase();
+        return "jpeg".equals(format) ? "jpg" : format;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            if (Files.isDirectory(path)) {
+                try (var children = Files.list(path)) {
+                    children.forEach(TrainingExportService::deleteQuietly);
+                }
+            }
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Rolls over to a new archive every shardSize images
+     * Category ids and COCO ids are shared by all shards of the export
+     */
+    private class ShardSet implements AutoCloseable {
+        private final ExportJob job;
+        private final Path dir;
+        private final Map<String, Integer> categories = new LinkedHashMap<>();
+        private final AtomicLong imageIds = new AtomicLong();
+        private final AtomicLong annotationIds = new AtomicLong();
+        private DatasetShardWriter current;
+
+        ShardSet(ExportJob job, Path dir) {
+            this.job = job;
+            this.dir = dir;
+        }
+
+        int write(FetchedImage image) throws IOException {
+            if (current == null || current.getSamples() >= shardSize) {
+                close();
+                String fileName = String.format("%s-part-%05d.zip", job.getFormat(), job.getShards().size() + 1);
+                Path file = dir.resolve(fileName);
+                current = FORMAT_YOLO.equals(job.getFormat())
+                    ? new YoloShardWriter(file, categories)
+                    : new CocoShardWriter(file, categories, objectMapper, imageIds, annotationIds);
+                job.shardStarted(fileName);
+            }
+            return current.add(image);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.transformer.management.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * COCO shard: images/ plus one annotations.json covering the images of this shard
+ * Image and annotation ids are unique across the shards of an export, so shards can be merged
+ */
+public class CocoShardWriter extends DatasetShardWriter {
+    private final ObjectMapper objectMapper;
+    private final AtomicLong imageIds;
+    private final AtomicLong annotationIds;
+    private final List<Map<String, Object>> images = new ArrayList<>();
+    private final List<Map<String, Object>> annotations = new ArrayList<>();
+
+    public CocoShardWriter(Path file, Map<String, Integer> categories, ObjectMapper objectMapper,
+                           AtomicLong imageIds, AtomicLong annotationIds) throws IOException {
+        super(file, categories);
+        this.objectMapper = objectMapper;
+        this.imageIds = imageIds;
+        this.annotationIds = annotationIds;
+    }
+
+    @Override
+    protected int writeLabels(FetchedImage image) {
+        long imageId = imageIds.incrementAndGet();
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("id", imageId);
+        entry.put("file_name", "images/" + image.getFileName());
+        entry.put("width", image.getWidth());
+        entry.put("height", image.getHeight());
+        images.add(entry);
+
+        int written = 0;
+        for (TrainingSample.Box box : image.getSample().getBoxes()) {
+            TrainingSample.Box clipped = box.clip(image.getWidth(), image.getHeight());
+            if (clipped == null) {
+                continue;
+            }
+            Map<String, Object> annotation = new LinkedHashMap<>();
+            annotation.put("id", annotationIds.incrementAndGet());
+            annotation.put("image_id", imageId);
+            annotation.put("category_id", categoryId(clipped.getLabel()));
+            annotation.put("bbox", List.of(clipped.getX(), clipped.getY(), clipped.getWidth(), clipped.getHeight()));
+            annotation.put("area", clipped.getWidth() * clipped.getHeight());
+            annotation.put("iscrowd", 0);
+            annotations.add(annotation);
+            written++;
+        }
+        return written;
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        List<Map<String, Object>> categoryList = new ArrayList<>();
+        categories.forEach((name, id) -> categoryList.add(Map.of("id", id, "name", name, "supercategory", "anomaly")));
+        categoryList.sort((a, b) -> Integer.compare((Integer) a.get("id"), (Integer) b.get("id")));
+
+        Map<String, Object> dataset = new LinkedHashMap<>();
+        dataset.put("images", images);
+        dataset.put("annotations", annotations);
+        dataset.put("categories", categoryList);
+
+        // The zip stream stays open for the archive; only the entry is finished here
+        objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .writeValue(openEntry("annotations.json"), dataset);
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,85 @@
+package com.transformer.management.service.export;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * One zip archive of a training dataset
+ * Images are copied into the archive as they arrive; format-specific label files are written
+ * per sample or when the shard is closed
+ */
+public abstract class DatasetShardWriter implements Closeable {
+    protected final ZipOutputStream zip;
+    protected final Map<String, Integer> categories; // Label -> category id, shared by all shards of an export
+    private int samples;
+
+    protected DatasetShardWriter(Path file, Map<String, Integer> categories) throws IOException {
+        this.zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        this.categories = categories;
+    }
+
+    /**
+     * Add an image and its boxes to the shard
+     *
+     * @return Number of boxes written
+     */
+    public int add(FetchedImage image) throws IOException {
+        zip.putNextEntry(new ZipEntry("images/" + image.getFileName()));
+        Files.copy(image.getFile(), zip);
+        zip.closeEntry();
+        samples++;
+        return writeLabels(image);
+    }
+
+    public int getSamples() { return samples; }
+
+    protected abstract int writeLabels(FetchedImage image) throws IOException;
+
+    /**
+     * Write shard-level files before the archive is closed
+     */
+    protected void finish() throws IOException {
+        // Nothing by default
+    }
+
+    protected int categoryId(String label) {
+        return categories.computeIfAbsent(label, l -> categories.size() + 1);
+    }
+
+    protected void writeText(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    protected OutputStream openEntry(String name) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        return zip;
+    }
+
+    protected String classNames() {
+        StringBuilder names = new StringBuilder();
+        categories.entrySet().stream()
+            .sorted(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+            .forEach(entry -> names.append(entry.getKey()).append('\n'));
+        return names.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            zip.close();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.transformer.management.service.export;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress and result of one training-data export
+ */
+public class ExportJob {
+    public static final String STATUS_QUEUED = "queued";
+    public static final String STATUS_RUNNING = "running";
+    public static final String STATUS_COMPLETED = "completed";
+    public static final String STATUS_FAILED = "failed";
+
+    private final UUID id = UUID.randomUUID();
+    private final String format;
+    private final boolean incremental;
+    private final LocalDateTime requestedAt = LocalDateTime.now();
+    private final AtomicInteger samples = new AtomicInteger();
+    private final AtomicInteger boxes = new AtomicInteger();
+    private final AtomicInteger skippedImages = new AtomicInteger();
+    private final List<String> shards = new CopyOnWriteArrayList<>();
+    private volatile String status = STATUS_QUEUED;
+    private volatile LocalDateTime since;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public ExportJob(String format, boolean incremental) {
+        this.format = format;
+        this.incremental = incremental;
+    }
+
+    public void sampleWritten(int boxCount) {
+        samples.incrementAndGet();
+        boxes.addAndGet(boxCount);
+    }
+
+    public void imageSkipped() {
+        skippedImages.incrementAndGet();
+    }
+
+    public void shardStarted(String fileName) {
+        shards.add(fileName);
+    }
+
+    public void completed() {
+        this.status = STATUS_COMPLETED;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public void failed(String error) {
+        this.status = STATUS_FAILED;
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public String getFormat() { return format; }
+    public boolean isIncremental() { return incremental; }
+    public LocalDateTime getRequestedAt() { return requestedAt; }
+    public int getSamples() { return samples.get(); }
+    public int getBoxes() { return boxes.get(); }
+    public int getSkippedImages() { return skippedImages.get(); }
+    public List<String> getShards() { return shards; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getSince() { return since; }
+    public void setSince(LocalDateTime since) { this.since = since; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,30 @@
+package com.transformer.management.service.export;
+
+import java.nio.file.Path;
+
+/**
+ * Sample whose image has been downloaded to a temporary file
+ */
+public class FetchedImage {
+    private final TrainingSample sample;
+    private final Path file;
+    private final String extension;
+    private final int width;
+    private final int height;
+
+    public FetchedImage(TrainingSample sample, Path file, String extension, int width, int height) {
+        this.sample = sample;
+        this.file = file;
+        this.extension = extension;
+        this.width = width;
+        this.height = height;
+    }
+
+    public String getFileName() { return sample.getKey() + "." + extension; }
+
+    public TrainingSample getSample() { return sample; }
+    public Path getFile() { return file; }
+    public String getExtension() { return extension; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+}
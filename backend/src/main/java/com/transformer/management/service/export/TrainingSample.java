@@ -0,0 +1,65 @@
+package com.transformer.management.service.export;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One image with its accepted boxes, as written to a training dataset
+ */
+public class TrainingSample {
+    private final String key; // Stable file name stem inside the dataset
+    private final String imageUrl;
+    private final List<Box> boxes = new ArrayList<>();
+
+    public TrainingSample(String key, String imageUrl) {
+        this.key = key;
+        this.imageUrl = imageUrl;
+    }
+
+    public void addBox(String label, double x, double y, double width, double height) {
+        boxes.add(new Box(label, x, y, width, height));
+    }
+
+    public String getKey() { return key; }
+    public String getImageUrl() { return imageUrl; }
+    public List<Box> getBoxes() { return boxes; }
+
+    /**
+     * Box in image pixel coordinates
+     */
+    public static class Box {
+        private final String label;
+        private final double x;
+        private final double y;
+        private final double width;
+        private final double height;
+
+        public Box(String label, double x, double y, double width, double height) {
+            this.label = label;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * This box clipped to an image of the given size, or null if nothing of it is left
+         */
+        public Box clip(int imageWidth, int imageHeight) {
+            double left = Math.max(0, x);
+            double top = Math.max(0, y);
+            double right = Math.min(imageWidth, x + width);
+            double bottom = Math.min(imageHeight, y + height);
+            if (right <= left || bottom <= top) {
+                return null;
+            }
+            return new Box(label, left, top, right - left, bottom - top);
+        }
+
+        public String getLabel() { return label; }
+        public double getX() { return x; }
+        public double getY() { return y; }
+        public double getWidth() { return width; }
+        public double getHeight() { return height; }
+    }
+}
@@ -0,0 +1,43 @@
+package com.transformer.management.service.export;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * YOLO shard: images/, one labels/<image>.txt per image and classes.txt
+ * Label lines are "class cx cy w h" with coordinates normalised to the image size
+ */
+public class YoloShardWriter extends DatasetShardWriter {
+
+    public YoloShardWriter(Path file, Map<String, Integer> categories) throws IOException {
+        super(file, categories);
+    }
+
+    @Override
+    protected int writeLabels(FetchedImage image) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        int written = 0;
+        for (TrainingSample.Box box : image.getSample().getBoxes()) {
+            TrainingSample.Box clipped = box.clip(image.getWidth(), image.getHeight());
+            if (clipped == null) {
+                continue;
+            }
+            lines.append(String.format(Locale.ROOT, "%d %.6f %.6f %.6f %.6f%n",
+                categoryId(clipped.getLabel()) - 1,
+                (clipped.getX() + clipped.getWidth() / 2) / image.getWidth(),
+                (clipped.getY() + clipped.getHeight() / 2) / image.getHeight(),
+                clipped.getWidth() / image.getWidth(),
+                clipped.getHeight() / image.getHeight()));
+            written++;
+        }
+        writeText("labels/" + image.getSample().getKey() + ".txt", lines.toString());
+        return written;
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        writeText("classes.txt", classNames());
+    }
+}
@@ -0,0 +1,122 @@
+package com.transformer.management.util;
+
+import com.transformer.management.dto.AnnotationDTO;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Three-way merge of concurrent edits to one annotation box
+ * A box is split into independent attribute groups (geometry, label, severity, confidence,
+ * notes, deleted state); edits by two users merge cleanly unless both changed the same group
+ * to different values
+ */
+public final class AnnotationMerger {
+
+    private static final List<Function<AnnotationDTO, Object>> GROUPS = List.of(
+        dto -> Arrays.asList(dto.getX(), dto.getY(), dto.getWidth(), dto.getHeight()),
+        AnnotationDTO::getLabel,
+        AnnotationDTO::getSeverity,
+        AnnotationDTO::getConfidence,
+        AnnotationDTO::getNotes,
+        AnnotationMerger::isDeleted
+    );
+
+    private AnnotationMerger() {}
+
+    /**
+     * Merge a stale client edit into the current stored state
+     *
+     * @param base Box as the client loaded it; null if the client did not send it
+     * @param mine Box as the client wants it
+     * @param theirs Box as currently stored
+     * @return Merged box to store, or null if the edits conflict
+     */
+    public static AnnotationDTO merge(AnnotationDTO base, AnnotationDTO mine, AnnotationDTO theirs) {
+        if (base == null) {
+            // Without a base we cannot tell who changed what; only identical content is safe
+            return sameContent(mine, theirs) ? theirs : null;
+        }
+
+        boolean takeAnyOfMine = false;
+        for (Function<AnnotationDTO, Object> group : GROUPS) {
+            boolean mineChanged = !Objects.equals(group.apply(mine), group.apply(base));
+            boolean theirsChanged = !Objects.equals(group.apply(theirs), group.apply(base));
+            if (mineChanged && theirsChanged && !Objects.equals(group.apply(mine), group.apply(theirs))) {
+                return null;
+            }
+            takeAnyOfMine |= mineChanged;
+        }
+        if (!takeAnyOfMine) {
+            return theirs;
+        }
+
+        AnnotationDTO merged = copyOf(theirs);
+        if (!Objects.equals(GROUPS.get(0).apply(mine), GROUPS.get(0).apply(base))) {
+            merged.setX(mine.getX());
+            merged.setY(mine.getY());
+            merged.setWidth(mine.getWidth());
+            merged.setHeight(mine.getHeight());
+        }
+        if (!Objects.equals(mine.getLabel(), base.getLabel())) {
+            merged.setLabel(mine.getLabel());
+        }
+        if (!Objects.equals(mine.getSeverity(), base.getSeverity())) {
+            merged.setSeverity(mine.getSeverity());
+        }
+        if (!Objects.equals(mine.getConfidence(), base.getConfidence())) {
+            merged.setConfidence(mine.getConfidence());
+        }
+        if (!Objects.equals(mine.getNotes(), base.getNotes())) {
+            merged.setNotes(mine.getNotes());
+        }
+        if (isDeleted(mine) != isDeleted(base)) {
+            merged.setAction(mine.getAction());
+        }
+
+        // The merged box was last touched by this client
+        merged.setUserId(mine.getUserId());
+        merged.setLastModified(mine.getLastModified());
+        merged.setModificationTypes(mine.getModificationTypes());
+        merged.setModificationDetails(mine.getModificationDetails());
+        return merged;
+    }
+
+    /**
+     * Whether two boxes have the same content in every attribute group
+     */
+    public static boolean sameContent(AnnotationDTO a, AnnotationDTO b) {
+        for (Function<AnnotationDTO, Object> group : GROUPS) {
+            if (!Objects.equals(group.apply(a), group.apply(b))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDeleted(AnnotationDTO dto) {
+        return "deleted".equalsIgnoreCase(dto.getAction());
+    }
+
+    private static AnnotationDTO copyOf(AnnotationDTO source) {
+        AnnotationDTO copy = new AnnotationDTO(source.getId(), source.getX(), source.getY(),
+            source.getWidth(), source.getHeight(), source.getLabel(), source.getAction());
+        copy.setConfidence(source.getConfidence());
+        copy.setAnnotationType(source.getAnnotationType());
+        copy.setNotes(source.getNotes());
+        copy.setUserId(source.getUserId());
+        copy.setTimestamp(source.getTimestamp());
+        copy.setOriginalDetectionId(source.getOriginalDetectionId());
+        copy.setSeverity(source.getSeverity());
+        copy.setLastModified(source.getLastModified());
+        copy.setModificationTypes(source.getModificationTypes());
+        copy.setModificationDetails(source.getModificationDetails());
+        copy.setIsAI(source.getIsAI());
+        copy.setImageId(source.getImageId());
+        copy.setTransformerId(source.getTransformerId());
+        copy.setVersion(source.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,172 @@
+package com.transformer.management.util;
+
+import com.transformer.management.dto.SpatialBoxDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Uniform grid index over axis-aligned boxes in image pixel coordinates
+ * Each box is registered in every cell it covers, so overlap queries only compare boxes
+ * sharing a cell with the query region instead of every box on the image
+ */
+public class BoxGrid {
+    public static final int DEFAULT_CELL_SIZE = 64;
+
+    private final int cellSize;
+    private final Map<Long, List<SpatialBoxDTO>> cells = new HashMap<>();
+    private final Map<String, SpatialBoxDTO> boxes = new LinkedHashMap<>();
+    private int minCellX = Integer.MAX_VALUE;
+    private int minCellY = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+    private int maxCellY = Integer.MIN_VALUE;
+
+    public BoxGrid() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    public BoxGrid(int cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Add a box, replacing any box with the same key
+     */
+    public synchronized void put(SpatialBoxDTO box) {
+        remove(box.getKey());
+        boxes.put(box.getKey(), box);
+        for (int cx = cell(box.getX()); cx <= lastCell(box.getX(), box.getWidth()); cx++) {
+            for (int cy = cell(box.getY()); cy <= lastCell(box.getY(), box.getHeight()); cy++) {
+                cells.computeIfAbsent(cellKey(cx, cy), k -> new ArrayList<>()).add(box);
+                minCellX = Math.min(minCellX, cx);
+                minCellY = Math.min(minCellY, cy);
+                maxCellX = Math.max(maxCellX, cx);
+                maxCellY = Math.max(maxCellY, cy);
+            }
+        }
+    }
+
+    /**
+     * Remove the box with the given key, if present
+     */
+    public synchronized void remove(String key) {
+        SpatialBoxDTO box = boxes.remove(key);
+        if (box == null) {
+            return;
+        }
+        for (int cx = cell(box.getX()); cx <= lastCell(box.getX(), box.getWidth()); cx++) {
+            for (int cy = cell(box.getY()); cy <= lastCell(box.getY(), box.getHeight()); cy++) {
+                List<SpatialBoxDTO> members = cells.get(cellKey(cx, cy));
+                if (members != null) {
+                    members.remove(box);
+                    if (members.isEmpty()) {
+                        cells.remove(cellKey(cx, cy));
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized List<SpatialBoxDTO> all() {
+        return new ArrayList<>(boxes.values());
+    }
+
+    public synchronized int size() {
+        return boxes.size();
+    }
+
+    /**
+     * Boxes whose area intersects the given region
+     */
+    public synchronized List<SpatialBoxDTO> overlapping(int x, int y, int width, int height) {
+        Set<SpatialBoxDTO> found = new LinkedHashSet<>();
+        for (int cx = cell(x); cx <= lastCell(x, width); cx++) {
+            for (int cy = cell(y); cy <= lastCell(y, height); cy++) {
+                List<SpatialBoxDTO> members = cells.get(cellKey(cx, cy));
+                if (members == null) {
+                    continue;
+                }
+                for (SpatialBoxDTO box : members) {
+                    if (box.getX() < x + width && x < box.getRight() && box.getY() < y + height && y < box.getBottom()) {
+                        found.add(box);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * The k boxes closest to a point (distance to the box edge, 0 inside the box), closest first
+     * Cells are visited in rings around the point until no unvisited box can be closer
+     */
+    public synchronized List<SpatialBoxDTO> nearest(int px, int py, int k) {
+        List<SpatialBoxDTO> result = new ArrayList<>();
+        if (boxes.isEmpty() || k <= 0) {
+            return result;
+        }
+
+        Map<SpatialBoxDTO, Double> candidates = new HashMap<>();
+        int centerX = cell(px);
+        int centerY = cell(py);
+        int maxRing = Math.max(Math.max(Math.abs(centerX - minCellX), Math.abs(maxCellX - centerX)),
+                               Math.max(Math.abs(centerY - minCellY), Math.abs(maxCellY - centerY)));
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int cx = centerX - ring; cx <= centerX + ring; cx++) {
+                for (int cy = centerY - ring; cy <= centerY + ring; cy++) {
+                    if (Math.max(Math.abs(cx - centerX), Math.abs(cy - centerY)) != ring) {
+                        continue;
+                    }
+                    List<SpatialBoxDTO> members = cells.get(cellKey(cx, cy));
+                    if (members != null) {
+                        members.forEach(box -> candidates.computeIfAbsent(box, b -> distance(b, px, py)));
+                    }
+                }
+            }
+            // Boxes not seen yet lie entirely in outer rings, at least ring * cellSize away
+            if (candidates.size() >= k && kthSmallest(candidates.values(), k) <= (double) ring * cellSize) {
+                break;
+            }
+        }
+
+        candidates.entrySet().stream()
+            .sorted(Map.Entry.comparingByValue())
+            .limit(k)
+            .forEach(entry -> result.add(entry.getKey()));
+        return result;
+    }
+
+    /**
+     * Distance from a point to the nearest edge of a box, 0 if the point lies inside
+     */
+    public static double distance(SpatialBoxDTO box, int px, int py) {
+        int dx = Math.max(Math.max(box.getX() - px, 0), px - box.getRight());
+        int dy = Math.max(Math.max(box.getY() - py, 0), py - box.getBottom());
+        return Math.sqrt((double) dx * dx + (double) dy * dy);
+    }
+
+    private static double kthSmallest(Collection<Double> values, int k) {
+        return values.stream().sorted(Comparator.naturalOrder()).skip(k - 1L).findFirst().orElse(Double.MAX_VALUE);
+    }
+
+    private int cell(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    // Last cell covered by [start, start + length); zero-size boxes still occupy their start cell
+    private int lastCell(int start, int length) {
+        return Math.max(cell(start), cell(start + Math.max(length, 1) - 1));
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+}
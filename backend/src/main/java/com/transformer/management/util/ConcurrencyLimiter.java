@@ -0,0 +1,52 @@
+package com.transformer.management.util;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps concurrent executions and sheds load once too many callers are waiting
+ * Callers beyond maxConcurrent wait for a slot; once maxQueue are already waiting, or a slot does not free up
+ * within the timeout, the call is rejected instead of piling up more blocked threads
+ */
+public class ConcurrencyLimiter {
+    private final Semaphore slots;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long queueTimeoutMillis;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public ConcurrencyLimiter(int maxConcurrent, int maxQueue, long queueTimeoutMillis) {
+        this.slots = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+    }
+
+    /**
+     * Acquire a slot; release() must be called once for every true result
+     *
+     * @return False if the queue is full or no slot became free in time
+     */
+    public boolean acquire() throws InterruptedException {
+        if (slots.tryAcquire()) {
+            return true;
+        }
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        try {
+            return slots.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        slots.release();
+    }
+
+    public int getInFlight() { return maxConcurrent - slots.availablePermits(); }
+    public int getWaiting() { return waiting.get(); }
+}
@@ -0,0 +1,88 @@
+package com.transformer.management.util;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-cost one-to-one assignment (Hungarian algorithm, O(n^3))
+ * Rectangular matrices are padded to square with zero-cost dummy rows or columns
+ */
+public final class HungarianMatcher {
+
+    private HungarianMatcher() {}
+
+    /**
+     * Assign rows to columns minimising the total cost
+     *
+     * @param cost cost[row][column]; all rows must have the same length
+     * @return For each row, the assigned column, or -1 if the row was assigned a dummy column
+     */
+    public static int[] assign(double[][] cost) {
+        int rows = cost.length;
+        int columns = rows > 0 ? cost[0].length : 0;
+        int[] result = new int[rows];
+        Arrays.fill(result, -1);
+        if (rows == 0 || columns == 0) {
+            return result;
+        }
+
+        int n = Math.max(rows, columns);
+        // 1-based potentials and matching as in the classic shortest augmenting path formulation
+        double[] u = new double[n + 1];
+        double[] v = new double[n + 1];
+        int[] matchedRow = new int[n + 1]; // Column -> row
+        int[] way = new int[n + 1];
+
+        for (int row = 1; row <= n; row++) {
+            matchedRow[0] = row;
+            int column0 = 0;
+            double[] minv = new double[n + 1];
+            boolean[] used = new boolean[n + 1];
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            do {
+                used[column0] = true;
+                int row0 = matchedRow[column0];
+                double delta = Double.POSITIVE_INFINITY;
+                int column1 = 0;
+                for (int column = 1; column <= n; column++) {
+                    if (!used[column]) {
+                        double current = cellCost(cost, row0 - 1, column - 1, rows, columns) - u[row0] - v[column];
+                        if (current < minv[column]) {
+                            minv[column] = current;
+                            way[column] = column0;
+                        }
+                        if (minv[column] < delta) {
+                            delta = minv[column];
+                            column1 = column;
+                        }
+                    }
+                }
+                for (int column = 0; column <= n; column++) {
+                    if (used[column]) {
+                        u[matchedRow[column]] += delta;
+                        v[column] -= delta;
+                    } else {
+                        minv[column] -= delta;
+                    }
+                }
+                column0 = column1;
+            } while (matchedRow[column0] != 0);
+            do {
+                int column1 = way[column0];
+                matchedRow[column0] = matchedRow[column1];
+                column0 = column1;
+            } while (column0 != 0);
+        }
+
+        for (int column = 1; column <= n; column++) {
+            int row = matchedRow[column] - 1;
+            if (row < rows && column - 1 < columns) {
+                result[row] = column - 1;
+            }
+        }
+        return result;
+    }
+
+    private static double cellCost(double[][] cost, int row, int column, int rows, int columns) {
+        return row < rows && column < columns ? cost[row][column] : 0.0;
+    }
+}
@@ -1,17 +1,23 @@
 package com.transformer.management.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
@@ -23,6 +29,24 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    // Built once; HMAC keys and parsers are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // SHA-256 of a verified token -> its claims, until the token expires
+    private final Map<String, TokenClaims> verifiedTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        // jjwt looks up its JSON serializer on first use and that lookup is not thread-safe; do it here
+        createToken(new HashMap<>(), "startup");
+    }
+
     // Generate token for user
     public String generateToken(String username, String userId, String role) {
         Map<String, Object> claims = new HashMap<>();
@@ -37,18 +61,50 @@ public class JwtUtil {
         Date expiryDate = new Date(now.getTime() + expiration);
 
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .claims(claims)
+                .subject(subject)
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    // Get signing key from secret
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verify a token once and return its claims
+     * Verified tokens are cached by hash until they expire, so repeated requests skip the signature check
+     *
+     * @return Claims of a valid, unexpired token; null if the token is invalid or expired
+     */
+    public TokenClaims verify(String token) {
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+
+        TokenClaims cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (cached.getExpiresAt() > now) {
+                return cached;
+            }
+            verifiedTokens.remove(key, cached);
+            return null;
+        }
+
+        TokenClaims verified;
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            verified = new TokenClaims(claims.getSubject(), claims.get("userId", String.class),
+                claims.get("role", String.class), claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null; // Bad signature, malformed or expired
+        }
+
+        if (verifiedTokens.size() >= cacheMaxSize) {
+            verifiedTokens.values().removeIf(entry -> entry.getExpiresAt() <= now);
+            if (verifiedTokens.size() >= cacheMaxSize) {
+                verifiedTokens.clear(); // Tokens re-verify on their next use
+            }
+        }
+        verifiedTokens.put(key, verified);
+        return verified;
     }
 
     // Extract username from token
@@ -79,30 +135,49 @@ public class JwtUtil {
 
     // Extract all claims
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    // Check if token is expired
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     // Validate token
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        TokenClaims claims = verify(token);
+        return claims != null && claims.getUsername().equals(username);
     }
 
     // Validate token without username check
     public Boolean validateToken(String token) {
+        return verify(token) != null;
+    }
+
+    private static String hash(String token) {
         try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
+
+    /**
+     * Claims of a verified token
+     */
+    public static class TokenClaims {
+        private final String username;
+        private final String userId;
+        private final String role;
+        private final long expiresAt; // Epoch millis
+
+        public TokenClaims(String username, String userId, String role, long expiresAt) {
+            this.username = username;
+            this.userId = userId;
+            this.role = role;
+            this.expiresAt = expiresAt;
+        }
+
+        // Getters
+        public String getUsername() { return username; }
+        public String getUserId() { return userId; }
+        public String getRole() { return role; }
+        public long getExpiresAt() { return expiresAt; }
+    }
 }
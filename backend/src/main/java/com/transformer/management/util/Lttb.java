@@ -0,0 +1,73 @@
+package com.transformer.management.util;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling of a time series
+ * Keeps the first and last points and, from each of threshold - 2 equal buckets in between, the point forming the
+ * largest triangle with the point kept before it and the mean of the next bucket, so peaks and dips survive
+ */
+public final class Lttb {
+
+    private Lttb() {}
+
+    /**
+     * Pick the points to draw
+     *
+     * @param x Ascending x values (e.g. epoch millis)
+     * @param y y values, same length as x
+     * @param threshold Number of points wanted; values below 3 keep the first and last point only
+     * @return Indices of the kept points, ascending; all indices if there are no more than threshold points
+     */
+    public static int[] downsample(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (threshold >= n || n <= 2) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        if (threshold < 3) {
+            return new int[] {0, n - 1};
+        }
+
+        int[] kept = new int[threshold];
+        int count = 0;
+        kept[count++] = 0;
+
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int a = 0; // Point kept from the previous bucket
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            // Mean of the next bucket; the last bucket looks ahead to the final point
+            int nextStart = end;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n);
+            double meanX = 0;
+            double meanY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                meanX += x[i];
+                meanY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            meanX /= nextCount;
+            meanY /= nextCount;
+
+            int best = start;
+            double bestArea = -1;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle area; the factor does not change the choice
+                double area = Math.abs((x[a] - meanX) * (y[i] - y[a]) - (x[a] - x[i]) * (meanY - y[a]));
+                if (area > bestArea) {
+                    bestArea = area;
+                    best = i;
+                }
+            }
+            kept[count++] = best;
+            a = best;
+        }
+
+        kept[count] = n - 1;
+        return kept;
+    }
+}
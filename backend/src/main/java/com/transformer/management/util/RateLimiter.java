@@ -0,0 +1,61 @@
+package com.transformer.management.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiter per key (generic cell rate algorithm)
+ * Each key holds a single AtomicLong, the time at which its bucket will be full again; a request is
+ * admitted by advancing it with compare-and-set, so checks are lock-free and cost one map lookup
+ */
+public class RateLimiter {
+    private final long intervalNanos;  // Time to earn one token
+    private final long burstNanos;     // Bucket capacity, as time
+    private final int maxKeys;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param permitsPerMinute Sustained rate per key
+     * @param burst Requests a key may make at once after being idle
+     * @param maxKeys Keys tracked before idle keys are swept
+     */
+    public RateLimiter(int permitsPerMinute, int burst, int maxKeys) {
+        this.intervalNanos = 60_000_000_000L / permitsPerMinute;
+        this.burstNanos = intervalNanos * burst;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Take a token for a key
+     *
+     * @return 0 if admitted, otherwise the nanoseconds until the next token is available
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong fullAt = buckets.get(key);
+        if (fullAt == null) {
+            if (buckets.size() >= maxKeys) {
+                sweep(now);
+            }
+            fullAt = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = fullAt.get();
+            long base = Math.max(current, now);
+            long next = base + intervalNanos;
+            if (next - now > burstNanos) {
+                return next - now - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Keys whose bucket has refilled carry no state and can be dropped
+    private void sweep(long now) {
+        buckets.values().removeIf(fullAt -> fullAt.get() <= now);
+    }
+}
@@ -0,0 +1,96 @@
+package com.transformer.management;
+
+import com.transformer.management.util.JwtUtil;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * Base class for tests that need the full application on a real PostgreSQL
+ * The embedded server is started once per JVM and shared by every subclass, as is the Spring context
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public abstract class PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+    }
+
+    /**
+     * JDBC URL of the embedded database for the given user, for setup done before the context starts
+     */
+    protected static String jdbcUrl(String user) {
+        return POSTGRES.getJdbcUrl(user, "postgres");
+    }
+
+    /**
+     * Authorization header value for an ADMIN user
+     */
+    protected String adminToken() {
+        return "Bearer " + jwtUtil.generateToken("admin", UUID.randomUUID().toString(), "ADMIN");
+    }
+
+    /**
+     * Hibernate statistics, enabled by the test profile; clear() before the code under test
+     */
+    protected Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Retry an assertion until it passes or five seconds are up, for work done after commit on a background thread
+     */
+    protected void eventually(Check check) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (true) {
+            try {
+                check.run();
+                return;
+            } catch (AssertionError e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    protected interface Check {
+        void run() throws Exception;
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.transformer.management.config;
+
+import com.transformer.management.PostgresIntegrationTest;
+import com.transformer.management.entity.AnomalyDetection;
+import com.transformer.management.entity.Image;
+import com.transformer.management.entity.Inspection;
+import com.transformer.management.entity.MaintenanceRecord;
+import com.transformer.management.entity.Transformer;
+import com.transformer.management.repository.AnomalyDetectionRepository;
+import com.transformer.management.repository.ImageRepository;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.repository.MaintenanceRecordRepository;
+import com.transformer.management.repository.TransformerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read-only transactions routed to a replica pool that logs in as a role allowed only to SELECT,
+ * so a write sent over a replica connection fails like it would on a real standby
+ */
+class ReadReplicaRoutingTest extends PostgresIntegrationTest {
+
+    private static final String REPLICA_ROLE = "replica_reader";
+
+    @Autowired
+    private TransformerRepository transformerRepository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    @Autowired
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+
+    @Autowired
+    private AnomalyDetectionRepository anomalyDetectionRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl("postgres"));
+             Statement statement = connection.createStatement()) {
+            statement.execute("DO $$ BEGIN IF NOT EXISTS (SELECT 1 FROM pg_roles WHERE rolname = '" + REPLICA_ROLE + "') "
+                + "THEN CREATE ROLE " + REPLICA_ROLE + " LOGIN; END IF; END $$");
+            // Tables are (re)created by the application after this runs
+            statement.execute("ALTER DEFAULT PRIVILEGES IN SCHEMA public GRANT SELECT ON TABLES TO " + REPLICA_ROLE);
+            statement.execute("GRANT SELECT ON ALL TABLES IN SCHEMA public TO " + REPLICA_ROLE);
+        }
+        registry.add("spring.datasource.replica.url", () -> jdbcUrl(REPLICA_ROLE));
+        registry.add("spring.datasource.replica.username", () -> REPLICA_ROLE);
+        // Keep the tables of the contexts sharing this database
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+    }
+
+    @Test
+    void writeAfterReadInOneRequestGoesToThePrimary() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Transformer transformer = transformerRepository.save(
+            new Transformer("TX-" + suffix, "P-1", "Colombo", "Distribution", "100kVA", "Site", "Normal"));
+        Inspection inspection = inspectionRepository.save(new Inspection(transformer, "IN-" + suffix, "Pending", null));
+
+        // Looks the inspection up in a read-only transaction, then inserts the record
+        String body = "{\"inspectionId\":\"" + inspection.getId() + "\",\"inspectorName\":\"Inspector\","
+            + "\"transformerStatus\":\"OK\",\"temperature\":40.0}";
+        mockMvc.perform(post("/maintenance-records").contentType(MediaType.APPLICATION_JSON).content(body)
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").isNotEmpty())
+            .andExpect(jsonPath("$.transformer.code").value("TX-" + suffix));
+
+        assertThat(maintenanceRecordRepository.findAll())
+            .anyMatch(record -> inspection.getId().equals(record.getInspection().getId()));
+    }
+
+    @Test
+    void editsAnswerWithTheirAssociations() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Transformer transformer = transformerRepository.save(
+            new Transformer("TX-" + suffix, "P-1", "Colombo", "Distribution", "100kVA", "Site", "Normal"));
+        Inspection inspection = inspectionRepository.save(new Inspection(transformer, "IN-" + suffix, "Pending", null));
+        MaintenanceRecord record = maintenanceRecordRepository.save(new MaintenanceRecord(inspection, transformer, "Inspector", "OK"));
+        AnomalyDetection detection = anomalyDetectionRepository.save(
+            new AnomalyDetection(inspection, transformer, "http://base", "http://maint", "engine", "1"));
+        Image image = new Image(transformer, "http://image/" + suffix, "Maintenance");
+        image.setInspection(inspection);
+        image = imageRepository.save(image);
+
+        // Each edit loads the row and saves it in the same request, then serializes it
+        mockMvc.perform(put("/maintenance-records/" + record.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"temperature\":45.0}").header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.temperature").value(45.0))
+            .andExpect(jsonPath("$.inspection.transformer.code").value("TX-" + suffix));
+        mockMvc.perform(put("/inspections/" + inspection.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"notes\":\"Checked\"}").header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.notes").value("Checked"))
+            .andExpect(jsonPath("$.transformer.code").value("TX-" + suffix));
+        mockMvc.perform(put("/images/" + image.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"label\":\"Relabelled\"}").header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.label").value("Relabelled"))
+            .andExpect(jsonPath("$.transformerCode").value("TX-" + suffix))
+            .andExpect(jsonPath("$.inspectionNo").value("IN-" + suffix));
+        mockMvc.perform(post("/anomalies/feedback/" + detection.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"correct\":true}").header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.feedbackCorrect").value(true))
+            .andExpect(jsonPath("$.transformer.code").value("TX-" + suffix));
+    }
+}
@@ -0,0 +1,156 @@
+package com.transformer.management.controller;
+
+import com.transformer.management.PostgresIntegrationTest;
+import com.transformer.management.entity.Annotation;
+import com.transformer.management.entity.Inspection;
+import com.transformer.management.entity.Transformer;
+import com.transformer.management.repository.AnnotationRepository;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.repository.TransformerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AnnotationControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TransformerRepository transformerRepository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    @Autowired
+    private AnnotationRepository annotationRepository;
+
+    private Transformer transformer;
+    private String inspectionId;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        transformer = transformerRepository.save(
+            new Transformer("TX-" + suffix, "P-1", "Colombo", "Distribution", "100kVA", "Site", "Normal"));
+        Inspection inspection = inspectionRepository.save(new Inspection(transformer, "IN-" + suffix, "Pending", null));
+        inspectionId = inspection.getId().toString();
+    }
+
+    @Test
+    void failedSaveLeavesNoRows() throws Exception {
+        String body = "{\"imageId\":\"" + inspectionId + "\",\"userId\":\"alice\",\"annotations\":["
+            + "{\"x\":10,\"y\":10,\"width\":20,\"height\":20,\"label\":\"Hotspot\"},"
+            + "{\"x\":50,\"y\":50,\"width\":20,\"height\":20,\"label\":\"Hotspot\",\"lastModified\":\"not-a-date\"}]}";
+
+        mockMvc.perform(post("/annotations/save").contentType(MediaType.APPLICATION_JSON).content(body)
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isInternalServerError());
+
+        // The first box was not committed on its own
+        assertThat(annotationRepository.findAllAnnotationsByImageIdRef(inspectionId)).isEmpty();
+    }
+
+    @Test
+    void savedBoxesAreIndexedAfterCommit() throws Exception {
+        String body = "{\"imageId\":\"" + inspectionId + "\",\"userId\":\"alice\",\"annotations\":["
+            + "{\"x\":10,\"y\":10,\"width\":20,\"height\":20,\"label\":\"Hotspot\"}]}";
+
+        mockMvc.perform(post("/annotations/save").contentType(MediaType.APPLICATION_JSON).content(body)
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(1));
+
+        mockMvc.perform(get("/annotations/spatial/" + inspectionId + "/overlaps")
+                .param("x", "0").param("y", "0").param("width", "40").param("height", "40")
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void servedStateMatchesTableAfterFailedEdit() throws Exception {
+        String create = "{\"imageId\":\"" + inspectionId + "\",\"userId\":\"alice\",\"annotations\":["
+            + "{\"x\":10,\"y\":10,\"width\":20,\"height\":20,\"label\":\"Hotspot\"}]}";
+        mockMvc.perform(post("/annotations/save").contentType(MediaType.APPLICATION_JSON).content(create)
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk());
+        Annotation stored = annotationRepository.findAllAnnotationsByImageIdRef(inspectionId).get(0);
+
+        // A valid edit followed by a bad box: neither the row nor its event may be written
+        String edit = "{\"imageId\":\"" + inspectionId + "\",\"userId\":\"alice\",\"annotations\":["
+            + "{\"id\":\"" + stored.getId() + "\",\"version\":" + stored.getVersion()
+            + ",\"x\":99,\"y\":10,\"width\":20,\"height\":20,\"label\":\"Hotspot\"},"
+            + "{\"x\":50,\"y\":50,\"width\":20,\"height\":20,\"label\":\"Hotspot\",\"lastModified\":\"not-a-date\"}]}";
+        mockMvc.perform(post("/annotations/save").contentType(MediaType.APPLICATION_JSON).content(edit)
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isInternalServerError());
+
+        Annotation current = annotationRepository.findById(stored.getId()).orElseThrow();
+        assertThat(current.getBboxX()).isEqualTo(10);
+        mockMvc.perform(get("/annotations/image/" + inspectionId)
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].x").value(10))
+            .andExpect(jsonPath("$[0].version").value(current.getVersion()));
+    }
+
+    @Test
+    void idsOfOtherImagesAreReportedMissing() throws Exception {
+        String create = "{\"imageId\":\"" + inspectionId + "\",\"userId\":\"alice\",\"annotations\":["
+            + "{\"x\":10,\"y\":10,\"width\":20,\"height\":20,\"label\":\"Hotspot\"}]}";
+        mockMvc.perform(post("/annotations/save").contentType(MediaType.APPLICATION_JSON).content(create)
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk());
+        Annotation stored = annotationRepository.findAllAnnotationsByImageIdRef(inspectionId).get(0);
+        String otherInspectionId = inspectionRepository.save(
+            new Inspection(transformer, "IN-" + UUID.randomUUID().toString().substring(0, 8), "Pending", null)).getId().toString();
+        UUID unknownId = UUID.randomUUID();
+
+        // Neither the other inspection's box nor an unknown id is touched or created
+        String edit = "{\"imageId\":\"" + otherInspectionId + "\",\"userId\":\"bob\",\"annotations\":["
+            + "{\"id\":\"" + stored.getId() + "\",\"x\":99,\"y\":10,\"width\":20,\"height\":20,\"label\":\"Hotspot\"},"
+            + "{\"id\":\"" + unknownId + "\",\"x\":50,\"y\":50,\"width\":20,\"height\":20,\"label\":\"Hotspot\"}]}";
+        mockMvc.perform(post("/annotations/save").contentType(MediaType.APPLICATION_JSON).content(edit)
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(0))
+            .andExpect(jsonPath("$.missing", hasSize(2)))
+            .andExpect(jsonPath("$.missing[0]").value(stored.getId().toString()))
+            .andExpect(jsonPath("$.missing[1]").value(unknownId.toString()));
+
+        assertThat(annotationRepository.findById(stored.getId()).orElseThrow().getBboxX()).isEqualTo(10);
+        assertThat(annotationRepository.findById(unknownId)).isEmpty();
+        assertThat(annotationRepository.findAllAnnotationsByImageIdRef(otherInspectionId)).isEmpty();
+
+        // An edit through its own image cannot move the box elsewhere
+        String move = "{\"imageId\":\"" + inspectionId + "\",\"userId\":\"alice\",\"annotations\":["
+            + "{\"id\":\"" + stored.getId() + "\",\"imageId\":\"" + otherInspectionId
+            + "\",\"x\":30,\"y\":10,\"width\":20,\"height\":20,\"label\":\"Hotspot\"}]}";
+        mockMvc.perform(post("/annotations/save").contentType(MediaType.APPLICATION_JSON).content(move)
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(1));
+
+        Annotation moved = annotationRepository.findById(stored.getId()).orElseThrow();
+        assertThat(moved.getBboxX()).isEqualTo(30);
+        assertThat(moved.getImageIdRef()).isEqualTo(inspectionId);
+    }
+
+    @Test
+    void deletingUnknownAnnotationIsNotFound() throws Exception {
+        mockMvc.perform(delete("/annotations/" + UUID.randomUUID())
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isNotFound());
+    }
+}
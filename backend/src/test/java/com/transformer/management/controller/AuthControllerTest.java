@@ -0,0 +1,68 @@
+package com.transformer.management.controller;
+
+import com.transformer.management.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthControllerTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 4;
+
+    @Test
+    void concurrentDuplicateSignupIsRejected() throws Exception {
+        String body = "{\"username\":\"user-" + UUID.randomUUID().toString().substring(0, 8) + "\",\"password\":\"secret1\"}";
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<MvcResult>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Callable<MvcResult> signup = () -> {
+                    start.await();
+                    MvcResult pending = mockMvc.perform(post("/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn();
+                    return pending.getRequest().isAsyncStarted()
+                        ? mockMvc.perform(asyncDispatch(pending)).andReturn() : pending;
+                };
+                futures.add(executor.submit(signup));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<MvcResult> future : futures) {
+                MvcResult result = future.get();
+                if (result.getResponse().getStatus() == 200) {
+                    created++;
+                } else {
+                    assertThat(result.getResponse().getStatus()).isEqualTo(400);
+                    assertThat(result.getResponse().getContentAsString()).contains("Username already exists");
+                }
+            }
+            assertThat(created).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        MvcResult login = mockMvc.perform(post("/auth/login")
+            .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn();
+        mockMvc.perform(asyncDispatch(login))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.token").isNotEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+package com.transformer.management.controller;
+
+import com.transformer.management.PostgresIntegrationTest;
+import com.transformer.management.entity.Image;
+import com.transformer.management.entity.Inspection;
+import com.transformer.management.entity.Transformer;
+import com.transformer.management.repository.ImageRepository;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.repository.TransformerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ImageControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TransformerRepository transformerRepository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    private Transformer transformer;
+
+    @BeforeEach
+    void seed() {
+        transformer = seedImages(3, 2);
+    }
+
+    @Test
+    void listingIsOneStatementRegardlessOfRows() throws Exception {
+        long small = listingStatements(transformer, 6);
+        Transformer large = seedImages(50, 20);
+        long thousand = listingStatements(large, 1000);
+
+        assertThat(thousand).isEqualTo(small);
+        assertThat(small).isEqualTo(1);
+    }
+
+    @Test
+    void pagesThroughResults() throws Exception {
+        mockMvc.perform(get("/images").param("transformerId", transformer.getId().toString())
+                .param("page", "1").param("limit", "4")
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    // Statements sent to list every image of a transformer in one page
+    private long listingStatements(Transformer owner, int expectedRows) throws Exception {
+        statistics().clear();
+        mockMvc.perform(get("/images").param("transformerId", owner.getId().toString()).param("limit", "1000")
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(expectedRows)))
+            .andExpect(jsonPath("$[0].inspectionNo").isNotEmpty());
+        return statistics().getPrepareStatementCount();
+    }
+
+    private Transformer seedImages(int inspections, int imagesPerInspection) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Transformer owner = transformerRepository.save(
+            new Transformer("TX-" + suffix, "P-1", "Colombo", "Distribution", "100kVA", "Site", "Normal"));
+        List<Image> images = new ArrayList<>();
+        for (int i = 0; i < inspections; i++) {
+            Inspection inspection = inspectionRepository.save(
+                new Inspection(owner, "IN-" + suffix + "-" + i, "Pending", null));
+            for (int j = 0; j < imagesPerInspection; j++) {
+                images.add(new Image(owner, "http://images/" + suffix + "/" + i + "/" + j, "label",
+                    "maintenance", "tester", "sunny", null, inspection));
+            }
+        }
+        imageRepository.saveAll(images);
+        return owner;
+    }
+
+    @Test
+    void overflowingPageIsRejected() throws Exception {
+        mockMvc.perform(get("/images").param("page", String.valueOf(Integer.MAX_VALUE)).param("limit", "1000")
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").exists());
+    }
+}
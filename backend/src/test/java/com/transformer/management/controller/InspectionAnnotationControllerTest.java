@@ -0,0 +1,66 @@
+package com.transformer.management.controller;
+
+import com.transformer.management.PostgresIntegrationTest;
+import com.transformer.management.entity.AnomalyDetection;
+import com.transformer.management.entity.Inspection;
+import com.transformer.management.entity.Transformer;
+import com.transformer.management.repository.AnomalyDetectionRepository;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.repository.TransformerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class InspectionAnnotationControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TransformerRepository transformerRepository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    @Autowired
+    private AnomalyDetectionRepository anomalyDetectionRepository;
+
+    @Test
+    void reviewedSaveUpdatesEngineMetrics() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Transformer transformer = transformerRepository.save(
+            new Transformer("TX-" + suffix, "P-1", "Colombo", "Distribution", "100kVA", "Site", "Normal"));
+        Inspection inspection = inspectionRepository.save(new Inspection(transformer, "IN-" + suffix, "Pending", null));
+        String inspectionId = inspection.getId().toString();
+
+        String engineName = "Engine-" + suffix;
+        AnomalyDetection detection = new AnomalyDetection();
+        detection.setInspection(inspection);
+        detection.setTransformer(transformer);
+        detection.setEngineName(engineName);
+        detection.setEngineVersion("1");
+        detection.setDetectionsJson("[{\"bbox\":[10,10,20,20],\"type\":\"Hotspot\",\"confidence\":0.9},"
+            + "{\"bbox\":[200,200,20,20],\"type\":\"Hotspot\",\"confidence\":0.8}]");
+        anomalyDetectionRepository.save(detection);
+
+        // One box matches the first detection, the second detection was rejected
+        String body = "{\"imageId\":\"" + inspectionId + "\",\"userId\":\"alice\",\"annotations\":["
+            + "{\"x\":10,\"y\":10,\"width\":20,\"height\":20,\"label\":\"Hotspot\"}]}";
+        mockMvc.perform(post("/inspection-annotations/save").contentType(MediaType.APPLICATION_JSON).content(body)
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk());
+
+        // Updated on the after-commit worker
+        eventually(() -> mockMvc.perform(get("/anomalies/engines").header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$['" + engineName + "'].metrics['1'].images").value(1))
+            .andExpect(jsonPath("$['" + engineName + "'].metrics['1'].truePositives").value(1))
+            .andExpect(jsonPath("$['" + engineName + "'].metrics['1'].falsePositives").value(1))
+            .andExpect(jsonPath("$['" + engineName + "'].metrics['1'].falseNegatives").value(0)));
+    }
+}
@@ -0,0 +1,62 @@
+package com.transformer.management.controller;
+
+import com.transformer.management.PostgresIntegrationTest;
+import com.transformer.management.entity.AnomalyDetection;
+import com.transformer.management.entity.Inspection;
+import com.transformer.management.entity.Transformer;
+import com.transformer.management.repository.AnomalyDetectionRepository;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.repository.TransformerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class InspectionControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TransformerRepository transformerRepository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    @Autowired
+    private AnomalyDetectionRepository anomalyDetectionRepository;
+
+    @Test
+    void summaryHasOneRowWhenDetectionsShareATimestamp() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Transformer transformer = transformerRepository.save(
+            new Transformer("TX-" + suffix, "P-1", "Colombo", "Distribution", "100kVA", "Site", "Normal"));
+        // Inspected after any date other tests use so it sorts first among the rows they leave
+        Inspection inspection = new Inspection(transformer, "IN-" + suffix, "Pending", null);
+        inspection.setInspectedAt(LocalDateTime.of(9999, 12, 31, 0, 0));
+        inspection = inspectionRepository.save(inspection);
+
+        LocalDateTime detectedAt = LocalDateTime.now().withNano(0);
+        AnomalyDetection first = anomalyDetectionRepository.save(
+            new AnomalyDetection(inspection, transformer, "http://base", "http://maint", "engine", "1"));
+        AnomalyDetection second = anomalyDetectionRepository.save(
+            new AnomalyDetection(inspection, transformer, "http://base", "http://maint", "engine", "1"));
+        first.setDetectedAt(detectedAt);
+        second.setDetectedAt(detectedAt);
+        anomalyDetectionRepository.save(first);
+        anomalyDetectionRepository.save(second);
+        // PostgreSQL orders uuids as unsigned bytes, which is the order of their hex strings
+        String expected = first.getId().toString().compareTo(second.getId().toString()) > 0 ? first.getId().toString() : second.getId().toString();
+
+        mockMvc.perform(get("/inspections/summary").param("limit", "200")
+                .header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.id == '" + inspection.getId() + "')]", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value(inspection.getId().toString()))
+            .andExpect(jsonPath("$[0].latestDetectionId").value(expected));
+    }
+}
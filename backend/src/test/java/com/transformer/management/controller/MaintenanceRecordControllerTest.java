@@ -0,0 +1,77 @@
+package com.transformer.management.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transformer.management.PostgresIntegrationTest;
+import com.transformer.management.entity.Inspection;
+import com.transformer.management.entity.Transformer;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.repository.TransformerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MaintenanceRecordControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TransformerRepository transformerRepository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void readingStatisticsFollowCommittedRecords() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Transformer transformer = transformerRepository.save(
+            new Transformer("TX-" + suffix, "P-1", "Colombo", "Distribution", "100kVA", "Site", "Normal"));
+        Inspection first = inspectionRepository.save(new Inspection(transformer, "IN-" + suffix + "-1", "Pending", null));
+        Inspection second = inspectionRepository.save(new Inspection(transformer, "IN-" + suffix + "-2", "Pending", null));
+        String stats = "/analytics/readings/" + transformer.getId();
+
+        create(first, 40.0);
+        String secondRecordId = create(second, 50.0);
+        eventually(() -> mockMvc.perform(get(stats).header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.readings.temperature.samples").value(2))
+            .andExpect(jsonPath("$.readings.temperature.max").value(50.0)));
+
+        // An edit rebuilds the history
+        mockMvc.perform(put("/maintenance-records/" + secondRecordId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"temperature\":45.0}").header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk());
+        eventually(() -> mockMvc.perform(get(stats).header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(jsonPath("$.readings.temperature.samples").value(2))
+            .andExpect(jsonPath("$.readings.temperature.max").value(45.0)));
+
+        // Deleting an inspection rebuilds without its record
+        mockMvc.perform(delete("/inspections/" + second.getId()).header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().is2xxSuccessful());
+        eventually(() -> mockMvc.perform(get(stats).header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(jsonPath("$.readings.temperature.samples").value(1))
+            .andExpect(jsonPath("$.readings.temperature.max").value(40.0)));
+    }
+
+    private String create(Inspection inspection, double temperature) throws Exception {
+        String body = "{\"inspectionId\":\"" + inspection.getId() + "\",\"inspectorName\":\"Inspector\","
+            + "\"transformerStatus\":\"OK\",\"temperature\":" + temperature + "}";
+        String response = mockMvc.perform(post("/maintenance-records").contentType(MediaType.APPLICATION_JSON)
+                .content(body).header(HttpHeaders.AUTHORIZATION, adminToken()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        JsonNode record = objectMapper.readTree(response);
+        return record.get("id").asText();
+    }
+}
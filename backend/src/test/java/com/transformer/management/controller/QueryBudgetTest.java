@@ -0,0 +1,110 @@
+package com.transformer.management.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transformer.management.PostgresIntegrationTest;
+import com.transformer.management.entity.AnomalyDetection;
+import com.transformer.management.entity.Image;
+import com.transformer.management.entity.Inspection;
+import com.transformer.management.entity.MaintenanceRecord;
+import com.transformer.management.entity.Transformer;
+import com.transformer.management.repository.AnomalyDetectionRepository;
+import com.transformer.management.repository.ImageRepository;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.repository.MaintenanceRecordRepository;
+import com.transformer.management.repository.TransformerRepository;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statements per read endpoint against the budgets in scripts/query-budgets.json
+ * Catches an association made EAGER again or an endpoint walking lazy associations row by row
+ */
+class QueryBudgetTest extends PostgresIntegrationTest {
+
+    private static final Path BUDGETS = Path.of("..", "scripts", "query-budgets.json");
+    private static final int ROWS = 3;
+
+    @Autowired
+    private TransformerRepository transformerRepository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    @Autowired
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+
+    @Autowired
+    private AnomalyDetectionRepository anomalyDetectionRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TestFactory
+    Stream<DynamicTest> readEndpointsStayWithinBudget() throws Exception {
+        Map<String, Integer> budgets = objectMapper.readValue(BUDGETS.toFile(), new TypeReference<Map<String, Integer>>() {});
+
+        // Several rows with every association filled, so per-row lazy loads would show up
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Transformer transformer = transformerRepository.save(
+            new Transformer("TX-" + suffix, "P-1", "Colombo", "Distribution", "100kVA", "Site", "Normal"));
+        Inspection inspection = null;
+        MaintenanceRecord record = null;
+        Image image = null;
+        for (int i = 0; i < ROWS; i++) {
+            inspection = inspectionRepository.save(new Inspection(transformer, "IN-" + suffix + "-" + i, "Pending", null));
+            record = maintenanceRecordRepository.save(new MaintenanceRecord(inspection, transformer, "Inspector", "OK"));
+            anomalyDetectionRepository.save(
+                new AnomalyDetection(inspection, transformer, "http://base", "http://maint", "engine", "1"));
+            Image saved = new Image(transformer, "http://image/" + suffix + "/" + i, "Maintenance");
+            saved.setInspection(inspection);
+            image = imageRepository.save(saved);
+        }
+
+        Map<String, String> paths = new LinkedHashMap<>();
+        paths.put("GET /transformers", "/transformers");
+        paths.put("GET /transformers/{id}", "/transformers/" + transformer.getId());
+        paths.put("GET /inspections", "/inspections");
+        paths.put("GET /inspections/summary", "/inspections/summary");
+        paths.put("GET /inspections/{id}", "/inspections/" + inspection.getId());
+        paths.put("GET /maintenance-records", "/maintenance-records");
+        paths.put("GET /maintenance-records/latest", "/maintenance-records/latest");
+        paths.put("GET /maintenance-records/{id}", "/maintenance-records/" + record.getId());
+        paths.put("GET /maintenance-records/inspection/{inspectionId}", "/maintenance-records/inspection/" + inspection.getId());
+        paths.put("GET /maintenance-records/transformer/{transformerId}", "/maintenance-records/transformer/" + transformer.getId());
+        paths.put("GET /anomalies/history/transformer/{transformerId}", "/anomalies/history/transformer/" + transformer.getId());
+        paths.put("GET /anomalies/history/inspection/{inspectionId}", "/anomalies/history/inspection/" + inspection.getId());
+        paths.put("GET /anomalies/history", "/anomalies/history?startDate=2000-01-01T00:00:00&endDate=2100-01-01T00:00:00");
+        paths.put("GET /images", "/images");
+        paths.put("GET /images/{id}", "/images/" + image.getId());
+
+        // Every budgeted endpoint is exercised
+        assertThat(paths.keySet()).containsAll(budgets.keySet());
+
+        List<String> endpoints = List.copyOf(budgets.keySet());
+        return endpoints.stream().map(endpoint -> DynamicTest.dynamicTest(endpoint, () -> {
+            statistics().clear();
+            mockMvc.perform(get(paths.get(endpoint)).header(HttpHeaders.AUTHORIZATION, adminToken()))
+                .andExpect(status().isOk());
+            assertThat(statistics().getPrepareStatementCount())
+                .as("SQL statements for %s", endpoint)
+                .isLessThanOrEqualTo(budgets.get(endpoint));
+        }));
+    }
+}
@@ -0,0 +1,97 @@
+package com.transformer.management.service;
+
+import com.transformer.management.PostgresIntegrationTest;
+import com.transformer.management.dto.AnnotationDelta;
+import com.transformer.management.entity.Inspection;
+import com.transformer.management.entity.Transformer;
+import com.transformer.management.repository.AnnotationRepository;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.repository.TransformerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnnotationCollaborationServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AnnotationCollaborationService collaborationService;
+
+    @Autowired
+    private AnnotationRepository annotationRepository;
+
+    @Autowired
+    private TransformerRepository transformerRepository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    private String inspectionId;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Transformer transformer = transformerRepository.save(
+            new Transformer("TX-" + suffix, "P-1", "Colombo", "Distribution", "100kVA", "Site", "Normal"));
+        Inspection inspection = inspectionRepository.save(new Inspection(transformer, "IN-" + suffix, "Pending", null));
+        inspectionId = inspection.getId().toString();
+    }
+
+    @Test
+    void invalidDeltasAreRejectedToTheSender() {
+        AnnotationDelta noGeometry = delta(AnnotationDelta.OP_ADD, null, null, null, null);
+        AnnotationDelta negativeSize = delta(AnnotationDelta.OP_RESIZE, null, null, -5, 10);
+        AnnotationDelta emptyMove = delta(AnnotationDelta.OP_MOVE, null, null, null, null);
+
+        List<Map<String, Object>> rejected = collaborationService.submit(inspectionId,
+            List.of(noGeometry, negativeSize, emptyMove));
+
+        assertThat(rejected).extracting(rejection -> rejection.get("id"))
+            .containsExactly(noGeometry.getId(), negativeSize.getId(), emptyMove.getId());
+        assertThat(collaborationService.bufferedInspections()).doesNotContain(inspectionId);
+    }
+
+    @Test
+    void failingDeltaIsDeadLetteredWithoutBlockingOthers() {
+        AnnotationDelta good = delta(AnnotationDelta.OP_ADD, 10, 10, 20, 20);
+        AnnotationDelta poison = delta(AnnotationDelta.OP_ADD, 40, 40, 20, 20);
+        poison.setLabel("x".repeat(1000)); // Longer than the label column
+
+        assertThat(collaborationService.submit(inspectionId, List.of(good, poison))).isEmpty();
+        collaborationService.flushAll();
+        assertThat(annotationRepository.existsById(good.getId())).isTrue();
+
+        for (int i = 0; i < 20 && notYetDeadLettered(poison.getId()); i++) {
+            collaborationService.flushAll();
+        }
+        assertThat(notYetDeadLettered(poison.getId())).isFalse();
+        assertThat(annotationRepository.existsById(poison.getId())).isFalse();
+
+        // Drained and flushed buffers are dropped
+        collaborationService.flushAll();
+        assertThat(collaborationService.bufferedInspections()).doesNotContain(inspectionId);
+    }
+
+    // True while the delta is not among the dead letters
+    private boolean notYetDeadLettered(UUID id) {
+        return collaborationService.deadLetters().stream()
+            .noneMatch(entry -> ((AnnotationDelta) entry.get("delta")).getId().equals(id));
+    }
+
+    private static AnnotationDelta delta(String op, Integer x, Integer y, Integer width, Integer height) {
+        AnnotationDelta delta = new AnnotationDelta();
+        delta.setId(UUID.randomUUID());
+        delta.setOp(op);
+        delta.setX(x);
+        delta.setY(y);
+        delta.setWidth(width);
+        delta.setHeight(height);
+        delta.setLabel("Hotspot");
+        return delta;
+    }
+}
@@ -0,0 +1,116 @@
+package com.transformer.management.service;
+
+import com.transformer.management.PostgresIntegrationTest;
+import com.transformer.management.dto.AnnotationDTO;
+import com.transformer.management.entity.AnnotationEvent;
+import com.transformer.management.entity.AnnotationSnapshot;
+import com.transformer.management.entity.Inspection;
+import com.transformer.management.entity.Transformer;
+import com.transformer.management.repository.AnnotationEventRepository;
+import com.transformer.management.repository.AnnotationRepository;
+import com.transformer.management.repository.AnnotationSnapshotRepository;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.repository.TransformerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnnotationHistoryServiceTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int SAVES_PER_THREAD = 10;
+
+    @Autowired
+    private AnnotationHistoryService historyService;
+
+    @Autowired
+    private InspectionAnnotationService inspectionAnnotationService;
+
+    @Autowired
+    private AnnotationEventRepository eventRepository;
+
+    @Autowired
+    private AnnotationSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private AnnotationRepository annotationRepository;
+
+    @Autowired
+    private TransformerRepository transformerRepository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    @Test
+    void concurrentSavesFormOneGapFreeStream() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Transformer transformer = transformerRepository.save(
+            new Transformer("TX-" + suffix, "P-1", "Colombo", "Distribution", "100kVA", "Site", "Normal"));
+        String imageIdRef = inspectionRepository.save(new Inspection(transformer, "IN-" + suffix, "Pending", null))
+            .getId().toString();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < SAVES_PER_THREAD; i++) {
+                        inspectionAnnotationService.saveImageAnnotations(imageIdRef, "user-" + thread, List.of(box(thread * 100 + i)));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Every save got the next number of the image's stream
+        int saves = THREADS * SAVES_PER_THREAD;
+        List<AnnotationEvent> events = eventRepository.findByImageIdRefAndSequenceGreaterThanOrderBySequenceAsc(imageIdRef, 0L);
+        assertThat(events).extracting(AnnotationEvent::getSequence)
+            .containsExactlyElementsOf(LongStream.rangeClosed(1, saves).boxed().toList());
+
+        // One seeded snapshot however many first writers raced, then one per interval
+        List<Long> snapshots = snapshotRepository.findAll().stream()
+            .filter(snapshot -> imageIdRef.equals(snapshot.getImageIdRef()))
+            .map(AnnotationSnapshot::getLastSequence)
+            .sorted()
+            .toList();
+        assertThat(snapshots).containsExactly(0L, 50L);
+
+        // The folded state holds every stored box
+        List<UUID> stored = annotationRepository.findAllAnnotationsByImageIdRef(imageIdRef).stream()
+            .map(annotation -> annotation.getId())
+            .toList();
+        assertThat(stored).hasSize(saves);
+        assertThat(historyService.currentState(imageIdRef)).extracting(AnnotationDTO::getId)
+            .containsExactlyInAnyOrderElementsOf(stored);
+    }
+
+    private AnnotationDTO box(int offset) {
+        AnnotationDTO dto = new AnnotationDTO();
+        dto.setX(offset);
+        dto.setY(10);
+        dto.setWidth(20);
+        dto.setHeight(20);
+        dto.setLabel("Hotspot");
+        return dto;
+    }
+}
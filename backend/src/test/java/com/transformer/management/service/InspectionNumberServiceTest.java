@@ -0,0 +1,147 @@
+package com.transformer.management.service;
+
+import com.transformer.management.PostgresIntegrationTest;
+import com.transformer.management.entity.Inspection;
+import com.transformer.management.entity.Transformer;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.repository.TransformerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class InspectionNumberServiceTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int NUMBERS_PER_THREAD = 25;
+    private static final int INSPECTIONS = 1000;
+
+    @Autowired
+    private InspectionNumberService inspectionNumberService;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    @Autowired
+    private TransformerRepository transformerRepository;
+
+    @Test
+    void parallelIssuanceProducesNoDuplicates() throws Exception {
+        LocalDateTime inspectedAt = unusedDate();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Callable<List<String>> issue = () -> {
+                    start.await();
+                    List<String> numbers = new ArrayList<>();
+                    for (int i = 0; i < NUMBERS_PER_THREAD; i++) {
+                        numbers.add(inspectionNumberService.nextInspectionNumber(inspectedAt));
+                    }
+                    return numbers;
+                };
+                futures.add(executor.submit(issue));
+            }
+            start.countDown();
+
+            Set<String> issued = new HashSet<>();
+            int total = 0;
+            for (Future<List<String>> future : futures) {
+                List<String> numbers = future.get();
+                issued.addAll(numbers);
+                total += numbers.size();
+            }
+
+            // Every number is unique and the counter has no gaps
+            assertThat(total).isEqualTo(THREADS * NUMBERS_PER_THREAD);
+            assertThat(issued).hasSize(total);
+            String prefix = prefix(inspectedAt);
+            for (int n = 1; n <= total; n++) {
+                assertThat(issued).contains(prefix + String.format("%04d", n));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void parallelInspectionCreationStoresUniqueNumbers() throws Exception {
+        LocalDateTime inspectedAt = unusedDate();
+        Transformer transformer = transformerRepository.save(new Transformer(
+            "TX-" + UUID.randomUUID().toString().substring(0, 8), "P-1", "Colombo", "Distribution", "100kVA", "Site", "Normal"));
+        String body = "{\"transformer\":\"" + transformer.getId() + "\",\"status\":\"Pending\",\"inspectedAt\":\""
+            + inspectedAt.atZone(ZoneId.systemDefault()).toInstant() + "\"}";
+        // Signed once for every request
+        String token = adminToken();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int count = INSPECTIONS / THREADS + (t < INSPECTIONS % THREADS ? 1 : 0);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < count; i++) {
+                        mockMvc.perform(post("/inspections").contentType(MediaType.APPLICATION_JSON).content(body)
+                                .header(HttpHeaders.AUTHORIZATION, token))
+                            .andExpect(status().isOk());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Every stored inspection got its own number
+        List<String> stored = inspectionRepository.findByInspectionNoStartingWith(prefix(inspectedAt)).stream()
+            .map(Inspection::getInspectionNo)
+            .toList();
+        assertThat(stored).hasSize(INSPECTIONS);
+        assertThat(new HashSet<>(stored)).hasSize(INSPECTIONS);
+    }
+
+    @Test
+    void counterContinuesAfterExistingInspections() {
+        LocalDateTime inspectedAt = unusedDate();
+        Transformer transformer = transformerRepository.save(new Transformer(
+            "TX-" + UUID.randomUUID().toString().substring(0, 8), "P-1", "Colombo", "Distribution", "100kVA", "Site", "Normal"));
+        inspectionRepository.save(new Inspection(transformer, prefix(inspectedAt) + "0007", "Pending", null));
+
+        assertThat(inspectionNumberService.nextInspectionNumber(inspectedAt)).isEqualTo(prefix(inspectedAt) + "0008");
+        assertThat(inspectionNumberService.nextInspectionNumber(inspectedAt)).isEqualTo(prefix(inspectedAt) + "0009");
+    }
+
+    // A date no other test issues numbers for
+    private LocalDateTime unusedDate() {
+        return LocalDateTime.of(2100, 1, 1, 9, 0).plusDays(ThreadLocalRandom.current().nextInt(300_000));
+    }
+
+    private String prefix(LocalDateTime inspectedAt) {
+        return String.format("INSP-%04d%02d%02d-", inspectedAt.getYear(), inspectedAt.getMonthValue(), inspectedAt.getDayOfMonth());
+    }
+}
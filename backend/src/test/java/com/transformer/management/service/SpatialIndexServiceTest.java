@@ -0,0 +1,78 @@
+package com.transformer.management.service;
+
+import com.transformer.management.PostgresIntegrationTest;
+import com.transformer.management.dto.SpatialBoxDTO;
+import com.transformer.management.entity.Annotation;
+import com.transformer.management.entity.Inspection;
+import com.transformer.management.entity.Transformer;
+import com.transformer.management.repository.AnnotationRepository;
+import com.transformer.management.repository.InspectionRepository;
+import com.transformer.management.repository.TransformerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpatialIndexServiceTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private SpatialIndexService spatialIndexService;
+
+    @Autowired
+    private AnnotationRepository annotationRepository;
+
+    @Autowired
+    private InspectionRepository inspectionRepository;
+
+    @Autowired
+    private TransformerRepository transformerRepository;
+
+    @Test
+    void concurrentFirstQueriesBuildTheGridOnce() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Transformer transformer = transformerRepository.save(
+            new Transformer("TX-" + suffix, "P-1", "Colombo", "Distribution", "100kVA", "Site", "Normal"));
+        Inspection inspection = inspectionRepository.save(new Inspection(transformer, "IN-" + suffix, "Pending", null));
+        String imageId = inspection.getId().toString();
+
+        Annotation annotation = new Annotation(null, "tester", 10, 10, 20, 20, "Hotspot", "added");
+        annotation.setInspection(inspection);
+        annotation.setImageIdRef(imageId);
+        annotationRepository.save(annotation);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            statistics().clear();
+            List<Future<List<SpatialBoxDTO>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Callable<List<SpatialBoxDTO>> query = () -> {
+                    start.await();
+                    return spatialIndexService.boxes(imageId);
+                };
+                futures.add(executor.submit(query));
+            }
+            start.countDown();
+
+            for (Future<List<SpatialBoxDTO>> future : futures) {
+                assertThat(future.get()).extracting(SpatialBoxDTO::getKey).containsExactly("a:" + annotation.getId());
+            }
+            // One annotation and one detection query, however many callers raced for the grid
+            assertThat(statistics().getPrepareStatementCount()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+            spatialIndexService.evict(imageId);
+        }
+    }
+}
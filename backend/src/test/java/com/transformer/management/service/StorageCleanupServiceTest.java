@@ -0,0 +1,40 @@
+package com.transformer.management.service;
+
+import com.transformer.management.PostgresIntegrationTest;
+import com.transformer.management.entity.PendingAssetDeletion;
+import com.transformer.management.repository.PendingAssetDeletionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StorageCleanupServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private StorageCleanupService storageCleanupService;
+
+    @Autowired
+    private PendingAssetDeletionRepository pendingRepository;
+
+    @Test
+    void failedDeletesStayQueuedWithBackoff() throws Exception {
+        String publicId = "assets/" + UUID.randomUUID();
+        storageCleanupService.enqueueUrls(List.of(
+            "https://res.cloudinary.com/test/image/upload/v1/" + publicId + ".jpg",
+            "https://res.cloudinary.com/test/image/upload/" + publicId + ".png",
+            "http://images/not-cloudinary.jpg"));
+
+        // The test credentials are rejected, so the asset is kept and rescheduled instead of dropped
+        eventually(() -> {
+            PendingAssetDeletion pending = pendingRepository.findById(publicId).orElseThrow(AssertionError::new);
+            assertThat(pending.getAttempts()).isGreaterThanOrEqualTo(1);
+            assertThat(pending.getLastError()).isNotNull();
+            assertThat(pending.getNextAttemptAt()).isAfter(pending.getCreatedAt());
+        });
+        assertThat(pendingRepository.findAll()).extracting(PendingAssetDeletion::getPublicId)
+            .doesNotContain("not-cloudinary");
+    }
+}
@@ -45,6 +45,12 @@ interface MaintenanceRecordFormProps {
   existingRecord?: MaintenanceRecord | null
 }
 
+// Numeric reading from an input value; empty or non-numeric input is left out of the request
+function toReading(value: string): number | undefined {
+  const reading = value.trim() === '' ? NaN : Number(value)
+  return Number.isFinite(reading) ? reading : undefined
+}
+
 export function MaintenanceRecordForm({
   inspectionId,
   transformerCode,
@@ -91,10 +97,10 @@ export function MaintenanceRecordForm({
       setForm({
         inspectorName: existingRecord.inspectorName || '',
         transformerStatus: existingRecord.transformerStatus || '',
-        voltageReading: existingRecord.voltageReading || '',
-        currentReading: existingRecord.currentReading || '',
-        powerFactor: existingRecord.powerFactor || '',
-        temperature: existingRecord.temperature || '',
+        voltageReading: existingRecord.voltageReading != null ? String(existingRecord.voltageReading) : '',
+        currentReading: existingRecord.currentReading != null ? String(existingRecord.currentReading) : '',
+        powerFactor: existingRecord.powerFactor != null ? String(existingRecord.powerFactor) : '',
+        temperature: existingRecord.temperature != null ? String(existingRecord.temperature) : '',
         recommendedAction: existingRecord.recommendedAction || '',
         additionalRemarks: existingRecord.additionalRemarks || '',
         completionDate: existingRecord.completionDate 
@@ -121,10 +127,10 @@ export function MaintenanceRecordForm({
         ...(existingRecord ? {} : { inspectionId }),
         inspectorName: form.inspectorName || undefined,
         transformerStatus: form.transformerStatus || undefined,
-        voltageReading: form.voltageReading || undefined,
-        currentReading: form.currentReading || undefined,
-        powerFactor: form.powerFactor || undefined,
-        temperature: form.temperature || undefined,
+        voltageReading: toReading(form.voltageReading),
+        currentReading: toReading(form.currentReading),
+        powerFactor: toReading(form.powerFactor),
+        temperature: toReading(form.temperature),
         recommendedAction: form.recommendedAction || undefined,
         additionalRemarks: form.additionalRemarks || undefined,
         completionDate: form.completionDate ? new Date(form.completionDate).toISOString() : undefined,
@@ -413,9 +419,12 @@ export function MaintenanceRecordForm({
                 <Label htmlFor="voltageReading" className="font-serif">Voltage (V)</Label>
                 <Input
                   id="voltageReading"
+                  type="number"
+                  min="0"
+                  step="any"
                   value={form.voltageReading}
                   onChange={(e) => setForm({ ...form, voltageReading: e.target.value })}
-                  placeholder="e.g. 11kV"
+                  placeholder="e.g. 11000"
                   className="font-serif mt-1"
                   disabled={!canEdit}
                 />
@@ -424,9 +433,12 @@ export function MaintenanceRecordForm({
                 <Label htmlFor="currentReading" className="font-serif">Current (A)</Label>
                 <Input
                   id="currentReading"
+                  type="number"
+                  min="0"
+                  step="any"
                   value={form.currentReading}
                   onChange={(e) => setForm({ ...form, currentReading: e.target.value })}
-                  placeholder="e.g. 150A"
+                  placeholder="e.g. 150"
                   className="font-serif mt-1"
                   disabled={!canEdit}
                 />
@@ -435,6 +447,10 @@ export function MaintenanceRecordForm({
                 <Label htmlFor="powerFactor" className="font-serif">Power Factor</Label>
                 <Input
                   id="powerFactor"
+                  type="number"
+                  min="0"
+                  max="1"
+                  step="any"
                   value={form.powerFactor}
                   onChange={(e) => setForm({ ...form, powerFactor: e.target.value })}
                   placeholder="e.g. 0.95"
@@ -446,9 +462,11 @@ export function MaintenanceRecordForm({
                 <Label htmlFor="temperature" className="font-serif">Temperature (°C)</Label>
                 <Input
                   id="temperature"
+                  type="number"
+                  step="any"
                   value={form.temperature}
                   onChange={(e) => setForm({ ...form, temperature: e.target.value })}
-                  placeholder="e.g. 85°C"
+                  placeholder="e.g. 85"
                   className="font-serif mt-1"
                   disabled={!canEdit}
                 />
@@ -25,6 +25,8 @@ export interface AnnotationDTO {
   originalDetectionId?: string
   imageId?: string
   transformerId?: string
+  version?: number // Row version as loaded; send it back so stale edits are merged instead of overwriting
+  base?: AnnotationDTO // Box as loaded, lets the server merge non-conflicting concurrent edits
 }
 
 export interface SaveAnnotationsRequest {
@@ -37,6 +39,36 @@ export interface SaveAnnotationsRequest {
 export interface SaveAnnotationsResponse {
   message: string
   count: number
+  inserted?: number
+  updated?: number
+  deleted?: number
+  annotations: AnnotationDTO[]
+  missing?: string[] // Ids that are unknown or belong to another image; not saved
+}
+
+export interface AnnotationChangeSetRequest {
+  userId: string
+  transformerId?: string
+  added: AnnotationDTO[]
+  updated: AnnotationDTO[] // Moved, resized or relabelled boxes; must carry their id
+  deleted: string[]
+}
+
+export interface AnnotationConflict {
+  id: string
+  yours: AnnotationDTO
+  theirs: AnnotationDTO
+}
+
+export interface AnnotationChangeSetResponse {
+  message: string
+  error?: 'conflict' // Set with HTTP 409; non-conflicting edits were still applied
+  inserted: number
+  updated: number
+  merged: number
+  deleted: number
+  missing: string[]
+  conflicts: AnnotationConflict[]
   annotations: AnnotationDTO[]
 }
 
@@ -246,6 +278,45 @@ export async function saveAnnotationsRealtime(
   }
 }
 
+/**
+ * Send only the changed boxes of an inspection
+ * Added boxes come back with their assigned IDs
+ * 
+ * @param inspectionId - The inspection ID
+ * @param changes - Added, updated and deleted boxes
+ * @returns Promise with the applied changes
+ */
+export async function saveInspectionAnnotationChanges(
+  inspectionId: string,
+  changes: AnnotationChangeSetRequest
+): Promise<AnnotationChangeSetResponse | null> {
+  try {
+    const response = await fetch(`${BACKEND_BASE_URL}/inspection-annotations/${inspectionId}/changes`, {
+      method: 'POST',
+      headers: {
+        'Content-Type': 'application/json',
+        ...tokenManager.getAuthHeader(),
+      },
+      body: JSON.stringify(changes),
+    })
+
+    if (response.status === 409) {
+      // Body carries both versions of each conflicting box
+      return await response.json()
+    }
+
+    if (!response.ok) {
+      console.error('Failed to apply annotation changes:', response.status)
+      return null
+    }
+
+    return await response.json()
+  } catch (error) {
+    console.error('Error applying annotation changes:', error)
+    return null
+  }
+}
+
 /**
  * Get annotations for an inspection from the new table
  * 
@@ -17,6 +17,7 @@ export interface SignupData {
 
 export interface AuthResponse {
   token: string;
+  refreshToken: string;
   message: string;
   user: {
     id: string;
@@ -25,6 +26,17 @@ export interface AuthResponse {
   };
 }
 
+// Save tokens and user data
+function saveSession(data: AuthResponse): void {
+  if (data.token) {
+    tokenManager.setToken(data.token);
+    tokenManager.setUser(data.user);
+  }
+  if (data.refreshToken) {
+    tokenManager.setRefreshToken(data.refreshToken);
+  }
+}
+
 export const authApi = {
   // Login with username and password
   async login(credentials: LoginCredentials): Promise<AuthResponse> {
@@ -43,11 +55,7 @@ export const authApi = {
 
     const data = await response.json();
     
-    // Save token and user data
-    if (data.token) {
-      tokenManager.setToken(data.token);
-      tokenManager.setUser(data.user);
-    }
+    saveSession(data);
 
     return data;
   },
@@ -69,15 +77,33 @@ export const authApi = {
 
     const data = await response.json();
     
-    // Save token and user data
-    if (data.token) {
-      tokenManager.setToken(data.token);
-      tokenManager.setUser(data.user);
-    }
+    saveSession(data);
 
     return data;
   },
 
+  // Exchange the stored refresh token for a new access token; returns false if the user must sign in again
+  async refresh(): Promise<boolean> {
+    const refreshToken = tokenManager.getRefreshToken();
+    if (!refreshToken) return false;
+
+    const response = await fetch(`${BACKEND_URL}/auth/refresh`, {
+      method: 'POST',
+      headers: {
+        'Content-Type': 'application/json',
+      },
+      body: JSON.stringify({ refreshToken }),
+    });
+
+    if (!response.ok) {
+      tokenManager.removeToken();
+      return false;
+    }
+
+    saveSession(await response.json());
+    return true;
+  },
+
   // Get current user
   async getCurrentUser() {
     const response = await fetch(`${BACKEND_URL}/auth/me`, {
@@ -104,6 +130,7 @@ export const authApi = {
           'Content-Type': 'application/json',
           ...tokenManager.getAuthHeader(),
         },
+        body: JSON.stringify({ refreshToken: tokenManager.getRefreshToken() }),
       });
     } finally {
       // Always remove token locally, even if API call fails
@@ -58,6 +58,25 @@ export interface BackendInspection {
   updatedAt: string
 }
 
+export interface BackendInspectionSummary {
+  id: string
+  inspectionNo: string | null
+  inspectedAt: string
+  maintenanceDate: string | null
+  status: 'In Progress' | 'Pending' | 'Completed'
+  notes: string | null
+  transformerId: string
+  transformerCode: string
+  baselineImageCount: number
+  maintenanceImageCount: number
+  latestDetectionId: string | null
+  latestDetectionLabel: string | null
+  latestTotalDetections: number | null
+  latestCriticalCount: number | null
+  latestWarningCount: number | null
+  latestDetectedAt: string | null
+}
+
 export interface CreateTransformerRequest {
   code?: string
   poleNo?: string
@@ -124,6 +143,22 @@ async function apiCall<T>(
   }
 }
 
+// Largest page the paged list endpoints (e.g. /images) serve
+const MAX_PAGE_SIZE = 1000
+
+// Fetch every page of a paged list endpoint, stopping at the first short page
+async function apiCallAllPages<T>(endpoint: string): Promise<T[]> {
+  const separator = endpoint.includes('?') ? '&' : '?'
+  const results: T[] = []
+  for (let page = 0; ; page++) {
+    const rows = await apiCall<T[]>(`${endpoint}${separator}page=${page}&limit=${MAX_PAGE_SIZE}`)
+    results.push(...rows)
+    if (rows.length < MAX_PAGE_SIZE) {
+      return results
+    }
+  }
+}
+
 // Transformer API operations
 export const transformerApi = {
   // Get all transformers
@@ -164,7 +199,7 @@ export const transformerApi = {
 export const imageApi = {
   // Get all images
   async getAll(): Promise<BackendImage[]> {
-    return apiCall<BackendImage[]>('/images')
+    return apiCallAllPages<BackendImage>('/images')
   },
 
   // Get baseline image for transformer
@@ -189,22 +224,22 @@ export const imageApi = {
 
   // Get images by transformer ID
   async getByTransformerId(transformerId: string): Promise<BackendImage[]> {
-    return apiCall<BackendImage[]>(`/images?transformerId=${transformerId}`)
+    return apiCallAllPages<BackendImage>(`/images?transformerId=${transformerId}`)
   },
 
   // Get images by transformer ID and image type
   async getByTransformerIdAndType(transformerId: string, imageType: string): Promise<BackendImage[]> {
-    return apiCall<BackendImage[]>(`/images?transformerId=${transformerId}&imageType=${imageType}`)
+    return apiCallAllPages<BackendImage>(`/images?transformerId=${transformerId}&imageType=${imageType}`)
   },
 
   // Get images by inspection ID
   async getByInspectionId(inspectionId: string): Promise<BackendImage[]> {
-    return apiCall<BackendImage[]>(`/images?inspectionId=${inspectionId}`)
+    return apiCallAllPages<BackendImage>(`/images?inspectionId=${inspectionId}`)
   },
 
   // Get images by image type
   async getByType(imageType: string): Promise<BackendImage[]> {
-    return apiCall<BackendImage[]>(`/images?imageType=${imageType}`)
+    return apiCallAllPages<BackendImage>(`/images?imageType=${imageType}`)
   },
 
   // Get image by ID
@@ -282,6 +317,11 @@ export const inspectionApi = {
     return apiCall<BackendInspection[]>('/inspections')
   },
 
+  // Get one page of inspection list rows with image counts and latest detection
+  async getSummaries(page = 0, limit = 50): Promise<BackendInspectionSummary[]> {
+    return apiCall<BackendInspectionSummary[]>(`/inspections/summary?page=${page}&limit=${limit}`)
+  },
+
   // Get inspections by transformer ID
   async getByTransformerId(transformerId: string): Promise<BackendInspection[]> {
     return apiCall<BackendInspection[]>(`/inspections?transformerId=${transformerId}`)
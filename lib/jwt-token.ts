@@ -2,6 +2,7 @@
 
 const TOKEN_KEY = 'jwt_token';
 const USER_KEY = 'user_data';
+const REFRESH_TOKEN_KEY = 'refresh_token';
 
 export const tokenManager = {
   // Save token to localStorage
@@ -19,10 +20,26 @@ export const tokenManager = {
     return null;
   },
 
-  // Remove token from localStorage
+  // Save refresh token to localStorage
+  setRefreshToken(token: string): void {
+    if (typeof window !== 'undefined') {
+      localStorage.setItem(REFRESH_TOKEN_KEY, token);
+    }
+  },
+
+  // Get refresh token from localStorage
+  getRefreshToken(): string | null {
+    if (typeof window !== 'undefined') {
+      return localStorage.getItem(REFRESH_TOKEN_KEY);
+    }
+    return null;
+  },
+
+  // Remove tokens from localStorage
   removeToken(): void {
     if (typeof window !== 'undefined') {
       localStorage.removeItem(TOKEN_KEY);
+      localStorage.removeItem(REFRESH_TOKEN_KEY);
       localStorage.removeItem(USER_KEY);
     }
   },
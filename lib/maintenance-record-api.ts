@@ -1,13 +1,22 @@
 // Maintenance Record API calls for Phase 4
-import { MaintenanceRecord, CreateMaintenanceRecordRequest, UpdateMaintenanceRecordRequest } from './types'
+import {
+  MaintenanceRecord,
+  CreateMaintenanceRecordRequest,
+  UpdateMaintenanceRecordRequest,
+  TransformerStatus,
+  ReadingKey,
+  ReadingTrends,
+  ReadingSeries,
+  ReadingAlert,
+} from './types'
 import { tokenManager } from './jwt-token'
 
 const BACKEND_URL = process.env.NEXT_PUBLIC_BACKEND_URL || 'http://localhost:8080/api'
 
 export const maintenanceRecordApi = {
-  // Get all maintenance records
-  async getAll(): Promise<MaintenanceRecord[]> {
-    const response = await fetch(`${BACKEND_URL}/maintenance-records`, {
+  // Get maintenance records, newest first (page size up to 1000)
+  async getAll(page = 0, limit = 500): Promise<MaintenanceRecord[]> {
+    const response = await fetch(`${BACKEND_URL}/maintenance-records?page=${page}&limit=${limit}`, {
       method: 'GET',
       headers: {
         'Content-Type': 'application/json',
@@ -60,9 +69,9 @@ export const maintenanceRecordApi = {
     return response.json()
   },
 
-  // Get all maintenance records for a transformer
-  async getByTransformerId(transformerId: string): Promise<MaintenanceRecord[]> {
-    const response = await fetch(`${BACKEND_URL}/maintenance-records/transformer/${transformerId}`, {
+  // Get maintenance records for a transformer, newest first
+  async getByTransformerId(transformerId: string, page = 0, limit = 500): Promise<MaintenanceRecord[]> {
+    const response = await fetch(`${BACKEND_URL}/maintenance-records/transformer/${transformerId}?page=${page}&limit=${limit}`, {
       method: 'GET',
       headers: {
         'Content-Type': 'application/json',
@@ -77,6 +86,23 @@ export const maintenanceRecordApi = {
     return response.json()
   },
 
+  // Current status of every transformer from its latest maintenance record
+  async getLatestPerTransformer(): Promise<TransformerStatus[]> {
+    const response = await fetch(`${BACKEND_URL}/maintenance-records/latest`, {
+      method: 'GET',
+      headers: {
+        'Content-Type': 'application/json',
+        ...tokenManager.getAuthHeader(),
+      },
+    })
+
+    if (!response.ok) {
+      throw new Error('Failed to fetch latest maintenance records')
+    }
+
+    return response.json()
+  },
+
   // Create a new maintenance record
   async create(data: CreateMaintenanceRecordRequest): Promise<MaintenanceRecord> {
     const response = await fetch(`${BACKEND_URL}/maintenance-records`, {
@@ -129,4 +155,60 @@ export const maintenanceRecordApi = {
       throw new Error(`Failed to delete maintenance record: ${id}`)
     }
   },
+
+  // Rolling statistics of each reading of a transformer
+  async getReadingTrends(transformerId: string): Promise<ReadingTrends> {
+    const response = await fetch(`${BACKEND_URL}/analytics/readings/${transformerId}`, {
+      method: 'GET',
+      headers: {
+        'Content-Type': 'application/json',
+        ...tokenManager.getAuthHeader(),
+      },
+    })
+
+    if (!response.ok) {
+      throw new Error(`Failed to fetch reading trends for transformer: ${transformerId}`)
+    }
+
+    return response.json()
+  },
+
+  // One reading over time, downsampled server-side to at most `points` points for sparklines
+  async getReadingSeries(transformerId: string, reading: ReadingKey, points = 300): Promise<ReadingSeries> {
+    const params = new URLSearchParams({ reading, points: String(points) })
+    const response = await fetch(`${BACKEND_URL}/analytics/readings/${transformerId}/series?${params}`, {
+      method: 'GET',
+      headers: {
+        'Content-Type': 'application/json',
+        ...tokenManager.getAuthHeader(),
+      },
+    })
+
+    if (!response.ok) {
+      throw new Error(`Failed to fetch ${reading} series for transformer: ${transformerId}`)
+    }
+
+    return response.json()
+  },
+
+  // Most recent drift alerts, of one transformer or of all
+  async getReadingAlerts(transformerId?: string, limit = 50): Promise<ReadingAlert[]> {
+    const params = new URLSearchParams({ limit: String(limit) })
+    if (transformerId) {
+      params.set('transformerId', transformerId)
+    }
+    const response = await fetch(`${BACKEND_URL}/analytics/readings/alerts?${params}`, {
+      method: 'GET',
+      headers: {
+        'Content-Type': 'application/json',
+        ...tokenManager.getAuthHeader(),
+      },
+    })
+
+    if (!response.ok) {
+      throw new Error('Failed to fetch reading alerts')
+    }
+
+    return response.json()
+  },
 }
@@ -201,10 +201,10 @@ export interface MaintenanceRecord {
   transformer: { id: string }
   inspectorName: string | null
   transformerStatus: 'OK' | 'Needs Maintenance' | 'Urgent Attention' | null
-  voltageReading: string | null
-  currentReading: string | null
-  powerFactor: string | null
-  temperature: string | null
+  voltageReading: number | null // Volts
+  currentReading: number | null // Amperes
+  powerFactor: number | null // 0 to 1
+  temperature: number | null // Degrees Celsius
   recommendedAction: string | null
   additionalRemarks: string | null
   completionDate: string | null
@@ -216,10 +216,10 @@ export interface CreateMaintenanceRecordRequest {
   inspectionId: string
   inspectorName?: string
   transformerStatus?: 'OK' | 'Needs Maintenance' | 'Urgent Attention'
-  voltageReading?: string
-  currentReading?: string
-  powerFactor?: string
-  temperature?: string
+  voltageReading?: number
+  currentReading?: number
+  powerFactor?: number
+  temperature?: number
   recommendedAction?: string
   additionalRemarks?: string
   completionDate?: string
@@ -228,11 +228,68 @@ export interface CreateMaintenanceRecordRequest {
 export interface UpdateMaintenanceRecordRequest {
   inspectorName?: string
   transformerStatus?: 'OK' | 'Needs Maintenance' | 'Urgent Attention'
-  voltageReading?: string
-  currentReading?: string
-  powerFactor?: string
-  temperature?: string
+  voltageReading?: number
+  currentReading?: number
+  powerFactor?: number
+  temperature?: number
   recommendedAction?: string
   additionalRemarks?: string
   completionDate?: string
+}
+
+// Dashboard row: a transformer with its latest maintenance record (record fields null when it has none)
+export interface TransformerStatus {
+  transformerId: string
+  transformerCode: string
+  region: string | null
+  transformerStatus: string | null
+  latestRecordId: string | null
+  inspectionId: string | null
+  maintenanceStatus: 'OK' | 'Needs Maintenance' | 'Urgent Attention' | null
+  inspectorName: string | null
+  voltageReading: number | null
+  currentReading: number | null
+  powerFactor: number | null
+  temperature: number | null
+  recordedAt: string | null
+}
+
+// Trend analytics of maintenance readings
+export type ReadingKey = 'voltageReading' | 'currentReading' | 'powerFactor' | 'temperature'
+
+export interface ReadingTrend {
+  samples: number
+  ewma: number | null
+  ewmStdDev: number | null
+  min: number | null
+  max: number | null
+  last: number | null
+  lastZScore: number | null
+  updatedAt: string | null
+}
+
+export interface ReadingTrends {
+  transformerId: string
+  alpha: number
+  zThreshold: number
+  readings: Partial<Record<ReadingKey, ReadingTrend>>
+}
+
+export interface ReadingSeries {
+  transformerId: string
+  reading: ReadingKey
+  samples: number
+  points: { t: number; v: number }[] // t in epoch milliseconds
+}
+
+export interface ReadingAlert {
+  id: string
+  transformerId: string
+  maintenanceRecordId: string | null
+  reading: ReadingKey
+  value: number
+  expected: number
+  zScore: number
+  direction: 'HIGH' | 'LOW'
+  createdAt: string
 }
\ No newline at end of file
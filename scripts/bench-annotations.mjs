@@ -0,0 +1,85 @@
+#!/usr/bin/env node
+
+/**
+ * Annotation endpoint latency benchmark
+ * Reports p50/p95 of GET /inspection-annotations/{id}, GET /annotations/image/{id} and POST /annotations/save
+ *
+ * Run with: node scripts/bench-annotations.mjs <inspectionId> [iterations]
+ * Env: BACKEND_URL (default http://localhost:8080/api), BENCH_USER, BENCH_PASSWORD
+ */
+
+// Using built-in fetch (Node.js 18+)
+
+const BACKEND_URL = process.env.BACKEND_URL || 'http://localhost:8080/api';
+const [inspectionId, iterationsArg] = process.argv.slice(2);
+const iterations = Number(iterationsArg || 200);
+
+if (!inspectionId) {
+  console.error('Usage: node scripts/bench-annotations.mjs <inspectionId> [iterations]');
+  process.exit(1);
+}
+
+async function login() {
+  const response = await fetch(`${BACKEND_URL}/auth/login`, {
+    method: 'POST',
+    headers: { 'Content-Type': 'application/json' },
+    body: JSON.stringify({
+      username: process.env.BENCH_USER || 'admin',
+      password: process.env.BENCH_PASSWORD || 'admin123'
+    })
+  });
+  if (!response.ok) {
+    throw new Error(`Login failed: ${response.status}`);
+  }
+  return (await response.json()).token;
+}
+
+function percentile(sorted, p) {
+  return sorted[Math.min(sorted.length - 1, Math.floor(sorted.length * p))];
+}
+
+async function measure(name, request, onBody) {
+  for (let i = 0; i < 10; i++) await request(); // Warm up
+  const timings = [];
+  for (let i = 0; i < iterations; i++) {
+    const start = process.hrtime.bigint();
+    const response = await request();
+    const body = await response.json();
+    timings.push(Number(process.hrtime.bigint() - start) / 1e6);
+    if (!response.ok) {
+      throw new Error(`${name} failed: ${response.status}`);
+    }
+    onBody?.(body);
+  }
+  timings.sort((a, b) => a - b);
+  console.log(`${name.padEnd(36)} p50 ${percentile(timings, 0.5).toFixed(2)} ms   p95 ${percentile(timings, 0.95).toFixed(2)} ms`);
+}
+
+async function main() {
+  const token = await login();
+  const headers = { 'Content-Type': 'application/json', Authorization: `Bearer ${token}` };
+  console.log(`Benchmarking inspection ${inspectionId}, ${iterations} requests per endpoint\n`);
+
+  await measure('GET /inspection-annotations/{id}', () =>
+    fetch(`${BACKEND_URL}/inspection-annotations/${inspectionId}`, { headers }));
+
+  await measure('GET /annotations/image/{id}', () =>
+    fetch(`${BACKEND_URL}/annotations/image/${inspectionId}`, { headers }));
+
+  // Re-saves the current boxes unchanged, so the data is left as it was
+  const current = await (await fetch(`${BACKEND_URL}/annotations/image/${inspectionId}`, { headers })).json();
+  let annotations = current.filter(a => a.action !== 'deleted');
+  await measure(`POST /annotations/save (${annotations.length} boxes)`, () =>
+    fetch(`${BACKEND_URL}/annotations/save`, {
+      method: 'POST',
+      headers,
+      body: JSON.stringify({ imageId: inspectionId, userId: 'bench', annotations })
+    }),
+    body => { annotations = body.annotations; } // Carry the new row versions into the next save
+  );
+}
+
+main().catch(error => {
+  console.error(`❌ ${error.message}`);
+  process.exit(1);
+});
@@ -0,0 +1,104 @@
+#!/usr/bin/env node
+
+/**
+ * SQL statement count regression check
+ * Calls each read endpoint listed in scripts/query-budgets.json and compares the mean number of SQL statements
+ * per request (from GET /health/db) with its budget. Exits with 1 when an endpoint goes over, e.g. after an
+ * association is made EAGER again or an endpoint starts walking lazy associations one row at a time
+ *
+ * Run with: node scripts/check-query-counts.mjs
+ * Env: BACKEND_URL (default http://localhost:8080/api), BENCH_USER, BENCH_PASSWORD (an ADMIN account)
+ */
+
+// Using built-in fetch (Node.js 18+)
+
+import { readFileSync } from 'node:fs';
+
+const BACKEND_URL = process.env.BACKEND_URL || 'http://localhost:8080/api';
+const budgets = JSON.parse(readFileSync(new URL('./query-budgets.json', import.meta.url), 'utf8'));
+
+async function login() {
+  const response = await fetch(`${BACKEND_URL}/auth/login`, {
+    method: 'POST',
+    headers: { 'Content-Type': 'application/json' },
+    body: JSON.stringify({
+      username: process.env.BENCH_USER || 'admin',
+      password: process.env.BENCH_PASSWORD || 'admin123'
+    })
+  });
+  if (!response.ok) {
+    throw new Error(`Login failed: ${response.status}`);
+  }
+  return (await response.json()).token;
+}
+
+async function getJson(path, headers) {
+  const response = await fetch(`${BACKEND_URL}${path}`, { headers });
+  if (!response.ok) {
+    throw new Error(`GET ${path} failed: ${response.status}`);
+  }
+  return response.json();
+}
+
+async function main() {
+  const token = await login();
+  const headers = { Authorization: `Bearer ${token}` };
+
+  const [summary] = await getJson('/inspections/summary?limit=1', headers);
+  if (!summary) {
+    throw new Error('No inspections found; seed the database first (node scripts/seed.mjs)');
+  }
+  const records = await getJson(`/maintenance-records/inspection/${summary.id}`, headers).catch(() => null);
+  const images = await getJson(`/images?inspectionId=${summary.id}&limit=1`, headers);
+
+  const paths = {
+    'GET /transformers': '/transformers',
+    'GET /transformers/{id}': `/transformers/${summary.transformerId}`,
+    'GET /inspections': '/inspections',
+    'GET /inspections/summary': '/inspections/summary',
+    'GET /inspections/{id}': `/inspections/${summary.id}`,
+    'GET /maintenance-records': '/maintenance-records',
+    'GET /maintenance-records/latest': '/maintenance-records/latest',
+    'GET /maintenance-records/{id}': records ? `/maintenance-records/${records.id}` : null,
+    'GET /maintenance-records/inspection/{inspectionId}': `/maintenance-records/inspection/${summary.id}`,
+    'GET /maintenance-records/transformer/{transformerId}': `/maintenance-records/transformer/${summary.transformerId}`,
+    'GET /anomalies/history/transformer/{transformerId}': `/anomalies/history/transformer/${summary.transformerId}`,
+    'GET /anomalies/history/inspection/{inspectionId}': `/anomalies/history/inspection/${summary.id}`,
+    'GET /anomalies/history': '/anomalies/history?startDate=2000-01-01T00:00:00&endDate=2100-01-01T00:00:00',
+    'GET /images': '/images',
+    'GET /images/{id}': images.length ? `/images/${images[0].id}` : null
+  };
+
+  const before = (await getJson('/health/db', headers)).poolWaitByEndpoint;
+  for (const [endpoint, path] of Object.entries(paths)) {
+    if (path && budgets[endpoint] !== undefined) {
+      await fetch(`${BACKEND_URL}${path}`, { headers }); // Status does not matter; 404s are counted too
+    }
+  }
+  const after = (await getJson('/health/db', headers)).poolWaitByEndpoint;
+
+  let failures = 0;
+  for (const [endpoint, budget] of Object.entries(budgets)) {
+    if (!paths[endpoint]) {
+      console.log(`-  ${endpoint.padEnd(52)} skipped (no data)`);
+      continue;
+    }
+    const requests = (after[endpoint]?.requests ?? 0) - (before[endpoint]?.requests ?? 0);
+    const statements = (after[endpoint]?.sqlStatements ?? 0) - (before[endpoint]?.sqlStatements ?? 0);
+    const perRequest = requests > 0 ? statements / requests : 0;
+    const ok = perRequest <= budget;
+    if (!ok) failures++;
+    console.log(`${ok ? '✅' : '❌'} ${endpoint.padEnd(52)} ${perRequest.toFixed(1)} statement(s), budget ${budget}`);
+  }
+
+  if (failures > 0) {
+    console.error(`\n❌ ${failures} endpoint(s) over their SQL statement budget`);
+    process.exit(1);
+  }
+  console.log('\n✅ All endpoints within their SQL statement budgets');
+}
+
+main().catch(error => {
+  console.error(`❌ ${error.message}`);
+  process.exit(1);
+});